@@ -1,11 +1,15 @@
 package dev.zarr.zarrjava.core;
 
 import dev.zarr.zarrjava.ZarrException;
+import dev.zarr.zarrjava.core.chunkkeyencoding.ChunkKeyEncoder;
 import dev.zarr.zarrjava.core.codec.CodecPipeline;
 import dev.zarr.zarrjava.store.FilesystemStore;
 import dev.zarr.zarrjava.store.StoreHandle;
+import dev.zarr.zarrjava.utils.ChunkCoordsSpliterator;
+import dev.zarr.zarrjava.utils.ExecutionContext;
 import dev.zarr.zarrjava.utils.IndexingUtils;
 import dev.zarr.zarrjava.utils.MultiArrayUtils;
+import dev.zarr.zarrjava.utils.SingleFlight;
 import dev.zarr.zarrjava.utils.Utils;
 import ucar.ma2.InvalidRangeException;
 
@@ -15,13 +19,48 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public abstract class Array extends AbstractNode {
+public abstract class Array extends AbstractNode implements AutoCloseable {
 
     protected CodecPipeline codecPipeline;
+    /**
+     * @deprecated Parallelism is configured with {@link #withExecutionContext(ExecutionContext)} or
+     * {@link ExecutionContext#setDefault(ExecutionContext)}.
+     */
+    @Deprecated
     public static final boolean DEFAULT_PARALLELISM = true;
+    /**
+     * Concurrent reads of the same chunk, also across arrays that are opened on the same store, share
+     * one fetch. Chunks that go into a cache are also decoded only once, as the decoded chunk is shared
+     * anyway.
+     */
+    private static final SingleFlight<ChunkCache.Key, ByteBuffer> CHUNK_FETCHES = new SingleFlight<>();
+    private static final SingleFlight<ChunkCache.Key, ucar.ma2.Array> CHUNK_DECODES = new SingleFlight<>();
+    @Nullable
+    protected ChunkCache chunkCache;
+    @Nullable
+    protected ShardIndexCache shardIndexCache;
+    @Nullable
+    protected ExecutionContext executionContext;
+    @Nullable
+    protected Prefetcher prefetcher;
+    @Nullable
+    private WriteBuffer writeBuffer;
 
     protected Array(StoreHandle storeHandle) throws ZarrException {
         super(storeHandle);
@@ -72,6 +111,140 @@ public abstract class Array extends AbstractNode {
 
     public abstract ArrayMetadata metadata();
 
+    /**
+     * Sets a cache for decoded chunks that is consulted by the read methods before chunks are fetched
+     * from the store and decoded. The same cache may be shared by multiple arrays. Reads of regions of
+     * sharded arrays only decode the needed inner chunks and bypass the cache; they are sped up by a
+     * {@link #withShardIndexCache(ShardIndexCache) shard index cache} instead.
+     *
+     * @param chunkCache the cache to use or null to disable caching
+     */
+    public Array withChunkCache(@Nullable ChunkCache chunkCache) {
+        this.chunkCache = chunkCache;
+        return this;
+    }
+
+    @Nullable
+    public ChunkCache chunkCache() {
+        return chunkCache;
+    }
+
+    /**
+     * Sets a cache for the decoded indexes of shards, so that repeated partial reads of the same shard,
+     * e.g. of small tiles, fetch its index only once. Shards that are written through this array are
+     * dropped from the cache. The same cache may be shared by multiple arrays. Arrays without sharding
+     * do not use the cache.
+     *
+     * @param shardIndexCache the cache to use or null to disable caching
+     */
+    public Array withShardIndexCache(@Nullable ShardIndexCache shardIndexCache) {
+        this.shardIndexCache = shardIndexCache;
+        codecPipeline.setShardIndexCache(shardIndexCache);
+        return this;
+    }
+
+    @Nullable
+    public ShardIndexCache shardIndexCache() {
+        return shardIndexCache;
+    }
+
+    /**
+     * Sets the execution context that parallelizes the chunk-level work of this array, including the
+     * work within sharding codecs. Arrays without an explicitly set context use
+     * {@link ExecutionContext#getDefault()}.
+     *
+     * @param executionContext the execution context or null to use the default
+     */
+    public Array withExecutionContext(@Nullable ExecutionContext executionContext) {
+        this.executionContext = executionContext;
+        codecPipeline.setExecutionContext(executionContext);
+        return this;
+    }
+
+    @Nonnull
+    public ExecutionContext executionContext() {
+        return executionContext != null ? executionContext : ExecutionContext.getDefault();
+    }
+
+    /**
+     * Enables fetching chunks ahead of sequential reads, which hides the latency of remote stores when
+     * an array is scanned region by region. Chunks are fetched ahead on the I/O executor of the
+     * execution context, so a sequential context disables prefetching.
+     *
+     * @param prefetcher the prefetcher to use or null to disable prefetching
+     */
+    public Array withPrefetcher(@Nullable Prefetcher prefetcher) {
+        this.prefetcher = prefetcher;
+        return this;
+    }
+
+    @Nullable
+    public Prefetcher prefetcher() {
+        return prefetcher;
+    }
+
+    /**
+     * Enables buffering partial chunk writes in memory, so that a chunk that is written in many pieces
+     * is encoded and stored once. Buffered chunks are stored when they have been written completely,
+     * when they are evicted to stay within {@code maxBytes}, or on {@link #flush()} and {@link #close()}.
+     * All other reads and writes of the array flush the buffer first. Chunks that are written completely
+     * are never read from the store. Pending writes of a previously set buffer are flushed.
+     *
+     * @param maxBytes the maximum number of bytes of the buffered chunks or 0 to disable buffering
+     */
+    public Array withWriteBuffer(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("'maxBytes' needs to be non-negative.");
+        }
+        flush();
+        this.writeBuffer = maxBytes > 0 ? new WriteBuffer(maxBytes) : null;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of bytes of the write buffer or 0 if writes are not buffered
+     */
+    public long writeBufferMaxBytes() {
+        final WriteBuffer writeBuffer = this.writeBuffer;
+        return writeBuffer != null ? writeBuffer.maxBytes() : 0;
+    }
+
+    /**
+     * Encodes and stores the chunks with buffered writes, see {@link #withWriteBuffer(long)}.
+     */
+    public void flush() {
+        final WriteBuffer writeBuffer = this.writeBuffer;
+        if (writeBuffer != null) {
+            writeBuffer.flush(this);
+        }
+    }
+
+    /**
+     * Flushes the buffered writes.
+     */
+    @Override
+    public void close() {
+        flush();
+    }
+
+    ExecutionContext executionContext(boolean parallel) {
+        return parallel ? executionContext() : ExecutionContext.SEQUENTIAL;
+    }
+
+    /**
+     * Carries the runtime settings of this array, e.g. the chunk cache, over to a new instance of the
+     * same array, such as the ones returned by {@link #resize(long[])}.
+     *
+     * @param other the new instance of the array
+     */
+    protected void copySettingsTo(Array other) {
+        other.chunkCache = chunkCache;
+        other.prefetcher = prefetcher;
+        other.writeBuffer = writeBuffer;
+        other.withShardIndexCache(shardIndexCache);
+        other.withExecutionContext(executionContext);
+    }
+
     /**
      * Writes a ucar.ma2.Array into the Zarr array at a specified offset. The shape of the Zarr array
      * needs be large enough for the write.
@@ -92,42 +265,54 @@ public abstract class Array extends AbstractNode {
         long[] shape = Utils.toLongArray(array.getShape());
 
         final int[] chunkShape = metadata.chunkShape();
-        Stream<long[]> chunkStream = Arrays.stream(IndexingUtils.computeChunkCoords(metadata.shape, chunkShape, offset, shape));
-        if (parallel) {
-            chunkStream = chunkStream.parallel();
-        }
-        chunkStream.forEach(
-                chunkCoords -> {
-                    try {
-                        final IndexingUtils.ChunkProjection chunkProjection =
-                                IndexingUtils.computeProjection(chunkCoords, metadata.shape, chunkShape, offset,
-                                        shape
-                                );
+        final WriteBuffer writeBuffer = this.writeBuffer;
+        executionContext(parallel).forEachIo(
+                IndexingUtils.chunkCoordsIterator(metadata.shape, chunkShape, offset, shape),
+                () -> {
+                    final ChunkCursor cursor = new ChunkCursor(metadata, storeHandle, offset, shape);
+                    return chunkCoords -> {
+                        try {
+                            final IndexingUtils.ChunkProjection chunkProjection = cursor.project(chunkCoords);
+                            final StoreHandle chunkHandle = cursor.chunkHandle(chunkCoords);
 
-                        ucar.ma2.Array chunkArray;
-                        if (IndexingUtils.isFullChunk(chunkProjection.chunkOffset, chunkProjection.shape,
-                                chunkShape
-                        )) {
-                            chunkArray = array.sectionNoReduce(chunkProjection.outOffset,
-                                    chunkProjection.shape,
-                                    null
-                            );
-                        } else {
-                            chunkArray = readChunk(chunkCoords);
-                            MultiArrayUtils.copyRegion(array, chunkProjection.outOffset, chunkArray,
-                                    chunkProjection.chunkOffset, chunkProjection.shape
-                            );
+                            ucar.ma2.Array chunkArray;
+                            if (IndexingUtils.isFullChunk(chunkProjection.chunkOffset, chunkProjection.shape,
+                                    chunkShape
+                            )) {
+                                if (writeBuffer != null) {
+                                    writeBuffer.discard(chunkHandle);
+                                }
+                                chunkArray = array.sectionNoReduce(chunkProjection.outOffset,
+                                        chunkProjection.shape,
+                                        null
+                                );
+                            } else if (writeBuffer != null) {
+                                writeBuffer.write(this, chunkHandle, chunkCoords, array,
+                                        chunkProjection.outOffset, chunkProjection.chunkOffset, chunkProjection.shape);
+                                return;
+                            } else if (codecPipeline.supportsPartialDecode()) {
+                                // Only the parts of the chunk that are written to are re-encoded
+                                writeChunkBytes(chunkHandle, codecPipeline.encodePartial(fetchChunk(chunkHandle),
+                                        array, chunkProjection.outOffset, chunkProjection.chunkOffset,
+                                        chunkProjection.shape));
+                                return;
+                            } else {
+                                chunkArray = readChunkCopy(chunkHandle);
+                                MultiArrayUtils.copyRegion(array, chunkProjection.outOffset, chunkArray,
+                                        chunkProjection.chunkOffset, chunkProjection.shape
+                                );
+                            }
+                            writeChunk(chunkHandle, chunkArray);
+                        } catch (ZarrException e) {
+                            throw new RuntimeException(
+                                    "Failed to write chunk at coordinates " + Arrays.toString(chunkCoords) +
+                                    ": " + e.getMessage(), e);
+                        } catch (InvalidRangeException e) {
+                            throw new RuntimeException(
+                                    "Invalid array range when writing chunk at coordinates " +
+                                    Arrays.toString(chunkCoords) + ": " + e.getMessage(), e);
                         }
-                        writeChunk(chunkCoords, chunkArray);
-                    } catch (ZarrException e) {
-                        throw new RuntimeException(
-                                "Failed to write chunk at coordinates " + Arrays.toString(chunkCoords) +
-                                ": " + e.getMessage(), e);
-                    } catch (InvalidRangeException e) {
-                        throw new RuntimeException(
-                                "Invalid array range when writing chunk at coordinates " + Arrays.toString(chunkCoords) +
-                                ": " + e.getMessage(), e);
-                    }
+                    };
                 });
 
     }
@@ -142,17 +327,57 @@ public abstract class Array extends AbstractNode {
      * @throws ZarrException throws ZarrException if the write fails
      */
     public void writeChunk(long[] chunkCoords, ucar.ma2.Array chunkArray) throws ZarrException {
-        ArrayMetadata metadata = metadata();
-        String[] chunkKeys = metadata.chunkKeyEncoding().encodeChunkKey(chunkCoords);
-        StoreHandle chunkHandle = storeHandle.resolve(chunkKeys);
-        Object parsedFillValue = metadata.parsedFillValue();
+        String[] chunkKeys = metadata().chunkKeyEncoding().encodeChunkKey(chunkCoords);
+        final StoreHandle chunkHandle = storeHandle.resolve(chunkKeys);
+        // The chunk is overwritten completely, so its buffered writes are obsolete
+        final WriteBuffer writeBuffer = this.writeBuffer;
+        if (writeBuffer != null) {
+            writeBuffer.discard(chunkHandle);
+        }
+        writeChunk(chunkHandle, chunkArray);
+    }
+
+    void writeChunk(StoreHandle chunkHandle, ucar.ma2.Array chunkArray) throws ZarrException {
+        Object parsedFillValue = metadata().parsedFillValue();
 
         if (parsedFillValue != null && MultiArrayUtils.allValuesEqual(chunkArray, parsedFillValue)) {
+            writeChunkBytes(chunkHandle, null);
+        } else {
+            writeChunkBytes(chunkHandle, codecPipeline.encode(chunkArray));
+        }
+    }
+
+    /**
+     * Stores an encoded chunk, or deletes it if the bytes are null, and drops its cached copies.
+     */
+    private void writeChunkBytes(StoreHandle chunkHandle, @Nullable ByteBuffer chunkBytes) {
+        if (chunkBytes == null) {
             chunkHandle.delete();
         } else {
-            ByteBuffer chunkBytes = codecPipeline.encode(chunkArray);
             chunkHandle.set(chunkBytes);
         }
+        invalidateChunk(chunkHandle);
+    }
+
+    /**
+     * Drops the in-flight, cached and prefetched copies of a chunk after it has been written or deleted.
+     * The reads in flight are detached first, so that later reads do not receive the chunk from before
+     * the write and the detached reads do not cache it after the caches have been invalidated.
+     */
+    private void invalidateChunk(StoreHandle chunkHandle) {
+        final ChunkCache.Key key = new ChunkCache.Key(chunkHandle);
+        CHUNK_DECODES.forget(key);
+        CHUNK_FETCHES.forget(key);
+        codecPipeline.invalidate(chunkHandle);
+        if (chunkCache != null) {
+            chunkCache.invalidate(chunkHandle);
+        }
+        if (shardIndexCache != null) {
+            shardIndexCache.invalidate(chunkHandle);
+        }
+        if (prefetcher != null) {
+            prefetcher.invalidate(chunkHandle);
+        }
     }
 
     /**
@@ -165,20 +390,110 @@ public abstract class Array extends AbstractNode {
      */
     @Nonnull
     public ucar.ma2.Array readChunk(long[] chunkCoords) throws ZarrException {
-        ArrayMetadata metadata = metadata();
         if (!chunkIsInArray(chunkCoords)) {
             throw new ZarrException("Attempting to read data outside of the array's domain.");
         }
 
-        final String[] chunkKeys = metadata.chunkKeyEncoding().encodeChunkKey(chunkCoords);
-        final StoreHandle chunkHandle = storeHandle.resolve(chunkKeys);
+        flush();
+        final String[] chunkKeys = metadata().chunkKeyEncoding().encodeChunkKey(chunkCoords);
+        return readChunkCopy(storeHandle.resolve(chunkKeys));
+    }
 
-        ByteBuffer chunkBytes = chunkHandle.read();
-        if (chunkBytes == null) {
-            return metadata.allocateFillValueChunk();
+    /**
+     * Reads one chunk into an array that is owned by the caller, falling back to the fill value if the
+     * chunk does not exist.
+     */
+    @Nonnull
+    ucar.ma2.Array readChunkCopy(StoreHandle chunkHandle) throws ZarrException {
+        ucar.ma2.Array chunkArray = readChunk(chunkHandle);
+        if (chunkArray == null) {
+            return metadata().allocateFillValueChunk();
+        }
+        // Cached chunks are shared, so callers get their own copy
+        return chunkCache != null ? chunkArray.copy() : chunkArray;
+    }
+
+    /**
+     * Reads and decodes one chunk, consulting the chunk cache if one is set. The returned array may be
+     * shared with the cache and must not be modified.
+     *
+     * @param chunkHandle the storage location of the chunk
+     * @return the decoded chunk or null if the chunk does not exist
+     * @throws ZarrException throws ZarrException if the chunk cannot be decoded
+     */
+    @Nullable
+    ucar.ma2.Array readChunk(StoreHandle chunkHandle) throws ZarrException {
+        if (chunkCache != null) {
+            ucar.ma2.Array cachedChunkArray = chunkCache.get(chunkHandle);
+            if (cachedChunkArray != null) {
+                return cachedChunkArray;
+            }
+        }
+        return readChunkUncached(chunkHandle);
+    }
+
+    /**
+     * Looks up a chunk for a read of a region. Codecs with partial decoding, e.g. sharding, only decode the
+     * requested parts of the chunk, which are not cached, so the cache is not consulted for them.
+     *
+     * @return the cached chunk or null if it is not cached or the codecs support partial decoding
+     */
+    @Nullable
+    private ucar.ma2.Array cachedRegionChunk(StoreHandle chunkHandle) {
+        final ChunkCache chunkCache = this.chunkCache;
+        return chunkCache != null && !codecPipeline.supportsPartialDecode() ? chunkCache.get(chunkHandle) : null;
+    }
+
+    @Nullable
+    private ucar.ma2.Array readChunkUncached(StoreHandle chunkHandle) throws ZarrException {
+        final ChunkCache chunkCache = this.chunkCache;
+        if (chunkCache == null) {
+            ByteBuffer chunkBytes = fetchChunk(chunkHandle);
+            return chunkBytes != null ? codecPipeline.decode(chunkBytes) : null;
+        }
+        // Chunks that are written while they are decoded are not cached
+        return CHUNK_DECODES.load(new ChunkCache.Key(chunkHandle), () -> {
+            ByteBuffer chunkBytes = fetchChunk(chunkHandle);
+            return chunkBytes != null ? codecPipeline.decode(chunkBytes) : null;
+        }, chunkArray -> chunkCache.put(chunkHandle, chunkArray));
+    }
+
+    /**
+     * Fetches the encoded bytes of a chunk, sharing the fetch with concurrent reads of the same chunk or
+     * taking it from the prefetcher. Every caller gets its own view of the bytes, which must not be
+     * modified.
+     */
+    @Nullable
+    private ByteBuffer fetchChunk(StoreHandle chunkHandle) {
+        final CompletableFuture<ByteBuffer> prefetched = takePrefetched(chunkHandle);
+        ByteBuffer chunkBytes = prefetched != null ? joinPrefetched(prefetched) :
+                CHUNK_FETCHES.load(new ChunkCache.Key(chunkHandle), chunkHandle::read);
+        return chunkBytes != null ? chunkBytes.duplicate() : null;
+    }
+
+    @Nullable
+    private CompletableFuture<ByteBuffer> takePrefetched(StoreHandle chunkHandle) {
+        final Prefetcher prefetcher = this.prefetcher;
+        return prefetcher != null ? prefetcher.take(chunkHandle) : null;
+    }
+
+    @Nullable
+    private static ByteBuffer joinPrefetched(CompletableFuture<ByteBuffer> prefetched) {
+        try {
+            return prefetched.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
         }
+    }
 
-        return codecPipeline.decode(chunkBytes);
+    private void observeRead(long[] offset, long[] shape) {
+        final Prefetcher prefetcher = this.prefetcher;
+        if (prefetcher != null) {
+            prefetcher.observe(this, offset, shape);
+        }
     }
 
     /**
@@ -199,15 +514,7 @@ public abstract class Array extends AbstractNode {
             newMaxChunkCoords[i] = (newShape[i] + chunkShape[i] - 1) / chunkShape[i];
         }
 
-        // Iterate over all possible chunk coordinates in the old shape
-        long[][] allOldChunkCoords = IndexingUtils.computeChunkCoords(metadata.shape, chunkShape);
-
-        Stream<long[]> chunkStream = Arrays.stream(allOldChunkCoords);
-        if (parallel) {
-            chunkStream = chunkStream.parallel();
-        }
-
-        chunkStream.forEach(chunkCoords -> {
+        executionContext(parallel).forEachIo(resizedChunkCoordsIterator(newShape), chunkCoords -> {
             boolean isOutsideBounds = false;
             boolean isOnBoundary = false;
 
@@ -229,6 +536,7 @@ public abstract class Array extends AbstractNode {
             if (isOutsideBounds) {
                 // Delete chunk that is completely outside
                 chunkHandle.delete();
+                invalidateChunk(chunkHandle);
             } else if (isOnBoundary) {
                 // Trim boundary chunk - read, clear out-of-bounds data, write back
                 try {
@@ -240,6 +548,52 @@ public abstract class Array extends AbstractNode {
         });
     }
 
+    /**
+     * Lazily enumerates the chunks of the current shape that are not completely inside the new shape.
+     * These are split into disjoint boxes, one per dimension: the chunks that reach beyond the new shape
+     * in that dimension but are completely inside in all preceding dimensions. Chunks that stay
+     * untouched are never visited.
+     */
+    private Iterator<long[]> resizedChunkCoordsIterator(long[] newShape) {
+        final ArrayMetadata metadata = metadata();
+        final int[] chunkShape = metadata.chunkShape();
+        final int ndim = metadata.ndim();
+        final long[] oldChunkCounts = new long[ndim];
+        final long[] keptChunkCounts = new long[ndim];
+        for (int dimIdx = 0; dimIdx < ndim; dimIdx++) {
+            oldChunkCounts[dimIdx] = (metadata.shape[dimIdx] + chunkShape[dimIdx] - 1) / chunkShape[dimIdx];
+            keptChunkCounts[dimIdx] = Math.min(newShape[dimIdx] / chunkShape[dimIdx], oldChunkCounts[dimIdx]);
+        }
+        final Iterator<Iterator<long[]>> boxes = IntStream.range(0, ndim).mapToObj(dimIdx -> {
+            final long[] start = new long[ndim];
+            final long[] count = Arrays.copyOf(oldChunkCounts, ndim);
+            System.arraycopy(keptChunkCounts, 0, count, 0, dimIdx);
+            start[dimIdx] = keptChunkCounts[dimIdx];
+            count[dimIdx] = oldChunkCounts[dimIdx] - keptChunkCounts[dimIdx];
+            return Spliterators.iterator(new ChunkCoordsSpliterator(start, count));
+        }).iterator();
+        // Stream.flatMap is not lazy on Java 8, so the boxes are chained by hand
+        return new Iterator<long[]>() {
+            private Iterator<long[]> box = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!box.hasNext() && boxes.hasNext()) {
+                    box = boxes.next();
+                }
+                return box.hasNext();
+            }
+
+            @Override
+            public long[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return box.next();
+            }
+        };
+    }
+
     /**
      * Trims a boundary chunk by reading it, clearing the out-of-bounds portion, and writing it back.
      *
@@ -289,7 +643,7 @@ public abstract class Array extends AbstractNode {
     /**
      * Writes a ucar.ma2.Array into the Zarr array at the beginning of the Zarr array. The shape of
      * the Zarr array needs be large enough for the write.
-     * Utilizes no parallelism.
+     * Parallelizes with the array's execution context.
      *
      * @param array the data to write
      */
@@ -300,13 +654,13 @@ public abstract class Array extends AbstractNode {
     /**
      * Writes a ucar.ma2.Array into the Zarr array at a specified offset. The shape of the Zarr array
      * needs be large enough for the write.
-     * Utilizes no parallelism.
+     * Parallelizes with the array's execution context.
      *
      * @param offset the offset where to write the data
      * @param array  the data to write
      */
     public void write(long[] offset, ucar.ma2.Array array) {
-        write(offset, array, DEFAULT_PARALLELISM);
+        write(offset, array, true);
     }
 
     /**
@@ -322,7 +676,7 @@ public abstract class Array extends AbstractNode {
 
     /**
      * Reads the entire Zarr array into an ucar.ma2.Array.
-     * Utilizes no parallelism.
+     * Parallelizes with the array's execution context.
      *
      * @throws ZarrException throws ZarrException if the read fails
      */
@@ -333,7 +687,7 @@ public abstract class Array extends AbstractNode {
 
     /**
      * Reads a part of the Zarr array based on a requested offset and shape into an ucar.ma2.Array.
-     * Utilizes no parallelism.
+     * Parallelizes with the array's execution context.
      *
      * @param offset the offset where to start reading
      * @param shape  the shape of the data to read
@@ -341,7 +695,7 @@ public abstract class Array extends AbstractNode {
      */
     @Nonnull
     public ucar.ma2.Array read(final long[] offset, final long[] shape) throws ZarrException {
-        return read(offset, shape, DEFAULT_PARALLELISM);
+        return read(offset, shape, true);
     }
 
     /**
@@ -377,129 +731,1246 @@ public abstract class Array extends AbstractNode {
     @Nonnull
     public ucar.ma2.Array read(final long[] offset, final long[] shape, final boolean parallel) throws ZarrException {
         ArrayMetadata metadata = metadata();
-        if (offset.length != metadata.ndim()) {
-            throw new IllegalArgumentException("'offset' needs to have rank '" + metadata.ndim() + "'.");
-        }
-        if (shape.length != metadata.ndim()) {
-            throw new IllegalArgumentException("'shape' needs to have rank '" + metadata.ndim() + "'.");
-        }
-        for (int dimIdx = 0; dimIdx < metadata.ndim(); dimIdx++) {
-            if (offset[dimIdx] < 0 || offset[dimIdx] + shape[dimIdx] > metadata.shape[dimIdx]) {
-                throw new ZarrException("Requested data is outside of the array's domain.");
-            }
-        }
+        checkReadRegion(offset, shape);
+        flush();
 
         final int[] chunkShape = metadata.chunkShape();
         if (IndexingUtils.isSingleFullChunk(offset, shape, chunkShape)) {
+            observeRead(offset, shape);
             return readChunk(IndexingUtils.computeSingleChunkCoords(offset, chunkShape));
         }
 
         final ucar.ma2.Array outputArray = ucar.ma2.Array.factory(metadata.dataType().getMA2DataType(),
                 Utils.toIntArray(shape));
-        final Object parsedFillValue = metadata.parsedFillValue();
-        if (parsedFillValue != null) {
-            MultiArrayUtils.fill(outputArray, parsedFillValue);
+        readInto(offset, shape, new ArrayReadTarget(outputArray, new int[metadata.ndim()]), parallel);
+        return outputArray;
+    }
+
+    /**
+     * Reads every n-th element per dimension of a part of the Zarr array, e.g. to build downsampled
+     * previews. Only the chunks that contain selected elements are read, and the selected elements are
+     * gathered directly into the output.
+     * Parallelizes with the array's execution context.
+     *
+     * @param offset the offset where to start reading
+     * @param shape  the shape of the region to select elements from
+     * @param stride the step between selected elements per dimension; the output has the shape
+     *               {@code ceil(shape / stride)}
+     * @throws ZarrException throws ZarrException if the requested data is outside the array's domain or if the read fails
+     */
+    @Nonnull
+    public ucar.ma2.Array readStrided(final long[] offset, final long[] shape, final long[] stride)
+            throws ZarrException {
+        return readStrided(offset, shape, stride, true);
+    }
+
+    /**
+     * Reads every n-th element per dimension of a part of the Zarr array.
+     *
+     * @param offset   the offset where to start reading
+     * @param shape    the shape of the region to select elements from
+     * @param stride   the step between selected elements per dimension
+     * @param parallel utilizes parallelism if true
+     * @throws ZarrException throws ZarrException if the requested data is outside the array's domain or if the read fails
+     * @see #readStrided(long[], long[], long[])
+     */
+    @Nonnull
+    public ucar.ma2.Array readStrided(final long[] offset, final long[] shape, final long[] stride,
+                                      final boolean parallel)
+            throws ZarrException {
+        final ArrayMetadata metadata = metadata();
+        checkReadRegion(offset, shape);
+        if (stride.length != metadata.ndim()) {
+            throw new IllegalArgumentException("'stride' needs to have rank '" + metadata.ndim() + "'.");
+        }
+        boolean unitStride = true;
+        for (long dimStride : stride) {
+            if (dimStride < 1) {
+                throw new IllegalArgumentException("'stride' needs to be positive.");
+            }
+            unitStride &= dimStride == 1;
         }
-        Stream<long[]> chunkStream = Arrays.stream(IndexingUtils.computeChunkCoords(metadata.shape, chunkShape, offset, shape));
-        if (parallel) {
-            chunkStream = chunkStream.parallel();
+        if (unitStride) {
+            return read(offset, shape, parallel);
         }
-        chunkStream.forEach(
-                chunkCoords -> {
-                    try {
-                        final IndexingUtils.ChunkProjection chunkProjection =
-                                IndexingUtils.computeProjection(chunkCoords, metadata.shape, chunkShape, offset,
-                                        shape
-                                );
-
-                        final String[] chunkKeys = metadata.chunkKeyEncoding().encodeChunkKey(chunkCoords);
-                        final StoreHandle chunkHandle = storeHandle.resolve(chunkKeys);
+        flush();
 
-                        if (codecPipeline.supportsPartialDecode()) {
-                            if (!chunkHandle.exists()) {
-                                return;
-                            }
-                            final ucar.ma2.Array chunkArray = codecPipeline.decodePartial(chunkHandle,
-                                    Utils.toLongArray(chunkProjection.chunkOffset), chunkProjection.shape);
-                            MultiArrayUtils.copyRegion(chunkArray, new int[metadata.ndim()], outputArray,
-                                    chunkProjection.outOffset, chunkProjection.shape
-                            );
-                        } else {
-                            ByteBuffer chunkBytes = chunkHandle.read();
-                            if (chunkBytes != null) {
-                                MultiArrayUtils.copyRegion(codecPipeline.decode(chunkBytes), chunkProjection.chunkOffset,
-                                        outputArray, chunkProjection.outOffset, chunkProjection.shape
-                                );
+        final int[] chunkShape = metadata.chunkShape();
+        final Object parsedFillValue = metadata.parsedFillValue();
+        final int[] intStride = Utils.toIntArray(stride);
+        final ucar.ma2.Array outputArray = ucar.ma2.Array.factory(metadata.dataType().getMA2DataType(),
+                Utils.toIntArray(IndexingUtils.computeStridedShape(shape, stride)));
+        executionContext(parallel).forEachIo(
+                IndexingUtils.stridedChunkCoordsIterator(chunkShape, offset, shape, stride),
+                () -> {
+                    final ChunkCursor cursor = new ChunkCursor(metadata, storeHandle, offset, shape);
+                    final int[] zeros = new int[metadata.ndim()];
+                    return chunkCoords -> {
+                        try {
+                            final IndexingUtils.ChunkProjection chunkProjection = IndexingUtils.computeStridedProjection(
+                                    chunkCoords, chunkShape, offset, shape, stride);
+                            final ucar.ma2.Array chunkSection = readChunkSection(cursor.chunkHandle(chunkCoords),
+                                    chunkProjection.chunkOffset, chunkProjection.shape, intStride);
+                            if (chunkSection != null) {
+                                MultiArrayUtils.copyRegion(chunkSection, zeros, outputArray,
+                                        chunkProjection.outOffset, chunkProjection.shape);
+                            } else if (parsedFillValue != null) {
+                                MultiArrayUtils.fillRegion(outputArray, chunkProjection.outOffset,
+                                        chunkProjection.shape, parsedFillValue);
                             }
+                        } catch (ZarrException e) {
+                            throw new RuntimeException(e);
                         }
-
-                    } catch (ZarrException e) {
-                        throw new RuntimeException(e);
-                    }
+                    };
                 });
         return outputArray;
     }
 
     /**
-     * Sets a new shape for the Zarr array. Only the metadata is updated by default.
-     * This method returns a new instance of the Zarr array class and the old instance
-     * becomes invalid.
+     * Reads a strided section of one chunk. Codecs with partial decoding only decode the bounding box of
+     * the section.
      *
-     * @param newShape the new shape of the Zarr array
-     * @throws ZarrException if the new metadata is invalid
-     * @throws IOException   throws IOException if the new metadata cannot be serialized
+     * @return a view of the selected elements, which may be shared with the cache, or null if the chunk
+     * does not exist
      */
-    public Array resize(long[] newShape) throws ZarrException, IOException {
-        return resize(newShape, true);
+    @Nullable
+    private ucar.ma2.Array readChunkSection(StoreHandle chunkHandle, int[] origin, int[] shape, int[] stride)
+            throws ZarrException {
+        final int[] boxShape = new int[shape.length];
+        for (int dimIdx = 0; dimIdx < shape.length; dimIdx++) {
+            boxShape[dimIdx] = (shape[dimIdx] - 1) * stride[dimIdx] + 1;
+        }
+        final ucar.ma2.Array box = readChunkBox(chunkHandle, origin, boxShape);
+        if (box == null) {
+            return null;
+        }
+        try {
+            return box.sectionNoReduce(new int[shape.length], shape, stride);
+        } catch (InvalidRangeException e) {
+            throw new ZarrException("Failed to select the strided section of a chunk.", e);
+        }
     }
 
     /**
-     * Sets a new shape for the Zarr array. This method returns a new instance of the Zarr array class
-     * and the old instance becomes invalid.
+     * Reads a box of one chunk. Codecs with partial decoding only decode the box.
      *
-     * @param newShape           the new shape of the Zarr array
-     * @param resizeMetadataOnly if true, only the metadata is updated; if false, chunks outside the new
-     *                           bounds are deleted and boundary chunks are trimmed
-     * @throws ZarrException if the new metadata is invalid
-     * @throws IOException   throws IOException if the new metadata cannot be serialized
+     * @return a view of the box, which may be shared with the cache, or null if the chunk does not exist
      */
-    public Array resize(long[] newShape, boolean resizeMetadataOnly) throws ZarrException, IOException {
-        return resize(newShape, resizeMetadataOnly, DEFAULT_PARALLELISM);
+    @Nullable
+    private ucar.ma2.Array readChunkBox(StoreHandle chunkHandle, int[] origin, int[] shape) throws ZarrException {
+        ucar.ma2.Array chunkArray = cachedRegionChunk(chunkHandle);
+        if (chunkArray == null && codecPipeline.supportsPartialDecode()) {
+            final CompletableFuture<ByteBuffer> prefetched = takePrefetched(chunkHandle);
+            if (prefetched != null) {
+                final ByteBuffer chunkBytes = joinPrefetched(prefetched);
+                return chunkBytes != null
+                        ? codecPipeline.decodePartial(chunkBytes, Utils.toLongArray(origin), shape) : null;
+            }
+            if (!chunkHandle.exists()) {
+                return null;
+            }
+            return codecPipeline.decodePartial(chunkHandle, Utils.toLongArray(origin), shape);
+        } else if (chunkArray == null) {
+            chunkArray = readChunkUncached(chunkHandle);
+            if (chunkArray == null) {
+                return null;
+            }
+        }
+        try {
+            return chunkArray.sectionNoReduce(origin, shape, null);
+        } catch (InvalidRangeException e) {
+            throw new ZarrException("Failed to select a box of a chunk.", e);
+        }
     }
 
     /**
-     * Sets a new shape for the Zarr array. This method returns a new instance of the Zarr array class
-     * and the old instance becomes invalid.
+     * Reads an orthogonal selection of the Zarr array, i.e. the Cartesian product of independent index
+     * lists per dimension, e.g. a subset of channels and z-planes. Every chunk that intersects the
+     * selection is read and decoded once. Boolean masks can be converted with
+     * {@link IndexingUtils#maskToIndices(boolean[])}.
+     * Parallelizes with the array's execution context.
      *
-     * @param newShape           the new shape of the Zarr array
-     * @param resizeMetadataOnly if true, only the metadata is updated; if false, chunks outside the new
-     *                           bounds are deleted and boundary chunks are trimmed
-     * @param parallel           utilizes parallelism if true when cleaning up chunks
-     * @throws ZarrException if the new metadata is invalid
-     * @throws IOException   throws IOException if the new metadata cannot be serialized
+     * @param indices the selected indices per dimension in any order, or null to select a whole dimension
+     * @return an array with the shape of the index list lengths
+     * @throws ZarrException throws ZarrException if an index is outside the array's domain or if the read fails
      */
-    public abstract Array resize(long[] newShape, boolean resizeMetadataOnly, boolean parallel) throws ZarrException, IOException;
-
-    public ArrayAccessor access() {
-        return new ArrayAccessor(this);
+    @Nonnull
+    public ucar.ma2.Array readOrthogonal(final long[][] indices) throws ZarrException {
+        return readOrthogonal(indices, true);
     }
 
-    public static final class ArrayAccessor {
-        @Nullable
-        long[] offset;
-        @Nullable
-        long[] shape;
-        @Nonnull
-        Array array;
-
-        public ArrayAccessor(@Nonnull Array array) {
-            this.array = array;
-        }
-
-        @Nonnull
-        public ArrayAccessor withOffset(@Nonnull long... offset) {
-            this.offset = offset;
-            return this;
+    /**
+     * Reads an orthogonal selection of the Zarr array.
+     *
+     * @param indices  the selected indices per dimension, or null to select a whole dimension
+     * @param parallel utilizes parallelism if true
+     * @throws ZarrException throws ZarrException if an index is outside the array's domain or if the read fails
+     * @see #readOrthogonal(long[][])
+     */
+    @Nonnull
+    public ucar.ma2.Array readOrthogonal(final long[][] indices, final boolean parallel) throws ZarrException {
+        final ArrayMetadata metadata = metadata();
+        final long[][] selIndices = resolveOrthogonalSelection(indices);
+        flush();
+        final int[] outShape = new int[metadata.ndim()];
+        for (int dimIdx = 0; dimIdx < metadata.ndim(); dimIdx++) {
+            outShape[dimIdx] = selIndices[dimIdx].length;
+        }
+        final Object parsedFillValue = metadata.parsedFillValue();
+        final ucar.ma2.Array outputArray = ucar.ma2.Array.factory(metadata.dataType().getMA2DataType(), outShape);
+        executionContext(parallel).forEachIo(
+                IndexingUtils.orthogonalChunkIterator(selIndices, metadata.chunkShape()),
+                () -> {
+                    final ChunkKeyEncoder keyEncoder = metadata.chunkKeyEncoding().keyEncoder(storeHandle.keys);
+                    return chunkProjection -> {
+                        try {
+                            final int ndim = chunkProjection.chunkCoords.length;
+                            final int[] boxOrigin = new int[ndim];
+                            final int[] boxShape = new int[ndim];
+                            final int[][] boxIndices = new int[ndim][];
+                            for (int dimIdx = 0; dimIdx < ndim; dimIdx++) {
+                                final int[] chunkIndices = chunkProjection.chunkIndices[dimIdx];
+                                boxOrigin[dimIdx] = chunkIndices[0];
+                                boxShape[dimIdx] = chunkIndices[chunkIndices.length - 1] - chunkIndices[0] + 1;
+                                boxIndices[dimIdx] = new int[chunkIndices.length];
+                                for (int i = 0; i < chunkIndices.length; i++) {
+                                    boxIndices[dimIdx][i] = chunkIndices[i] - boxOrigin[dimIdx];
+                                }
+                            }
+                            final ucar.ma2.Array box = readChunkBox(new StoreHandle(storeHandle.store,
+                                    keyEncoder.encode(chunkProjection.chunkCoords)), boxOrigin, boxShape);
+                            if (box != null) {
+                                MultiArrayUtils.copyOrthogonal(box, boxIndices, outputArray,
+                                        chunkProjection.outIndices);
+                            } else if (parsedFillValue != null) {
+                                MultiArrayUtils.fillOrthogonal(outputArray, chunkProjection.outIndices,
+                                        parsedFillValue);
+                            }
+                        } catch (ZarrException e) {
+                            throw new RuntimeException(e);
+                        }
+                    };
+                });
+        return outputArray;
+    }
+
+    /**
+     * Writes an orthogonal selection of the Zarr array, i.e. the Cartesian product of independent index
+     * lists per dimension. Every chunk that intersects the selection is read, updated and written once.
+     *
+     * @param indices the selected indices per dimension in any order, or null to select a whole dimension
+     * @param array   the data to write, with the shape of the index list lengths
+     * @throws ZarrException throws ZarrException if an index is outside the array's domain or if the write fails
+     */
+    public void writeOrthogonal(final long[][] indices, ucar.ma2.Array array) throws ZarrException {
+        writeOrthogonal(indices, array, true);
+    }
+
+    /**
+     * Writes an orthogonal selection of the Zarr array.
+     *
+     * @param indices  the selected indices per dimension, or null to select a whole dimension
+     * @param array    the data to write, with the shape of the index list lengths
+     * @param parallel utilizes parallelism if true
+     * @throws ZarrException throws ZarrException if an index is outside the array's domain or if the write fails
+     * @see #writeOrthogonal(long[][], ucar.ma2.Array)
+     */
+    public void writeOrthogonal(final long[][] indices, ucar.ma2.Array array, final boolean parallel)
+            throws ZarrException {
+        final ArrayMetadata metadata = metadata();
+        final long[][] selIndices = resolveOrthogonalSelection(indices);
+        flush();
+        if (array.getRank() != metadata.ndim()) {
+            throw new IllegalArgumentException("'array' needs to have rank '" + metadata.ndim() + "'.");
+        }
+        for (int dimIdx = 0; dimIdx < metadata.ndim(); dimIdx++) {
+            if (array.getShape()[dimIdx] != selIndices[dimIdx].length) {
+                throw new IllegalArgumentException("'array' needs to have the shape of the selection.");
+            }
+        }
+        final int[] chunkShape = metadata.chunkShape();
+        executionContext(parallel).forEachIo(
+                IndexingUtils.orthogonalChunkIterator(selIndices, chunkShape),
+                () -> {
+                    final ChunkKeyEncoder keyEncoder = metadata.chunkKeyEncoding().keyEncoder(storeHandle.keys);
+                    return chunkProjection -> {
+                        try {
+                            final StoreHandle chunkHandle = new StoreHandle(storeHandle.store,
+                                    keyEncoder.encode(chunkProjection.chunkCoords));
+                            boolean fullChunk = true;
+                            for (int dimIdx = 0; dimIdx < chunkShape.length; dimIdx++) {
+                                fullChunk &= distinctCount(chunkProjection.chunkIndices[dimIdx]) == chunkShape[dimIdx];
+                            }
+                            final ucar.ma2.Array chunkArray = fullChunk
+                                    ? ucar.ma2.Array.factory(metadata.dataType().getMA2DataType(), chunkShape)
+                                    : readChunkCopy(chunkHandle);
+                            MultiArrayUtils.copyOrthogonal(array, chunkProjection.outIndices, chunkArray,
+                                    chunkProjection.chunkIndices);
+                            writeChunk(chunkHandle, chunkArray);
+                        } catch (ZarrException e) {
+                            throw new RuntimeException(
+                                    "Failed to write chunk at coordinates " + Arrays.toString(chunkProjection.chunkCoords) +
+                                    ": " + e.getMessage(), e);
+                        }
+                    };
+                });
+    }
+
+    private static int distinctCount(int[] sortedIndices) {
+        int count = 0;
+        for (int i = 0; i < sortedIndices.length; i++) {
+            if (i == 0 || sortedIndices[i] != sortedIndices[i - 1]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Validates an orthogonal selection and replaces null entries by all indices of their dimension.
+     */
+    private long[][] resolveOrthogonalSelection(final long[][] indices) throws ZarrException {
+        final ArrayMetadata metadata = metadata();
+        if (indices.length != metadata.ndim()) {
+            throw new IllegalArgumentException("'indices' needs to have rank '" + metadata.ndim() + "'.");
+        }
+        final long[][] selIndices = new long[metadata.ndim()][];
+        for (int dimIdx = 0; dimIdx < metadata.ndim(); dimIdx++) {
+            if (indices[dimIdx] == null) {
+                if (metadata.shape[dimIdx] > Integer.MAX_VALUE) {
+                    throw new ArithmeticException("Selection exceeds Integer.MAX_VALUE at dimension " + dimIdx);
+                }
+                selIndices[dimIdx] = new long[(int) metadata.shape[dimIdx]];
+                for (int i = 0; i < selIndices[dimIdx].length; i++) {
+                    selIndices[dimIdx][i] = i;
+                }
+                continue;
+            }
+            for (long index : indices[dimIdx]) {
+                if (index < 0 || index >= metadata.shape[dimIdx]) {
+                    throw new ZarrException("Requested data is outside of the array's domain.");
+                }
+            }
+            selIndices[dimIdx] = indices[dimIdx];
+        }
+        return selIndices;
+    }
+
+    /**
+     * Reads scattered elements of the Zarr array, e.g. to sample voxels. The points are grouped by chunk,
+     * so every chunk that contains requested points is read once, and for sharded arrays only the inner
+     * chunks that contain requested points are read.
+     * Parallelizes with the array's execution context.
+     *
+     * @param coords the coordinates of the points per dimension, i.e. point {@code i} is at
+     *               {@code coords[0][i], ..., coords[ndim - 1][i]}
+     * @return a one-dimensional array with the values of the points in the requested order
+     * @throws ZarrException throws ZarrException if a point is outside the array's domain or if the read fails
+     */
+    @Nonnull
+    public ucar.ma2.Array readPoints(final long[][] coords) throws ZarrException {
+        return readPoints(coords, true);
+    }
+
+    /**
+     * Reads scattered elements of the Zarr array.
+     *
+     * @param coords   the coordinates of the points per dimension
+     * @param parallel utilizes parallelism if true
+     * @throws ZarrException throws ZarrException if a point is outside the array's domain or if the read fails
+     * @see #readPoints(long[][])
+     */
+    @Nonnull
+    public ucar.ma2.Array readPoints(final long[][] coords, final boolean parallel) throws ZarrException {
+        final ArrayMetadata metadata = metadata();
+        if (coords.length != metadata.ndim()) {
+            throw new IllegalArgumentException("'coords' needs to have rank '" + metadata.ndim() + "'.");
+        }
+        final int pointCount = coords.length > 0 ? coords[0].length : 0;
+        for (int dimIdx = 0; dimIdx < metadata.ndim(); dimIdx++) {
+            if (coords[dimIdx].length != pointCount) {
+                throw new IllegalArgumentException("'coords' needs to have the same number of points in every dimension.");
+            }
+            for (long coord : coords[dimIdx]) {
+                if (coord < 0 || coord >= metadata.shape[dimIdx]) {
+                    throw new ZarrException("Requested data is outside of the array's domain.");
+                }
+            }
+        }
+        flush();
+
+        final Object parsedFillValue = metadata.parsedFillValue();
+        final ucar.ma2.Array outputArray = ucar.ma2.Array.factory(metadata.dataType().getMA2DataType(),
+                new int[]{pointCount});
+        executionContext(parallel).forEachIo(
+                IndexingUtils.groupPointsByChunk(coords, metadata.chunkShape()).iterator(),
+                () -> {
+                    final ChunkKeyEncoder keyEncoder = metadata.chunkKeyEncoding().keyEncoder(storeHandle.keys);
+                    return pointGroup -> {
+                        try {
+                            final StoreHandle chunkHandle = new StoreHandle(storeHandle.store,
+                                    keyEncoder.encode(pointGroup.chunkCoords));
+                            final ucar.ma2.Array cachedChunkArray = cachedRegionChunk(chunkHandle);
+                            if (cachedChunkArray == null && codecPipeline.supportsPartialDecode()) {
+                                codecPipeline.decodePoints(chunkHandle, pointGroup.chunkPoints, outputArray,
+                                        pointGroup.pointIndices);
+                                return;
+                            }
+                            final ucar.ma2.Array chunkArray =
+                                    cachedChunkArray != null ? cachedChunkArray : readChunkUncached(chunkHandle);
+                            if (chunkArray != null) {
+                                MultiArrayUtils.copyPoints(chunkArray, pointGroup.chunkPoints, outputArray,
+                                        pointGroup.pointIndices);
+                            } else if (parsedFillValue != null) {
+                                MultiArrayUtils.fillPoints(outputArray, pointGroup.pointIndices, parsedFillValue);
+                            }
+                        } catch (ZarrException e) {
+                            throw new RuntimeException(e);
+                        }
+                    };
+                });
+        return outputArray;
+    }
+
+    /**
+     * Reads a part of the Zarr array into a region of an existing ucar.ma2.Array, e.g. to reuse a
+     * preallocated buffer for repeated reads of equally shaped tiles. Regions of chunks that do not
+     * exist are set to the fill value.
+     * Parallelizes with the array's execution context.
+     *
+     * @param offset       the offset where to start reading
+     * @param shape        the shape of the data to read
+     * @param target       the array to read into, with the element type of the Zarr array's data type
+     * @param targetOffset the offset in the target array where to place the data
+     * @throws ZarrException throws ZarrException if the requested data is outside the array's domain or if the read fails
+     */
+    public void read(final long[] offset, final long[] shape, @Nonnull ucar.ma2.Array target,
+                     final int[] targetOffset) throws ZarrException {
+        read(offset, shape, target, targetOffset, true);
+    }
+
+    /**
+     * Reads a part of the Zarr array into a region of an existing ucar.ma2.Array.
+     *
+     * @param offset       the offset where to start reading
+     * @param shape        the shape of the data to read
+     * @param target       the array to read into, with the element type of the Zarr array's data type
+     * @param targetOffset the offset in the target array where to place the data
+     * @param parallel     utilizes parallelism if true
+     * @throws ZarrException throws ZarrException if the requested data is outside the array's domain or if the read fails
+     */
+    public void read(final long[] offset, final long[] shape, @Nonnull ucar.ma2.Array target,
+                     final int[] targetOffset, final boolean parallel) throws ZarrException {
+        checkReadRegion(offset, shape);
+        checkElementType(target.getElementType());
+        if (targetOffset.length != metadata().ndim() || target.getRank() != metadata().ndim()) {
+            throw new IllegalArgumentException(
+                    "'target' and 'targetOffset' need to have rank '" + metadata().ndim() + "'.");
+        }
+        for (int dimIdx = 0; dimIdx < metadata().ndim(); dimIdx++) {
+            if (targetOffset[dimIdx] < 0 || targetOffset[dimIdx] + shape[dimIdx] > target.getShape()[dimIdx]) {
+                throw new IllegalArgumentException("Requested data does not fit into 'target'.");
+            }
+        }
+        readInto(offset, shape, new ArrayReadTarget(target, targetOffset), parallel);
+    }
+
+    /**
+     * Reads a part of the Zarr array into a buffer. The elements are written in C order and in the
+     * buffer's byte order, starting at the buffer's position. The position of the buffer is not changed.
+     * Regions of chunks that do not exist are set to the fill value.
+     * Parallelizes with the array's execution context.
+     *
+     * @param offset the offset where to start reading
+     * @param shape  the shape of the data to read
+     * @param target the buffer to read into
+     * @throws ZarrException throws ZarrException if the requested data is outside the array's domain or if the read fails
+     */
+    public void read(final long[] offset, final long[] shape, @Nonnull ByteBuffer target) throws ZarrException {
+        checkReadRegion(offset, shape);
+        final long byteLength = Arrays.stream(shape).reduce(1, (acc, a) -> acc * a)
+                * metadata().dataType().getMA2DataType().getSize();
+        if (byteLength > target.remaining()) {
+            throw new IllegalArgumentException(
+                    "'target' needs to have at least " + byteLength + " remaining bytes.");
+        }
+        readInto(offset, shape, new BufferReadTarget(target, Utils.toIntArray(shape)), true);
+    }
+
+    /**
+     * Reads a part of the Zarr array into a Java array in C order.
+     * Parallelizes with the array's execution context.
+     *
+     * @param offset the offset where to start reading
+     * @param shape  the shape of the data to read
+     * @param target the Java array to read into, needs to match the Zarr array's data type
+     * @throws ZarrException throws ZarrException if the requested data is outside the array's domain or if the read fails
+     */
+    public void read(final long[] offset, final long[] shape, @Nonnull byte[] target) throws ZarrException {
+        readIntoJavaArray(offset, shape, target, target.length);
+    }
+
+    /**
+     * @see #read(long[], long[], byte[])
+     */
+    public void read(final long[] offset, final long[] shape, @Nonnull short[] target) throws ZarrException {
+        readIntoJavaArray(offset, shape, target, target.length);
+    }
+
+    /**
+     * @see #read(long[], long[], byte[])
+     */
+    public void read(final long[] offset, final long[] shape, @Nonnull int[] target) throws ZarrException {
+        readIntoJavaArray(offset, shape, target, target.length);
+    }
+
+    /**
+     * @see #read(long[], long[], byte[])
+     */
+    public void read(final long[] offset, final long[] shape, @Nonnull long[] target) throws ZarrException {
+        readIntoJavaArray(offset, shape, target, target.length);
+    }
+
+    /**
+     * @see #read(long[], long[], byte[])
+     */
+    public void read(final long[] offset, final long[] shape, @Nonnull float[] target) throws ZarrException {
+        readIntoJavaArray(offset, shape, target, target.length);
+    }
+
+    /**
+     * @see #read(long[], long[], byte[])
+     */
+    public void read(final long[] offset, final long[] shape, @Nonnull double[] target) throws ZarrException {
+        readIntoJavaArray(offset, shape, target, target.length);
+    }
+
+    private void readIntoJavaArray(final long[] offset, final long[] shape, Object target, int targetLength)
+            throws ZarrException {
+        checkReadRegion(offset, shape);
+        checkElementType(target.getClass().getComponentType());
+        final int[] intShape = Utils.toIntArray(shape);
+        if (Arrays.stream(shape).reduce(1, (acc, a) -> acc * a) > targetLength) {
+            throw new IllegalArgumentException("Requested data does not fit into 'target'.");
+        }
+        final ucar.ma2.Array targetArray =
+                ucar.ma2.Array.factory(metadata().dataType().getMA2DataType(), intShape, target);
+        readInto(offset, shape, new ArrayReadTarget(targetArray, new int[metadata().ndim()]), true);
+    }
+
+    private void checkElementType(Class<?> elementType) {
+        final Class<?> expectedType = metadata().dataType().getMA2DataType().getPrimitiveClassType();
+        if (elementType != expectedType) {
+            throw new IllegalArgumentException(
+                    "'target' needs to have the element type '" + expectedType + "'.");
+        }
+    }
+
+    /**
+     * Assembles the chunks that intersect a validated region into a read target. The regions of chunks
+     * that do not exist are explicitly set to the fill value, or to zero without a fill value, so that the
+     * target does not need to be filled up front and can be reused across reads.
+     */
+    private void readInto(final long[] offset, final long[] shape, final ReadTarget target,
+                          final boolean parallel) {
+        flush();
+        final ArrayMetadata metadata = metadata();
+        final int[] chunkShape = metadata.chunkShape();
+        final Object fillValue = metadata.parsedFillValueOrZero();
+        final int[] zeros = new int[metadata.ndim()];
+        observeRead(offset, shape);
+        executionContext(parallel).forEachIo(
+                IndexingUtils.chunkCoordsIterator(metadata.shape, chunkShape, offset, shape),
+                () -> {
+                    final ChunkCursor cursor = new ChunkCursor(metadata, storeHandle, offset, shape);
+                    return chunkCoords -> {
+                        try {
+                            final IndexingUtils.ChunkProjection chunkProjection = cursor.project(chunkCoords);
+                            final StoreHandle chunkHandle = cursor.chunkHandle(chunkCoords);
+
+                            final ucar.ma2.Array cachedChunkArray = cachedRegionChunk(chunkHandle);
+                            if (cachedChunkArray != null) {
+                                target.copyRegion(cachedChunkArray, chunkProjection.chunkOffset,
+                                        chunkProjection.outOffset, chunkProjection.shape
+                                );
+                            } else if (codecPipeline.supportsPartialDecode()) {
+                                final CompletableFuture<ByteBuffer> prefetched = takePrefetched(chunkHandle);
+                                if (prefetched != null) {
+                                    final ByteBuffer chunkBytes = joinPrefetched(prefetched);
+                                    if (chunkBytes != null) {
+                                        target.copyRegion(codecPipeline.decodePartial(chunkBytes,
+                                                        Utils.toLongArray(chunkProjection.chunkOffset),
+                                                        chunkProjection.shape),
+                                                zeros, chunkProjection.outOffset, chunkProjection.shape);
+                                    } else if (fillValue != null) {
+                                        target.fillRegion(fillValue, chunkProjection.outOffset,
+                                                chunkProjection.shape);
+                                    }
+                                    return;
+                                }
+                                if (!chunkHandle.exists()) {
+                                    if (fillValue != null) {
+                                        target.fillRegion(fillValue, chunkProjection.outOffset,
+                                                chunkProjection.shape);
+                                    }
+                                    return;
+                                }
+                                target.decodePartialRegion(codecPipeline, chunkHandle, chunkProjection.chunkOffset,
+                                        chunkProjection.outOffset, chunkProjection.shape);
+                            } else if (chunkCache == null) {
+                                // Without a cache, the decoded chunk is not needed beyond this read
+                                final ByteBuffer chunkBytes = fetchChunk(chunkHandle);
+                                if (chunkBytes != null) {
+                                    target.decodeRegion(codecPipeline, chunkBytes, chunkProjection.chunkOffset,
+                                            chunkProjection.outOffset, chunkProjection.shape
+                                    );
+                                } else if (fillValue != null) {
+                                    target.fillRegion(fillValue, chunkProjection.outOffset,
+                                            chunkProjection.shape);
+                                }
+                            } else {
+                                final ucar.ma2.Array chunkArray = readChunkUncached(chunkHandle);
+                                if (chunkArray != null) {
+                                    target.copyRegion(chunkArray, chunkProjection.chunkOffset,
+                                            chunkProjection.outOffset, chunkProjection.shape
+                                    );
+                                } else if (fillValue != null) {
+                                    target.fillRegion(fillValue, chunkProjection.outOffset,
+                                            chunkProjection.shape);
+                                }
+                            }
+
+                        } catch (ZarrException e) {
+                            throw new RuntimeException(e);
+                        }
+                    };
+                });
+    }
+
+    /**
+     * The destination of a read, addressed relative to the start of the requested region. Chunks are
+     * assembled concurrently into disjoint regions of the target without locking.
+     */
+    private interface ReadTarget {
+
+        void copyRegion(ucar.ma2.Array source, int[] sourceOffset, int[] offset, int[] shape);
+
+        void decodeRegion(CodecPipeline codecPipeline, ByteBuffer chunkBytes, int[] chunkOffset, int[] offset,
+                          int[] shape) throws ZarrException;
+
+        void decodePartialRegion(CodecPipeline codecPipeline, StoreHandle chunkHandle, int[] chunkOffset,
+                                 int[] offset, int[] shape) throws ZarrException;
+
+        void fillRegion(Object fillValue, int[] offset, int[] shape);
+    }
+
+    private static final class ArrayReadTarget implements ReadTarget {
+
+        private final ucar.ma2.Array array;
+        private final int[] arrayOffset;
+
+        ArrayReadTarget(ucar.ma2.Array array, int[] arrayOffset) {
+            this.array = array;
+            this.arrayOffset = arrayOffset;
+        }
+
+        private int[] shift(int[] offset) {
+            int[] shiftedOffset = new int[offset.length];
+            for (int dimIdx = 0; dimIdx < offset.length; dimIdx++) {
+                shiftedOffset[dimIdx] = arrayOffset[dimIdx] + offset[dimIdx];
+            }
+            return shiftedOffset;
+        }
+
+        @Override
+        public void copyRegion(ucar.ma2.Array source, int[] sourceOffset, int[] offset, int[] shape) {
+            MultiArrayUtils.copyRegion(source, sourceOffset, array, shift(offset), shape);
+        }
+
+        @Override
+        public void decodeRegion(CodecPipeline codecPipeline, ByteBuffer chunkBytes, int[] chunkOffset,
+                                 int[] offset, int[] shape) throws ZarrException {
+            codecPipeline.decodeInto(chunkBytes, array, shift(offset), chunkOffset, shape);
+        }
+
+        @Override
+        public void decodePartialRegion(CodecPipeline codecPipeline, StoreHandle chunkHandle, int[] chunkOffset,
+                                        int[] offset, int[] shape) throws ZarrException {
+            codecPipeline.decodePartialInto(chunkHandle, Utils.toLongArray(chunkOffset), shape, array,
+                    shift(offset));
+        }
+
+        @Override
+        public void fillRegion(Object fillValue, int[] offset, int[] shape) {
+            MultiArrayUtils.fillRegion(array, shift(offset), shape, fillValue);
+        }
+    }
+
+    private static final class BufferReadTarget implements ReadTarget {
+
+        private final ByteBuffer buffer;
+        private final int[] bufferShape;
+
+        BufferReadTarget(ByteBuffer buffer, int[] bufferShape) {
+            this.buffer = buffer;
+            this.bufferShape = bufferShape;
+        }
+
+        @Override
+        public void copyRegion(ucar.ma2.Array source, int[] sourceOffset, int[] offset, int[] shape) {
+            MultiArrayUtils.copyRegion(source, sourceOffset, buffer, bufferShape, offset, shape);
+        }
+
+        @Override
+        public void decodeRegion(CodecPipeline codecPipeline, ByteBuffer chunkBytes, int[] chunkOffset,
+                                 int[] offset, int[] shape) throws ZarrException {
+            copyRegion(codecPipeline.decode(chunkBytes), chunkOffset, offset, shape);
+        }
+
+        @Override
+        public void decodePartialRegion(CodecPipeline codecPipeline, StoreHandle chunkHandle, int[] chunkOffset,
+                                        int[] offset, int[] shape) throws ZarrException {
+            copyRegion(codecPipeline.decodePartial(chunkHandle, Utils.toLongArray(chunkOffset), shape),
+                    new int[shape.length], offset, shape);
+        }
+
+        @Override
+        public void fillRegion(Object fillValue, int[] offset, int[] shape) {
+            MultiArrayUtils.fillRegion(buffer, bufferShape, offset, shape, fillValue);
+        }
+    }
+
+    private void checkReadRegion(final long[] offset, final long[] shape) throws ZarrException {
+        ArrayMetadata metadata = metadata();
+        if (offset.length != metadata.ndim()) {
+            throw new IllegalArgumentException("'offset' needs to have rank '" + metadata.ndim() + "'.");
+        }
+        if (shape.length != metadata.ndim()) {
+            throw new IllegalArgumentException("'shape' needs to have rank '" + metadata.ndim() + "'.");
+        }
+        for (int dimIdx = 0; dimIdx < metadata.ndim(); dimIdx++) {
+            if (offset[dimIdx] < 0 || offset[dimIdx] + shape[dimIdx] > metadata.shape[dimIdx]) {
+                throw new ZarrException("Requested data is outside of the array's domain.");
+            }
+        }
+    }
+
+    private static <T> CompletableFuture<T> failedFuture(Throwable t) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(t);
+        return future;
+    }
+
+    /**
+     * Lazily reads a part of the Zarr array chunk by chunk, e.g. to process selections that do not fit
+     * into memory. Chunks are read in row-major order.
+     *
+     * @see #chunks(long[], long[], ChunkOrder)
+     */
+    @Nonnull
+    public Stream<ChunkRegion> chunks(final long[] offset, final long[] shape) throws ZarrException {
+        return chunks(offset, shape, ChunkOrder.ROW_MAJOR);
+    }
+
+    /**
+     * Lazily reads a part of the Zarr array chunk by chunk, e.g. to process selections that do not fit
+     * into memory. Each element holds the part of one chunk that lies within the selection. Chunks are
+     * read ahead on the I/O executor of the array's execution context, but no more than its maximum
+     * number of in-flight I/O tasks are held at once.
+     *
+     * @param offset the offset where to start reading
+     * @param shape  the shape of the data to read
+     * @param order  the order in which the chunks are produced
+     * @throws ZarrException throws ZarrException if the requested data is outside the array's domain;
+     *                       failed chunk reads are rethrown by the stream
+     */
+    @Nonnull
+    public Stream<ChunkRegion> chunks(final long[] offset, final long[] shape, @Nonnull ChunkOrder order)
+            throws ZarrException {
+        checkReadRegion(offset, shape);
+        flush();
+        final long[] stride = new long[shape.length];
+        Arrays.fill(stride, 1);
+        return chunks(offset, shape, stride, order);
+    }
+
+    /**
+     * Lazily reads every n-th element per dimension of a part of the Zarr array chunk by chunk. Chunks
+     * that lie entirely between selected elements are not read. The regions are located in the strided
+     * output, i.e. {@link IndexingUtils.ChunkProjection#outOffset} is an index into the selection.
+     */
+    @Nonnull
+    Stream<ChunkRegion> chunks(final long[] offset, final long[] shape, final long[] stride,
+                               @Nonnull ChunkOrder order) {
+        final Spliterator<long[]> chunkCoords = IndexingUtils.stridedChunkCoordsSpliterator(
+                metadata().chunkShape(), offset, shape, stride);
+        final long size = chunkCoords.estimateSize();
+        final int characteristics = Spliterator.NONNULL | (order == ChunkOrder.ROW_MAJOR ? Spliterator.ORDERED : 0);
+        return StreamSupport.stream(Spliterators.spliterator(
+                new ChunkRegionIterator(Spliterators.iterator(chunkCoords), offset, shape, stride, order),
+                size, characteristics), false);
+    }
+
+    private ChunkRegion readChunkRegion(long[] chunkCoords, long[] offset, long[] shape, long[] stride)
+            throws ZarrException {
+        final ArrayMetadata metadata = metadata();
+        final int[] chunkShape = metadata.chunkShape();
+        final IndexingUtils.ChunkProjection projection = IndexingUtils.computeStridedProjection(
+                chunkCoords, chunkShape, offset, shape, stride);
+        final long[] regionOffset = new long[metadata.ndim()];
+        final long[] regionShape = new long[metadata.ndim()];
+        for (int dimIdx = 0; dimIdx < metadata.ndim(); dimIdx++) {
+            regionOffset[dimIdx] = chunkCoords[dimIdx] * chunkShape[dimIdx] + projection.chunkOffset[dimIdx];
+            regionShape[dimIdx] = (projection.shape[dimIdx] - 1) * stride[dimIdx] + 1;
+        }
+        return new ChunkRegion(projection, readStrided(regionOffset, regionShape, stride, false));
+    }
+
+    /**
+     * Reads the chunks of a selection ahead of the consumer while holding a bounded number of them.
+     */
+    private final class ChunkRegionIterator implements Iterator<ChunkRegion> {
+
+        private final Iterator<long[]> chunkCoords;
+        private final long[] offset;
+        private final long[] shape;
+        private final long[] stride;
+        private final boolean ordered;
+        private final int lookAhead;
+        private final ArrayDeque<CompletableFuture<ChunkRegion>> pending = new ArrayDeque<>();
+        private final LinkedBlockingQueue<CompletableFuture<ChunkRegion>> completed = new LinkedBlockingQueue<>();
+        private int inFlight = 0;
+
+        ChunkRegionIterator(Iterator<long[]> chunkCoords, long[] offset, long[] shape, long[] stride,
+                            ChunkOrder order) {
+            this.chunkCoords = chunkCoords;
+            this.offset = offset.clone();
+            this.shape = shape.clone();
+            this.stride = stride.clone();
+            this.ordered = order == ChunkOrder.ROW_MAJOR;
+            this.lookAhead = Math.max(1, executionContext().maxIoInFlight());
+        }
+
+        private void fill() {
+            while (inFlight < lookAhead && chunkCoords.hasNext()) {
+                final long[] coords = chunkCoords.next();
+                final CompletableFuture<ChunkRegion> future = executionContext().supplyIo(() -> {
+                    try {
+                        return readChunkRegion(coords, offset, shape, stride);
+                    } catch (ZarrException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+                if (ordered) {
+                    pending.add(future);
+                } else {
+                    future.whenComplete((region, t) -> completed.add(future));
+                }
+                inFlight++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            fill();
+            return inFlight > 0;
+        }
+
+        @Override
+        public ChunkRegion next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final CompletableFuture<ChunkRegion> future;
+            if (ordered) {
+                future = pending.poll();
+            } else {
+                try {
+                    future = completed.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+            }
+            inFlight--;
+            // Keeps reading ahead while the consumer processes this chunk
+            fill();
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Asynchronously reads a part of the Zarr array based on a requested offset and shape. All chunks
+     * are requested concurrently through {@link dev.zarr.zarrjava.store.Store#getAsync(String[])} and
+     * decoded on the CPU executor of the array's execution context, so no thread blocks on the store
+     * for stores with a non-blocking client. Sharded chunks are decoded with blocking partial reads on
+     * the I/O executor directly into the result. Buffered writes are flushed on the I/O executor first.
+     *
+     * @param offset the offset where to start reading
+     * @param shape  the shape of the data to read
+     * @return a future of the data that fails with a ZarrException if the requested data is outside
+     * the array's domain or if the read fails
+     */
+    @Nonnull
+    public CompletableFuture<ucar.ma2.Array> readAsync(final long[] offset, final long[] shape) {
+        try {
+            checkReadRegion(offset, shape);
+        } catch (ZarrException | RuntimeException e) {
+            return failedFuture(e);
+        }
+        return flushAsync().thenCompose(v -> readFlushedAsync(offset, shape));
+    }
+
+    private CompletableFuture<ucar.ma2.Array> readFlushedAsync(final long[] offset, final long[] shape) {
+        final ArrayMetadata metadata = metadata();
+        final int[] chunkShape = metadata.chunkShape();
+        if (IndexingUtils.isSingleFullChunk(offset, shape, chunkShape)) {
+            return readChunkCopyAsync(storeHandle.resolve(metadata.chunkKeyEncoding().encodeChunkKey(
+                    IndexingUtils.computeSingleChunkCoords(offset, chunkShape))));
+        }
+
+        final ucar.ma2.Array outputArray = ucar.ma2.Array.factory(metadata.dataType().getMA2DataType(),
+                Utils.toIntArray(shape));
+        final Object parsedFillValue = metadata.parsedFillValue();
+        if (parsedFillValue != null) {
+            MultiArrayUtils.fill(outputArray, parsedFillValue);
+        }
+        final List<CompletableFuture<?>> chunkFutures = new ArrayList<>();
+        final Iterator<long[]> chunkCoordsIterator =
+                IndexingUtils.chunkCoordsIterator(metadata.shape, chunkShape, offset, shape);
+        while (chunkCoordsIterator.hasNext()) {
+            final long[] chunkCoords = chunkCoordsIterator.next();
+            final IndexingUtils.ChunkProjection chunkProjection =
+                    IndexingUtils.computeProjection(chunkCoords, metadata.shape, chunkShape, offset, shape);
+            final StoreHandle chunkHandle =
+                    storeHandle.resolve(metadata.chunkKeyEncoding().encodeChunkKey(chunkCoords));
+
+            final ucar.ma2.Array cachedChunkArray = cachedRegionChunk(chunkHandle);
+            if (cachedChunkArray != null) {
+                MultiArrayUtils.copyRegion(cachedChunkArray, chunkProjection.chunkOffset,
+                        outputArray, chunkProjection.outOffset, chunkProjection.shape
+                );
+                chunkFutures.add(CompletableFuture.completedFuture(null));
+            } else if (codecPipeline.supportsPartialDecode()) {
+                chunkFutures.add(executionContext().supplyIo(() -> {
+                    try {
+                        codecPipeline.decodePartialInto(chunkHandle, Utils.toLongArray(chunkProjection.chunkOffset),
+                                chunkProjection.shape, outputArray, chunkProjection.outOffset);
+                    } catch (ZarrException e) {
+                        throw new CompletionException(e);
+                    }
+                    return null;
+                }));
+            } else {
+                chunkFutures.add(readChunkUncachedAsync(chunkHandle).thenAccept(chunkArray -> {
+                    if (chunkArray != null) {
+                        MultiArrayUtils.copyRegion(chunkArray, chunkProjection.chunkOffset,
+                                outputArray, chunkProjection.outOffset, chunkProjection.shape
+                        );
+                    }
+                }));
+            }
+        }
+        return CompletableFuture.allOf(chunkFutures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(v -> outputArray);
+    }
+
+    /**
+     * Asynchronously reads the entire Zarr array.
+     *
+     * @see #readAsync(long[], long[])
+     */
+    @Nonnull
+    public CompletableFuture<ucar.ma2.Array> readAsync() {
+        return readAsync(new long[metadata().ndim()], metadata().shape);
+    }
+
+    /**
+     * Asynchronously reads one chunk of the Zarr array as specified by the chunk coordinates.
+     *
+     * @param chunkCoords The coordinates of the chunk as computed by the offset of the chunk divided
+     *                    by the chunk shape.
+     * @return a future of the chunk that fails with a ZarrException if the chunk is outside the array's
+     * domain or if the read fails
+     */
+    @Nonnull
+    public CompletableFuture<ucar.ma2.Array> readChunkAsync(long[] chunkCoords) {
+        if (!chunkIsInArray(chunkCoords)) {
+            return failedFuture(new ZarrException("Attempting to read data outside of the array's domain."));
+        }
+        final StoreHandle chunkHandle =
+                storeHandle.resolve(metadata().chunkKeyEncoding().encodeChunkKey(chunkCoords));
+        return flushAsync().thenCompose(v -> readChunkCopyAsync(chunkHandle));
+    }
+
+    /**
+     * Asynchronous variant of {@link #readChunkCopy(StoreHandle)}.
+     */
+    private CompletableFuture<ucar.ma2.Array> readChunkCopyAsync(StoreHandle chunkHandle) {
+        return readChunkAsync(chunkHandle).thenApply(chunkArray -> {
+            if (chunkArray == null) {
+                return metadata().allocateFillValueChunk();
+            }
+            // Cached chunks are shared, so callers get their own copy
+            return chunkCache != null ? chunkArray.copy() : chunkArray;
+        });
+    }
+
+    /**
+     * Flushes the buffered writes on the I/O executor instead of the calling thread, see {@link #flush()}.
+     */
+    private CompletableFuture<Void> flushAsync() {
+        final WriteBuffer writeBuffer = this.writeBuffer;
+        if (writeBuffer == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return executionContext().supplyIo(() -> {
+            writeBuffer.flush(this);
+            return null;
+        });
+    }
+
+    /**
+     * Asynchronous variant of {@link #readChunk(StoreHandle)}. The returned array may be shared with
+     * the cache and must not be modified.
+     */
+    @Nonnull
+    CompletableFuture<ucar.ma2.Array> readChunkAsync(StoreHandle chunkHandle) {
+        if (chunkCache != null) {
+            ucar.ma2.Array cachedChunkArray = chunkCache.get(chunkHandle);
+            if (cachedChunkArray != null) {
+                return CompletableFuture.completedFuture(cachedChunkArray);
+            }
+        }
+        return readChunkUncachedAsync(chunkHandle);
+    }
+
+    private CompletableFuture<ucar.ma2.Array> readChunkUncachedAsync(StoreHandle chunkHandle) {
+        final ChunkCache chunkCache = this.chunkCache;
+        if (chunkCache == null) {
+            return decodeChunkAsync(chunkHandle);
+        }
+        // Chunks that are written while they are decoded are not cached
+        return CHUNK_DECODES.loadAsync(new ChunkCache.Key(chunkHandle), () -> decodeChunkAsync(chunkHandle),
+                chunkArray -> chunkCache.put(chunkHandle, chunkArray));
+    }
+
+    private CompletableFuture<ucar.ma2.Array> decodeChunkAsync(StoreHandle chunkHandle) {
+        return executionContext().thenApplyCpu(chunkHandle.readAsync(), chunkBytes -> {
+            if (chunkBytes == null) {
+                return null;
+            }
+            try {
+                return codecPipeline.decode(chunkBytes);
+            } catch (ZarrException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Asynchronously writes a ucar.ma2.Array into the Zarr array at a specified offset. Chunks are
+     * encoded on the CPU executor of the array's execution context and stored through
+     * {@link dev.zarr.zarrjava.store.Store#setAsync(String[], ByteBuffer)}. Partially covered chunks are
+     * merged like in {@link #write(long[], ucar.ma2.Array)}: into the write buffer if one is set, by
+     * re-encoding only the touched inner chunks of sharded chunks with blocking I/O on the I/O executor,
+     * or else by reading the chunk first.
+     *
+     * @param offset the offset where to write the data
+     * @param array  the data to write
+     * @return a future that completes once all chunks have been written
+     */
+    @Nonnull
+    public CompletableFuture<Void> writeAsync(long[] offset, ucar.ma2.Array array) {
+        ArrayMetadata metadata = metadata();
+        if (offset.length != metadata.ndim()) {
+            return failedFuture(
+                    new IllegalArgumentException("'offset' needs to have rank '" + metadata.ndim() + "'."));
+        }
+        if (array.getRank() != metadata.ndim()) {
+            return failedFuture(
+                    new IllegalArgumentException("'array' needs to have rank '" + metadata.ndim() + "'."));
+        }
+
+        final long[] shape = Utils.toLongArray(array.getShape());
+        final int[] chunkShape = metadata.chunkShape();
+        final WriteBuffer writeBuffer = this.writeBuffer;
+        final List<CompletableFuture<?>> chunkFutures = new ArrayList<>();
+        final Iterator<long[]> chunkCoordsIterator =
+                IndexingUtils.chunkCoordsIterator(metadata.shape, chunkShape, offset, shape);
+        while (chunkCoordsIterator.hasNext()) {
+            final long[] chunkCoords = chunkCoordsIterator.next();
+            final IndexingUtils.ChunkProjection chunkProjection =
+                    IndexingUtils.computeProjection(chunkCoords, metadata.shape, chunkShape, offset, shape);
+            final StoreHandle chunkHandle =
+                    storeHandle.resolve(metadata.chunkKeyEncoding().encodeChunkKey(chunkCoords));
+
+            if (IndexingUtils.isFullChunk(chunkProjection.chunkOffset, chunkProjection.shape, chunkShape)) {
+                final ucar.ma2.Array chunkArray;
+                try {
+                    chunkArray = array.sectionNoReduce(chunkProjection.outOffset, chunkProjection.shape, null);
+                } catch (InvalidRangeException e) {
+                    chunkFutures.add(failedFuture(new ZarrException(
+                            "Invalid array range when writing chunk at coordinates " + Arrays.toString(chunkCoords) +
+                            ": " + e.getMessage(), e)));
+                    continue;
+                }
+                chunkFutures.add(writeChunkAsync(chunkCoords, chunkArray));
+            } else if (writeBuffer != null) {
+                chunkFutures.add(executionContext().supplyIo(() -> {
+                    try {
+                        writeBuffer.write(this, chunkHandle, chunkCoords, array, chunkProjection.outOffset,
+                                chunkProjection.chunkOffset, chunkProjection.shape);
+                    } catch (ZarrException e) {
+                        throw new CompletionException(e);
+                    }
+                    return null;
+                }));
+            } else if (codecPipeline.supportsPartialDecode()) {
+                // Only the parts of the chunk that are written to are re-encoded
+                chunkFutures.add(executionContext().supplyIo(() -> {
+                    try {
+                        writeChunkBytes(chunkHandle, codecPipeline.encodePartial(fetchChunk(chunkHandle), array,
+                                chunkProjection.outOffset, chunkProjection.chunkOffset, chunkProjection.shape));
+                    } catch (ZarrException e) {
+                        throw new CompletionException(e);
+                    }
+                    return null;
+                }));
+            } else {
+                chunkFutures.add(readChunkCopyAsync(chunkHandle).thenCompose(chunkArray -> {
+                    MultiArrayUtils.copyRegion(array, chunkProjection.outOffset, chunkArray,
+                            chunkProjection.chunkOffset, chunkProjection.shape
+                    );
+                    return writeChunkAsync(chunkCoords, chunkArray);
+                }));
+            }
+        }
+        return CompletableFuture.allOf(chunkFutures.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Asynchronously writes a ucar.ma2.Array into the Zarr array at the beginning of the Zarr array.
+     *
+     * @see #writeAsync(long[], ucar.ma2.Array)
+     */
+    @Nonnull
+    public CompletableFuture<Void> writeAsync(ucar.ma2.Array array) {
+        return writeAsync(new long[metadata().ndim()], array);
+    }
+
+    /**
+     * Asynchronously writes one chunk into the Zarr array as specified by the chunk coordinates.
+     *
+     * @param chunkCoords The coordinates of the chunk as computed by the offset of the chunk divided
+     *                    by the chunk shape.
+     * @param chunkArray  The data to write into the chunk
+     * @return a future that completes once the chunk has been written
+     * @see #writeChunk(long[], ucar.ma2.Array)
+     */
+    @Nonnull
+    public CompletableFuture<Void> writeChunkAsync(long[] chunkCoords, ucar.ma2.Array chunkArray) {
+        final ArrayMetadata metadata = metadata();
+        final StoreHandle chunkHandle =
+                storeHandle.resolve(metadata.chunkKeyEncoding().encodeChunkKey(chunkCoords));
+        final Object parsedFillValue = metadata.parsedFillValue();
+        final WriteBuffer writeBuffer = this.writeBuffer;
+        if (writeBuffer != null) {
+            writeBuffer.discard(chunkHandle);
+        }
+
+        return executionContext().supplyCpu(() -> {
+                    if (parsedFillValue != null && MultiArrayUtils.allValuesEqual(chunkArray, parsedFillValue)) {
+                        return null;
+                    }
+                    try {
+                        return codecPipeline.encode(chunkArray);
+                    } catch (ZarrException e) {
+                        throw new CompletionException(e);
+                    }
+                })
+                .thenCompose(chunkBytes -> chunkBytes == null ? chunkHandle.deleteAsync() : chunkHandle.setAsync(chunkBytes))
+                .thenRun(() -> invalidateChunk(chunkHandle));
+    }
+
+    /**
+     * Sets a new shape for the Zarr array. Only the metadata is updated by default.
+     * This method returns a new instance of the Zarr array class and the old instance
+     * becomes invalid.
+     *
+     * @param newShape the new shape of the Zarr array
+     * @throws ZarrException if the new metadata is invalid
+     * @throws IOException   throws IOException if the new metadata cannot be serialized
+     */
+    public Array resize(long[] newShape) throws ZarrException, IOException {
+        return resize(newShape, true);
+    }
+
+    /**
+     * Sets a new shape for the Zarr array. This method returns a new instance of the Zarr array class
+     * and the old instance becomes invalid.
+     *
+     * @param newShape           the new shape of the Zarr array
+     * @param resizeMetadataOnly if true, only the metadata is updated; if false, chunks outside the new
+     *                           bounds are deleted and boundary chunks are trimmed
+     * @throws ZarrException if the new metadata is invalid
+     * @throws IOException   throws IOException if the new metadata cannot be serialized
+     */
+    public Array resize(long[] newShape, boolean resizeMetadataOnly) throws ZarrException, IOException {
+        return resize(newShape, resizeMetadataOnly, true);
+    }
+
+    /**
+     * Sets a new shape for the Zarr array. This method returns a new instance of the Zarr array class
+     * and the old instance becomes invalid.
+     *
+     * @param newShape           the new shape of the Zarr array
+     * @param resizeMetadataOnly if true, only the metadata is updated; if false, chunks outside the new
+     *                           bounds are deleted and boundary chunks are trimmed
+     * @param parallel           utilizes parallelism if true when cleaning up chunks
+     * @throws ZarrException if the new metadata is invalid
+     * @throws IOException   throws IOException if the new metadata cannot be serialized
+     */
+    public abstract Array resize(long[] newShape, boolean resizeMetadataOnly, boolean parallel) throws ZarrException, IOException;
+
+    public ArrayAccessor access() {
+        return new ArrayAccessor(this);
+    }
+
+    /**
+     * Returns a lazy view of the whole Zarr array that can be sliced, strided, transposed and squeezed
+     * before reading.
+     */
+    @Nonnull
+    public ArrayView view() {
+        return new ArrayView(this);
+    }
+
+    public static final class ArrayAccessor {
+        @Nullable
+        long[] offset;
+        @Nullable
+        long[] shape;
+        @Nullable
+        long[] stride;
+        @Nonnull
+        Array array;
+
+        public ArrayAccessor(@Nonnull Array array) {
+            this.array = array;
+        }
+
+        @Nonnull
+        public ArrayAccessor withOffset(@Nonnull long... offset) {
+            this.offset = offset;
+            return this;
         }
 
 
@@ -515,6 +1986,21 @@ public abstract class Array extends AbstractNode {
             return this;
         }
 
+        /**
+         * Selects every n-th element per dimension of the region, e.g. {@code withStride(1, 4, 4)}.
+         */
+        @Nonnull
+        public ArrayAccessor withStride(@Nonnull int... stride) {
+            this.stride = Utils.toLongArray(stride);
+            return this;
+        }
+
+        @Nonnull
+        public ArrayAccessor withStride(@Nonnull long... stride) {
+            this.stride = stride;
+            return this;
+        }
+
         @Nonnull
         public ucar.ma2.Array read() throws ZarrException {
             if (offset == null) {
@@ -523,6 +2009,9 @@ public abstract class Array extends AbstractNode {
             if (shape == null) {
                 throw new ZarrException("`shape` needs to be set.");
             }
+            if (stride != null) {
+                return array.readStrided(offset, shape, stride);
+            }
             return array.read(offset, shape);
         }
 
@@ -10,6 +10,7 @@ import dev.zarr.zarrjava.utils.Utils;
 import ucar.ma2.Array;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 
@@ -148,6 +149,23 @@ public abstract class ArrayMetadata {
 
     public abstract Object parsedFillValue();
 
+    /**
+     * @return the fill value, or the zero value of the data type if the array has no fill value, as
+     * Zarr v2 arrays with a null fill value may, or null if the data type has no zero value
+     */
+    @Nullable
+    Object parsedFillValueOrZero() {
+        final Object parsedFillValue = parsedFillValue();
+        if (parsedFillValue != null) {
+            return parsedFillValue;
+        }
+        try {
+            return parseFillValue(0, dataType());
+        } catch (ZarrException e) {
+            return null;
+        }
+    }
+
     public @Nonnull
     abstract Attributes attributes() throws ZarrException;
 
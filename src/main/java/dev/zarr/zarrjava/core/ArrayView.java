@@ -0,0 +1,237 @@
+package dev.zarr.zarrjava.core;
+
+import dev.zarr.zarrjava.ZarrException;
+import dev.zarr.zarrjava.utils.IndexingUtils;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * A lazy selection of a Zarr array that is composed of slices, strides, axis permutations and
+ * squeezed axes, e.g. {@code array.view().slice(offset, shape).stride(1, 4).transpose(1, 0).read()}.
+ * Views are immutable and composing them does not access the store. The composed selection is kept as
+ * one strided region of the array, so {@link #read()} and {@link #chunks()} only read the chunks that
+ * contain selected elements.
+ */
+public final class ArrayView {
+
+    @Nonnull
+    private final Array array;
+    // The selected region per dimension of the array
+    private final long[] start;
+    private final long[] count;
+    private final long[] step;
+    // The dimension of the array per dimension of the view; the other dimensions are squeezed
+    private final int[] axes;
+
+    public ArrayView(@Nonnull Array array) {
+        final int ndim = array.metadata().ndim();
+        this.array = array;
+        this.start = new long[ndim];
+        this.count = array.metadata().shape.clone();
+        this.step = new long[ndim];
+        Arrays.fill(step, 1);
+        this.axes = new int[ndim];
+        for (int dimIdx = 0; dimIdx < ndim; dimIdx++) {
+            axes[dimIdx] = dimIdx;
+        }
+    }
+
+    private ArrayView(Array array, long[] start, long[] count, long[] step, int[] axes) {
+        this.array = array;
+        this.start = start;
+        this.count = count;
+        this.step = step;
+        this.axes = axes;
+    }
+
+    @Nonnull
+    public Array array() {
+        return array;
+    }
+
+    public int ndim() {
+        return axes.length;
+    }
+
+    @Nonnull
+    public long[] shape() {
+        final long[] shape = new long[axes.length];
+        for (int dimIdx = 0; dimIdx < axes.length; dimIdx++) {
+            shape[dimIdx] = count[axes[dimIdx]];
+        }
+        return shape;
+    }
+
+    /**
+     * Selects a region of this view.
+     *
+     * @param offset the offset of the region within this view
+     * @param shape  the shape of the region
+     */
+    @Nonnull
+    public ArrayView slice(@Nonnull long[] offset, @Nonnull long[] shape) {
+        checkRank(offset, "offset");
+        checkRank(shape, "shape");
+        final long[] newStart = start.clone();
+        final long[] newCount = count.clone();
+        for (int dimIdx = 0; dimIdx < axes.length; dimIdx++) {
+            final int arrayDim = axes[dimIdx];
+            if (offset[dimIdx] < 0 || shape[dimIdx] < 0 || offset[dimIdx] + shape[dimIdx] > count[arrayDim]) {
+                throw new IllegalArgumentException("'offset' and 'shape' need to be within the view's shape " +
+                        Arrays.toString(shape()) + ".");
+            }
+            newStart[arrayDim] += offset[dimIdx] * step[arrayDim];
+            newCount[arrayDim] = shape[dimIdx];
+        }
+        return new ArrayView(array, newStart, newCount, step, axes);
+    }
+
+    /**
+     * Selects every n-th element per dimension of this view, starting with the first.
+     */
+    @Nonnull
+    public ArrayView stride(@Nonnull long... stride) {
+        checkRank(stride, "stride");
+        final long[] newCount = count.clone();
+        final long[] newStep = step.clone();
+        for (int dimIdx = 0; dimIdx < axes.length; dimIdx++) {
+            if (stride[dimIdx] < 1) {
+                throw new IllegalArgumentException("'stride' needs to be positive.");
+            }
+            final int arrayDim = axes[dimIdx];
+            newCount[arrayDim] = (count[arrayDim] + stride[dimIdx] - 1) / stride[dimIdx];
+            newStep[arrayDim] = Math.multiplyExact(step[arrayDim], stride[dimIdx]);
+        }
+        return new ArrayView(array, start, newCount, newStep, axes);
+    }
+
+    /**
+     * Permutes the dimensions of this view.
+     *
+     * @param permutation the dimension of this view per dimension of the new view
+     */
+    @Nonnull
+    public ArrayView transpose(@Nonnull int... permutation) {
+        if (permutation.length != axes.length) {
+            throw new IllegalArgumentException("'permutation' needs to have rank '" + axes.length + "'.");
+        }
+        final boolean[] seen = new boolean[axes.length];
+        final int[] newAxes = new int[axes.length];
+        for (int dimIdx = 0; dimIdx < axes.length; dimIdx++) {
+            final int dim = permutation[dimIdx];
+            if (dim < 0 || dim >= axes.length || seen[dim]) {
+                throw new IllegalArgumentException("'permutation' needs to be a permutation of the view's dimensions.");
+            }
+            seen[dim] = true;
+            newAxes[dimIdx] = axes[dim];
+        }
+        return new ArrayView(array, start, count, step, newAxes);
+    }
+
+    /**
+     * Removes the dimensions of length 1 from this view.
+     */
+    @Nonnull
+    public ArrayView squeeze() {
+        return new ArrayView(array, start, count, step,
+                Arrays.stream(axes).filter(arrayDim -> count[arrayDim] != 1).toArray());
+    }
+
+    /**
+     * Reads the selected elements. Parallelizes with the array's execution context.
+     *
+     * @return the elements in the order of the view's dimensions; permuted views are returned without
+     * copying the data into that order
+     * @throws ZarrException throws ZarrException if the read fails
+     */
+    @Nonnull
+    public ucar.ma2.Array read() throws ZarrException {
+        return read(true);
+    }
+
+    /**
+     * Reads the selected elements.
+     *
+     * @param parallel utilizes parallelism if true
+     * @throws ZarrException throws ZarrException if the read fails
+     * @see #read()
+     */
+    @Nonnull
+    public ucar.ma2.Array read(boolean parallel) throws ZarrException {
+        return toViewOrder(array.readStrided(start, regionShape(), step, parallel));
+    }
+
+    /**
+     * Lazily reads the selected elements chunk by chunk in row-major order of the array's chunks.
+     *
+     * @see #chunks(ChunkOrder)
+     */
+    @Nonnull
+    public Stream<ChunkRegion> chunks() {
+        return chunks(ChunkOrder.ROW_MAJOR);
+    }
+
+    /**
+     * Lazily reads the selected elements chunk by chunk, as {@link Array#chunks} does for regions. The
+     * data, {@link IndexingUtils.ChunkProjection#outOffset} and {@link IndexingUtils.ChunkProjection#shape}
+     * of each region are in the order of the view's dimensions, while the chunk coordinates and
+     * {@link IndexingUtils.ChunkProjection#chunkOffset} refer to the dimensions of the array.
+     *
+     * @param order the order in which the chunks are produced
+     */
+    @Nonnull
+    public Stream<ChunkRegion> chunks(@Nonnull ChunkOrder order) {
+        return array.chunks(start, regionShape(), step, order)
+                .map(region -> new ChunkRegion(new IndexingUtils.ChunkProjection(
+                        region.projection.chunkCoords, region.projection.chunkOffset,
+                        toViewOrder(region.projection.outOffset), toViewOrder(region.projection.shape)),
+                        toViewOrder(region.data)));
+    }
+
+    /**
+     * Returns the shape of the region of the array that spans the selected elements.
+     */
+    private long[] regionShape() {
+        final long[] shape = new long[count.length];
+        for (int dimIdx = 0; dimIdx < count.length; dimIdx++) {
+            shape[dimIdx] = count[dimIdx] == 0 ? 0 : (count[dimIdx] - 1) * step[dimIdx] + 1;
+        }
+        return shape;
+    }
+
+    private int[] toViewOrder(int[] values) {
+        final int[] viewValues = new int[axes.length];
+        for (int dimIdx = 0; dimIdx < axes.length; dimIdx++) {
+            viewValues[dimIdx] = values[axes[dimIdx]];
+        }
+        return viewValues;
+    }
+
+    /**
+     * Squeezes and permutes data that is in the order of the array's dimensions without copying it.
+     */
+    private ucar.ma2.Array toViewOrder(ucar.ma2.Array data) {
+        final int[] keptDims = axes.clone();
+        Arrays.sort(keptDims);
+        for (int arrayDim = count.length - 1; arrayDim >= 0; arrayDim--) {
+            if (Arrays.binarySearch(keptDims, arrayDim) < 0) {
+                data = data.reduce(arrayDim);
+            }
+        }
+        final int[] permutation = new int[axes.length];
+        boolean identity = true;
+        for (int dimIdx = 0; dimIdx < axes.length; dimIdx++) {
+            permutation[dimIdx] = Arrays.binarySearch(keptDims, axes[dimIdx]);
+            identity &= permutation[dimIdx] == dimIdx;
+        }
+        return identity ? data : data.permute(permutation);
+    }
+
+    private void checkRank(long[] values, String name) {
+        if (values.length != axes.length) {
+            throw new IllegalArgumentException("'" + name + "' needs to have rank '" + axes.length + "'.");
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package dev.zarr.zarrjava.core;
+
+import dev.zarr.zarrjava.store.Store;
+import dev.zarr.zarrjava.store.StoreHandle;
+import dev.zarr.zarrjava.utils.LruCache;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * A cache of decoded chunks that is bounded by the number of bytes of the decoded chunks. The cache
+ * is keyed by store and chunk key and can therefore be shared by multiple arrays that are opened on
+ * the same store. Cached chunks must not be modified.
+ */
+public class ChunkCache {
+
+    @Nonnull
+    private final LruCache<Key, ucar.ma2.Array> cache;
+
+    /**
+     * @param maxBytes the maximum number of bytes of all decoded chunks held by the cache
+     */
+    public ChunkCache(long maxBytes) {
+        this.cache = new LruCache<>(maxBytes,
+                chunkArray -> chunkArray.getSize() * chunkArray.getDataType().getSize());
+    }
+
+    @Nullable
+    public ucar.ma2.Array get(@Nonnull StoreHandle chunkHandle) {
+        return cache.get(new Key(chunkHandle));
+    }
+
+    public void put(@Nonnull StoreHandle chunkHandle, @Nonnull ucar.ma2.Array chunkArray) {
+        cache.put(new Key(chunkHandle), chunkArray);
+    }
+
+    public void invalidate(@Nonnull StoreHandle chunkHandle) {
+        cache.invalidate(new Key(chunkHandle));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long maxBytes() {
+        return cache.maxWeight();
+    }
+
+    /**
+     * @return the number of bytes of all decoded chunks that are currently cached
+     */
+    public long sizeBytes() {
+        return cache.weight();
+    }
+
+    public long hitCount() {
+        return cache.hitCount();
+    }
+
+    public long missCount() {
+        return cache.missCount();
+    }
+
+    public long evictionCount() {
+        return cache.evictionCount();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("<ChunkCache %d/%d bytes, hits=%d, misses=%d, evictions=%d>",
+                sizeBytes(), maxBytes(), hitCount(), missCount(), evictionCount());
+    }
+
+    static final class Key {
+
+        @Nonnull
+        final Store store;
+        @Nonnull
+        final String[] keys;
+
+        Key(@Nonnull StoreHandle storeHandle) {
+            this.store = storeHandle.store;
+            this.keys = storeHandle.keys;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return store == other.store && Arrays.equals(keys, other.keys);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(store) + Arrays.hashCode(keys);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package dev.zarr.zarrjava.core;
+
+import dev.zarr.zarrjava.core.chunkkeyencoding.ChunkKeyEncoder;
+import dev.zarr.zarrjava.store.StoreHandle;
+import dev.zarr.zarrjava.utils.IndexingUtils;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Per-thread state for traversing the chunks of a selection. The projection is updated in place and
+ * chunk keys are encoded incrementally, so that visiting a chunk allocates little more than its key.
+ * Cursors must only be used by one thread at a time, and the projection is only valid until the cursor
+ * is moved to the next chunk.
+ */
+final class ChunkCursor {
+
+    private final long[] arrayShape;
+    private final int[] chunkShape;
+    private final long[] selOffset;
+    private final long[] selShape;
+    private final StoreHandle storeHandle;
+    private final ChunkKeyEncoder keyEncoder;
+    private final IndexingUtils.ChunkProjection projection;
+
+    ChunkCursor(@Nonnull ArrayMetadata metadata, @Nonnull StoreHandle storeHandle,
+                @Nonnull long[] selOffset, @Nonnull long[] selShape) {
+        this.arrayShape = metadata.shape;
+        this.chunkShape = metadata.chunkShape();
+        this.selOffset = selOffset;
+        this.selShape = selShape;
+        this.storeHandle = storeHandle;
+        this.keyEncoder = metadata.chunkKeyEncoding().keyEncoder(storeHandle.keys);
+        this.projection = new IndexingUtils.ChunkProjection(arrayShape.length);
+    }
+
+    @Nonnull
+    IndexingUtils.ChunkProjection project(@Nonnull long[] chunkCoords) {
+        return IndexingUtils.updateProjection(projection, chunkCoords, arrayShape, chunkShape, selOffset,
+                selShape);
+    }
+
+    @Nonnull
+    StoreHandle chunkHandle(@Nonnull long[] chunkCoords) {
+        return new StoreHandle(storeHandle.store, keyEncoder.encode(chunkCoords));
+    }
+}
@@ -0,0 +1,15 @@
+package dev.zarr.zarrjava.core;
+
+/**
+ * The order in which {@link Array#chunks} produces the chunks of a selection.
+ */
+public enum ChunkOrder {
+    /**
+     * Row-major order of the chunk coordinates, regardless of which chunk is decoded first.
+     */
+    ROW_MAJOR,
+    /**
+     * The order in which the chunks finish decoding, which avoids waiting for slow chunks.
+     */
+    UNORDERED
+}
@@ -0,0 +1,27 @@
+package dev.zarr.zarrjava.core;
+
+import dev.zarr.zarrjava.utils.IndexingUtils;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The part of one chunk that lies within a selection, as produced by {@link Array#chunks}. The
+ * projection places the data within the chunk and within the selection.
+ */
+public final class ChunkRegion {
+
+    @Nonnull
+    public final IndexingUtils.ChunkProjection projection;
+    @Nonnull
+    public final ucar.ma2.Array data;
+
+    public ChunkRegion(@Nonnull IndexingUtils.ChunkProjection projection, @Nonnull ucar.ma2.Array data) {
+        this.projection = projection;
+        this.data = data;
+    }
+
+    @Nonnull
+    public long[] chunkCoords() {
+        return projection.chunkCoords;
+    }
+}
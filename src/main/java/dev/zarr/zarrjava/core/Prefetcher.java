@@ -0,0 +1,307 @@
+package dev.zarr.zarrjava.core;
+
+import dev.zarr.zarrjava.core.chunkkeyencoding.ChunkKeyEncoder;
+import dev.zarr.zarrjava.store.StoreHandle;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fetches chunks ahead of sequential reads, e.g. when an array is scanned slab by slab along one axis.
+ * Once two consecutive reads advance along a single dimension, the encoded bytes of the next chunks in
+ * that direction are fetched on the I/O executor of the array while the current chunks decode. For
+ * sharded arrays, whole shards are fetched ahead.
+ * <p>
+ * At most {@code depth} chunks are fetched ahead, and the fetched but not yet read chunks are bounded
+ * by {@code maxBytes}. Prefetched chunks are dropped when the access pattern changes. A prefetcher tracks
+ * the access pattern of one array and should not be shared between arrays.
+ */
+public class Prefetcher {
+
+    private final int depth;
+    private final long maxBytes;
+
+    private final LinkedHashMap<ChunkCache.Key, Fetch> fetches = new LinkedHashMap<>();
+    private long reservedBytes = 0;
+    @Nullable
+    private long[] lastStart;
+    @Nullable
+    private long[] lastEnd;
+    private int direction = -1;
+
+    private final LongAdder prefetchCount = new LongAdder();
+    private final LongAdder hitCount = new LongAdder();
+
+    /**
+     * @param depth    the maximum number of chunks that are fetched ahead
+     * @param maxBytes the maximum number of bytes of fetched chunks that have not been read yet
+     */
+    public Prefetcher(int depth, long maxBytes) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("'depth' needs to be at least 1.");
+        }
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("'maxBytes' needs to be non-negative.");
+        }
+        this.depth = depth;
+        this.maxBytes = maxBytes;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return the number of chunks that have been fetched ahead
+     */
+    public long prefetchCount() {
+        return prefetchCount.sum();
+    }
+
+    /**
+     * @return the number of chunk reads that were served by a prefetched chunk
+     */
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return the number of bytes of prefetched chunks that have not been read yet
+     */
+    public synchronized long sizeBytes() {
+        return reservedBytes;
+    }
+
+    /**
+     * Records a read of a region of the array and fetches the chunks ahead of it if the reads are
+     * sequential.
+     */
+    void observe(@Nonnull Array array, @Nonnull long[] offset, @Nonnull long[] shape) {
+        final ArrayMetadata metadata = array.metadata();
+        final int[] chunkShape = metadata.chunkShape();
+        final int ndim = offset.length;
+        final long[] start = new long[ndim];
+        final long[] end = new long[ndim];
+        for (int dimIdx = 0; dimIdx < ndim; dimIdx++) {
+            if (shape[dimIdx] == 0) {
+                return;
+            }
+            start[dimIdx] = offset[dimIdx] / chunkShape[dimIdx];
+            end[dimIdx] = (offset[dimIdx] + shape[dimIdx] - 1) / chunkShape[dimIdx];
+        }
+
+        final ExecutorService executor = array.executionContext().ioExecutor();
+        synchronized (this) {
+            if (lastStart == null || lastEnd == null || lastStart.length != ndim) {
+                lastStart = start;
+                lastEnd = end;
+                return;
+            }
+            if (!Arrays.equals(start, lastStart) || !Arrays.equals(end, lastEnd)) {
+                direction = advancedDimension(lastStart, lastEnd, start, end);
+                lastStart = start;
+                lastEnd = end;
+                if (direction < 0) {
+                    clear();
+                    return;
+                }
+            }
+            if (direction < 0 || executor == null) {
+                return;
+            }
+            dropBehind(start[direction]);
+            schedule(array, executor, start, end);
+        }
+    }
+
+    /**
+     * Returns the dimension in which a chunk box advanced without gaps while being unchanged in all
+     * other dimensions, or -1.
+     */
+    private static int advancedDimension(long[] lastStart, long[] lastEnd, long[] start, long[] end) {
+        int advancedDim = -1;
+        for (int dimIdx = 0; dimIdx < start.length; dimIdx++) {
+            if (start[dimIdx] == lastStart[dimIdx] && end[dimIdx] == lastEnd[dimIdx]) {
+                continue;
+            }
+            if (advancedDim >= 0 || start[dimIdx] < lastStart[dimIdx] || start[dimIdx] > lastEnd[dimIdx] + 1
+                    || end[dimIdx] <= lastEnd[dimIdx]) {
+                return -1;
+            }
+            advancedDim = dimIdx;
+        }
+        return advancedDim;
+    }
+
+    private void schedule(Array array, ExecutorService executor, long[] start, long[] end) {
+        final ArrayMetadata metadata = array.metadata();
+        final int[] chunkShape = metadata.chunkShape();
+        final long chunkCount = (metadata.shape[direction] + chunkShape[direction] - 1) / chunkShape[direction];
+        long estimatedChunkBytes = metadata.dataType().getByteCount();
+        for (int size : chunkShape) {
+            estimatedChunkBytes *= size;
+        }
+        final ChunkKeyEncoder keyEncoder = metadata.chunkKeyEncoding().keyEncoder(array.storeHandle.keys);
+
+        // The chunks ahead are enumerated layer by layer in the direction of the reads
+        final long[] chunkCoords = Arrays.copyOf(start, start.length);
+        chunkCoords[direction] = end[direction] + 1;
+        int ahead = 0;
+        while (ahead < depth && chunkCoords[direction] < chunkCount) {
+            final StoreHandle chunkHandle = new StoreHandle(array.storeHandle.store, keyEncoder.encode(chunkCoords));
+            final ChunkCache.Key key = new ChunkCache.Key(chunkHandle);
+            if (!fetches.containsKey(key)) {
+                if (reservedBytes + estimatedChunkBytes > maxBytes) {
+                    return;
+                }
+                final Fetch fetch = new Fetch(chunkHandle, chunkCoords[direction], estimatedChunkBytes);
+                fetches.put(key, fetch);
+                reservedBytes += estimatedChunkBytes;
+                try {
+                    executor.execute(() -> {
+                        if (fetch.run()) {
+                            prefetchCount.increment();
+                            fetch.future.thenAccept(bytes -> resize(key, fetch, bytes));
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    remove(key);
+                    return;
+                }
+            }
+            ahead++;
+            if (!nextInLayer(chunkCoords, start, end)) {
+                chunkCoords[direction]++;
+            }
+        }
+    }
+
+    /**
+     * Advances the coordinates to the next chunk within the current layer, in row-major order over all
+     * dimensions except the direction of the reads.
+     */
+    private boolean nextInLayer(long[] chunkCoords, long[] start, long[] end) {
+        for (int dimIdx = chunkCoords.length - 1; dimIdx >= 0; dimIdx--) {
+            if (dimIdx == direction) {
+                continue;
+            }
+            if (++chunkCoords[dimIdx] <= end[dimIdx]) {
+                return true;
+            }
+            chunkCoords[dimIdx] = start[dimIdx];
+        }
+        return false;
+    }
+
+    private synchronized void resize(ChunkCache.Key key, Fetch fetch, @Nullable ByteBuffer bytes) {
+        if (fetches.get(key) != fetch) {
+            return;
+        }
+        final long actualBytes = bytes != null ? bytes.remaining() : 0;
+        reservedBytes += actualBytes - fetch.bytes;
+        fetch.bytes = actualBytes;
+    }
+
+    private void dropBehind(long position) {
+        final Iterator<Map.Entry<ChunkCache.Key, Fetch>> iterator = fetches.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Fetch fetch = iterator.next().getValue();
+            if (fetch.position < position) {
+                reservedBytes -= fetch.bytes;
+                iterator.remove();
+            }
+        }
+    }
+
+    private void clear() {
+        fetches.clear();
+        reservedBytes = 0;
+    }
+
+    private synchronized void remove(ChunkCache.Key key) {
+        final Fetch fetch = fetches.remove(key);
+        if (fetch != null) {
+            reservedBytes -= fetch.bytes;
+        }
+    }
+
+    /**
+     * Takes a prefetched chunk. If its fetch has not started yet, the chunk is fetched by the calling
+     * thread instead of waiting for a free I/O thread.
+     *
+     * @return a future of the encoded bytes, which are null if the chunk does not exist, or null if the
+     * chunk has not been prefetched
+     */
+    @Nullable
+    CompletableFuture<ByteBuffer> take(@Nonnull StoreHandle chunkHandle) {
+        final Fetch fetch;
+        synchronized (this) {
+            if (fetches.isEmpty()) {
+                return null;
+            }
+            final ChunkCache.Key key = new ChunkCache.Key(chunkHandle);
+            fetch = fetches.get(key);
+            if (fetch == null) {
+                return null;
+            }
+            remove(key);
+        }
+        if (!fetch.run()) {
+            hitCount.increment();
+        }
+        return fetch.future;
+    }
+
+    /**
+     * Drops a prefetched chunk, e.g. because it has been overwritten.
+     */
+    void invalidate(@Nonnull StoreHandle chunkHandle) {
+        remove(new ChunkCache.Key(chunkHandle));
+    }
+
+    private static final class Fetch {
+
+        final StoreHandle chunkHandle;
+        final long position;
+        final CompletableFuture<ByteBuffer> future = new CompletableFuture<>();
+        final AtomicBoolean started = new AtomicBoolean();
+        long bytes;
+
+        Fetch(StoreHandle chunkHandle, long position, long bytes) {
+            this.chunkHandle = chunkHandle;
+            this.position = position;
+            this.bytes = bytes;
+        }
+
+        /**
+         * Runs the fetch unless it has already been started by another thread.
+         *
+         * @return whether the fetch has been run by the calling thread
+         */
+        boolean run() {
+            if (!started.compareAndSet(false, true)) {
+                return false;
+            }
+            try {
+                future.complete(chunkHandle.read());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package dev.zarr.zarrjava.core;
+
+import dev.zarr.zarrjava.store.StoreHandle;
+import dev.zarr.zarrjava.utils.LruCache;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A cache of decoded shard indexes that is bounded by the number of bytes of the indexes. Partial reads
+ * of a shard that hit the cache fetch only the inner chunks they need, without a request for the index.
+ * An index is held as the offset and length pairs of the inner chunks in row-major order, where -1 marks
+ * empty inner chunks. Cached indexes must not be modified.
+ */
+public class ShardIndexCache {
+
+    @Nonnull
+    private final LruCache<ChunkCache.Key, long[]> cache;
+
+    /**
+     * @param maxBytes the maximum number of bytes of all decoded shard indexes held by the cache
+     */
+    public ShardIndexCache(long maxBytes) {
+        this.cache = new LruCache<>(maxBytes, shardIndex -> 8L * shardIndex.length);
+    }
+
+    @Nullable
+    public long[] get(@Nonnull StoreHandle shardHandle) {
+        return cache.get(new ChunkCache.Key(shardHandle));
+    }
+
+    public void put(@Nonnull StoreHandle shardHandle, @Nonnull long[] shardIndex) {
+        cache.put(new ChunkCache.Key(shardHandle), shardIndex);
+    }
+
+    public void invalidate(@Nonnull StoreHandle shardHandle) {
+        cache.invalidate(new ChunkCache.Key(shardHandle));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long maxBytes() {
+        return cache.maxWeight();
+    }
+
+    /**
+     * @return the number of bytes of all shard indexes that are currently cached
+     */
+    public long sizeBytes() {
+        return cache.weight();
+    }
+
+    public long hitCount() {
+        return cache.hitCount();
+    }
+
+    public long missCount() {
+        return cache.missCount();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("<ShardIndexCache %d/%d bytes, hits=%d, misses=%d>",
+                sizeBytes(), maxBytes(), hitCount(), missCount());
+    }
+}
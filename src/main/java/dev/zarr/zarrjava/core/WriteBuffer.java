@@ -0,0 +1,294 @@
+package dev.zarr.zarrjava.core;
+
+import dev.zarr.zarrjava.ZarrException;
+import dev.zarr.zarrjava.store.StoreHandle;
+import dev.zarr.zarrjava.utils.MultiArrayUtils;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Accumulates partial writes of chunks in memory, so that a chunk that is written in many pieces is
+ * encoded and stored once instead of once per piece. A chunk is stored when all of its elements within
+ * the array's domain have been written, when it is evicted to keep the buffered chunks within
+ * {@code maxBytes}, or when the buffer is flushed. Only chunks that are stored with unwritten elements
+ * are read from the store, to fill in the elements that have not been written. A chunk stays in the
+ * buffer until it has been stored successfully, so that failed writes can be retried by flushing again.
+ */
+final class WriteBuffer {
+
+    private final long maxBytes;
+    // In least recently written order
+    private final LinkedHashMap<ChunkCache.Key, PendingChunk> chunks = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeBytes = 0;
+
+    WriteBuffer(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("'maxBytes' needs to be non-negative.");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    long maxBytes() {
+        return maxBytes;
+    }
+
+    synchronized long sizeBytes() {
+        return sizeBytes;
+    }
+
+    synchronized boolean isEmpty() {
+        return chunks.isEmpty();
+    }
+
+    synchronized boolean contains(@Nonnull StoreHandle chunkHandle) {
+        return chunks.containsKey(new ChunkCache.Key(chunkHandle));
+    }
+
+    /**
+     * Copies a region of the source into a chunk of the buffer. Stores the chunk if it is complete
+     * afterwards and evicts the least recently written chunks if the buffer is full.
+     *
+     * @param chunkCoords  the coordinates of the chunk
+     * @param source       the data to write
+     * @param sourceOffset the offset of the region within the source
+     * @param chunkOffset  the offset of the region within the chunk
+     * @param shape        the shape of the region
+     */
+    void write(@Nonnull Array array, @Nonnull StoreHandle chunkHandle, long[] chunkCoords, ucar.ma2.Array source,
+               int[] sourceOffset, int[] chunkOffset, int[] shape) throws ZarrException {
+        final ChunkCache.Key key = new ChunkCache.Key(chunkHandle);
+        while (true) {
+            PendingChunk chunk;
+            synchronized (this) {
+                chunk = chunks.get(key);
+            }
+            if (chunk == null) {
+                final PendingChunk newChunk = new PendingChunk(key, chunkHandle, array.metadata(), chunkCoords);
+                synchronized (this) {
+                    chunk = chunks.get(key);
+                    if (chunk == null) {
+                        chunk = newChunk;
+                        chunks.put(key, chunk);
+                        sizeBytes += chunk.bytes;
+                    }
+                }
+            }
+            synchronized (chunk) {
+                // The chunk has been stored by another thread in the meantime
+                if (chunk.stored) {
+                    continue;
+                }
+                MultiArrayUtils.copyRegion(source, sourceOffset, chunk.data, chunkOffset, shape);
+                chunk.markWritten(chunkOffset, shape);
+                if (chunk.isComplete()) {
+                    store(array, chunk);
+                }
+            }
+            break;
+        }
+        evict(array);
+    }
+
+    /**
+     * Drops the buffered writes of a chunk, e.g. because the chunk is overwritten completely.
+     */
+    void discard(@Nonnull StoreHandle chunkHandle) {
+        final PendingChunk chunk;
+        synchronized (this) {
+            chunk = chunks.remove(new ChunkCache.Key(chunkHandle));
+            if (chunk == null) {
+                return;
+            }
+            sizeBytes -= chunk.bytes;
+        }
+        synchronized (chunk) {
+            chunk.stored = true;
+        }
+    }
+
+    /**
+     * Stores all buffered chunks. Parallelizes with the array's execution context. Chunks that fail to be
+     * stored stay in the buffer.
+     */
+    void flush(@Nonnull Array array) {
+        final List<PendingChunk> pending;
+        synchronized (this) {
+            if (chunks.isEmpty()) {
+                return;
+            }
+            pending = new ArrayList<>(chunks.values());
+        }
+        array.executionContext().forEachIo(pending.iterator(), chunk -> {
+            synchronized (chunk) {
+                try {
+                    store(array, chunk);
+                } catch (ZarrException e) {
+                    throw new RuntimeException(
+                            "Failed to write chunk at coordinates " + Arrays.toString(chunk.chunkCoords) +
+                            ": " + e.getMessage(), e);
+                }
+            }
+        });
+    }
+
+    private void evict(Array array) throws ZarrException {
+        while (true) {
+            final PendingChunk chunk;
+            synchronized (this) {
+                if (sizeBytes <= maxBytes || chunks.isEmpty()) {
+                    return;
+                }
+                chunk = chunks.values().iterator().next();
+            }
+            synchronized (chunk) {
+                store(array, chunk);
+            }
+        }
+    }
+
+    private synchronized void remove(PendingChunk chunk) {
+        if (chunks.get(chunk.key) == chunk) {
+            chunks.remove(chunk.key);
+            sizeBytes -= chunk.bytes;
+        }
+    }
+
+    /**
+     * Encodes and stores a chunk, merging it with the stored chunk if not all elements have been written,
+     * and removes it from the buffer once it has been stored. Needs to be called while holding the lock of
+     * the chunk.
+     */
+    private void store(Array array, PendingChunk chunk) throws ZarrException {
+        if (chunk.stored) {
+            return;
+        }
+        ucar.ma2.Array chunkArray = chunk.data;
+        if (!chunk.isComplete()) {
+            chunkArray = array.readChunkCopy(chunk.chunkHandle);
+            chunk.copyWrittenInto(chunkArray);
+        }
+        array.writeChunk(chunk.chunkHandle, chunkArray);
+        chunk.stored = true;
+        remove(chunk);
+    }
+
+    /**
+     * A chunk with buffered writes. The written elements are tracked per element, both to detect complete
+     * chunks and to merge them into the stored chunk.
+     */
+    private static final class PendingChunk {
+
+        final ChunkCache.Key key;
+        final StoreHandle chunkHandle;
+        final long[] chunkCoords;
+        final ucar.ma2.Array data;
+        final long bytes;
+        final int[] chunkShape;
+        final BitSet written;
+        final long domainSize;
+        long writtenCount = 0;
+        boolean stored = false;
+
+        PendingChunk(ChunkCache.Key key, StoreHandle chunkHandle, ArrayMetadata metadata, long[] chunkCoords) {
+            this.key = key;
+            this.chunkHandle = chunkHandle;
+            this.chunkCoords = chunkCoords.clone();
+            this.data = metadata.allocateFillValueChunk();
+            this.bytes = data.getSize() * data.getDataType().getSize();
+            this.chunkShape = metadata.chunkShape();
+            this.written = new BitSet((int) data.getSize());
+            // Elements of boundary chunks beyond the array's domain are never written
+            long domainSize = 1;
+            for (int dimIdx = 0; dimIdx < chunkShape.length; dimIdx++) {
+                domainSize *= Math.min(chunkShape[dimIdx], metadata.shape[dimIdx] - chunkCoords[dimIdx] * chunkShape[dimIdx]);
+            }
+            this.domainSize = domainSize;
+        }
+
+        void markWritten(int[] offset, int[] shape) {
+            final int ndim = shape.length;
+            for (int size : shape) {
+                if (size == 0) {
+                    return;
+                }
+            }
+            if (ndim == 0) {
+                setWritten(0, 1);
+                return;
+            }
+            // Marks the region row by row along the last dimension
+            final int[] position = offset.clone();
+            while (true) {
+                int rowStart = 0;
+                for (int dimIdx = 0; dimIdx < ndim; dimIdx++) {
+                    rowStart = rowStart * chunkShape[dimIdx] + position[dimIdx];
+                }
+                setWritten(rowStart, rowStart + shape[ndim - 1]);
+                int dimIdx = ndim - 2;
+                while (dimIdx >= 0 && ++position[dimIdx] == offset[dimIdx] + shape[dimIdx]) {
+                    position[dimIdx] = offset[dimIdx];
+                    dimIdx--;
+                }
+                if (dimIdx < 0) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Marks a range of elements as written, counting the elements that had not been written before.
+         */
+        private void setWritten(int fromIndex, int toIndex) {
+            int clearIndex = written.nextClearBit(fromIndex);
+            while (clearIndex < toIndex) {
+                final int setIndex = written.nextSetBit(clearIndex);
+                final int endIndex = setIndex < 0 || setIndex > toIndex ? toIndex : setIndex;
+                writtenCount += endIndex - clearIndex;
+                clearIndex = written.nextClearBit(endIndex);
+            }
+            written.set(fromIndex, toIndex);
+        }
+
+        boolean isComplete() {
+            return writtenCount >= domainSize;
+        }
+
+        /**
+         * Copies the written elements into a chunk of the same shape, one run of consecutive written
+         * elements within a row at a time.
+         */
+        void copyWrittenInto(ucar.ma2.Array target) {
+            final int ndim = chunkShape.length;
+            // A chunk without dimensions is complete once it has been written
+            if (ndim == 0) {
+                return;
+            }
+            final int[] offset = new int[ndim];
+            final int[] shape = new int[ndim];
+            Arrays.fill(shape, 1);
+            int runStart = written.nextSetBit(0);
+            while (runStart >= 0) {
+                final int runEnd = written.nextClearBit(runStart);
+                int position = runStart;
+                while (position < runEnd) {
+                    // The run is split at row boundaries
+                    int remainder = position;
+                    for (int dimIdx = ndim - 1; dimIdx >= 0; dimIdx--) {
+                        offset[dimIdx] = remainder % chunkShape[dimIdx];
+                        remainder /= chunkShape[dimIdx];
+                    }
+                    final int length = Math.min(runEnd - position, chunkShape[ndim - 1] - offset[ndim - 1]);
+                    shape[ndim - 1] = length;
+                    MultiArrayUtils.copyRegion(data, offset, target, offset, shape);
+                    position += length;
+                }
+                runStart = written.nextSetBit(runEnd);
+            }
+        }
+    }
+}
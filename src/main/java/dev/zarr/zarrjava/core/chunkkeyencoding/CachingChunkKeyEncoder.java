@@ -0,0 +1,90 @@
+package dev.zarr.zarrjava.core.chunkkeyencoding;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Encodes chunk keys that consist of an optional prefix followed by the chunk coordinates, joined by a
+ * separator. Consecutive chunks of a row-major traversal share all but their last coordinates, so the
+ * encoded leading coordinates are cached and only the changed ones are converted to strings again.
+ */
+public class CachingChunkKeyEncoder implements ChunkKeyEncoder {
+
+    @Nonnull
+    private final String[] parentKeys;
+    @Nullable
+    private final String prefix;
+    @Nonnull
+    private final Separator separator;
+
+    private long[] cachedCoords = new long[0];
+    private String[] cachedComponents = new String[0];
+    private int cachedDims = 0;
+    @Nullable
+    private String cachedJoinedPrefix;
+
+    /**
+     * @param parentKeys the keys of the store location that contains the chunks
+     * @param prefix     the key component in front of the chunk coordinates, or null if there is none
+     * @param separator  the separator between the key components
+     */
+    public CachingChunkKeyEncoder(@Nonnull String[] parentKeys, @Nullable String prefix,
+                                  @Nonnull Separator separator) {
+        this.parentKeys = parentKeys;
+        this.prefix = prefix;
+        this.separator = separator;
+    }
+
+    @Override
+    public String[] encode(long[] chunkCoords) {
+        final int ndim = chunkCoords.length;
+        if (cachedCoords.length != ndim) {
+            cachedCoords = new long[ndim];
+            cachedComponents = new String[ndim];
+            cachedDims = 0;
+            cachedJoinedPrefix = null;
+        }
+        int firstChangedDim = 0;
+        while (firstChangedDim < cachedDims && cachedCoords[firstChangedDim] == chunkCoords[firstChangedDim]) {
+            firstChangedDim++;
+        }
+        for (int dimIdx = firstChangedDim; dimIdx < ndim; dimIdx++) {
+            cachedCoords[dimIdx] = chunkCoords[dimIdx];
+            cachedComponents[dimIdx] = Long.toString(chunkCoords[dimIdx]);
+        }
+        if (firstChangedDim < ndim - 1) {
+            cachedJoinedPrefix = null;
+        }
+        cachedDims = ndim;
+
+        final int prefixLength = prefix != null ? 1 : 0;
+        if (separator == Separator.SLASH) {
+            final String[] keys = new String[parentKeys.length + prefixLength + ndim];
+            System.arraycopy(parentKeys, 0, keys, 0, parentKeys.length);
+            if (prefix != null) {
+                keys[parentKeys.length] = prefix;
+            }
+            System.arraycopy(cachedComponents, 0, keys, parentKeys.length + prefixLength, ndim);
+            return keys;
+        }
+
+        final String[] keys = new String[parentKeys.length + 1];
+        System.arraycopy(parentKeys, 0, keys, 0, parentKeys.length);
+        if (ndim == 0) {
+            keys[parentKeys.length] = prefix != null ? prefix : "";
+            return keys;
+        }
+        if (cachedJoinedPrefix == null) {
+            final StringBuilder joinedPrefix = new StringBuilder();
+            if (prefix != null) {
+                joinedPrefix.append(prefix).append(separator.getValue());
+            }
+            for (int dimIdx = 0; dimIdx < ndim - 1; dimIdx++) {
+                joinedPrefix.append(cachedComponents[dimIdx]).append(separator.getValue());
+            }
+            cachedJoinedPrefix = joinedPrefix.toString();
+        }
+        keys[parentKeys.length] = cachedJoinedPrefix.concat(cachedComponents[ndim - 1]);
+        return keys;
+    }
+}
@@ -0,0 +1,11 @@
+package dev.zarr.zarrjava.core.chunkkeyencoding;
+
+/**
+ * Encodes the full store keys of the chunks below a store location. Encoders may keep state between
+ * calls and must only be used by one thread at a time.
+ */
+@FunctionalInterface
+public interface ChunkKeyEncoder {
+
+    String[] encode(long[] chunkCoords);
+}
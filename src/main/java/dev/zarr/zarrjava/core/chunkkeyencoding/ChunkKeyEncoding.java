@@ -1,7 +1,21 @@
 package dev.zarr.zarrjava.core.chunkkeyencoding;
 
+import dev.zarr.zarrjava.utils.Utils;
+
+import javax.annotation.Nonnull;
+
 public interface ChunkKeyEncoding {
 
     String[] encodeChunkKey(long[] chunkCoords);
 
+    /**
+     * Returns an encoder for the full keys of the chunks below a store location, which can encode the
+     * keys of many chunks with less overhead than {@link #encodeChunkKey(long[])}.
+     *
+     * @param parentKeys the keys of the store location that contains the chunks
+     */
+    @Nonnull
+    default ChunkKeyEncoder keyEncoder(@Nonnull String[] parentKeys) {
+        return chunkCoords -> Utils.concatArrays(parentKeys, encodeChunkKey(chunkCoords));
+    }
 }
@@ -2,8 +2,12 @@ package dev.zarr.zarrjava.core.codec;
 
 import dev.zarr.zarrjava.ZarrException;
 import dev.zarr.zarrjava.store.StoreHandle;
+import dev.zarr.zarrjava.utils.MultiArrayUtils;
+import dev.zarr.zarrjava.utils.Utils;
 import ucar.ma2.Array;
+import ucar.ma2.InvalidRangeException;
 
+import javax.annotation.Nullable;
 import java.nio.ByteBuffer;
 
 public abstract class ArrayBytesCodec extends AbstractCodec {
@@ -14,6 +18,21 @@ public abstract class ArrayBytesCodec extends AbstractCodec {
     public abstract Array decode(ByteBuffer chunkBytes)
             throws ZarrException;
 
+    /**
+     * Decodes a region of a chunk directly into a region of a target array. Codecs that can place
+     * decoded elements into the target without materializing the whole chunk override this method.
+     *
+     * @param chunkBytes   the encoded chunk
+     * @param target       the array to decode into
+     * @param targetOffset the offset in the target array
+     * @param chunkOffset  the offset of the region within the chunk
+     * @param shape        the shape of the region
+     */
+    public void decodeInto(ByteBuffer chunkBytes, Array target, int[] targetOffset, int[] chunkOffset,
+                           int[] shape) throws ZarrException {
+        MultiArrayUtils.copyRegion(decode(chunkBytes), chunkOffset, target, targetOffset, shape);
+    }
+
     public abstract static class WithPartialDecode extends ArrayBytesCodec {
 
         public abstract Array decode(ByteBuffer shardBytes) throws ZarrException;
@@ -23,6 +42,84 @@ public abstract class ArrayBytesCodec extends AbstractCodec {
         protected abstract Array decodePartial(
                 StoreHandle handle, long[] offset, int[] shape
         ) throws ZarrException;
+
+        /**
+         * Decodes a region of a chunk whose encoded bytes have already been fetched, e.g. ahead of
+         * time. The default decodes the whole chunk.
+         */
+        protected Array decodePartial(
+                ByteBuffer chunkBytes, long[] offset, int[] shape
+        ) throws ZarrException {
+            try {
+                return decode(chunkBytes).sectionNoReduce(Utils.toIntArray(offset), shape, null);
+            } catch (InvalidRangeException e) {
+                throw new ZarrException("Invalid region of the chunk.", e);
+            }
+        }
+
+        /**
+         * Decodes a region of a chunk directly into a region of a target array, e.g. to assemble a read
+         * without an intermediate array per chunk. Callers may decode into disjoint regions of the same
+         * target concurrently. The default decodes the region into a new array and copies it.
+         *
+         * @param handle       the storage location of the chunk
+         * @param offset       the offset of the region within the chunk
+         * @param shape        the shape of the region
+         * @param target       the array to decode into
+         * @param targetOffset the offset in the target array
+         */
+        protected void decodePartialInto(
+                StoreHandle handle, long[] offset, int[] shape, Array target, int[] targetOffset
+        ) throws ZarrException {
+            MultiArrayUtils.copyRegion(decodePartial(handle, offset, shape), new int[shape.length], target,
+                    targetOffset, shape);
+        }
+
+        /**
+         * Decodes scattered elements of a chunk into a one-dimensional target, e.g. for coordinate
+         * selections. The default decodes the whole chunk.
+         *
+         * @param handle        the storage location of the chunk
+         * @param points        the coordinates of the elements within the chunk, per dimension
+         * @param target        the array to decode into
+         * @param targetIndices the position of each element in the target
+         */
+        protected void decodePoints(
+                StoreHandle handle, int[][] points, Array target, int[] targetIndices
+        ) throws ZarrException {
+            ByteBuffer chunkBytes = handle.read();
+            if (chunkBytes == null) {
+                if (arrayMetadata.parsedFillValue != null) {
+                    MultiArrayUtils.fillPoints(target, targetIndices, arrayMetadata.parsedFillValue);
+                }
+                return;
+            }
+            MultiArrayUtils.copyPoints(decode(chunkBytes), points, target, targetIndices);
+        }
+
+        /**
+         * Writes a region of a source array into an encoded chunk, e.g. for writes smaller than a
+         * chunk. The default decodes and re-encodes the whole chunk.
+         *
+         * @param chunkBytes   the encoded chunk or null if the chunk does not exist
+         * @param source       the data to write
+         * @param sourceOffset the offset of the region within the source
+         * @param chunkOffset  the offset of the region within the chunk
+         * @param shape        the shape of the region
+         * @return the encoded updated chunk or null if it only contains the fill value
+         */
+        @Nullable
+        protected ByteBuffer encodePartial(
+                @Nullable ByteBuffer chunkBytes, Array source, int[] sourceOffset, int[] chunkOffset, int[] shape
+        ) throws ZarrException {
+            final Array chunkArray = chunkBytes != null ? decode(chunkBytes) : arrayMetadata.allocateFillValueChunk();
+            MultiArrayUtils.copyRegion(source, sourceOffset, chunkArray, chunkOffset, shape);
+            if (arrayMetadata.parsedFillValue != null &&
+                    MultiArrayUtils.allValuesEqual(chunkArray, arrayMetadata.parsedFillValue)) {
+                return null;
+            }
+            return encode(chunkArray);
+        }
     }
 }
 
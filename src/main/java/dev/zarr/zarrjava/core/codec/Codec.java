@@ -2,12 +2,38 @@ package dev.zarr.zarrjava.core.codec;
 
 import dev.zarr.zarrjava.ZarrException;
 import dev.zarr.zarrjava.core.ArrayMetadata;
+import dev.zarr.zarrjava.core.ShardIndexCache;
+import dev.zarr.zarrjava.store.StoreHandle;
+import dev.zarr.zarrjava.utils.ExecutionContext;
+
+import javax.annotation.Nullable;
 
 public interface Codec {
     void setCoreArrayMetadata(ArrayMetadata.CoreArrayMetadata codecArrayMetadata) throws ZarrException;
 
     ArrayMetadata.CoreArrayMetadata resolveArrayMetadata() throws ZarrException;
 
+    /**
+     * Sets the execution context for codecs that parallelize internally, e.g. over the inner chunks
+     * of a shard. A null context stands for {@link ExecutionContext#getDefault()}.
+     */
+    default void setExecutionContext(@Nullable ExecutionContext executionContext) {
+    }
+
+    /**
+     * Sets the cache for the decoded indexes of the shards that codecs with partial decoding read
+     * from the store. A null cache disables caching.
+     */
+    default void setShardIndexCache(@Nullable ShardIndexCache shardIndexCache) {
+    }
+
+    /**
+     * Called after a chunk has been written or deleted, so that codecs that read parts of chunks from the
+     * store detach their reads of the chunk that are in flight and do not cache what they read.
+     */
+    default void invalidate(StoreHandle chunkHandle) {
+    }
+
     default long computeEncodedSize(long inputByteLength, ArrayMetadata.CoreArrayMetadata arrayMetadata) throws ZarrException {
         throw new ZarrException("Not implemented for " + this.getClass());
     }
@@ -2,10 +2,14 @@ package dev.zarr.zarrjava.core.codec;
 
 import dev.zarr.zarrjava.ZarrException;
 import dev.zarr.zarrjava.core.ArrayMetadata.CoreArrayMetadata;
+import dev.zarr.zarrjava.core.ShardIndexCache;
 import dev.zarr.zarrjava.store.StoreHandle;
+import dev.zarr.zarrjava.utils.ExecutionContext;
+import dev.zarr.zarrjava.utils.MultiArrayUtils;
 import ucar.ma2.Array;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 
@@ -56,6 +60,24 @@ public class CodecPipeline {
         this.codecs = codecs;
     }
 
+    public void setExecutionContext(@Nullable ExecutionContext executionContext) {
+        for (Codec codec : codecs) {
+            codec.setExecutionContext(executionContext);
+        }
+    }
+
+    public void setShardIndexCache(@Nullable ShardIndexCache shardIndexCache) {
+        for (Codec codec : codecs) {
+            codec.setShardIndexCache(shardIndexCache);
+        }
+    }
+
+    public void invalidate(StoreHandle chunkHandle) {
+        for (Codec codec : codecs) {
+            codec.invalidate(chunkHandle);
+        }
+    }
+
     ArrayArrayCodec[] getArrayArrayCodecs() {
         return Arrays.stream(codecs)
                 .filter(c -> c instanceof ArrayArrayCodec)
@@ -100,26 +122,78 @@ public class CodecPipeline {
         return chunkArray;
     }
 
+    /**
+     * Decodes a region of a chunk directly into a region of a target array. Disjoint regions of the same
+     * target may be decoded concurrently.
+     */
+    public void decodePartialInto(
+            @Nonnull StoreHandle storeHandle,
+            long[] offset, int[] shape, @Nonnull Array target, int[] targetOffset
+    ) throws ZarrException {
+        if (!supportsPartialDecode()) {
+            throw new ZarrException(
+                    "Partial decode is not supported for these codecs. " + Arrays.toString(codecs));
+        }
+        ((ArrayBytesCodec.WithPartialDecode) getArrayBytesCodec()).decodePartialInto(
+                storeHandle, offset, shape, target, targetOffset);
+    }
+
+    /**
+     * Decodes a region of a chunk from encoded bytes that have already been fetched.
+     */
     @Nonnull
-    public Array decode(
-            @Nonnull ByteBuffer chunkBytes
+    public Array decodePartial(
+            @Nonnull ByteBuffer chunkBytes,
+            long[] offset, int[] shape
     ) throws ZarrException {
-        if (chunkBytes == null) {
-            throw new ZarrException("chunkBytes is null. Ohh nooo.");
+        if (!supportsPartialDecode()) {
+            throw new ZarrException(
+                    "Partial decode is not supported for these codecs. " + Arrays.toString(codecs));
         }
+        return ((ArrayBytesCodec.WithPartialDecode) getArrayBytesCodec()).decodePartial(
+                chunkBytes, offset, shape);
+    }
 
-        BytesBytesCodec[] bytesBytesCodecs = getBytesBytesCodecs();
-        for (int i = bytesBytesCodecs.length - 1; i >= 0; --i) {
-            BytesBytesCodec codec = bytesBytesCodecs[i];
-            chunkBytes = codec.decode(chunkBytes);
+    /**
+     * Decodes scattered elements of a chunk into a one-dimensional target. Elements of chunks that do not
+     * exist are set to the fill value.
+     */
+    public void decodePoints(
+            @Nonnull StoreHandle storeHandle,
+            int[][] points, @Nonnull Array target, int[] targetIndices
+    ) throws ZarrException {
+        if (!supportsPartialDecode()) {
+            throw new ZarrException(
+                    "Partial decode is not supported for these codecs. " + Arrays.toString(codecs));
         }
+        ((ArrayBytesCodec.WithPartialDecode) getArrayBytesCodec()).decodePoints(
+                storeHandle, points, target, targetIndices);
+    }
 
-        if (chunkBytes == null) {
+    /**
+     * Writes a region of a source array into an encoded chunk without decoding the parts of the chunk
+     * that the codec can keep as they are, e.g. the untouched inner chunks of a shard.
+     *
+     * @return the encoded updated chunk or null if it only contains the fill value
+     */
+    @Nullable
+    public ByteBuffer encodePartial(
+            @Nullable ByteBuffer chunkBytes, @Nonnull Array source, int[] sourceOffset, int[] chunkOffset,
+            int[] shape
+    ) throws ZarrException {
+        if (!supportsPartialDecode()) {
             throw new ZarrException(
-                    "chunkBytes is null. This is likely a bug in one of the codecs. " + Arrays.toString(
-                            getBytesBytesCodecs()));
+                    "Partial encode is not supported for these codecs. " + Arrays.toString(codecs));
         }
-        Array chunkArray = getArrayBytesCodec().decode(chunkBytes);
+        return ((ArrayBytesCodec.WithPartialDecode) getArrayBytesCodec()).encodePartial(
+                chunkBytes, source, sourceOffset, chunkOffset, shape);
+    }
+
+    @Nonnull
+    public Array decode(
+            @Nonnull ByteBuffer chunkBytes
+    ) throws ZarrException {
+        Array chunkArray = getArrayBytesCodec().decode(decodeBytes(chunkBytes));
         if (chunkArray == null) {
             throw new ZarrException("chunkArray is null. This is likely a bug in one of the codecs.");
         }
@@ -136,6 +210,48 @@ public class CodecPipeline {
         return chunkArray;
     }
 
+    /**
+     * Decodes a region of a chunk into a region of a target array. Without array-to-array codecs, the
+     * elements are placed into the target by the array-to-bytes codec without materializing the whole
+     * chunk.
+     *
+     * @param chunkBytes   the encoded chunk
+     * @param target       the array to decode into
+     * @param targetOffset the offset in the target array
+     * @param chunkOffset  the offset of the region within the chunk
+     * @param shape        the shape of the region
+     */
+    public void decodeInto(
+            @Nonnull ByteBuffer chunkBytes, @Nonnull Array target, int[] targetOffset, int[] chunkOffset,
+            int[] shape
+    ) throws ZarrException {
+        if (getArrayArrayCodecs().length > 0) {
+            MultiArrayUtils.copyRegion(decode(chunkBytes), chunkOffset, target, targetOffset, shape);
+            return;
+        }
+        getArrayBytesCodec().decodeInto(decodeBytes(chunkBytes), target, targetOffset, chunkOffset, shape);
+    }
+
+    @Nonnull
+    private ByteBuffer decodeBytes(ByteBuffer chunkBytes) throws ZarrException {
+        if (chunkBytes == null) {
+            throw new ZarrException("chunkBytes is null. Ohh nooo.");
+        }
+
+        BytesBytesCodec[] bytesBytesCodecs = getBytesBytesCodecs();
+        for (int i = bytesBytesCodecs.length - 1; i >= 0; --i) {
+            BytesBytesCodec codec = bytesBytesCodecs[i];
+            chunkBytes = codec.decode(chunkBytes);
+        }
+
+        if (chunkBytes == null) {
+            throw new ZarrException(
+                    "chunkBytes is null. This is likely a bug in one of the codecs. " + Arrays.toString(
+                            getBytesBytesCodecs()));
+        }
+        return chunkBytes;
+    }
+
     @Nonnull
     public ByteBuffer encode(
             @Nonnull Array chunkArray
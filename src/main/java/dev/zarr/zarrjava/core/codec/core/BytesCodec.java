@@ -3,6 +3,7 @@ package dev.zarr.zarrjava.core.codec.core;
 import com.fasterxml.jackson.annotation.JsonValue;
 import dev.zarr.zarrjava.ZarrException;
 import dev.zarr.zarrjava.core.codec.ArrayBytesCodec;
+import dev.zarr.zarrjava.utils.MultiArrayUtils;
 import ucar.ma2.*;
 
 import java.nio.ByteBuffer;
@@ -34,6 +35,22 @@ public abstract class BytesCodec extends ArrayBytesCodec {
         return Array.factory(dtype, shape, chunkBytes);
     }
 
+    @Override
+    public void decodeInto(ByteBuffer chunkBytes, Array target, int[] targetOffset, int[] chunkOffset,
+                           int[] shape) throws ZarrException {
+        if (arrayMetadata.dataType.getMA2DataType() == DataType.BOOLEAN
+                || target.getElementType() != arrayMetadata.dataType.getMA2DataType().getPrimitiveClassType()) {
+            super.decodeInto(chunkBytes, target, targetOffset, chunkOffset, shape);
+            return;
+        }
+        ByteOrder order = ByteOrder.BIG_ENDIAN; // Default for 1-byte types
+        if (arrayMetadata.dataType.getByteCount() > 1)
+            order = getByteOrder();
+        chunkBytes.order(order);
+        // Reads the elements of the region straight from the chunk bytes
+        MultiArrayUtils.copyRegion(chunkBytes, arrayMetadata.chunkShape, chunkOffset, target, targetOffset, shape);
+    }
+
     @Override
     public ByteBuffer encode(Array chunkArray) throws ZarrException {
         ByteOrder order = ByteOrder.BIG_ENDIAN; // Default for 1-byte types
@@ -0,0 +1,143 @@
+package dev.zarr.zarrjava.store;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded pool of open read-only file channels, so that repeated reads of byte ranges of the same file
+ * do not open and close it every time. The channels are read with positional reads, so they can be
+ * shared by many threads. The least-recently-used channels are closed when the pool is full, but only
+ * once the reads that use them are done.
+ */
+final class FileChannelPool {
+
+    private final int maxOpenFiles;
+    private final LinkedHashMap<Path, Handle> handles = new LinkedHashMap<>(16, 0.75f, true);
+    // Counts the invalidations, so that channels that were opened before a file was replaced are not pooled
+    private long invalidationCount = 0;
+
+    FileChannelPool(int maxOpenFiles) {
+        if (maxOpenFiles <= 0) {
+            throw new IllegalArgumentException("'maxOpenFiles' needs to be positive.");
+        }
+        this.maxOpenFiles = maxOpenFiles;
+    }
+
+    int maxOpenFiles() {
+        return maxOpenFiles;
+    }
+
+    synchronized int openFiles() {
+        return handles.size();
+    }
+
+    /**
+     * Returns a handle of an open channel of the file, which needs to be closed after the read.
+     */
+    Handle acquire(@Nonnull Path path) throws IOException {
+        final long invalidationCountBefore;
+        synchronized (this) {
+            final Handle handle = handles.get(path);
+            if (handle != null) {
+                handle.references++;
+                return handle;
+            }
+            invalidationCountBefore = invalidationCount;
+        }
+        final Handle handle = new Handle(FileChannel.open(path, StandardOpenOption.READ));
+        final List<Handle> evicted = new ArrayList<>();
+        final Handle pooled;
+        synchronized (this) {
+            // The file may have been replaced while it was opened, or opened concurrently by another read
+            final Handle existing = handles.get(path);
+            if (invalidationCount != invalidationCountBefore) {
+                return handle;
+            } else if (existing != null) {
+                existing.references++;
+                pooled = existing;
+            } else {
+                // The pool holds a reference of its own until the channel is evicted
+                handle.references++;
+                handles.put(path, handle);
+                final Iterator<Map.Entry<Path, Handle>> iterator = handles.entrySet().iterator();
+                while (handles.size() > maxOpenFiles && iterator.hasNext()) {
+                    evicted.add(iterator.next().getValue());
+                    iterator.remove();
+                }
+                pooled = handle;
+            }
+        }
+        if (pooled != handle) {
+            handle.close();
+        }
+        for (Handle evictedHandle : evicted) {
+            evictedHandle.close();
+        }
+        return pooled;
+    }
+
+    /**
+     * Closes the channel of a file that has been replaced or deleted once it is not used anymore.
+     */
+    void invalidate(@Nonnull Path path) {
+        final Handle handle;
+        synchronized (this) {
+            invalidationCount++;
+            handle = handles.remove(path);
+        }
+        if (handle != null) {
+            handle.close();
+        }
+    }
+
+    /**
+     * Closes all channels once they are not used anymore.
+     */
+    void invalidateAll() {
+        final List<Handle> removed;
+        synchronized (this) {
+            invalidationCount++;
+            removed = new ArrayList<>(handles.values());
+            handles.clear();
+        }
+        for (Handle handle : removed) {
+            handle.close();
+        }
+    }
+
+    /**
+     * A counted reference to an open channel.
+     */
+    final class Handle implements Closeable {
+
+        final FileChannel channel;
+        private int references = 1;
+
+        private Handle(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void close() {
+            synchronized (FileChannelPool.this) {
+                if (--references > 0) {
+                    return;
+                }
+            }
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // nothing was written to the channel, so nothing is lost
+            }
+        }
+    }
+}
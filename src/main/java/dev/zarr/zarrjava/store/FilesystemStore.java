@@ -1,5 +1,6 @@
 package dev.zarr.zarrjava.store;
 
+import dev.zarr.zarrjava.utils.LruCache;
 import dev.zarr.zarrjava.utils.Utils;
 import org.apache.commons.io.input.BoundedInputStream;
 
@@ -8,29 +9,302 @@ import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 public class FilesystemStore implements Store, Store.ListableStore {
 
     @Nonnull
     private final Path path;
+    @Nonnull
+    private final Path normalizedPath;
+    @Nonnull
+    private final Path absoluteNormalizedPath;
+
+    /**
+     * The default of {@link #coalesceGapBytes()}. Local reads are cheap, so only gaps of a few pages are
+     * worth reading.
+     */
+    public static final long DEFAULT_COALESCE_GAP_BYTES = 16 * 1024;
+    private static final int WRITE_SLICE_BYTES = 8 << 20;
+    // Temporary files of atomic writes, which are in progress or have been interrupted
+    private static final Pattern TEMP_FILE_NAME = Pattern.compile("\\..+\\.[0-9a-f]{1,16}\\.tmp");
+    private volatile long coalesceGapBytes = DEFAULT_COALESCE_GAP_BYTES;
+    @Nullable
+    private volatile ReadCostModel readCostModel = new ReadCostModel(0.01, 1600);
+    // The memory mappings of recently read files, if reads are served from mappings
+    @Nullable
+    private volatile LruCache<Path, MappedByteBuffer> mappedFiles;
+    // Counts the writes and deletes, so that mappings of replaced files are not cached
+    private long writeCount = 0;
+    // The open channels of recently read files, if they are kept open between reads
+    @Nullable
+    private volatile FileChannelPool channelPool;
+    private volatile boolean atomicWrites = false;
+    @Nonnull
+    private volatile Durability durability = Durability.NONE;
+    // The directories that this store has created or written to, which do not need to be created again
+    private final Set<Path> knownDirectories = ConcurrentHashMap.newKeySet();
+    // The files and directories that were changed since the last flush
+    private final Set<Path> unsyncedFiles = ConcurrentHashMap.newKeySet();
+    private final Set<Path> unsyncedDirectories = ConcurrentHashMap.newKeySet();
 
     public FilesystemStore(@Nonnull Path path) {
         this.path = path;
+        this.normalizedPath = path.normalize();
+        this.absoluteNormalizedPath = path.toAbsolutePath().normalize();
     }
 
     public FilesystemStore(@Nonnull String path) {
-        this.path = Paths.get(path);
+        this(Paths.get(path));
+    }
+
+    /**
+     * Sets the largest gap in bytes between two byte ranges that are read with one request, see
+     * {@link Store#coalesceGapBytes()}.
+     */
+    public FilesystemStore withCoalesceGapBytes(long coalesceGapBytes) {
+        if (coalesceGapBytes < 0) {
+            throw new IllegalArgumentException("'coalesceGapBytes' needs to be non-negative.");
+        }
+        this.coalesceGapBytes = coalesceGapBytes;
+        return this;
+    }
+
+    @Override
+    public long coalesceGapBytes() {
+        return coalesceGapBytes;
+    }
+
+    /**
+     * Sets the estimates of how long reads take, see {@link Store#readCostModel()}. By default, the
+     * estimates are learned from the observed reads.
+     *
+     * @param readCostModel the estimates or null to always read byte ranges
+     */
+    public FilesystemStore withReadCostModel(@Nullable ReadCostModel readCostModel) {
+        this.readCostModel = readCostModel;
+        return this;
+    }
+
+    @Nullable
+    @Override
+    public ReadCostModel readCostModel() {
+        return readCostModel;
+    }
+
+    /**
+     * Serves reads from memory mappings of the files instead of copying the files into buffers, which
+     * avoids any copy for large shards on local disks. Reads return read-only slices of the mappings.
+     * The mappings of the most recently read files are kept up to a total of {@code maxMappedBytes}.
+     * Files that are larger than that are mapped for each read, and files of more than 2 GiB are read
+     * without mapping.
+     * <p>
+     * Mappings cannot be unmapped safely while slices of them are in use, so they are released by the
+     * garbage collector. Instead, writes replace files with a new file rather than overwriting them in
+     * place, which keeps slices of the previous file valid. Files must not be truncated in place by other
+     * processes while they are mapped.
+     *
+     * @param maxMappedBytes the maximum number of bytes of the kept mappings or 0 to disable mapping
+     */
+    public FilesystemStore withMemoryMapping(long maxMappedBytes) {
+        if (maxMappedBytes < 0) {
+            throw new IllegalArgumentException("'maxMappedBytes' needs to be non-negative.");
+        }
+        this.mappedFiles = maxMappedBytes > 0 ? new LruCache<>(maxMappedBytes, MappedByteBuffer::capacity) : null;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of bytes of the kept memory mappings or 0 if reads are not mapped
+     */
+    public long maxMappedBytes() {
+        final LruCache<Path, MappedByteBuffer> mappedFiles = this.mappedFiles;
+        return mappedFiles != null ? mappedFiles.maxWeight() : 0;
+    }
+
+    /**
+     * Keeps the files open between reads of byte ranges, e.g. of inner chunks of shards, which saves
+     * opening and closing the file for every read. The channels of the most recently read files are kept
+     * open up to {@code maxOpenFiles} and are shared by concurrent reads. Writes and deletes close the
+     * channel of the file. Setting a new limit closes all files that are kept open.
+     *
+     * @param maxOpenFiles the maximum number of files that are kept open or 0 to open files for every read
+     */
+    public FilesystemStore withOpenFileLimit(int maxOpenFiles) {
+        if (maxOpenFiles < 0) {
+            throw new IllegalArgumentException("'maxOpenFiles' needs to be non-negative.");
+        }
+        final FileChannelPool previous = this.channelPool;
+        this.channelPool = maxOpenFiles > 0 ? new FileChannelPool(maxOpenFiles) : null;
+        if (previous != null) {
+            previous.invalidateAll();
+        }
+        return this;
+    }
+
+    /**
+     * @return the maximum number of files that are kept open between reads or 0 if they are not kept open
+     */
+    public int openFileLimit() {
+        final FileChannelPool channelPool = this.channelPool;
+        return channelPool != null ? channelPool.maxOpenFiles() : 0;
+    }
+
+    /**
+     * Writes every file to a temporary file next to it and renames it into place once it is complete, so
+     * that readers and crashes never see a partially written file. Writes are always atomic while reads
+     * are served from memory mappings, see {@link #withMemoryMapping(long)}.
+     */
+    public FilesystemStore withAtomicWrites(boolean atomicWrites) {
+        this.atomicWrites = atomicWrites;
+        return this;
+    }
+
+    public boolean atomicWrites() {
+        return atomicWrites;
+    }
+
+    /**
+     * Sets when written files are synced to the disk, see {@link Durability}.
+     */
+    public FilesystemStore withDurability(@Nonnull Durability durability) {
+        this.durability = durability;
+        return this;
+    }
+
+    @Nonnull
+    public Durability durability() {
+        return durability;
+    }
+
+    /**
+     * Reads a byte range of a file from a channel that is kept open, with positional reads that do not
+     * interfere with concurrent reads of the same channel.
+     *
+     * @param start the start of the range, or relative to the end of the file if negative
+     * @param end   the end of the range or {@link Long#MAX_VALUE} for the end of the file
+     */
+    private static ByteBuffer getPooled(FileChannelPool channelPool, Path keyPath, long start, long end)
+            throws IOException {
+        try (FileChannelPool.Handle handle = channelPool.acquire(keyPath)) {
+            final FileChannel channel = handle.channel;
+            final long startOffset = start >= 0 ? start : channel.size() + start;
+            final long endOffset = end == Long.MAX_VALUE ? channel.size() : end;
+            ByteBuffer bytes = Utils.allocateNative((int) (endOffset - startOffset));
+            long position = startOffset;
+            while (bytes.hasRemaining()) {
+                final int readBytes = channel.read(bytes, position);
+                if (readBytes < 0) {
+                    break;
+                }
+                position += readBytes;
+            }
+            bytes.rewind();
+            return bytes;
+        }
+    }
+
+    /**
+     * Reads a byte range of a file from its memory mapping.
+     *
+     * @param start the start of the range, or relative to the end of the file if negative
+     * @param end   the end of the range, which is limited to the end of the file
+     * @return a slice of the mapping or null if the file is too large to be mapped
+     */
+    @Nullable
+    private ByteBuffer getMapped(LruCache<Path, MappedByteBuffer> mappedFiles, Path keyPath, long start, long end)
+            throws IOException {
+        MappedByteBuffer mapping = mappedFiles.get(keyPath);
+        if (mapping == null) {
+            final long writeCountBefore;
+            synchronized (mappedFiles) {
+                writeCountBefore = writeCount;
+            }
+            try (FileChannel channel = FileChannel.open(keyPath, StandardOpenOption.READ)) {
+                final long size = channel.size();
+                if (size > Integer.MAX_VALUE) {
+                    return null;
+                }
+                mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            synchronized (mappedFiles) {
+                // The file may have been replaced while it was mapped
+                if (writeCount == writeCountBefore) {
+                    mappedFiles.put(keyPath, mapping);
+                }
+            }
+        }
+        final long size = mapping.capacity();
+        final long startOffset = Math.max(0, start >= 0 ? Math.min(start, size) : size + start);
+        final long endOffset = Math.max(startOffset, Math.min(end, size));
+        final ByteBuffer bytes = mapping.duplicate();
+        bytes.position((int) startOffset);
+        bytes.limit((int) endOffset);
+        return bytes.slice();
+    }
+
+    /**
+     * Drops the mapping and the open channel of a file after it has been replaced or deleted.
+     */
+    private void invalidateFile(Path keyPath) {
+        final LruCache<Path, MappedByteBuffer> mappedFiles = this.mappedFiles;
+        if (mappedFiles != null) {
+            synchronized (mappedFiles) {
+                writeCount++;
+                mappedFiles.invalidate(keyPath);
+            }
+        }
+        final FileChannelPool channelPool = this.channelPool;
+        if (channelPool != null) {
+            channelPool.invalidate(keyPath);
+        }
+    }
+
+    /**
+     * Returns true if the key is a single plain path component, which cannot leave the store root.
+     */
+    private static boolean isPlainKey(String key) {
+        if (key.isEmpty() || key.equals(".") || key.equals("..")) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c == '/' || c == '\\' || c == ':') {
+                return false;
+            }
+        }
+        return true;
     }
 
     Path resolveKeys(String[] keys) {
+        boolean plainKeys = true;
+        for (String key : keys) {
+            if (!isPlainKey(key)) {
+                plainKeys = false;
+                break;
+            }
+        }
+        if (plainKeys) {
+            // Plain keys cannot escape the root, so they are appended without normalizing the path
+            return keys.length == 0 ? normalizedPath :
+                    normalizedPath.getFileSystem().getPath(normalizedPath.toString(), keys);
+        }
+
         Path newPath = path;
         for (String key : keys) {
             newPath = newPath.resolve(key);
         }
-        Path absRoot = path.toAbsolutePath().normalize();
+        Path absRoot = absoluteNormalizedPath;
         Path absTarget = newPath.toAbsolutePath().normalize();
 
         if (!absTarget.startsWith(absRoot)) {
@@ -47,8 +321,16 @@ public class FilesystemStore implements Store, Store.ListableStore {
     @Nullable
     @Override
     public ByteBuffer get(String[] keys) {
+        final Path keyPath = resolveKeys(keys);
         try {
-            return ByteBuffer.wrap(Files.readAllBytes(resolveKeys(keys)));
+            final LruCache<Path, MappedByteBuffer> mappedFiles = this.mappedFiles;
+            if (mappedFiles != null) {
+                final ByteBuffer bytes = getMapped(mappedFiles, keyPath, 0, Long.MAX_VALUE);
+                if (bytes != null) {
+                    return bytes;
+                }
+            }
+            return ByteBuffer.wrap(Files.readAllBytes(keyPath));
         } catch (NoSuchFileException e) {
             return null;
         } catch (IOException e) {
@@ -59,7 +341,31 @@ public class FilesystemStore implements Store, Store.ListableStore {
     @Nullable
     @Override
     public ByteBuffer get(String[] keys, long start) {
-        try (SeekableByteChannel byteChannel = Files.newByteChannel(resolveKeys(keys))) {
+        final Path keyPath = resolveKeys(keys);
+        final LruCache<Path, MappedByteBuffer> mappedFiles = this.mappedFiles;
+        if (mappedFiles != null) {
+            try {
+                final ByteBuffer bytes = getMapped(mappedFiles, keyPath, start, Long.MAX_VALUE);
+                if (bytes != null) {
+                    return bytes;
+                }
+            } catch (NoSuchFileException e) {
+                return null;
+            } catch (IOException e) {
+                throw StoreException.readFailed(this.toString(), keys, e);
+            }
+        }
+        final FileChannelPool channelPool = this.channelPool;
+        if (channelPool != null) {
+            try {
+                return getPooled(channelPool, keyPath, start, Long.MAX_VALUE);
+            } catch (NoSuchFileException e) {
+                return null;
+            } catch (IOException e) {
+                throw StoreException.readFailed(this.toString(), keys, e);
+            }
+        }
+        try (SeekableByteChannel byteChannel = Files.newByteChannel(keyPath)) {
             long startOffset = 0;
             if (start >= 0) {
                 startOffset = start;
@@ -82,7 +388,31 @@ public class FilesystemStore implements Store, Store.ListableStore {
     @Nullable
     @Override
     public ByteBuffer get(String[] keys, long start, long end) {
-        try (SeekableByteChannel byteChannel = Files.newByteChannel(resolveKeys(keys))) {
+        final Path keyPath = resolveKeys(keys);
+        final LruCache<Path, MappedByteBuffer> mappedFiles = this.mappedFiles;
+        if (mappedFiles != null) {
+            try {
+                final ByteBuffer bytes = getMapped(mappedFiles, keyPath, start, end);
+                if (bytes != null) {
+                    return bytes;
+                }
+            } catch (NoSuchFileException e) {
+                return null;
+            } catch (IOException e) {
+                throw StoreException.readFailed(this.toString(), keys, e);
+            }
+        }
+        final FileChannelPool channelPool = this.channelPool;
+        if (channelPool != null) {
+            try {
+                return getPooled(channelPool, keyPath, start, end);
+            } catch (NoSuchFileException e) {
+                return null;
+            } catch (IOException e) {
+                throw StoreException.readFailed(this.toString(), keys, e);
+            }
+        }
+        try (SeekableByteChannel byteChannel = Files.newByteChannel(keyPath)) {
             long startOffset = 0;
             if (start >= 0) {
                 startOffset = start;
@@ -105,25 +435,131 @@ public class FilesystemStore implements Store, Store.ListableStore {
     @Override
     public void set(String[] keys, ByteBuffer bytes) {
         Path keyPath = resolveKeys(keys);
+        Path parentPath = keyPath.getParent();
         try {
-            Files.createDirectories(keyPath.getParent());
-        } catch (IOException e) {
-            throw StoreException.writeFailed(
-                    this.toString(),
-                    keys,
-                    new IOException("Failed to create parent directories for path: " + keyPath.getParent(), e));
-        }
-        try (SeekableByteChannel channel = Files.newByteChannel(keyPath.toAbsolutePath(),
-                StandardOpenOption.CREATE,
-                StandardOpenOption.TRUNCATE_EXISTING,
-                StandardOpenOption.WRITE
-        )) {
-            channel.write(bytes);
+            createDirectories(parentPath);
+            try {
+                writeFile(keyPath, bytes);
+            } catch (NoSuchFileException e) {
+                // The directory may have been removed since it was created
+                knownDirectories.remove(parentPath);
+                createDirectories(parentPath);
+                writeFile(keyPath, bytes);
+            }
         } catch (IOException e) {
             throw StoreException.writeFailed(
                     this.toString(),
                     keys,
                     new IOException("Failed to write " + bytes.remaining() + " bytes to file: " + keyPath, e));
+        } finally {
+            invalidateFile(keyPath);
+        }
+    }
+
+    /**
+     * Creates a directory and its parents unless this store has created or seen it before, which saves
+     * the system calls of checking every directory of the path for every write.
+     */
+    private void createDirectories(Path directoryPath) throws IOException {
+        if (knownDirectories.contains(directoryPath)) {
+            return;
+        }
+        Files.createDirectories(directoryPath);
+        knownDirectories.add(directoryPath);
+    }
+
+    private void writeFile(Path keyPath, ByteBuffer bytes) throws IOException {
+        final Durability durability = this.durability;
+        if (!atomicWrites && mappedFiles == null) {
+            try (FileChannel channel = FileChannel.open(keyPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                writeFully(channel, bytes);
+                if (durability == Durability.SYNC_FILES) {
+                    channel.force(true);
+                }
+            }
+        } else {
+            // Truncating a file that is mapped would also invalidate the slices of its mapping that are
+            // still in use, so the file is replaced with a new one instead
+            final Path tempPath = keyPath.resolveSibling(
+                    "." + keyPath.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong())
+                            + ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.WRITE)) {
+                    writeFully(channel, bytes);
+                    if (durability != Durability.NONE) {
+                        // The contents need to be durable before the rename, which may be persisted first
+                        channel.force(true);
+                    }
+                }
+                Files.move(tempPath, keyPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                try {
+                    Files.deleteIfExists(tempPath);
+                } catch (IOException ignored) {
+                    // the write failed anyway
+                }
+                throw e;
+            }
+        }
+        if (durability == Durability.SYNC_FILES) {
+            syncDirectory(keyPath.getParent());
+        } else if (durability == Durability.SYNC_ON_FLUSH) {
+            if (!atomicWrites && mappedFiles == null) {
+                unsyncedFiles.add(keyPath);
+            }
+            unsyncedDirectories.add(keyPath.getParent());
+        }
+    }
+
+    /**
+     * Writes all bytes without changing the position of the buffer. Heap buffers are copied into a
+     * temporary direct buffer of the same size for every write, which the JDK keeps for each thread, so
+     * large buffers are written in slices.
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer bytes) throws IOException {
+        final ByteBuffer remaining = bytes.duplicate();
+        final int limit = remaining.limit();
+        while (remaining.position() < limit) {
+            remaining.limit(Math.min(limit, remaining.position() + WRITE_SLICE_BYTES));
+            while (remaining.hasRemaining()) {
+                channel.write(remaining);
+            }
+        }
+    }
+
+    private static void syncDirectory(Path directoryPath) throws IOException {
+        try (FileChannel channel = FileChannel.open(directoryPath, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (AccessDeniedException e) {
+            // Directories cannot be opened on Windows, where the metadata of a file is synced with the file
+        }
+    }
+
+    /**
+     * Makes the writes and deletes since the last flush durable, if the durability is
+     * {@link Durability#SYNC_ON_FLUSH}. The written files are synced first, then the directories that
+     * contain their entries.
+     */
+    public void flush() throws IOException {
+        final List<Path> files = new ArrayList<>(unsyncedFiles);
+        unsyncedFiles.removeAll(files);
+        for (Path filePath : files) {
+            try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            } catch (NoSuchFileException e) {
+                // deleted since it was written
+            }
+        }
+        final List<Path> directories = new ArrayList<>(unsyncedDirectories);
+        unsyncedDirectories.removeAll(directories);
+        for (Path directoryPath : directories) {
+            try {
+                syncDirectory(directoryPath);
+            } catch (NoSuchFileException e) {
+                // removed since it was written to
+            }
         }
     }
 
@@ -132,6 +568,12 @@ public class FilesystemStore implements Store, Store.ListableStore {
         Path keyPath = resolveKeys(keys);
         try {
             Files.delete(keyPath);
+            if (durability == Durability.SYNC_FILES) {
+                syncDirectory(keyPath.getParent());
+            } else if (durability == Durability.SYNC_ON_FLUSH) {
+                unsyncedFiles.remove(keyPath);
+                unsyncedDirectories.add(keyPath.getParent());
+            }
         } catch (NoSuchFileException e) {
             // ignore - file doesn't exist, which is the desired outcome
         } catch (IOException e) {
@@ -139,6 +581,8 @@ public class FilesystemStore implements Store, Store.ListableStore {
                     this.toString(),
                     keys,
                     new IOException("Failed to delete file: " + keyPath, e));
+        } finally {
+            invalidateFile(keyPath);
         }
     }
 
@@ -162,7 +606,7 @@ public class FilesystemStore implements Store, Store.ListableStore {
         Path rootPath = resolveKeys(prefix);
         try {
             return Files.walk(rootPath)
-                    .filter(Files::isRegularFile)
+                    .filter(path -> Files.isRegularFile(path) && !isTempFile(path))
                     .map(path -> pathToKeyArray(rootPath, path, prefix));
         } catch (IOException e) {
             throw StoreException.listFailed(
@@ -179,7 +623,9 @@ public class FilesystemStore implements Store, Store.ListableStore {
             return Stream.empty();
         }
         try {
-            return Files.list(rootPath).map(path -> path.getFileName().toString());
+            return Files.list(rootPath)
+                    .filter(path -> !isTempFile(path))
+                    .map(path -> path.getFileName().toString());
         } catch (IOException e) {
             throw StoreException.listFailed(
                     this.toString(),
@@ -188,6 +634,10 @@ public class FilesystemStore implements Store, Store.ListableStore {
         }
     }
 
+    private static boolean isTempFile(Path path) {
+        return TEMP_FILE_NAME.matcher(path.getFileName().toString()).matches();
+    }
+
     @Nonnull
     @Override
     public StoreHandle resolve(String... keys) {
@@ -241,4 +691,24 @@ public class FilesystemStore implements Store, Store.ListableStore {
                     new IOException("Failed to get file size for: " + keyPath, e));
         }
     }
+
+    /**
+     * When the writes of a {@link FilesystemStore} are synced to the disk, so that they survive a crash
+     * of the operating system or a power loss.
+     */
+    public enum Durability {
+        /**
+         * Files are not synced, the operating system writes them to the disk eventually.
+         */
+        NONE,
+        /**
+         * Every file and its directory are synced before the write returns.
+         */
+        SYNC_FILES,
+        /**
+         * The files and directories that were written are synced by {@link FilesystemStore#flush()}, which
+         * batches the syncs of many writes. Atomic writes sync each file before renaming it regardless.
+         */
+        SYNC_ON_FLUSH
+    }
 }
@@ -9,6 +9,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
 public class HttpStore implements Store {
 
@@ -17,19 +18,75 @@ public class HttpStore implements Store {
     @Nonnull
     private final String uri;
 
+    /**
+     * The default of {@link #coalesceGapBytes()}. HTTP servers are usually closer than S3 but still far
+     * slower per request than per byte.
+     */
+    public static final long DEFAULT_COALESCE_GAP_BYTES = 256 * 1024;
+    private volatile long coalesceGapBytes = DEFAULT_COALESCE_GAP_BYTES;
+    @Nullable
+    private volatile ReadCostModel readCostModel = new ReadCostModel(2.5, 100);
+
     public HttpStore(@Nonnull String uri) {
         this(uri, 60, 3, 1000);
     }
 
     public HttpStore(@Nonnull String uri, int timeoutSeconds, int maxRetries, long retryDelayMs) {
+        this(uri, timeoutSeconds, maxRetries, retryDelayMs, 64);
+    }
+
+    /**
+     * @param maxConcurrentRequests the maximum number of concurrent requests of the async methods (e.g.
+     *                              {@link #getAsync(String[])})
+     */
+    public HttpStore(@Nonnull String uri, int timeoutSeconds, int maxRetries, long retryDelayMs,
+                     int maxConcurrentRequests) {
         this.uri = uri;
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxConcurrentRequests);
+        dispatcher.setMaxRequestsPerHost(maxConcurrentRequests);
         this.httpClient = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
                 .connectTimeout(Duration.ofSeconds(timeoutSeconds))
                 .readTimeout(Duration.ofSeconds(timeoutSeconds))
                 .addInterceptor(new RetryInterceptor(maxRetries, retryDelayMs))
                 .build();
     }
 
+    /**
+     * Sets the largest gap in bytes between two byte ranges that are read with one request, see
+     * {@link Store#coalesceGapBytes()}.
+     */
+    public HttpStore withCoalesceGapBytes(long coalesceGapBytes) {
+        if (coalesceGapBytes < 0) {
+            throw new IllegalArgumentException("'coalesceGapBytes' needs to be non-negative.");
+        }
+        this.coalesceGapBytes = coalesceGapBytes;
+        return this;
+    }
+
+    @Override
+    public long coalesceGapBytes() {
+        return coalesceGapBytes;
+    }
+
+    /**
+     * Sets the estimates of how long reads take, see {@link Store#readCostModel()}. By default, the
+     * estimates are learned from the observed reads.
+     *
+     * @param readCostModel the estimates or null to always read byte ranges
+     */
+    public HttpStore withReadCostModel(@Nullable ReadCostModel readCostModel) {
+        this.readCostModel = readCostModel;
+        return this;
+    }
+
+    @Nullable
+    @Override
+    public ReadCostModel readCostModel() {
+        return readCostModel;
+    }
+
     String resolveKeys(String[] keys) {
         HttpUrl url = HttpUrl.parse(uri);
         if (url == null) {
@@ -63,6 +120,38 @@ public class HttpStore implements Store {
         }
     }
 
+    CompletableFuture<ByteBuffer> getAsync(Request request, String[] keys) {
+        CompletableFuture<ByteBuffer> future = new CompletableFuture<>();
+        httpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(@Nonnull Call call, @Nonnull IOException e) {
+                future.completeExceptionally(StoreException.readFailed(HttpStore.this.toString(), keys, e));
+            }
+
+            @Override
+            public void onResponse(@Nonnull Call call, @Nonnull Response response) {
+                try (Response r = response) {
+                    if (!r.isSuccessful()) {
+                        if (r.code() == 404) {
+                            future.complete(null);
+                            return;
+                        }
+                        future.completeExceptionally(StoreException.readFailed(
+                                HttpStore.this.toString(),
+                                keys,
+                                new IOException("HTTP request failed with status code: " + r.code() + " " + r.message())));
+                        return;
+                    }
+                    ResponseBody body = r.body();
+                    future.complete((body == null) ? null : ByteBuffer.wrap(body.bytes()));
+                } catch (IOException e) {
+                    future.completeExceptionally(StoreException.readFailed(HttpStore.this.toString(), keys, e));
+                }
+            }
+        });
+        return future;
+    }
+
     @Override
     public boolean exists(String[] keys) {
         Request request = new Request.Builder().head().url(resolveKeys(keys)).build();
@@ -73,32 +162,58 @@ public class HttpStore implements Store {
         }
     }
 
+    Request getRequest(String[] keys) {
+        return new Request.Builder().url(resolveKeys(keys)).build();
+    }
+
+    Request getRequest(String[] keys, long start) {
+        return new Request.Builder().url(resolveKeys(keys)).header(
+                        "Range", start < 0 ? String.format("bytes=%d", start) : String.format("bytes=%d-", start))
+                .build();
+    }
+
+    Request getRequest(String[] keys, long start, long end) {
+        if (start < 0) {
+            throw new IllegalArgumentException("Argument 'start' needs to be non-negative.");
+        }
+        return new Request.Builder().url(resolveKeys(keys)).header(
+                "Range", String.format("bytes=%d-%d", start, end - 1)).build();
+    }
+
     @Nullable
     @Override
     public ByteBuffer get(String[] keys) {
-        Request request = new Request.Builder().url(resolveKeys(keys)).build();
-        return get(request, keys);
+        return get(getRequest(keys), keys);
     }
 
     @Nullable
     @Override
     public ByteBuffer get(String[] keys, long start) {
-        Request request = new Request.Builder().url(resolveKeys(keys)).header(
-                        "Range", start < 0 ? String.format("bytes=%d", start) : String.format("bytes=%d-", start))
-                .build();
-
-        return get(request, keys);
+        return get(getRequest(keys, start), keys);
     }
 
     @Nullable
     @Override
     public ByteBuffer get(String[] keys, long start, long end) {
-        if (start < 0) {
-            throw new IllegalArgumentException("Argument 'start' needs to be non-negative.");
-        }
-        Request request = new Request.Builder().url(resolveKeys(keys)).header(
-                "Range", String.format("bytes=%d-%d", start, end - 1)).build();
-        return get(request, keys);
+        return get(getRequest(keys, start, end), keys);
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<ByteBuffer> getAsync(String[] keys) {
+        return getAsync(getRequest(keys), keys);
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<ByteBuffer> getAsync(String[] keys, long start) {
+        return getAsync(getRequest(keys, start), keys);
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<ByteBuffer> getAsync(String[] keys, long start, long end) {
+        return getAsync(getRequest(keys, start, end), keys);
     }
 
     @Override
@@ -125,11 +240,7 @@ public class HttpStore implements Store {
     @Override
     @Nullable
     public InputStream getInputStream(String[] keys, long start, long end) {
-        if (start < 0) {
-            throw new IllegalArgumentException("Argument 'start' needs to be non-negative.");
-        }
-        Request request = new Request.Builder().url(resolveKeys(keys)).header(
-                "Range", String.format("bytes=%d-%d", start, end - 1)).build();
+        Request request = getRequest(keys, start, end);
 
         try {
             // We do NOT use try-with-resources here because the stream must remain open
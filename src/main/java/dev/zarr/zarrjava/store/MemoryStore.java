@@ -49,9 +49,10 @@ public class MemoryStore implements Store, Store.ListableStore {
     public ByteBuffer get(String[] keys, long start, long end) {
         byte[] bytes = map.get(resolveKeys(keys));
         if (bytes == null) return null;
+        if (start < 0) start = Math.max(bytes.length + start, 0);
         if (end < 0) end = bytes.length;
         if (end > Integer.MAX_VALUE) throw new IllegalArgumentException("End index too large");
-        return ByteBuffer.wrap(bytes, (int) start, (int) (end - start));
+        return ByteBuffer.wrap(bytes, (int) start, (int) (end - start)).slice();
     }
 
 
@@ -0,0 +1,126 @@
+package dev.zarr.zarrjava.store;
+
+/**
+ * Estimates how long reads from a store take, as a latency per request plus a time per byte. Readers
+ * use the estimates to choose between reading a whole object, e.g. a shard, and reading byte ranges of
+ * it. The estimates start from the given priors and are learned from the durations of the reads that
+ * are observed, with a linear regression of the duration on the number of bytes that weights recent
+ * reads exponentially more, so that they follow changing network conditions.
+ */
+public class ReadCostModel {
+
+    private static final double DECAY = 0.05;
+    // The priors are kept until enough reads have been observed
+    private static final int MIN_OBSERVATIONS = 8;
+
+    private final boolean learning;
+    private long observationCount = 0;
+    private double meanBytes = 0;
+    private double meanNanos = 0;
+    private double meanBytesSquared = 0;
+    private double meanBytesNanos = 0;
+    private double latencyNanos;
+    private double nanosPerByte;
+
+    /**
+     * Creates a model that learns from observed reads.
+     *
+     * @param latencyMillis the initial estimate of the latency per request in milliseconds
+     * @param bandwidthMBps the initial estimate of the bandwidth in megabytes per second
+     */
+    public ReadCostModel(double latencyMillis, double bandwidthMBps) {
+        this(latencyMillis, bandwidthMBps, true);
+    }
+
+    private ReadCostModel(double latencyMillis, double bandwidthMBps, boolean learning) {
+        if (latencyMillis < 0) {
+            throw new IllegalArgumentException("'latencyMillis' needs to be non-negative.");
+        }
+        if (bandwidthMBps <= 0) {
+            throw new IllegalArgumentException("'bandwidthMBps' needs to be positive.");
+        }
+        this.latencyNanos = latencyMillis * 1e6;
+        this.nanosPerByte = 1e3 / bandwidthMBps;
+        this.learning = learning;
+    }
+
+    /**
+     * Creates a model with fixed estimates that ignores observed reads.
+     *
+     * @param latencyMillis the latency per request in milliseconds
+     * @param bandwidthMBps the bandwidth in megabytes per second
+     */
+    public static ReadCostModel fixed(double latencyMillis, double bandwidthMBps) {
+        return new ReadCostModel(latencyMillis, bandwidthMBps, false);
+    }
+
+    /**
+     * Records the duration of a read.
+     *
+     * @param bytes the number of bytes that were read
+     * @param nanos the duration of the read in nanoseconds
+     */
+    public synchronized void observe(long bytes, long nanos) {
+        if (!learning || bytes < 0 || nanos < 0) {
+            return;
+        }
+        observationCount++;
+        // The first reads are weighted equally, so that the priors are replaced quickly
+        final double weight = Math.max(DECAY, 1.0 / observationCount);
+        meanBytes += weight * (bytes - meanBytes);
+        meanNanos += weight * (nanos - meanNanos);
+        meanBytesSquared += weight * ((double) bytes * bytes - meanBytesSquared);
+        meanBytesNanos += weight * ((double) bytes * nanos - meanBytesNanos);
+        if (observationCount < MIN_OBSERVATIONS) {
+            return;
+        }
+        // The time per byte can only be told apart from the latency if the reads differ in size
+        final double varianceBytes = meanBytesSquared - meanBytes * meanBytes;
+        if (varianceBytes > 0.01 * meanBytes * meanBytes) {
+            final double slope = (meanBytesNanos - meanBytes * meanNanos) / varianceBytes;
+            if (slope > 0) {
+                nanosPerByte = slope;
+            }
+        }
+        latencyNanos = Math.max(0, meanNanos - nanosPerByte * meanBytes);
+    }
+
+    /**
+     * Estimates the duration of a number of reads that are issued concurrently.
+     *
+     * @param requests    the number of requests
+     * @param bytes       the total number of bytes of all requests
+     * @param parallelism the number of requests in flight at the same time
+     * @return the estimated duration in nanoseconds
+     */
+    public synchronized double costNanos(int requests, long bytes, int parallelism) {
+        final int waves = (requests + Math.max(parallelism, 1) - 1) / Math.max(parallelism, 1);
+        return waves * latencyNanos + bytes * nanosPerByte;
+    }
+
+    /**
+     * @return the largest gap between two byte ranges that is faster to read than to skip with another
+     * request
+     */
+    public synchronized long breakEvenGapBytes() {
+        return (long) (latencyNanos / nanosPerByte);
+    }
+
+    public synchronized double latencyMillis() {
+        return latencyNanos / 1e6;
+    }
+
+    public synchronized double bandwidthMBps() {
+        return 1e3 / nanosPerByte;
+    }
+
+    public synchronized long observationCount() {
+        return observationCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("<ReadCostModel latency=%.3fms, bandwidth=%.1fMB/s, observations=%d>",
+                latencyMillis(), bandwidthMBps(), observationCount());
+    }
+}
@@ -3,6 +3,8 @@ package dev.zarr.zarrjava.store;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Stream;
 
 import javax.annotation.Nonnull;
@@ -10,7 +12,10 @@ import javax.annotation.Nullable;
 
 import dev.zarr.zarrjava.utils.Utils;
 import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.CommonPrefix;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
@@ -28,17 +33,76 @@ public class S3Store implements Store, Store.ListableStore {
 
     @Nonnull
     private final S3Client s3client;
+    @Nullable
+    private final S3AsyncClient s3AsyncClient;
     @Nonnull
     private final String bucketName;
     @Nullable
     private final String prefix;
 
+    /**
+     * The default of {@link #coalesceGapBytes()}. S3 requests have a latency in the tens of milliseconds,
+     * which pays for reading about a MiB.
+     */
+    public static final long DEFAULT_COALESCE_GAP_BYTES = 1 << 20;
+    private volatile long coalesceGapBytes = DEFAULT_COALESCE_GAP_BYTES;
+    @Nullable
+    private volatile ReadCostModel readCostModel = new ReadCostModel(10, 100);
+
     public S3Store(@Nonnull S3Client s3client, @Nonnull String bucketName, @Nullable String prefix) {
+        this(s3client, null, bucketName, prefix);
+    }
+
+    /**
+     * @param s3client      the client for blocking requests
+     * @param s3AsyncClient the client for non-blocking requests of the async methods (e.g.
+     *                      {@link #getAsync(String[])}) or null to run the blocking client on the I/O
+     *                      executor instead
+     * @param bucketName    the name of the bucket
+     * @param prefix        the key prefix within the bucket
+     */
+    public S3Store(@Nonnull S3Client s3client, @Nullable S3AsyncClient s3AsyncClient,
+                   @Nonnull String bucketName, @Nullable String prefix) {
         this.s3client = s3client;
+        this.s3AsyncClient = s3AsyncClient;
         this.bucketName = bucketName;
         this.prefix = prefix;
     }
 
+    /**
+     * Sets the largest gap in bytes between two byte ranges that are read with one request, see
+     * {@link Store#coalesceGapBytes()}.
+     */
+    public S3Store withCoalesceGapBytes(long coalesceGapBytes) {
+        if (coalesceGapBytes < 0) {
+            throw new IllegalArgumentException("'coalesceGapBytes' needs to be non-negative.");
+        }
+        this.coalesceGapBytes = coalesceGapBytes;
+        return this;
+    }
+
+    @Override
+    public long coalesceGapBytes() {
+        return coalesceGapBytes;
+    }
+
+    /**
+     * Sets the estimates of how long reads take, see {@link Store#readCostModel()}. By default, the
+     * estimates are learned from the observed reads.
+     *
+     * @param readCostModel the estimates or null to always read byte ranges
+     */
+    public S3Store withReadCostModel(@Nullable ReadCostModel readCostModel) {
+        this.readCostModel = readCostModel;
+        return this;
+    }
+
+    @Nullable
+    @Override
+    public ReadCostModel readCostModel() {
+        return readCostModel;
+    }
+
     String resolveKeys(String[] keys) {
         if (prefix == null) {
             return String.join("/", keys);
@@ -80,35 +144,95 @@ public class S3Store implements Store, Store.ListableStore {
         }
     }
 
+    GetObjectRequest getObjectRequest(String[] keys) {
+        return GetObjectRequest.builder().bucket(bucketName).key(resolveKeys(keys))
+                .build();
+    }
+
+    GetObjectRequest getObjectRequest(String[] keys, long start) {
+        return GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(resolveKeys(keys))
+                .range(start < 0 // negative start implies indexing from the end, i.e. last bytes
+                        ? String.format("bytes=%d", start)
+                        : String.format("bytes=%d-", start))
+                .build();
+    }
+
+    GetObjectRequest getObjectRequest(String[] keys, long start, long end) {
+        return GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(resolveKeys(keys))
+                .range(String.format("bytes=%d-%d", start, end - 1)) // S3 range is inclusive
+                .build();
+    }
+
     @Nullable
     @Override
     public ByteBuffer get(String[] keys) {
-        return get(GetObjectRequest.builder().bucket(bucketName).key(resolveKeys(keys))
-                .build());
+        return get(getObjectRequest(keys));
     }
 
     @Nullable
     @Override
     public ByteBuffer get(String[] keys, long start) {
-        GetObjectRequest req = GetObjectRequest.builder()
-                .bucket(bucketName)
-                .key(resolveKeys(keys))
-                  .range(start < 0 // negative start implies indexing from the end, i.e. last bytes
-                    ? String.format("bytes=%d", start)
-                    : String.format("bytes=%d-", start))
-                .build();
-        return get(req);
+        return get(getObjectRequest(keys, start));
     }
 
     @Nullable
     @Override
     public ByteBuffer get(String[] keys, long start, long end) {
-        GetObjectRequest req = GetObjectRequest.builder()
-                .bucket(bucketName)
-                .key(resolveKeys(keys))
-                .range(String.format("bytes=%d-%d", start, end - 1)) // S3 range is inclusive
-                .build();
-        return get(req);
+        return get(getObjectRequest(keys, start, end));
+    }
+
+    CompletableFuture<ByteBuffer> getAsync(GetObjectRequest getObjectRequest) {
+        return s3AsyncClient.getObject(getObjectRequest, AsyncResponseTransformer.<GetObjectResponse>toBytes())
+                .handle((responseBytes, error) -> {
+                    if (error == null) {
+                        return ByteBuffer.wrap(responseBytes.asByteArrayUnsafe());
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    if (cause instanceof NoSuchKeyException) {
+                        // Key doesn't exist, return null as per Store contract
+                        return null;
+                    }
+                    if (cause instanceof S3Exception) {
+                        S3Exception e = (S3Exception) cause;
+                        throw StoreException.readFailed(
+                                this.toString(),
+                                new String[]{getObjectRequest.key()},
+                                new IOException("S3 error (code: " + e.statusCode() + "): " + e.awsErrorDetails().errorMessage(), e));
+                    }
+                    throw StoreException.readFailed(this.toString(), new String[]{getObjectRequest.key()}, cause);
+                });
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<ByteBuffer> getAsync(String[] keys) {
+        if (s3AsyncClient == null) {
+            return ListableStore.super.getAsync(keys);
+        }
+        return getAsync(getObjectRequest(keys));
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<ByteBuffer> getAsync(String[] keys, long start) {
+        if (s3AsyncClient == null) {
+            return ListableStore.super.getAsync(keys, start);
+        }
+        return getAsync(getObjectRequest(keys, start));
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<ByteBuffer> getAsync(String[] keys, long start, long end) {
+        if (s3AsyncClient == null) {
+            return ListableStore.super.getAsync(keys, start, end);
+        }
+        return getAsync(getObjectRequest(keys, start, end));
     }
 
     @Override
@@ -134,6 +258,38 @@ public class S3Store implements Store, Store.ListableStore {
         }
     }
 
+    @Nonnull
+    @Override
+    public CompletableFuture<Void> setAsync(String[] keys, ByteBuffer bytes) {
+        if (s3AsyncClient == null) {
+            return ListableStore.super.setAsync(keys, bytes);
+        }
+        String key = resolveKeys(keys);
+        return s3AsyncClient.putObject(
+                        PutObjectRequest.builder()
+                                .bucket(bucketName)
+                                .key(key)
+                                .build(),
+                        AsyncRequestBody.fromBytes(Utils.toArray(bytes))
+                )
+                .handle((response, error) -> {
+                    if (error == null) {
+                        return null;
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    if (cause instanceof S3Exception) {
+                        S3Exception e = (S3Exception) cause;
+                        throw StoreException.writeFailed(
+                                this.toString(),
+                                keys,
+                                new IOException("S3 putObject failed (code: " + e.statusCode() + ") for key '" + key +
+                                        "', bucket '" + bucketName + "': " + e.awsErrorDetails().errorMessage(), e));
+                    }
+                    throw StoreException.writeFailed(this.toString(), keys, cause);
+                });
+    }
+
     @Override
     public void delete(String[] keys) {
         String key = resolveKeys(keys);
@@ -151,6 +307,35 @@ public class S3Store implements Store, Store.ListableStore {
         }
     }
 
+    @Nonnull
+    @Override
+    public CompletableFuture<Void> deleteAsync(String[] keys) {
+        if (s3AsyncClient == null) {
+            return ListableStore.super.deleteAsync(keys);
+        }
+        String key = resolveKeys(keys);
+        return s3AsyncClient.deleteObject(DeleteObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .build())
+                .handle((response, error) -> {
+                    if (error == null) {
+                        return null;
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    if (cause instanceof S3Exception) {
+                        S3Exception e = (S3Exception) cause;
+                        throw StoreException.deleteFailed(
+                                this.toString(),
+                                keys,
+                                new IOException("S3 deleteObject failed (code: " + e.statusCode() + ") for key '" + key +
+                                        "', bucket '" + bucketName + "': " + e.awsErrorDetails().errorMessage(), e));
+                    }
+                    throw StoreException.deleteFailed(this.toString(), keys, cause);
+                });
+    }
+
     @Override
     public Stream<String[]> list(String[] keys) {
         String fullPrefix = resolveKeys(keys);
@@ -221,12 +406,7 @@ public class S3Store implements Store, Store.ListableStore {
 
     @Override
     public InputStream getInputStream(String[] keys, long start, long end) {
-        GetObjectRequest req = GetObjectRequest.builder()
-                .bucket(bucketName)
-                .key(resolveKeys(keys))
-                .range(String.format("bytes=%d-%d", start, end - 1)) // S3 range is inclusive
-                .build();
-        return s3client.getObject(req);
+        return s3client.getObject(getObjectRequest(keys, start, end));
     }
 
     @Override
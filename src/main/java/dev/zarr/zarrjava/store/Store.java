@@ -1,9 +1,12 @@
 package dev.zarr.zarrjava.store;
 
+import dev.zarr.zarrjava.utils.ExecutionContext;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 public interface Store {
@@ -26,6 +29,82 @@ public interface Store {
     @Nonnull
     StoreHandle resolve(String... keys);
 
+    /**
+     * Asynchronously reads the data stored at the given keys. The future completes with null if the
+     * keys do not exist. The default implementation runs {@link #get(String[])} on the I/O executor of
+     * the default {@link ExecutionContext}; stores with a non-blocking client override it.
+     */
+    @Nonnull
+    default CompletableFuture<ByteBuffer> getAsync(String[] keys) {
+        return ExecutionContext.getDefault().supplyIo(() -> get(keys));
+    }
+
+    /**
+     * Asynchronously reads a byte range of the data stored at the given keys.
+     *
+     * @see #get(String[], long)
+     * @see #getAsync(String[])
+     */
+    @Nonnull
+    default CompletableFuture<ByteBuffer> getAsync(String[] keys, long start) {
+        return ExecutionContext.getDefault().supplyIo(() -> get(keys, start));
+    }
+
+    /**
+     * Asynchronously reads a byte range of the data stored at the given keys.
+     *
+     * @see #get(String[], long, long)
+     * @see #getAsync(String[])
+     */
+    @Nonnull
+    default CompletableFuture<ByteBuffer> getAsync(String[] keys, long start, long end) {
+        return ExecutionContext.getDefault().supplyIo(() -> get(keys, start, end));
+    }
+
+    /**
+     * Asynchronously writes data at the given keys. The default implementation runs
+     * {@link #set(String[], ByteBuffer)} on the I/O executor of the default {@link ExecutionContext}.
+     */
+    @Nonnull
+    default CompletableFuture<Void> setAsync(String[] keys, ByteBuffer bytes) {
+        return ExecutionContext.getDefault().supplyIo(() -> {
+            set(keys, bytes);
+            return null;
+        });
+    }
+
+    /**
+     * Asynchronously deletes the data at the given keys. The default implementation runs
+     * {@link #delete(String[])} on the I/O executor of the default {@link ExecutionContext}.
+     */
+    @Nonnull
+    default CompletableFuture<Void> deleteAsync(String[] keys) {
+        return ExecutionContext.getDefault().supplyIo(() -> {
+            delete(keys);
+            return null;
+        });
+    }
+
+    /**
+     * The largest gap in bytes between two byte ranges of the same key that are read with one request
+     * instead of two, e.g. the inner chunks of a shard. Reading a gap pays off as long as it takes less
+     * time than the latency of another request, so stores with a high latency per request use larger
+     * gaps. 0 only merges adjacent ranges.
+     */
+    default long coalesceGapBytes() {
+        return 0;
+    }
+
+    /**
+     * The estimates of how long reads from this store take, which readers use to choose between reading
+     * a whole object and reading byte ranges of it, e.g. of a shard. Null stands for stores without a
+     * latency per request, which always read byte ranges when only parts of an object are needed.
+     */
+    @Nullable
+    default ReadCostModel readCostModel() {
+        return null;
+    }
+
     InputStream getInputStream(String[] keys, long start, long end);
 
     default InputStream getInputStream(String[] keys) {
@@ -8,6 +8,7 @@ import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 public class StoreHandle {
@@ -46,6 +47,21 @@ public class StoreHandle {
         return store.get(keys, start, end);
     }
 
+    @Nonnull
+    public CompletableFuture<ByteBuffer> readAsync() {
+        return store.getAsync(keys);
+    }
+
+    @Nonnull
+    public CompletableFuture<ByteBuffer> readAsync(long start) {
+        return store.getAsync(keys, start);
+    }
+
+    @Nonnull
+    public CompletableFuture<ByteBuffer> readAsync(long start, long end) {
+        return store.getAsync(keys, start, end);
+    }
+
     public InputStream getInputStream(int start, int end) {
         return store.getInputStream(keys, start, end);
     }
@@ -62,6 +78,16 @@ public class StoreHandle {
         store.delete(keys);
     }
 
+    @Nonnull
+    public CompletableFuture<Void> setAsync(ByteBuffer bytes) {
+        return store.setAsync(keys, bytes);
+    }
+
+    @Nonnull
+    public CompletableFuture<Void> deleteAsync() {
+        return store.deleteAsync(keys);
+    }
+
     public boolean exists() {
         return store.exists(keys);
     }
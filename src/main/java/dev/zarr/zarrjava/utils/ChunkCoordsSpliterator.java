@@ -0,0 +1,112 @@
+package dev.zarr.zarrjava.utils;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Lazily enumerates the coordinates of a box of chunks in row-major order. Coordinates are generated on
+ * demand from a linear index, so arbitrarily large chunk grids can be traversed without materializing
+ * them. Splitting halves the remaining index range, which keeps parallel traversals balanced.
+ * <p>
+ * Every returned coordinate array is a fresh copy that may be retained by the consumer.
+ */
+public class ChunkCoordsSpliterator implements Spliterator<long[]> {
+
+    private final long[] start;
+    private final long[] count;
+    private final long[] current;
+    private long index;
+    private final long end;
+
+    /**
+     * @param start the coordinates of the first chunk of the box
+     * @param count the number of chunks of the box in each dimension
+     */
+    public ChunkCoordsSpliterator(@Nonnull long[] start, @Nonnull long[] count) {
+        this(start, count, 0, totalCount(count));
+    }
+
+    private ChunkCoordsSpliterator(long[] start, long[] count, long index, long end) {
+        this.start = start;
+        this.count = count;
+        this.index = index;
+        this.end = end;
+        this.current = new long[start.length];
+        if (index < end) {
+            setCurrent(index);
+        }
+    }
+
+    private static long totalCount(long[] count) {
+        long total = 1;
+        for (long dimCount : count) {
+            if (dimCount < 0) {
+                throw new IllegalArgumentException("'count' needs to be non-negative.");
+            }
+            total = Math.multiplyExact(total, dimCount);
+        }
+        return total;
+    }
+
+    private void setCurrent(long linearIndex) {
+        for (int dimIdx = start.length - 1; dimIdx >= 0; dimIdx--) {
+            current[dimIdx] = start[dimIdx] + linearIndex % count[dimIdx];
+            linearIndex /= count[dimIdx];
+        }
+    }
+
+    private void advance() {
+        index++;
+        for (int dimIdx = start.length - 1; dimIdx >= 0; dimIdx--) {
+            if (++current[dimIdx] < start[dimIdx] + count[dimIdx]) {
+                return;
+            }
+            current[dimIdx] = start[dimIdx];
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super long[]> action) {
+        if (index >= end) {
+            return false;
+        }
+        long[] chunkCoords = Arrays.copyOf(current, current.length);
+        advance();
+        action.accept(chunkCoords);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super long[]> action) {
+        while (index < end) {
+            long[] chunkCoords = Arrays.copyOf(current, current.length);
+            advance();
+            action.accept(chunkCoords);
+        }
+    }
+
+    @Override
+    public Spliterator<long[]> trySplit() {
+        long remaining = end - index;
+        if (remaining < 2) {
+            return null;
+        }
+        long mid = index + remaining / 2;
+        ChunkCoordsSpliterator prefix = new ChunkCoordsSpliterator(start, count, index, mid);
+        index = mid;
+        setCurrent(mid);
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+}
@@ -0,0 +1,340 @@
+package dev.zarr.zarrjava.utils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Controls how the chunk-level work of reads and writes is parallelized. Tasks that block on storage
+ * (e.g. fetching or storing chunks) run on the I/O executor, purely computational tasks (e.g. encoding
+ * the inner chunks of a shard) run on the CPU executor. The number of tasks that one operation keeps in
+ * flight on each executor is bounded.
+ * <p>
+ * The calling thread always takes part in the work and only waits for tasks that have already started.
+ * Operations can therefore be nested (e.g. sharded reads within parallel array reads) without
+ * deadlocking, even on small or saturated executors.
+ */
+public class ExecutionContext {
+
+    /**
+     * Runs all work on the calling thread.
+     */
+    public static final ExecutionContext SEQUENTIAL = new ExecutionContext(null, 1, null, 1);
+
+    public static final int DEFAULT_IO_THREADS =
+            Math.max(16, 4 * Runtime.getRuntime().availableProcessors());
+    public static final int DEFAULT_CPU_THREADS = Runtime.getRuntime().availableProcessors();
+
+    @Nullable
+    private static volatile ExecutionContext defaultContext;
+
+    @Nullable
+    private final ExecutorService ioExecutor;
+    private final int maxIoInFlight;
+    @Nullable
+    private final ExecutorService cpuExecutor;
+    private final int maxCpuInFlight;
+
+    /**
+     * @param ioExecutor     the executor for tasks that block on storage, or null to run them on the
+     *                       calling thread
+     * @param maxIoInFlight  the maximum number of I/O tasks that one operation runs concurrently
+     * @param cpuExecutor    the executor for computational tasks, or null to run them on the calling
+     *                       thread
+     * @param maxCpuInFlight the maximum number of CPU tasks that one operation runs concurrently
+     */
+    public ExecutionContext(@Nullable ExecutorService ioExecutor, int maxIoInFlight,
+                            @Nullable ExecutorService cpuExecutor, int maxCpuInFlight) {
+        if (maxIoInFlight < 1 || maxCpuInFlight < 1) {
+            throw new IllegalArgumentException("The number of tasks in flight needs to be at least 1.");
+        }
+        this.ioExecutor = ioExecutor;
+        this.maxIoInFlight = maxIoInFlight;
+        this.cpuExecutor = cpuExecutor;
+        this.maxCpuInFlight = maxCpuInFlight;
+    }
+
+    /**
+     * Creates an execution context with its own daemon thread pools. Idle threads are released after
+     * a minute.
+     *
+     * @param ioThreads  the number of threads for tasks that block on storage
+     * @param cpuThreads the number of threads for computational tasks
+     */
+    public static ExecutionContext create(int ioThreads, int cpuThreads) {
+        return new ExecutionContext(
+                newThreadPool("zarr-io", ioThreads), ioThreads,
+                newThreadPool("zarr-cpu", cpuThreads), cpuThreads
+        );
+    }
+
+    /**
+     * Returns the execution context that is used by arrays without an explicitly set context. Unless
+     * changed with {@link #setDefault(ExecutionContext)}, it uses {@link #DEFAULT_IO_THREADS} I/O threads
+     * and {@link #DEFAULT_CPU_THREADS} CPU threads.
+     */
+    @Nonnull
+    public static ExecutionContext getDefault() {
+        ExecutionContext context = defaultContext;
+        if (context == null) {
+            synchronized (ExecutionContext.class) {
+                context = defaultContext;
+                if (context == null) {
+                    context = create(DEFAULT_IO_THREADS, DEFAULT_CPU_THREADS);
+                    defaultContext = context;
+                }
+            }
+        }
+        return context;
+    }
+
+    public static void setDefault(@Nonnull ExecutionContext context) {
+        defaultContext = context;
+    }
+
+    private static ExecutorService newThreadPool(String name, int threads) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Nullable
+    public ExecutorService ioExecutor() {
+        return ioExecutor;
+    }
+
+    @Nullable
+    public ExecutorService cpuExecutor() {
+        return cpuExecutor;
+    }
+
+    public int maxIoInFlight() {
+        return maxIoInFlight;
+    }
+
+    public int maxCpuInFlight() {
+        return maxCpuInFlight;
+    }
+
+    /**
+     * Applies an I/O-bound action to all items and returns once all of them have been processed. The
+     * first exception thrown by the action is rethrown after all running tasks have finished; the
+     * remaining items are skipped.
+     */
+    public <T> void forEachIo(@Nonnull Iterator<T> items, @Nonnull Consumer<? super T> action) {
+        forEach(ioExecutor, maxIoInFlight, items, () -> action);
+    }
+
+    /**
+     * Like {@link #forEachIo(Iterator, Consumer)}, but every participating thread creates its own action
+     * before processing its first item. Actions can therefore reuse scratch state across items without
+     * synchronization.
+     */
+    public <T> void forEachIo(@Nonnull Iterator<T> items,
+                              @Nonnull Supplier<? extends Consumer<? super T>> actionFactory) {
+        forEach(ioExecutor, maxIoInFlight, items, actionFactory);
+    }
+
+    /**
+     * Applies a CPU-bound action to all items and returns once all of them have been processed. The
+     * first exception thrown by the action is rethrown after all running tasks have finished; the
+     * remaining items are skipped.
+     */
+    public <T> void forEachCpu(@Nonnull Iterator<T> items, @Nonnull Consumer<? super T> action) {
+        forEach(cpuExecutor, maxCpuInFlight, items, () -> action);
+    }
+
+    /**
+     * Like {@link #forEachCpu(Iterator, Consumer)}, but every participating thread creates its own
+     * action before processing its first item.
+     */
+    public <T> void forEachCpu(@Nonnull Iterator<T> items,
+                               @Nonnull Supplier<? extends Consumer<? super T>> actionFactory) {
+        forEach(cpuExecutor, maxCpuInFlight, items, actionFactory);
+    }
+
+    /**
+     * Runs a blocking I/O task asynchronously on the I/O executor, or on the calling thread if there is
+     * none.
+     */
+    @Nonnull
+    public <T> CompletableFuture<T> supplyIo(@Nonnull Supplier<T> task) {
+        return supply(ioExecutor, task);
+    }
+
+    /**
+     * Runs a computational task asynchronously on the CPU executor, or on the calling thread if there is
+     * none.
+     */
+    @Nonnull
+    public <T> CompletableFuture<T> supplyCpu(@Nonnull Supplier<T> task) {
+        return supply(cpuExecutor, task);
+    }
+
+    /**
+     * Applies a computational function to the result of a future on the CPU executor, e.g. to decode
+     * bytes that were fetched asynchronously without blocking the I/O threads of the store.
+     */
+    @Nonnull
+    public <T, R> CompletableFuture<R> thenApplyCpu(@Nonnull CompletableFuture<T> future,
+                                                    @Nonnull Function<? super T, ? extends R> function) {
+        return cpuExecutor != null ? future.thenApplyAsync(function, cpuExecutor) : future.thenApply(function);
+    }
+
+    private static <T> CompletableFuture<T> supply(@Nullable ExecutorService executor, Supplier<T> task) {
+        if (executor == null) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            try {
+                future.complete(task.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+            return future;
+        }
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    private static <T> void forEach(@Nullable ExecutorService executor, int maxInFlight,
+                                    Iterator<T> items, Supplier<? extends Consumer<? super T>> actionFactory) {
+        if (executor == null || maxInFlight == 1) {
+            if (items.hasNext()) {
+                Consumer<? super T> action = actionFactory.get();
+                while (items.hasNext()) {
+                    action.accept(items.next());
+                }
+            }
+            return;
+        }
+        new SharedIteration<>(executor, maxInFlight - 1, items, actionFactory).run();
+    }
+
+    /**
+     * Work-sharing iteration: the calling thread and up to {@code maxHelpers} executor tasks pull items
+     * from the shared iterator. Helpers are only spawned while items remain. Helpers that start after
+     * the iteration has been closed exit immediately, so the caller never waits for queued tasks.
+     */
+    private static final class SharedIteration<T> {
+
+        private final ExecutorService executor;
+        private final int maxHelpers;
+        private final Iterator<T> items;
+        private final Supplier<? extends Consumer<? super T>> actionFactory;
+
+        private int spawnedHelpers = 0;
+        private int activeHelpers = 0;
+        private boolean closed = false;
+        @Nullable
+        private Throwable failure;
+
+        SharedIteration(ExecutorService executor, int maxHelpers, Iterator<T> items,
+                        Supplier<? extends Consumer<? super T>> actionFactory) {
+            this.executor = executor;
+            this.maxHelpers = maxHelpers;
+            this.items = items;
+            this.actionFactory = actionFactory;
+        }
+
+        void run() {
+            work();
+            boolean interrupted = false;
+            synchronized (this) {
+                closed = true;
+                while (activeHelpers > 0) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        // Running helpers still write into shared state, so they need to finish first
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            if (failure != null) {
+                throw new RuntimeException(failure);
+            }
+        }
+
+        private void help() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                activeHelpers++;
+            }
+            try {
+                work();
+            } finally {
+                synchronized (this) {
+                    activeHelpers--;
+                    notifyAll();
+                }
+            }
+        }
+
+        private void work() {
+            Consumer<? super T> action = null;
+            while (true) {
+                T item;
+                boolean spawnHelper = false;
+                synchronized (this) {
+                    if (failure != null || !items.hasNext()) {
+                        return;
+                    }
+                    item = items.next();
+                    if (spawnedHelpers < maxHelpers && items.hasNext()) {
+                        spawnedHelpers++;
+                        spawnHelper = true;
+                    }
+                }
+                if (spawnHelper) {
+                    try {
+                        executor.execute(this::help);
+                    } catch (RejectedExecutionException e) {
+                        // The caller keeps working on the remaining items itself
+                    }
+                }
+                try {
+                    if (action == null) {
+                        action = actionFactory.get();
+                    }
+                    action.accept(item);
+                } catch (Throwable t) {
+                    synchronized (this) {
+                        if (failure == null) {
+                            failure = t;
+                        } else if (failure != t) {
+                            failure.addSuppressed(t);
+                        }
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
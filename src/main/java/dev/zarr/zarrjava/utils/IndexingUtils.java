@@ -1,6 +1,12 @@
 package dev.zarr.zarrjava.utils;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 
 public class IndexingUtils {
 
@@ -13,41 +19,399 @@ public class IndexingUtils {
         return computeChunkCoords(Utils.toLongArray(arrayShape), chunkShape);
     }
 
+    /**
+     * Materializes the coordinates of all chunks that intersect a selection. Prefer
+     * {@link #chunkCoordsIterator(long[], int[], long[], long[])} for selections with many chunks.
+     */
     public static long[][] computeChunkCoords(long[] arrayShape, int[] chunkShape, long[] selOffset,
                                               long[] selShape) {
+        final ChunkCoordsSpliterator spliterator =
+                chunkCoordsSpliterator(arrayShape, chunkShape, selOffset, selShape);
+        if (spliterator.estimateSize() > Integer.MAX_VALUE) {
+            throw new ArithmeticException("Number of chunks exceeds Integer.MAX_VALUE");
+        }
+        final long[][] chunkCoords = new long[(int) spliterator.estimateSize()][];
+        final int[] i = {0};
+        spliterator.forEachRemaining(coords -> chunkCoords[i[0]++] = coords);
+        return chunkCoords;
+    }
+
+    /**
+     * Lazily enumerates the coordinates of all chunks that intersect a selection in row-major order.
+     */
+    public static ChunkCoordsSpliterator chunkCoordsSpliterator(long[] arrayShape, int[] chunkShape,
+                                                               long[] selOffset, long[] selShape) {
         final int ndim = arrayShape.length;
-        long[] start = new long[ndim];
-        long[] end = new long[ndim];
-        long numChunks = 1;
+        final long[] start = new long[ndim];
+        final long[] count = new long[ndim];
         for (int dimIdx = 0; dimIdx < ndim; dimIdx++) {
-            final int staIdx = (int) (selOffset[dimIdx] / chunkShape[dimIdx]);
-            final int endIdx = (int) ((selOffset[dimIdx] + selShape[dimIdx] - 1) / chunkShape[dimIdx]);
-            numChunks *= (endIdx - staIdx + 1);
-            start[dimIdx] = staIdx;
-            end[dimIdx] = endIdx;
+            if (selShape[dimIdx] == 0) {
+                return new ChunkCoordsSpliterator(start, new long[ndim]);
+            }
+            start[dimIdx] = selOffset[dimIdx] / chunkShape[dimIdx];
+            count[dimIdx] = (selOffset[dimIdx] + selShape[dimIdx] - 1) / chunkShape[dimIdx] - start[dimIdx] + 1;
         }
+        return new ChunkCoordsSpliterator(start, count);
+    }
 
-        if (numChunks > Integer.MAX_VALUE) {
-            throw new ArithmeticException("Number of chunks exceeds Integer.MAX_VALUE");
+    public static ChunkCoordsSpliterator chunkCoordsSpliterator(long[] arrayShape, int[] chunkShape) {
+        return chunkCoordsSpliterator(arrayShape, chunkShape, new long[arrayShape.length], arrayShape);
+    }
+
+    /**
+     * @see #chunkCoordsSpliterator(long[], int[], long[], long[])
+     */
+    public static Iterator<long[]> chunkCoordsIterator(long[] arrayShape, int[] chunkShape, long[] selOffset,
+                                                       long[] selShape) {
+        return Spliterators.iterator(chunkCoordsSpliterator(arrayShape, chunkShape, selOffset, selShape));
+    }
+
+    public static Iterator<long[]> chunkCoordsIterator(long[] arrayShape, int[] chunkShape) {
+        return Spliterators.iterator(chunkCoordsSpliterator(arrayShape, chunkShape));
+    }
+
+    /**
+     * Computes the number of selected elements per dimension of a strided selection, which takes every
+     * {@code selStride}-th element of the region starting at {@code selOffset} with shape {@code selShape}.
+     */
+    public static long[] computeStridedShape(long[] selShape, long[] selStride) {
+        final long[] stridedShape = new long[selShape.length];
+        for (int dimIdx = 0; dimIdx < selShape.length; dimIdx++) {
+            stridedShape[dimIdx] = (selShape[dimIdx] + selStride[dimIdx] - 1) / selStride[dimIdx];
+        }
+        return stridedShape;
+    }
+
+    /**
+     * Lazily enumerates the coordinates of the chunks that contain elements of a strided selection in
+     * row-major order. Chunks that lie entirely between selected elements are skipped.
+     */
+    public static Spliterator<long[]> stridedChunkCoordsSpliterator(final int[] chunkShape, final long[] selOffset,
+                                                                    final long[] selShape, final long[] selStride) {
+        final int ndim = chunkShape.length;
+        final long[] stridedShape = computeStridedShape(selShape, selStride);
+        final long[] count = new long[ndim];
+        for (int dimIdx = 0; dimIdx < ndim; dimIdx++) {
+            if (stridedShape[dimIdx] == 0) {
+                return new ChunkCoordsSpliterator(new long[ndim], new long[ndim]);
+            }
+            final long last = selOffset[dimIdx] + (stridedShape[dimIdx] - 1) * selStride[dimIdx];
+            // Strides up to the chunk size hit every chunk in between, larger ones a different chunk per element
+            count[dimIdx] = selStride[dimIdx] <= chunkShape[dimIdx]
+                    ? last / chunkShape[dimIdx] - selOffset[dimIdx] / chunkShape[dimIdx] + 1
+                    : stridedShape[dimIdx];
+        }
+        return new StridedChunkCoordsSpliterator(new ChunkCoordsSpliterator(new long[ndim], count),
+                chunkShape, selOffset, selStride);
+    }
+
+    /**
+     * @see #stridedChunkCoordsSpliterator(int[], long[], long[], long[])
+     */
+    public static Iterator<long[]> stridedChunkCoordsIterator(final int[] chunkShape, final long[] selOffset,
+                                                              final long[] selShape, final long[] selStride) {
+        return Spliterators.iterator(stridedChunkCoordsSpliterator(chunkShape, selOffset, selShape, selStride));
+    }
+
+    /**
+     * Maps the positions in the grid of chunks that contain selected elements to chunk coordinates.
+     */
+    private static final class StridedChunkCoordsSpliterator implements Spliterator<long[]> {
+
+        private final Spliterator<long[]> positions;
+        private final int[] chunkShape;
+        private final long[] selOffset;
+        private final long[] selStride;
+
+        StridedChunkCoordsSpliterator(Spliterator<long[]> positions, int[] chunkShape, long[] selOffset,
+                                      long[] selStride) {
+            this.positions = positions;
+            this.chunkShape = chunkShape;
+            this.selOffset = selOffset;
+            this.selStride = selStride;
+        }
+
+        private long[] toChunkCoords(long[] chunkCoords) {
+            for (int dimIdx = 0; dimIdx < chunkCoords.length; dimIdx++) {
+                chunkCoords[dimIdx] = selStride[dimIdx] <= chunkShape[dimIdx]
+                        ? selOffset[dimIdx] / chunkShape[dimIdx] + chunkCoords[dimIdx]
+                        : (selOffset[dimIdx] + chunkCoords[dimIdx] * selStride[dimIdx]) / chunkShape[dimIdx];
+            }
+            return chunkCoords;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super long[]> action) {
+            return positions.tryAdvance(position -> action.accept(toChunkCoords(position)));
+        }
+
+        @Override
+        public Spliterator<long[]> trySplit() {
+            final Spliterator<long[]> prefix = positions.trySplit();
+            return prefix != null
+                    ? new StridedChunkCoordsSpliterator(prefix, chunkShape, selOffset, selStride) : null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return positions.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return positions.characteristics();
+        }
+    }
+
+    /**
+     * Computes the projection of a strided selection onto a chunk. The chunk offset is the position of
+     * the first selected element within the chunk, the shape is the number of selected elements within
+     * the chunk and the output offset is their position within the strided output.
+     */
+    public static ChunkProjection computeStridedProjection(
+            final long[] chunkCoords, final int[] chunkShape, final long[] selOffset,
+            final long[] selShape, final long[] selStride
+    ) {
+        final ChunkProjection projection = new ChunkProjection(chunkCoords.length);
+        for (int dimIdx = 0; dimIdx < chunkCoords.length; dimIdx++) {
+            projection.chunkCoords[dimIdx] = chunkCoords[dimIdx];
+            final long dimOffset = (long) chunkShape[dimIdx] * chunkCoords[dimIdx];
+            final long start = Math.max(dimOffset, selOffset[dimIdx]) - selOffset[dimIdx];
+            final long end = Math.min(dimOffset + chunkShape[dimIdx], selOffset[dimIdx] + selShape[dimIdx])
+                    - selOffset[dimIdx];
+            final long first = (start + selStride[dimIdx] - 1) / selStride[dimIdx];
+            final long last = (end - 1) / selStride[dimIdx];
+            if (first > Integer.MAX_VALUE) {
+                throw new ArithmeticException(
+                        "Output offset exceeds Integer.MAX_VALUE at dimension " + dimIdx + ": " + first);
+            }
+            projection.chunkOffset[dimIdx] = (int) (selOffset[dimIdx] + first * selStride[dimIdx] - dimOffset);
+            projection.outOffset[dimIdx] = (int) first;
+            projection.shape[dimIdx] = (int) (last - first + 1);
         }
+        return projection;
+    }
 
-        final long[][] chunkCoords = new long[(int) numChunks][];
+    /**
+     * Converts a boolean mask of one dimension into the indices of its set elements, e.g. to build
+     * orthogonal selections.
+     */
+    public static long[] maskToIndices(boolean[] mask) {
+        int count = 0;
+        for (boolean selected : mask) {
+            if (selected) {
+                count++;
+            }
+        }
+        final long[] indices = new long[count];
+        int i = 0;
+        for (int idx = 0; idx < mask.length; idx++) {
+            if (mask[idx]) {
+                indices[i++] = idx;
+            }
+        }
+        return indices;
+    }
 
-        final long[] currentIdx = Arrays.copyOf(start, ndim);
-        for (int i = 0; i < chunkCoords.length; i++) {
-            chunkCoords[i] = Arrays.copyOf(currentIdx, ndim);
-            int dimIdx = ndim - 1;
-            while (dimIdx >= 0) {
-                if (currentIdx[dimIdx] >= end[dimIdx]) {
-                    currentIdx[dimIdx] = start[dimIdx];
-                    dimIdx--;
-                } else {
-                    currentIdx[dimIdx]++;
-                    dimIdx = -1;
+    /**
+     * Lazily enumerates the chunks that intersect an orthogonal selection, i.e. the Cartesian product of
+     * independent index lists per dimension, in row-major order. Every chunk is visited once, together
+     * with all selected indices that lie within it.
+     *
+     * @param selIndices the selected indices per dimension, in any order
+     */
+    public static Iterator<OrthogonalChunkProjection> orthogonalChunkIterator(final long[][] selIndices,
+                                                                             final int[] chunkShape) {
+        final int ndim = chunkShape.length;
+        final long[][] chunkIdxs = new long[ndim][];
+        final int[][][] chunkIndices = new int[ndim][][];
+        final int[][][] outIndices = new int[ndim][][];
+        final long[] count = new long[ndim];
+        for (int dimIdx = 0; dimIdx < ndim; dimIdx++) {
+            final long[] indices = selIndices[dimIdx];
+            final int[] order = sortIndices(indices);
+            final List<int[]> groupBounds = new ArrayList<>();
+            int groupStart = 0;
+            for (int i = 1; i <= order.length; i++) {
+                if (i == order.length
+                        || indices[order[i]] / chunkShape[dimIdx] != indices[order[groupStart]] / chunkShape[dimIdx]) {
+                    groupBounds.add(new int[]{groupStart, i});
+                    groupStart = i;
+                }
+            }
+            chunkIdxs[dimIdx] = new long[groupBounds.size()];
+            chunkIndices[dimIdx] = new int[groupBounds.size()][];
+            outIndices[dimIdx] = new int[groupBounds.size()][];
+            for (int groupIdx = 0; groupIdx < groupBounds.size(); groupIdx++) {
+                final int start = groupBounds.get(groupIdx)[0];
+                final int end = groupBounds.get(groupIdx)[1];
+                final long chunkIdx = indices[order[start]] / chunkShape[dimIdx];
+                chunkIdxs[dimIdx][groupIdx] = chunkIdx;
+                chunkIndices[dimIdx][groupIdx] = new int[end - start];
+                outIndices[dimIdx][groupIdx] = Arrays.copyOfRange(order, start, end);
+                for (int i = start; i < end; i++) {
+                    chunkIndices[dimIdx][groupIdx][i - start] =
+                            (int) (indices[order[i]] - chunkIdx * chunkShape[dimIdx]);
                 }
             }
+            count[dimIdx] = groupBounds.size();
         }
-        return chunkCoords;
+        final Iterator<long[]> groups = Spliterators.iterator(new ChunkCoordsSpliterator(new long[ndim], count));
+        return new Iterator<OrthogonalChunkProjection>() {
+            @Override
+            public boolean hasNext() {
+                return groups.hasNext();
+            }
+
+            @Override
+            public OrthogonalChunkProjection next() {
+                final long[] groupIdxs = groups.next();
+                final long[] chunkCoords = new long[ndim];
+                final int[][] projectionChunkIndices = new int[ndim][];
+                final int[][] projectionOutIndices = new int[ndim][];
+                for (int dimIdx = 0; dimIdx < ndim; dimIdx++) {
+                    final int groupIdx = (int) groupIdxs[dimIdx];
+                    chunkCoords[dimIdx] = chunkIdxs[dimIdx][groupIdx];
+                    projectionChunkIndices[dimIdx] = chunkIndices[dimIdx][groupIdx];
+                    projectionOutIndices[dimIdx] = outIndices[dimIdx][groupIdx];
+                }
+                return new OrthogonalChunkProjection(chunkCoords, projectionChunkIndices, projectionOutIndices);
+            }
+        };
+    }
+
+    /**
+     * Returns the positions of the indices in ascending order of the indices. Selections are usually
+     * sorted already, which is checked before sorting.
+     */
+    private static int[] sortIndices(final long[] indices) {
+        boolean sorted = true;
+        for (int i = 1; i < indices.length && sorted; i++) {
+            sorted = indices[i - 1] <= indices[i];
+        }
+        final int[] order = new int[indices.length];
+        if (sorted) {
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            return order;
+        }
+        final Integer[] boxedOrder = new Integer[indices.length];
+        for (int i = 0; i < boxedOrder.length; i++) {
+            boxedOrder[i] = i;
+        }
+        Arrays.sort(boxedOrder, (a, b) -> Long.compare(indices[a], indices[b]));
+        for (int i = 0; i < order.length; i++) {
+            order[i] = boxedOrder[i];
+        }
+        return order;
+    }
+
+    /**
+     * Groups points by the chunk that contains them, e.g. for coordinate selections. The points are given
+     * per dimension, i.e. point {@code i} has the coordinates {@code coords[0][i], ..., coords[ndim - 1][i]}.
+     *
+     * @return the groups in row-major order of their chunks
+     */
+    public static List<PointGroup> groupPointsByChunk(final long[][] coords, final int[] chunkShape) {
+        final int ndim = chunkShape.length;
+        final int pointCount = ndim == 0 ? 0 : coords[0].length;
+        final List<PointGroup> groups = new ArrayList<>();
+        if (pointCount == 0) {
+            return groups;
+        }
+        final int[] order = sortPointsByChunk(coords, chunkShape, pointCount);
+
+        int groupStart = 0;
+        while (groupStart < pointCount) {
+            final long[] chunkCoords = new long[ndim];
+            for (int dimIdx = 0; dimIdx < ndim; dimIdx++) {
+                chunkCoords[dimIdx] = coords[dimIdx][order[groupStart]] / chunkShape[dimIdx];
+            }
+            int groupEnd = groupStart + 1;
+            while (groupEnd < pointCount && isInChunk(coords, order[groupEnd], chunkCoords, chunkShape)) {
+                groupEnd++;
+            }
+            final int[] pointIndices = Arrays.copyOfRange(order, groupStart, groupEnd);
+            final int[][] chunkPoints = new int[ndim][pointIndices.length];
+            for (int dimIdx = 0; dimIdx < ndim; dimIdx++) {
+                final long dimOffset = chunkCoords[dimIdx] * chunkShape[dimIdx];
+                for (int i = 0; i < pointIndices.length; i++) {
+                    chunkPoints[dimIdx][i] = (int) (coords[dimIdx][pointIndices[i]] - dimOffset);
+                }
+            }
+            groups.add(new PointGroup(chunkCoords, pointIndices, chunkPoints));
+            groupStart = groupEnd;
+        }
+        return groups;
+    }
+
+    private static boolean isInChunk(long[][] coords, int pointIdx, long[] chunkCoords, int[] chunkShape) {
+        for (int dimIdx = 0; dimIdx < chunkCoords.length; dimIdx++) {
+            if (coords[dimIdx][pointIdx] / chunkShape[dimIdx] != chunkCoords[dimIdx]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Orders points by the row-major index of their chunk. The chunk index and the point index are packed
+     * into one primitive sort key unless the grid of touched chunks is too large for that.
+     */
+    private static int[] sortPointsByChunk(final long[][] coords, final int[] chunkShape, final int pointCount) {
+        final int ndim = chunkShape.length;
+        final long[] minChunk = new long[ndim];
+        final long[] gridShape = new long[ndim];
+        for (int dimIdx = 0; dimIdx < ndim; dimIdx++) {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (long coord : coords[dimIdx]) {
+                min = Math.min(min, coord / chunkShape[dimIdx]);
+                max = Math.max(max, coord / chunkShape[dimIdx]);
+            }
+            minChunk[dimIdx] = min;
+            gridShape[dimIdx] = max - min + 1;
+        }
+        final int[] order = new int[pointCount];
+        try {
+            long chunkCount = 1;
+            for (long dimSize : gridShape) {
+                chunkCount = Math.multiplyExact(chunkCount, dimSize);
+            }
+            Math.multiplyExact(chunkCount, pointCount);
+            final long[] sortKeys = new long[pointCount];
+            for (int i = 0; i < pointCount; i++) {
+                long chunkIdx = 0;
+                for (int dimIdx = 0; dimIdx < ndim; dimIdx++) {
+                    chunkIdx = chunkIdx * gridShape[dimIdx] + coords[dimIdx][i] / chunkShape[dimIdx] - minChunk[dimIdx];
+                }
+                sortKeys[i] = chunkIdx * pointCount + i;
+            }
+            Arrays.sort(sortKeys);
+            for (int i = 0; i < pointCount; i++) {
+                order[i] = (int) (sortKeys[i] % pointCount);
+            }
+        } catch (ArithmeticException e) {
+            final Integer[] boxedOrder = new Integer[pointCount];
+            for (int i = 0; i < pointCount; i++) {
+                boxedOrder[i] = i;
+            }
+            Arrays.sort(boxedOrder, (a, b) -> {
+                for (int dimIdx = 0; dimIdx < ndim; dimIdx++) {
+                    final int cmp = Long.compare(coords[dimIdx][a] / chunkShape[dimIdx],
+                            coords[dimIdx][b] / chunkShape[dimIdx]);
+                    if (cmp != 0) {
+                        return cmp;
+                    }
+                }
+                return Integer.compare(a, b);
+            });
+            for (int i = 0; i < pointCount; i++) {
+                order[i] = boxedOrder[i];
+            }
+        }
+        return order;
     }
 
     public static ChunkProjection computeProjection(long[] chunkCoords, int[] arrayShape,
@@ -67,12 +431,30 @@ public class IndexingUtils {
             final int[] chunkShape, final long[] selOffset,
             final long[] selShape
     ) {
-        final int ndim = chunkCoords.length;
-        final int[] chunkOffset = new int[ndim];
-        final int[] outOffset = new int[ndim];
-        final int[] shape = new int[ndim];
+        return updateProjection(new ChunkProjection(chunkCoords.length), chunkCoords, arrayShape, chunkShape,
+                selOffset, selShape);
+    }
+
+    /**
+     * Moves a projection to another chunk of the same selection in place. Only the dimensions in which
+     * the chunk coordinates changed are recomputed, which for row-major traversals is mostly the last
+     * one. The returned projection is the passed one and is overwritten by the next update.
+     */
+    public static ChunkProjection updateProjection(
+            final ChunkProjection projection, final long[] chunkCoords,
+            final long[] arrayShape, final int[] chunkShape,
+            final long[] selOffset, final long[] selShape
+    ) {
+        final int[] chunkOffset = projection.chunkOffset;
+        final int[] outOffset = projection.outOffset;
+        final int[] shape = projection.shape;
 
         for (int dimIdx = 0; dimIdx < chunkCoords.length; dimIdx++) {
+            if (projection.chunkCoords[dimIdx] == chunkCoords[dimIdx]) {
+                continue;
+            }
+            projection.chunkCoords[dimIdx] = chunkCoords[dimIdx];
+
             // compute offsets for chunk within overall array
             final long dimOffset = (long) chunkShape[dimIdx] * chunkCoords[dimIdx];
             final long dimLimit = Math.min(arrayShape[dimIdx],
@@ -113,7 +495,7 @@ public class IndexingUtils {
             }
         }
 
-        return new ChunkProjection(chunkCoords, chunkOffset, outOffset, shape);
+        return projection;
     }
 
     public static boolean isFullChunk(final int[] selOffset, final int[] selShape,
@@ -181,6 +563,15 @@ public class IndexingUtils {
             this.shape = shape;
         }
 
+        /**
+         * Creates a projection that is not positioned on any chunk yet, to be moved with
+         * {@link IndexingUtils#updateProjection}.
+         */
+        public ChunkProjection(final int ndim) {
+            this(new long[ndim], new int[ndim], new int[ndim], new int[ndim]);
+            Arrays.fill(chunkCoords, -1);
+        }
+
         @Override
         public String toString() {
             return "ChunkProjection{" +
@@ -191,4 +582,45 @@ public class IndexingUtils {
                     '}';
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * The points of a coordinate selection that lie within one chunk.
+     */
+    public static final class PointGroup {
+
+        final public long[] chunkCoords;
+        /**
+         * The indices of the points within the selection.
+         */
+        final public int[] pointIndices;
+        /**
+         * The coordinates of the points relative to the chunk, per dimension.
+         */
+        final public int[][] chunkPoints;
+
+        public PointGroup(final long[] chunkCoords, final int[] pointIndices, final int[][] chunkPoints) {
+            this.chunkCoords = chunkCoords;
+            this.pointIndices = pointIndices;
+            this.chunkPoints = chunkPoints;
+        }
+    }
+
+    /**
+     * The part of an orthogonal selection that lies within one chunk. Per dimension, the selected
+     * indices within the chunk are in ascending order and {@code outIndices} holds their positions in
+     * the output.
+     */
+    public static final class OrthogonalChunkProjection {
+
+        final public long[] chunkCoords;
+        final public int[][] chunkIndices;
+        final public int[][] outIndices;
+
+        public OrthogonalChunkProjection(final long[] chunkCoords, final int[][] chunkIndices,
+                                         final int[][] outIndices) {
+            this.chunkCoords = chunkCoords;
+            this.chunkIndices = chunkIndices;
+            this.outIndices = outIndices;
+        }
+    }
+}
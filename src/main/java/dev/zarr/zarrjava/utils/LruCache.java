@@ -0,0 +1,113 @@
+package dev.zarr.zarrjava.utils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * A thread-safe least-recently-used cache that is bounded by the summed weight of its entries
+ * (e.g. their size in bytes) rather than by the number of entries.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class LruCache<K, V> {
+
+    private final long maxWeight;
+    @Nonnull
+    private final ToLongFunction<V> weigher;
+    private final LinkedHashMap<K, V> map = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight = 0;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param maxWeight the maximum summed weight of all entries
+     * @param weigher   computes the weight of a single value
+     */
+    public LruCache(long maxWeight, @Nonnull ToLongFunction<V> weigher) {
+        if (maxWeight < 0) {
+            throw new IllegalArgumentException("'maxWeight' needs to be non-negative.");
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    @Nullable
+    public synchronized V get(@Nonnull K key) {
+        V value = map.get(key);
+        if (value == null) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Inserts a value and evicts the least-recently-used entries until the cache fits into its
+     * weight bound again. Values that are heavier than the whole cache are not inserted.
+     */
+    public synchronized void put(@Nonnull K key, @Nonnull V value) {
+        long valueWeight = weigher.applyAsLong(value);
+        V previous = map.remove(key);
+        if (previous != null) {
+            weight -= weigher.applyAsLong(previous);
+        }
+        if (valueWeight > maxWeight) {
+            return;
+        }
+        map.put(key, value);
+        weight += valueWeight;
+
+        Iterator<Map.Entry<K, V>> iterator = map.entrySet().iterator();
+        while (weight > maxWeight && iterator.hasNext()) {
+            Map.Entry<K, V> eldest = iterator.next();
+            weight -= weigher.applyAsLong(eldest.getValue());
+            iterator.remove();
+            evictionCount.increment();
+        }
+    }
+
+    public synchronized void invalidate(@Nonnull K key) {
+        V previous = map.remove(key);
+        if (previous != null) {
+            weight -= weigher.applyAsLong(previous);
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        map.clear();
+        weight = 0;
+    }
+
+    public long maxWeight() {
+        return maxWeight;
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    public long evictionCount() {
+        return evictionCount.sum();
+    }
+}
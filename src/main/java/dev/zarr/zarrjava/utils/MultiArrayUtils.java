@@ -1,11 +1,14 @@
 package dev.zarr.zarrjava.utils;
 
 import ucar.ma2.Array;
+import ucar.ma2.Index;
 import ucar.ma2.IndexIterator;
 import ucar.ma2.InvalidRangeException;
 import ucar.ma2.Range;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 
@@ -43,6 +46,22 @@ public class MultiArrayUtils {
                 sourceRanges.add(new Range(sourceOffset[dimIdx], sourceOffset[dimIdx] + shape[dimIdx] - 1));
                 targetRanges.add(new Range(targetOffset[dimIdx], targetOffset[dimIdx] + shape[dimIdx] - 1));
             }
+            if (source.getElementType() == target.getElementType()) {
+                final StorageLayout sourceLayout = StorageLayout.of(source, sourceOffset);
+                final StorageLayout targetLayout = StorageLayout.of(target, targetOffset);
+                if (sourceLayout != null && targetLayout != null
+                        && sourceLayout.storage.getClass() == targetLayout.storage.getClass()) {
+                    final Runs runs = new Runs(shape, sourceLayout.strides, targetLayout.strides);
+                    if (runs.contiguous) {
+                        runs.forEach(sourceLayout.start, targetLayout.start, (sourcePos, targetPos, length) -> {
+                            System.arraycopy(sourceLayout.storage, sourcePos, targetLayout.storage, targetPos, length);
+                            return true;
+                        });
+                        return;
+                    }
+                }
+            }
+
             final IndexIterator sourceRangeIterator = source.getRangeIterator(sourceRanges);
             final IndexIterator targetRangeIterator = target.getRangeIterator(targetRanges);
             final Class elementType = source.getElementType();
@@ -56,7 +75,471 @@ public class MultiArrayUtils {
         }
     }
 
+    /**
+     * Copies a region of an array into a buffer that holds a larger array in C order. Elements are
+     * written at absolute positions relative to the buffer's position in the buffer's byte order; the
+     * position itself is not changed.
+     */
+    public static void copyRegion(Array source, int[] sourceOffset, ByteBuffer target, int[] targetShape,
+                                  int[] targetOffset, int[] shape) {
+        if (sourceOffset.length != targetOffset.length || targetShape.length != targetOffset.length
+                || shape.length != targetOffset.length || source.getRank() != sourceOffset.length) {
+            throw new IllegalArgumentException("All offsets and shapes need to have the same rank.");
+        }
+        try {
+            final ArrayList<Range> sourceRanges = new ArrayList<>();
+            for (int dimIdx = 0; dimIdx < shape.length; dimIdx++) {
+                if (sourceOffset[dimIdx] + shape[dimIdx] > source.getShape()[dimIdx]) {
+                    throw new IllegalArgumentException(
+                            "'sourceOffset + shape' needs to be less or equal than " + "'source.getShape()'.");
+                }
+                sourceRanges.add(new Range(sourceOffset[dimIdx], sourceOffset[dimIdx] + shape[dimIdx] - 1));
+            }
+            if (copyRegionInBulk(source, sourceOffset, target, targetShape, targetOffset, shape)) {
+                return;
+            }
+            final IndexIterator sourceRangeIterator = source.getRangeIterator(sourceRanges);
+            final BufferAccessor accessor = createBufferAccessor(source.getElementType());
+            forEachBufferRow(target, targetShape, targetOffset, shape, accessor.elementSize(), (position, length) -> {
+                for (int i = 0; i < length; i++) {
+                    accessor.put(target, position + i * accessor.elementSize(), sourceRangeIterator);
+                }
+            });
+        } catch (InvalidRangeException ex) {
+            throw new RuntimeException("Unreachable");
+        }
+    }
+
+    private static boolean copyRegionInBulk(Array source, int[] sourceOffset, ByteBuffer target, int[] targetShape,
+                                            int[] targetOffset, int[] shape) {
+        final StorageLayout sourceLayout = StorageLayout.of(source, sourceOffset);
+        if (sourceLayout == null || sourceLayout.storage instanceof boolean[]) {
+            return false;
+        }
+        for (int dimIdx = 0; dimIdx < shape.length; dimIdx++) {
+            if (targetOffset[dimIdx] + shape[dimIdx] > targetShape[dimIdx]) {
+                throw new IllegalArgumentException(
+                        "'targetOffset + shape' needs to be less or equal than " + "'targetShape'.");
+            }
+        }
+        final int[] targetStrides = cOrderStrides(targetShape);
+        final Runs runs = new Runs(shape, sourceLayout.strides, targetStrides);
+        if (!runs.contiguous) {
+            return false;
+        }
+        if (Index.computeSize(targetShape) * source.getDataType().getSize() > target.remaining()) {
+            throw new IllegalArgumentException("'target' has fewer remaining bytes than 'targetShape' requires.");
+        }
+        final int targetStart = linearIndex(targetStrides, targetOffset);
+        // Bulk puts are relative, so each run writes through its own view of the buffer
+        final int bufferStart = target.position();
+        final int elementSize = source.getDataType().getSize();
+        final Object storage = sourceLayout.storage;
+        runs.forEach(sourceLayout.start, targetStart, (sourcePos, targetPos, length) -> {
+            ByteBuffer view = target.duplicate().order(target.order());
+            view.position(bufferStart + targetPos * elementSize);
+            if (storage instanceof double[]) {
+                view.asDoubleBuffer().put((double[]) storage, sourcePos, length);
+            } else if (storage instanceof float[]) {
+                view.asFloatBuffer().put((float[]) storage, sourcePos, length);
+            } else if (storage instanceof long[]) {
+                view.asLongBuffer().put((long[]) storage, sourcePos, length);
+            } else if (storage instanceof int[]) {
+                view.asIntBuffer().put((int[]) storage, sourcePos, length);
+            } else if (storage instanceof short[]) {
+                view.asShortBuffer().put((short[]) storage, sourcePos, length);
+            } else {
+                view.put((byte[]) storage, sourcePos, length);
+            }
+            return true;
+        });
+        return true;
+    }
+
+    /**
+     * Copies a region of an array that is stored in C order in a buffer into an array. Elements are read
+     * at absolute positions relative to the buffer's position in the buffer's byte order; the position
+     * itself is not changed.
+     */
+    public static void copyRegion(ByteBuffer source, int[] sourceShape, int[] sourceOffset, Array target,
+                                  int[] targetOffset, int[] shape) {
+        if (sourceOffset.length != targetOffset.length || sourceShape.length != sourceOffset.length
+                || shape.length != targetOffset.length || target.getRank() != targetOffset.length) {
+            throw new IllegalArgumentException("All offsets and shapes need to have the same rank.");
+        }
+        try {
+            final ArrayList<Range> targetRanges = new ArrayList<>();
+            for (int dimIdx = 0; dimIdx < shape.length; dimIdx++) {
+                if (targetOffset[dimIdx] + shape[dimIdx] > target.getShape()[dimIdx]) {
+                    throw new IllegalArgumentException(
+                            "'targetOffset + shape' needs to be less or equal than " + "'target.getShape()'.");
+                }
+                targetRanges.add(new Range(targetOffset[dimIdx], targetOffset[dimIdx] + shape[dimIdx] - 1));
+            }
+            if (copyRegionInBulk(source, sourceShape, sourceOffset, target, targetOffset, shape)) {
+                return;
+            }
+            final IndexIterator targetRangeIterator = target.getRangeIterator(targetRanges);
+            final BufferAccessor accessor = createBufferAccessor(target.getElementType());
+            forEachBufferRow(source, sourceShape, sourceOffset, shape, accessor.elementSize(), (position, length) -> {
+                for (int i = 0; i < length; i++) {
+                    accessor.get(source, position + i * accessor.elementSize(), targetRangeIterator);
+                }
+            });
+        } catch (InvalidRangeException ex) {
+            throw new RuntimeException("Unreachable");
+        }
+    }
+
+    private static boolean copyRegionInBulk(ByteBuffer source, int[] sourceShape, int[] sourceOffset, Array target,
+                                            int[] targetOffset, int[] shape) {
+        final StorageLayout targetLayout = StorageLayout.of(target, targetOffset);
+        if (targetLayout == null || targetLayout.storage instanceof boolean[]) {
+            return false;
+        }
+        for (int dimIdx = 0; dimIdx < shape.length; dimIdx++) {
+            if (sourceOffset[dimIdx] + shape[dimIdx] > sourceShape[dimIdx]) {
+                throw new IllegalArgumentException(
+                        "'sourceOffset + shape' needs to be less or equal than " + "'sourceShape'.");
+            }
+        }
+        final int[] sourceStrides = cOrderStrides(sourceShape);
+        final Runs runs = new Runs(shape, sourceStrides, targetLayout.strides);
+        if (!runs.contiguous) {
+            return false;
+        }
+        if (Index.computeSize(sourceShape) * target.getDataType().getSize() > source.remaining()) {
+            throw new IllegalArgumentException("'source' has fewer remaining bytes than 'sourceShape' requires.");
+        }
+        // Bulk gets are relative, so each run reads through its own view of the buffer
+        final int bufferStart = source.position();
+        final int elementSize = target.getDataType().getSize();
+        final Object storage = targetLayout.storage;
+        runs.forEach(linearIndex(sourceStrides, sourceOffset), targetLayout.start, (sourcePos, targetPos, length) -> {
+            ByteBuffer view = source.duplicate().order(source.order());
+            view.position(bufferStart + sourcePos * elementSize);
+            if (storage instanceof double[]) {
+                view.asDoubleBuffer().get((double[]) storage, targetPos, length);
+            } else if (storage instanceof float[]) {
+                view.asFloatBuffer().get((float[]) storage, targetPos, length);
+            } else if (storage instanceof long[]) {
+                view.asLongBuffer().get((long[]) storage, targetPos, length);
+            } else if (storage instanceof int[]) {
+                view.asIntBuffer().get((int[]) storage, targetPos, length);
+            } else if (storage instanceof short[]) {
+                view.asShortBuffer().get((short[]) storage, targetPos, length);
+            } else {
+                view.get((byte[]) storage, targetPos, length);
+            }
+            return true;
+        });
+        return true;
+    }
+
+    private static int[] cOrderStrides(int[] shape) {
+        final int[] strides = new int[shape.length];
+        int stride = 1;
+        for (int dimIdx = shape.length - 1; dimIdx >= 0; dimIdx--) {
+            strides[dimIdx] = stride;
+            stride *= shape[dimIdx];
+        }
+        return strides;
+    }
+
+    private static int linearIndex(int[] strides, int[] offset) {
+        int index = 0;
+        for (int dimIdx = 0; dimIdx < strides.length; dimIdx++) {
+            index += offset[dimIdx] * strides[dimIdx];
+        }
+        return index;
+    }
+
+    /**
+     * Sets a region of a buffer that holds a larger array in C order to a value. The element type is
+     * derived from the boxed value.
+     *
+     * @see #copyRegion(Array, int[], ByteBuffer, int[], int[], int[])
+     */
+    public static void fillRegion(ByteBuffer target, int[] targetShape, int[] targetOffset, int[] shape,
+                                  @Nonnull Object fillValue) {
+        final BufferValueWriter writer = createBufferValueWriter(fillValue);
+        forEachBufferRow(target, targetShape, targetOffset, shape, writer.elementSize(), (position, length) -> {
+            for (int i = 0; i < length; i++) {
+                writer.put(target, position + i * writer.elementSize());
+            }
+        });
+    }
+
+    private static void forEachBufferRow(ByteBuffer buffer, int[] bufferShape, int[] bufferOffset, int[] shape,
+                                         int elementSize, BufferRowConsumer consumer) {
+        final int ndim = shape.length;
+        long requiredLength = elementSize;
+        for (int dimIdx = 0; dimIdx < ndim; dimIdx++) {
+            if (bufferOffset[dimIdx] + shape[dimIdx] > bufferShape[dimIdx]) {
+                throw new IllegalArgumentException(
+                        "'bufferOffset + shape' needs to be less or equal than " + "'bufferShape'.");
+            }
+            requiredLength *= bufferShape[dimIdx];
+            if (shape[dimIdx] == 0) {
+                return;
+            }
+        }
+        if (requiredLength > buffer.remaining()) {
+            throw new IllegalArgumentException("The buffer has fewer remaining bytes than 'bufferShape' requires.");
+        }
+        final long[] strides = new long[ndim];
+        long stride = elementSize;
+        for (int dimIdx = ndim - 1; dimIdx >= 0; dimIdx--) {
+            strides[dimIdx] = stride;
+            stride *= bufferShape[dimIdx];
+        }
+        final int rowLength = ndim == 0 ? 1 : shape[ndim - 1];
+        final int[] counter = new int[Math.max(ndim - 1, 0)];
+        while (true) {
+            long position = buffer.position();
+            for (int dimIdx = 0; dimIdx < ndim; dimIdx++) {
+                position += (bufferOffset[dimIdx] + (dimIdx < ndim - 1 ? counter[dimIdx] : 0)) * strides[dimIdx];
+            }
+            consumer.accept((int) position, rowLength);
+
+            int dimIdx = counter.length - 1;
+            while (dimIdx >= 0 && ++counter[dimIdx] == shape[dimIdx]) {
+                counter[dimIdx] = 0;
+                dimIdx--;
+            }
+            if (dimIdx < 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sets a region of an array to a value.
+     */
+    public static void fillRegion(@Nonnull Array array, int[] offset, int[] shape, @Nonnull Object fillValue) {
+        if (array.getRank() != offset.length || shape.length != offset.length) {
+            throw new IllegalArgumentException("'offset', 'shape' and 'array' do not have the same rank.");
+        }
+        try {
+            final ArrayList<Range> ranges = new ArrayList<>();
+            for (int dimIdx = 0; dimIdx < shape.length; dimIdx++) {
+                if (offset[dimIdx] + shape[dimIdx] > array.getShape()[dimIdx]) {
+                    throw new IllegalArgumentException(
+                            "'offset + shape' needs to be less or equal than " + "'array.getShape()'.");
+                }
+                if (shape[dimIdx] == 0) {
+                    return;
+                }
+                ranges.add(new Range(offset[dimIdx], offset[dimIdx] + shape[dimIdx] - 1));
+            }
+            final StorageLayout layout = StorageLayout.of(array, offset);
+            if (layout != null) {
+                final Runs runs = new Runs(shape, layout.strides, layout.strides);
+                if (runs.contiguous) {
+                    runs.forEach(layout.start, layout.start, fillKernel(layout.storage, fillValue));
+                    return;
+                }
+            }
+            final IndexIterator iterator = array.getRangeIterator(ranges);
+            final ValueAccessor accessor = createValueAccessor(array.getElementType());
+            while (iterator.hasNext()) {
+                accessor.set(iterator, fillValue);
+            }
+        } catch (InvalidRangeException ex) {
+            throw new RuntimeException("Unreachable");
+        }
+    }
+
+    /**
+     * Copies scattered elements of an array into a one-dimensional target, e.g. for coordinate
+     * selections. The element at {@code sourceCoords[0][i], ..., sourceCoords[ndim - 1][i]} of the source
+     * is copied to the position {@code targetIndices[i]} of the target.
+     */
+    public static void copyPoints(@Nonnull Array source, int[][] sourceCoords, @Nonnull Array target,
+                                  int[] targetIndices) {
+        if (sourceCoords.length != source.getRank()) {
+            throw new IllegalArgumentException("'sourceCoords' and 'source' do not have the same rank.");
+        }
+        if (target.getRank() != 1) {
+            throw new IllegalArgumentException("'target' needs to have rank '1'.");
+        }
+        final Index sourceIndex = source.getIndex();
+        final Index targetIndex = target.getIndex();
+        final int[] counter = new int[source.getRank()];
+        final Class elementType = source.getElementType();
+        for (int i = 0; i < targetIndices.length; i++) {
+            for (int dimIdx = 0; dimIdx < counter.length; dimIdx++) {
+                counter[dimIdx] = sourceCoords[dimIdx][i];
+            }
+            sourceIndex.set(counter);
+            targetIndex.set(targetIndices[i]);
+            copyElement(source, sourceIndex, target, targetIndex, elementType);
+        }
+    }
+
+    private static void copyElement(Array source, Index sourceIndex, Array target, Index targetIndex,
+                                    Class elementType) {
+        if (elementType == double.class) {
+            target.setDouble(targetIndex, source.getDouble(sourceIndex));
+        } else if (elementType == float.class) {
+            target.setFloat(targetIndex, source.getFloat(sourceIndex));
+        } else if (elementType == long.class) {
+            target.setLong(targetIndex, source.getLong(sourceIndex));
+        } else if (elementType == int.class) {
+            target.setInt(targetIndex, source.getInt(sourceIndex));
+        } else if (elementType == short.class) {
+            target.setShort(targetIndex, source.getShort(sourceIndex));
+        } else if (elementType == byte.class) {
+            target.setByte(targetIndex, source.getByte(sourceIndex));
+        } else if (elementType == boolean.class) {
+            target.setBoolean(targetIndex, source.getBoolean(sourceIndex));
+        } else {
+            target.setObject(targetIndex, source.getObject(sourceIndex));
+        }
+    }
+
+    /**
+     * Copies an orthogonal selection, i.e. the Cartesian product of independent index lists per
+     * dimension, from the source to the target. Trailing dimensions in which both index lists are
+     * contiguous ranges are copied as blocks.
+     */
+    public static void copyOrthogonal(@Nonnull Array source, int[][] sourceIndices, @Nonnull Array target,
+                                      int[][] targetIndices) {
+        final int ndim = source.getRank();
+        if (sourceIndices.length != ndim || targetIndices.length != ndim || target.getRank() != ndim) {
+            throw new IllegalArgumentException("'sourceIndices', 'targetIndices', 'source' and 'target' "
+                    + "need to have the same rank.");
+        }
+        final int[] shape = new int[ndim];
+        for (int dimIdx = 0; dimIdx < ndim; dimIdx++) {
+            if (sourceIndices[dimIdx].length != targetIndices[dimIdx].length) {
+                throw new IllegalArgumentException(
+                        "'sourceIndices' and 'targetIndices' need to have the same lengths.");
+            }
+            if (sourceIndices[dimIdx].length == 0) {
+                return;
+            }
+            shape[dimIdx] = sourceIndices[dimIdx].length;
+        }
+        int blockDim = ndim;
+        while (blockDim > 0 && isRange(sourceIndices[blockDim - 1]) && isRange(targetIndices[blockDim - 1])) {
+            blockDim--;
+        }
+
+        final int[] counter = new int[ndim];
+        if (blockDim == ndim) {
+            // Without contiguous trailing dimensions, the elements are copied one by one
+            final Index sourceIndex = source.getIndex();
+            final Index targetIndex = target.getIndex();
+            final int[] sourceCounter = new int[ndim];
+            final int[] targetCounter = new int[ndim];
+            final Class elementType = source.getElementType();
+            do {
+                for (int dimIdx = 0; dimIdx < ndim; dimIdx++) {
+                    sourceCounter[dimIdx] = sourceIndices[dimIdx][counter[dimIdx]];
+                    targetCounter[dimIdx] = targetIndices[dimIdx][counter[dimIdx]];
+                }
+                copyElement(source, sourceIndex.set(sourceCounter), target, targetIndex.set(targetCounter),
+                        elementType);
+            } while (advance(counter, shape, ndim));
+            return;
+        }
+
+        final int[] sourceOffset = new int[ndim];
+        final int[] targetOffset = new int[ndim];
+        final int[] blockShape = new int[ndim];
+        for (int dimIdx = 0; dimIdx < ndim; dimIdx++) {
+            blockShape[dimIdx] = dimIdx < blockDim ? 1 : shape[dimIdx];
+        }
+        do {
+            for (int dimIdx = 0; dimIdx < ndim; dimIdx++) {
+                final int position = dimIdx < blockDim ? counter[dimIdx] : 0;
+                sourceOffset[dimIdx] = sourceIndices[dimIdx][position];
+                targetOffset[dimIdx] = targetIndices[dimIdx][position];
+            }
+            copyRegion(source, sourceOffset, target, targetOffset, blockShape);
+        } while (advance(counter, shape, blockDim));
+    }
+
+    /**
+     * Sets an orthogonal selection of an array to a value.
+     */
+    public static void fillOrthogonal(@Nonnull Array target, int[][] targetIndices, @Nonnull Object fillValue) {
+        final int ndim = target.getRank();
+        if (targetIndices.length != ndim) {
+            throw new IllegalArgumentException("'targetIndices' and 'target' do not have the same rank.");
+        }
+        final int[] shape = new int[ndim];
+        for (int dimIdx = 0; dimIdx < ndim; dimIdx++) {
+            if (targetIndices[dimIdx].length == 0) {
+                return;
+            }
+            shape[dimIdx] = targetIndices[dimIdx].length;
+        }
+        int blockDim = ndim;
+        while (blockDim > 0 && isRange(targetIndices[blockDim - 1])) {
+            blockDim--;
+        }
+        final int[] counter = new int[ndim];
+        final int[] offset = new int[ndim];
+        final int[] blockShape = new int[ndim];
+        for (int dimIdx = 0; dimIdx < ndim; dimIdx++) {
+            blockShape[dimIdx] = dimIdx < blockDim ? 1 : shape[dimIdx];
+        }
+        do {
+            for (int dimIdx = 0; dimIdx < ndim; dimIdx++) {
+                offset[dimIdx] = targetIndices[dimIdx][dimIdx < blockDim ? counter[dimIdx] : 0];
+            }
+            fillRegion(target, offset, blockShape, fillValue);
+        } while (advance(counter, shape, blockDim));
+    }
+
+    private static boolean isRange(int[] indices) {
+        for (int i = 1; i < indices.length; i++) {
+            if (indices[i] != indices[0] + i) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Advances a row-major counter over the leading dimensions of a shape.
+     *
+     * @return false once the counter wrapped around
+     */
+    private static boolean advance(int[] counter, int[] shape, int ndim) {
+        for (int dimIdx = ndim - 1; dimIdx >= 0; dimIdx--) {
+            if (++counter[dimIdx] < shape[dimIdx]) {
+                return true;
+            }
+            counter[dimIdx] = 0;
+        }
+        return false;
+    }
+
+    /**
+     * Sets scattered elements of a one-dimensional array to a value.
+     */
+    public static void fillPoints(@Nonnull Array target, int[] targetIndices, @Nonnull Object fillValue) {
+        if (target.getRank() != 1) {
+            throw new IllegalArgumentException("'target' needs to have rank '1'.");
+        }
+        final Index targetIndex = target.getIndex();
+        for (int targetIdx : targetIndices) {
+            target.setObject(targetIndex.set(targetIdx), fillValue);
+        }
+    }
+
     public static Array fill(@Nonnull Array array, @Nonnull Object fillValue) {
+        final StorageLayout layout = StorageLayout.of(array, new int[array.getRank()]);
+        if (layout != null) {
+            final Runs runs = new Runs(array.getShape(), layout.strides, layout.strides);
+            if (runs.contiguous) {
+                runs.forEach(layout.start, layout.start, fillKernel(layout.storage, fillValue));
+                return array;
+            }
+        }
         IndexIterator iterator = array.getIndexIterator();
         final Class elementType = array.getElementType();
         final ValueAccessor accessor = createValueAccessor(elementType);
@@ -67,6 +550,13 @@ public class MultiArrayUtils {
     }
 
     public static boolean allValuesEqual(Array array, Object value) {
+        final StorageLayout layout = StorageLayout.of(array, new int[array.getRank()]);
+        if (layout != null) {
+            final Runs runs = new Runs(array.getShape(), layout.strides, layout.strides);
+            if (runs.contiguous) {
+                return runs.forEach(layout.start, layout.start, valueEqualKernel(layout.storage, value));
+            }
+        }
         IndexIterator iterator = array.getIndexIterator();
         final Class elementType = array.getElementType();
         final ValueAccessor accessor = createValueAccessor(elementType);
@@ -88,6 +578,17 @@ public class MultiArrayUtils {
             return false;
         }
 
+        final StorageLayout sourceLayout = StorageLayout.of(source, new int[source.getRank()]);
+        final StorageLayout targetLayout = StorageLayout.of(target, new int[target.getRank()]);
+        if (sourceLayout != null && targetLayout != null
+                && sourceLayout.storage.getClass() == targetLayout.storage.getClass()) {
+            final Runs runs = new Runs(source.getShape(), sourceLayout.strides, targetLayout.strides);
+            if (runs.contiguous) {
+                return runs.forEach(sourceLayout.start, targetLayout.start,
+                        elementsEqualKernel(sourceLayout.storage, targetLayout.storage));
+            }
+        }
+
         IndexIterator sourceIterator = source.getIndexIterator();
         IndexIterator targetIterator = target.getIndexIterator();
         final Class elementType = source.getElementType();
@@ -101,6 +602,219 @@ public class MultiArrayUtils {
         return true;
     }
 
+    private static RunConsumer fillKernel(Object storage, Object value) {
+        if (storage instanceof double[]) {
+            final double[] a = (double[]) storage;
+            final double v = (double) value;
+            return (pos, unused, length) -> {
+                Arrays.fill(a, pos, pos + length, v);
+                return true;
+            };
+        } else if (storage instanceof float[]) {
+            final float[] a = (float[]) storage;
+            final float v = (float) value;
+            return (pos, unused, length) -> {
+                Arrays.fill(a, pos, pos + length, v);
+                return true;
+            };
+        } else if (storage instanceof long[]) {
+            final long[] a = (long[]) storage;
+            final long v = (long) value;
+            return (pos, unused, length) -> {
+                Arrays.fill(a, pos, pos + length, v);
+                return true;
+            };
+        } else if (storage instanceof int[]) {
+            final int[] a = (int[]) storage;
+            final int v = (int) value;
+            return (pos, unused, length) -> {
+                Arrays.fill(a, pos, pos + length, v);
+                return true;
+            };
+        } else if (storage instanceof short[]) {
+            final short[] a = (short[]) storage;
+            final short v = (short) value;
+            return (pos, unused, length) -> {
+                Arrays.fill(a, pos, pos + length, v);
+                return true;
+            };
+        } else if (storage instanceof byte[]) {
+            final byte[] a = (byte[]) storage;
+            final byte v = (byte) value;
+            return (pos, unused, length) -> {
+                Arrays.fill(a, pos, pos + length, v);
+                return true;
+            };
+        }
+        final boolean[] a = (boolean[]) storage;
+        final boolean v = (boolean) value;
+        return (pos, unused, length) -> {
+            Arrays.fill(a, pos, pos + length, v);
+            return true;
+        };
+    }
+
+    private static RunConsumer valueEqualKernel(Object storage, Object value) {
+        // Floating point values are compared with '==' like in the element-wise path
+        if (storage instanceof double[]) {
+            final double[] a = (double[]) storage;
+            final double v = (double) value;
+            return (pos, unused, length) -> {
+                for (int i = pos; i < pos + length; i++) {
+                    if (a[i] != v) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        } else if (storage instanceof float[]) {
+            final float[] a = (float[]) storage;
+            final float v = (float) value;
+            return (pos, unused, length) -> {
+                for (int i = pos; i < pos + length; i++) {
+                    if (a[i] != v) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        } else if (storage instanceof long[]) {
+            final long[] a = (long[]) storage;
+            final long v = (long) value;
+            return (pos, unused, length) -> {
+                for (int i = pos; i < pos + length; i++) {
+                    if (a[i] != v) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        } else if (storage instanceof int[]) {
+            final int[] a = (int[]) storage;
+            final int v = (int) value;
+            return (pos, unused, length) -> {
+                for (int i = pos; i < pos + length; i++) {
+                    if (a[i] != v) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        } else if (storage instanceof short[]) {
+            final short[] a = (short[]) storage;
+            final short v = (short) value;
+            return (pos, unused, length) -> {
+                for (int i = pos; i < pos + length; i++) {
+                    if (a[i] != v) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        } else if (storage instanceof byte[]) {
+            final byte[] a = (byte[]) storage;
+            final byte v = (byte) value;
+            return (pos, unused, length) -> {
+                for (int i = pos; i < pos + length; i++) {
+                    if (a[i] != v) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        }
+        final boolean[] a = (boolean[]) storage;
+        final boolean v = (boolean) value;
+        return (pos, unused, length) -> {
+            for (int i = pos; i < pos + length; i++) {
+                if (a[i] != v) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    private static RunConsumer elementsEqualKernel(Object source, Object target) {
+        if (source instanceof double[]) {
+            final double[] a = (double[]) source;
+            final double[] b = (double[]) target;
+            return (sourcePos, targetPos, length) -> {
+                for (int i = 0; i < length; i++) {
+                    if (a[sourcePos + i] != b[targetPos + i]) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        } else if (source instanceof float[]) {
+            final float[] a = (float[]) source;
+            final float[] b = (float[]) target;
+            return (sourcePos, targetPos, length) -> {
+                for (int i = 0; i < length; i++) {
+                    if (a[sourcePos + i] != b[targetPos + i]) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        } else if (source instanceof long[]) {
+            final long[] a = (long[]) source;
+            final long[] b = (long[]) target;
+            return (sourcePos, targetPos, length) -> {
+                for (int i = 0; i < length; i++) {
+                    if (a[sourcePos + i] != b[targetPos + i]) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        } else if (source instanceof int[]) {
+            final int[] a = (int[]) source;
+            final int[] b = (int[]) target;
+            return (sourcePos, targetPos, length) -> {
+                for (int i = 0; i < length; i++) {
+                    if (a[sourcePos + i] != b[targetPos + i]) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        } else if (source instanceof short[]) {
+            final short[] a = (short[]) source;
+            final short[] b = (short[]) target;
+            return (sourcePos, targetPos, length) -> {
+                for (int i = 0; i < length; i++) {
+                    if (a[sourcePos + i] != b[targetPos + i]) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        } else if (source instanceof byte[]) {
+            final byte[] a = (byte[]) source;
+            final byte[] b = (byte[]) target;
+            return (sourcePos, targetPos, length) -> {
+                for (int i = 0; i < length; i++) {
+                    if (a[sourcePos + i] != b[targetPos + i]) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        }
+        final boolean[] a = (boolean[]) source;
+        final boolean[] b = (boolean[]) target;
+        return (sourcePos, targetPos, length) -> {
+            for (int i = 0; i < length; i++) {
+                if (a[sourcePos + i] != b[targetPos + i]) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
     static ValueAccessor createValueAccessor(Class elementType) {
         if (elementType == double.class) {
             return new ValueAccessor() {
@@ -282,6 +996,316 @@ public class MultiArrayUtils {
         };
     }
 
+    private static BufferAccessor createBufferAccessor(Class elementType) {
+        if (elementType == double.class) {
+            return new BufferAccessor(8) {
+                @Override
+                void put(ByteBuffer buffer, int position, IndexIterator iterator) {
+                    buffer.putDouble(position, iterator.getDoubleNext());
+                }
+
+                @Override
+                void get(ByteBuffer buffer, int position, IndexIterator iterator) {
+                    iterator.setDoubleNext(buffer.getDouble(position));
+                }
+            };
+        } else if (elementType == float.class) {
+            return new BufferAccessor(4) {
+                @Override
+                void put(ByteBuffer buffer, int position, IndexIterator iterator) {
+                    buffer.putFloat(position, iterator.getFloatNext());
+                }
+
+                @Override
+                void get(ByteBuffer buffer, int position, IndexIterator iterator) {
+                    iterator.setFloatNext(buffer.getFloat(position));
+                }
+            };
+        } else if (elementType == long.class) {
+            return new BufferAccessor(8) {
+                @Override
+                void put(ByteBuffer buffer, int position, IndexIterator iterator) {
+                    buffer.putLong(position, iterator.getLongNext());
+                }
+
+                @Override
+                void get(ByteBuffer buffer, int position, IndexIterator iterator) {
+                    iterator.setLongNext(buffer.getLong(position));
+                }
+            };
+        } else if (elementType == int.class) {
+            return new BufferAccessor(4) {
+                @Override
+                void put(ByteBuffer buffer, int position, IndexIterator iterator) {
+                    buffer.putInt(position, iterator.getIntNext());
+                }
+
+                @Override
+                void get(ByteBuffer buffer, int position, IndexIterator iterator) {
+                    iterator.setIntNext(buffer.getInt(position));
+                }
+            };
+        } else if (elementType == short.class) {
+            return new BufferAccessor(2) {
+                @Override
+                void put(ByteBuffer buffer, int position, IndexIterator iterator) {
+                    buffer.putShort(position, iterator.getShortNext());
+                }
+
+                @Override
+                void get(ByteBuffer buffer, int position, IndexIterator iterator) {
+                    iterator.setShortNext(buffer.getShort(position));
+                }
+            };
+        } else if (elementType == byte.class) {
+            return new BufferAccessor(1) {
+                @Override
+                void put(ByteBuffer buffer, int position, IndexIterator iterator) {
+                    buffer.put(position, iterator.getByteNext());
+                }
+
+                @Override
+                void get(ByteBuffer buffer, int position, IndexIterator iterator) {
+                    iterator.setByteNext(buffer.get(position));
+                }
+            };
+        } else if (elementType == boolean.class) {
+            return new BufferAccessor(1) {
+                @Override
+                void put(ByteBuffer buffer, int position, IndexIterator iterator) {
+                    buffer.put(position, (byte) (iterator.getBooleanNext() ? 1 : 0));
+                }
+
+                @Override
+                void get(ByteBuffer buffer, int position, IndexIterator iterator) {
+                    iterator.setBooleanNext(buffer.get(position) != 0);
+                }
+            };
+        }
+        throw new IllegalArgumentException("Element type '" + elementType + "' cannot be written to a buffer.");
+    }
+
+    private static BufferValueWriter createBufferValueWriter(Object value) {
+        if (value instanceof Double) {
+            final double doubleValue = (Double) value;
+            return new BufferValueWriter(8) {
+                @Override
+                void put(ByteBuffer buffer, int position) {
+                    buffer.putDouble(position, doubleValue);
+                }
+            };
+        } else if (value instanceof Float) {
+            final float floatValue = (Float) value;
+            return new BufferValueWriter(4) {
+                @Override
+                void put(ByteBuffer buffer, int position) {
+                    buffer.putFloat(position, floatValue);
+                }
+            };
+        } else if (value instanceof Long) {
+            final long longValue = (Long) value;
+            return new BufferValueWriter(8) {
+                @Override
+                void put(ByteBuffer buffer, int position) {
+                    buffer.putLong(position, longValue);
+                }
+            };
+        } else if (value instanceof Integer) {
+            final int intValue = (Integer) value;
+            return new BufferValueWriter(4) {
+                @Override
+                void put(ByteBuffer buffer, int position) {
+                    buffer.putInt(position, intValue);
+                }
+            };
+        } else if (value instanceof Short) {
+            final short shortValue = (Short) value;
+            return new BufferValueWriter(2) {
+                @Override
+                void put(ByteBuffer buffer, int position) {
+                    buffer.putShort(position, shortValue);
+                }
+            };
+        } else if (value instanceof Byte || value instanceof Boolean) {
+            final byte byteValue = value instanceof Byte ? (Byte) value : (byte) ((Boolean) value ? 1 : 0);
+            return new BufferValueWriter(1) {
+                @Override
+                void put(ByteBuffer buffer, int position) {
+                    buffer.put(position, byteValue);
+                }
+            };
+        }
+        throw new IllegalArgumentException("Value '" + value + "' cannot be written to a buffer.");
+    }
+
+    /**
+     * Copies elements of one type between array iterators and positions of buffers.
+     */
+    private abstract static class BufferAccessor {
+
+        private final int elementSize;
+
+        BufferAccessor(int elementSize) {
+            this.elementSize = elementSize;
+        }
+
+        int elementSize() {
+            return elementSize;
+        }
+
+        abstract void put(ByteBuffer buffer, int position, IndexIterator iterator);
+
+        abstract void get(ByteBuffer buffer, int position, IndexIterator iterator);
+    }
+
+    /**
+     * Writes one value to positions of buffers.
+     */
+    private abstract static class BufferValueWriter {
+
+        private final int elementSize;
+
+        BufferValueWriter(int elementSize) {
+            this.elementSize = elementSize;
+        }
+
+        int elementSize() {
+            return elementSize;
+        }
+
+        abstract void put(ByteBuffer buffer, int position);
+    }
+
+    /**
+     * Maps the elements of an array, starting at an offset, to positions in its backing primitive Java
+     * array. Views that are not backed by such an array are handled element-wise.
+     */
+    private static final class StorageLayout {
+
+        final Object storage;
+        final int start;
+        final int[] strides;
+
+        private StorageLayout(Object storage, int start, int[] strides) {
+            this.storage = storage;
+            this.start = start;
+            this.strides = strides;
+        }
+
+        @Nullable
+        static StorageLayout of(Array array, int[] offset) {
+            final Object storage = array.getStorage();
+            if (!(storage instanceof double[] || storage instanceof float[] || storage instanceof long[]
+                    || storage instanceof int[] || storage instanceof short[] || storage instanceof byte[]
+                    || storage instanceof boolean[])) {
+                return null;
+            }
+            final int[] shape = array.getShape();
+            for (int dimSize : shape) {
+                if (dimSize == 0) {
+                    return null;
+                }
+            }
+            // Strides are derived through the public index API, so sections, permutations and flips are covered
+            final Index index = array.getIndex();
+            final int[] counter = new int[shape.length];
+            final int base = index.set(counter).currentElement();
+            final int[] strides = new int[shape.length];
+            int start = base;
+            for (int dimIdx = 0; dimIdx < shape.length; dimIdx++) {
+                if (shape[dimIdx] > 1) {
+                    counter[dimIdx] = 1;
+                    strides[dimIdx] = index.set(counter).currentElement() - base;
+                    counter[dimIdx] = 0;
+                }
+                start += offset[dimIdx] * strides[dimIdx];
+            }
+            return new StorageLayout(storage, start, strides);
+        }
+    }
+
+    /**
+     * Splits a region into runs of elements that are contiguous in both the source and the target
+     * storage. Trailing dimensions are merged into a single run as long as both sides stay contiguous.
+     */
+    private static final class Runs {
+
+        final boolean contiguous;
+        final int length;
+        final int[] outerShape;
+        final int[] outerSourceStrides;
+        final int[] outerTargetStrides;
+
+        Runs(int[] shape, int[] sourceStrides, int[] targetStrides) {
+            int dimIdx = shape.length - 1;
+            // Dimensions of size 1 do not contribute to the layout
+            while (dimIdx >= 0 && shape[dimIdx] == 1) {
+                dimIdx--;
+            }
+            int runLength = 1;
+            if (dimIdx >= 0 && shape[dimIdx] > 0) {
+                contiguous = sourceStrides[dimIdx] == 1 && targetStrides[dimIdx] == 1;
+                while (contiguous && dimIdx >= 0 && (shape[dimIdx] == 1
+                        || (sourceStrides[dimIdx] == runLength && targetStrides[dimIdx] == runLength))) {
+                    runLength *= shape[dimIdx];
+                    dimIdx--;
+                }
+            } else {
+                contiguous = true;
+            }
+            this.length = runLength;
+            this.outerShape = Arrays.copyOf(shape, dimIdx + 1);
+            this.outerSourceStrides = Arrays.copyOf(sourceStrides, dimIdx + 1);
+            this.outerTargetStrides = Arrays.copyOf(targetStrides, dimIdx + 1);
+        }
+
+        /**
+         * @return false if the consumer stopped the iteration
+         */
+        boolean forEach(int sourceStart, int targetStart, RunConsumer consumer) {
+            final int ndim = outerShape.length;
+            for (int dimSize : outerShape) {
+                if (dimSize == 0) {
+                    return true;
+                }
+            }
+            final int[] counter = new int[ndim];
+            int sourcePos = sourceStart;
+            int targetPos = targetStart;
+            while (true) {
+                if (!consumer.accept(sourcePos, targetPos, length)) {
+                    return false;
+                }
+                int dimIdx = ndim - 1;
+                while (dimIdx >= 0) {
+                    counter[dimIdx]++;
+                    sourcePos += outerSourceStrides[dimIdx];
+                    targetPos += outerTargetStrides[dimIdx];
+                    if (counter[dimIdx] < outerShape[dimIdx]) {
+                        break;
+                    }
+                    sourcePos -= counter[dimIdx] * outerSourceStrides[dimIdx];
+                    targetPos -= counter[dimIdx] * outerTargetStrides[dimIdx];
+                    counter[dimIdx] = 0;
+                    dimIdx--;
+                }
+                if (dimIdx < 0) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    private interface RunConsumer {
+
+        boolean accept(int sourcePos, int targetPos, int length);
+    }
+
+    private interface BufferRowConsumer {
+
+        void accept(int position, int length);
+    }
+
     private interface ValueAccessor {
 
         void copy(IndexIterator sourceIterator, IndexIterator targetIterator);
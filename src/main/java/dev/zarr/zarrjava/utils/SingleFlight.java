@@ -0,0 +1,182 @@
+package dev.zarr.zarrjava.utils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates concurrent loads of the same key: while a load is in flight, further requests for the
+ * key wait for it and receive its result instead of loading again. Results are not retained once the
+ * load has finished, so this complements rather than replaces caching.
+ * <p>
+ * Writers {@link #forget(Object) forget} the key after changing the underlying data, so that later
+ * requests start a new load instead of receiving the data from before the write.
+ * <p>
+ * Loaders must not request their own key again, which would wait for itself.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder sharedCount = new LongAdder();
+
+    @FunctionalInterface
+    public interface Loader<V, E extends Exception> {
+
+        V load() throws E;
+    }
+
+    /**
+     * Loads the value of a key, or waits for the load that is already in flight for that key. Exceptions
+     * of the load are rethrown to all waiting callers.
+     */
+    public <E extends Exception> V load(@Nonnull K key, @Nonnull Loader<V, E> loader) throws E {
+        return load(key, loader, null);
+    }
+
+    /**
+     * Loads the value of a key like {@link #load(Object, Loader)} and publishes a loaded value, e.g. by
+     * putting it into a cache, unless the key has been forgotten since the load started. Values are
+     * published by the request that loaded them. {@link #forget(Object)} waits for a value that is being
+     * published, so writers that forget a key and then invalidate their caches never leave the value
+     * from before the write in a cache.
+     *
+     * @param publish is called with the loaded value if it is not null and still current
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends Exception> V load(@Nonnull K key, @Nonnull Loader<V, E> loader,
+                                        @Nullable Consumer<? super V> publish) throws E {
+        final Flight<V> flight = new Flight<>();
+        final Flight<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            sharedCount.increment();
+            try {
+                return existing.future.join();
+            } catch (CompletionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                // The loader only throws E or unchecked exceptions
+                throw (E) cause;
+            }
+        }
+        try {
+            final V value = loader.load();
+            if (publish != null && value != null) {
+                synchronized (flight) {
+                    if (!flight.forgotten) {
+                        publish.accept(value);
+                    }
+                }
+            }
+            flight.future.complete(value);
+            return value;
+        } catch (Throwable t) {
+            flight.future.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #load(Object, Loader, Consumer)}: starts the load of a key, or joins
+     * the load that is already in flight for that key, without blocking the calling thread. The value is
+     * published before the returned future completes.
+     *
+     * @param loader  starts the load and returns its future
+     * @param publish is called with the loaded value if it is not null and still current
+     */
+    @Nonnull
+    public CompletableFuture<V> loadAsync(@Nonnull K key, @Nonnull Supplier<CompletableFuture<V>> loader,
+                                          @Nullable Consumer<? super V> publish) {
+        final Flight<V> flight = new Flight<>();
+        final Flight<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            sharedCount.increment();
+            return existing.future.thenApply(Function.identity());
+        }
+        CompletableFuture<V> loading;
+        try {
+            loading = loader.get();
+        } catch (Throwable t) {
+            loading = new CompletableFuture<>();
+            loading.completeExceptionally(t);
+        }
+        loading.whenComplete((value, t) -> {
+            try {
+                if (t != null) {
+                    flight.future.completeExceptionally(t instanceof CompletionException && t.getCause() != null ?
+                            t.getCause() : t);
+                    return;
+                }
+                if (publish != null && value != null) {
+                    synchronized (flight) {
+                        if (!flight.forgotten) {
+                            publish.accept(value);
+                        }
+                    }
+                }
+                flight.future.complete(value);
+            } catch (Throwable e) {
+                flight.future.completeExceptionally(e);
+            } finally {
+                inFlight.remove(key, flight);
+            }
+        });
+        return flight.future.thenApply(Function.identity());
+    }
+
+    /**
+     * Detaches the load that is in flight for a key, if any. Later requests start a new load, and the
+     * detached load does not publish its value.
+     */
+    public void forget(@Nonnull K key) {
+        final Flight<V> flight = inFlight.remove(key);
+        if (flight != null) {
+            synchronized (flight) {
+                flight.forgotten = true;
+            }
+        }
+    }
+
+    /**
+     * Detaches the loads that are in flight for all keys that match the predicate.
+     *
+     * @see #forget(Object)
+     */
+    public void forgetIf(@Nonnull Predicate<? super K> predicate) {
+        for (K key : inFlight.keySet()) {
+            if (predicate.test(key)) {
+                forget(key);
+            }
+        }
+    }
+
+    /**
+     * @return the number of requests that received the result of a load started by another request
+     */
+    public long sharedCount() {
+        return sharedCount.sum();
+    }
+
+    private static final class Flight<V> {
+
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        // Guarded by the flight
+        boolean forgotten = false;
+    }
+}
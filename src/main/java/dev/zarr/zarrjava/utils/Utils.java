@@ -1,5 +1,6 @@
 package dev.zarr.zarrjava.utils;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -41,6 +42,42 @@ public class Utils {
         return ByteBuffer.wrap(buffer.toByteArray());
     }
 
+    /**
+     * Returns a stream over the remaining bytes of the buffer without copying them, e.g. for buffers that
+     * are memory mappings. The position of the buffer is not changed.
+     */
+    public static InputStream asInputStream(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return new ByteArrayInputStream(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                    buffer.remaining());
+        }
+        final ByteBuffer bytes = buffer.duplicate();
+        return new InputStream() {
+            @Override
+            public int read() {
+                return bytes.hasRemaining() ? bytes.get() & 0xff : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (len == 0) {
+                    return 0;
+                }
+                if (!bytes.hasRemaining()) {
+                    return -1;
+                }
+                final int n = Math.min(len, bytes.remaining());
+                bytes.get(b, off, n);
+                return n;
+            }
+
+            @Override
+            public int available() {
+                return bytes.remaining();
+            }
+        };
+    }
+
     public static long[] toLongArray(int[] array) {
         return Arrays.stream(array)
                 .mapToLong(i -> (long) i)
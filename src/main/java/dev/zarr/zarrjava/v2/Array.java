@@ -4,12 +4,16 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import dev.zarr.zarrjava.ZarrException;
 import dev.zarr.zarrjava.core.Attributes;
+import dev.zarr.zarrjava.core.ChunkCache;
+import dev.zarr.zarrjava.core.Prefetcher;
+import dev.zarr.zarrjava.core.ShardIndexCache;
 import dev.zarr.zarrjava.core.chunkkeyencoding.Separator;
 import dev.zarr.zarrjava.core.codec.CodecPipeline;
 import dev.zarr.zarrjava.store.FilesystemStore;
 import dev.zarr.zarrjava.store.MemoryStore;
 import dev.zarr.zarrjava.store.Store;
 import dev.zarr.zarrjava.store.StoreHandle;
+import dev.zarr.zarrjava.utils.ExecutionContext;
 import dev.zarr.zarrjava.utils.Utils;
 import dev.zarr.zarrjava.v2.codec.Codec;
 import dev.zarr.zarrjava.v2.codec.core.BytesCodec;
@@ -197,7 +201,39 @@ public class Array extends dev.zarr.zarrjava.core.Array implements Node {
     }
 
     private Array writeMetadata(ArrayMetadata newArrayMetadata) throws ZarrException, IOException {
-        return Array.create(storeHandle, newArrayMetadata, true);
+        Array array = Array.create(storeHandle, newArrayMetadata, true);
+        copySettingsTo(array);
+        return array;
+    }
+
+    @Override
+    public Array withChunkCache(@Nullable ChunkCache chunkCache) {
+        super.withChunkCache(chunkCache);
+        return this;
+    }
+
+    @Override
+    public Array withShardIndexCache(@Nullable ShardIndexCache shardIndexCache) {
+        super.withShardIndexCache(shardIndexCache);
+        return this;
+    }
+
+    @Override
+    public Array withExecutionContext(@Nullable ExecutionContext executionContext) {
+        super.withExecutionContext(executionContext);
+        return this;
+    }
+
+    @Override
+    public Array withPrefetcher(@Nullable Prefetcher prefetcher) {
+        super.withPrefetcher(prefetcher);
+        return this;
+    }
+
+    @Override
+    public Array withWriteBuffer(long maxBytes) {
+        super.withWriteBuffer(maxBytes);
+        return this;
     }
 
     /**
@@ -226,7 +262,7 @@ public class Array extends dev.zarr.zarrjava.core.Array implements Node {
      */
     @Override
     public Array resize(long[] newShape, boolean resizeMetadataOnly) throws ZarrException, IOException {
-        return resize(newShape, resizeMetadataOnly, DEFAULT_PARALLELISM);
+        return resize(newShape, resizeMetadataOnly, true);
     }
 
     /**
@@ -246,6 +282,7 @@ public class Array extends dev.zarr.zarrjava.core.Array implements Node {
             throw new IllegalArgumentException(
                     "'newShape' needs to have rank '" + metadata.ndim() + "'.");
         }
+        flush();
 
         if (!resizeMetadataOnly) {
             cleanupChunksForResize(newShape, parallel);
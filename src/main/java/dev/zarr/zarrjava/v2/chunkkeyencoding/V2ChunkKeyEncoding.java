@@ -1,12 +1,11 @@
 package dev.zarr.zarrjava.v2.chunkkeyencoding;
 
+import dev.zarr.zarrjava.core.chunkkeyencoding.CachingChunkKeyEncoder;
+import dev.zarr.zarrjava.core.chunkkeyencoding.ChunkKeyEncoder;
 import dev.zarr.zarrjava.core.chunkkeyencoding.ChunkKeyEncoding;
 import dev.zarr.zarrjava.core.chunkkeyencoding.Separator;
 
 import javax.annotation.Nonnull;
-import java.util.Arrays;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public class V2ChunkKeyEncoding implements ChunkKeyEncoding {
 
@@ -22,12 +21,13 @@ public class V2ChunkKeyEncoding implements ChunkKeyEncoding {
 
     @Override
     public String[] encodeChunkKey(long[] chunkCoords) {
-        Stream<String> keys = Arrays.stream(chunkCoords)
-                .mapToObj(Long::toString);
-        if (separator == Separator.SLASH) {
-            return keys.toArray(String[]::new);
-        }
-        return new String[]{keys.collect(Collectors.joining(this.separator.getValue()))};
+        return keyEncoder(new String[0]).encode(chunkCoords);
+    }
+
+    @Nonnull
+    @Override
+    public ChunkKeyEncoder keyEncoder(@Nonnull String[] parentKeys) {
+        return new CachingChunkKeyEncoder(parentKeys, null, separator);
     }
 }
 
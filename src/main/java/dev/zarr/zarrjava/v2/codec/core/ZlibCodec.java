@@ -9,7 +9,6 @@ import dev.zarr.zarrjava.core.codec.BytesBytesCodec;
 import dev.zarr.zarrjava.utils.Utils;
 import dev.zarr.zarrjava.v2.codec.Codec;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -37,7 +36,7 @@ public class ZlibCodec extends BytesBytesCodec implements Codec {
     @Override
     public ByteBuffer decode(ByteBuffer chunkBytes) throws ZarrException {
         try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream(); InflaterInputStream inputStream = new InflaterInputStream(
-                new ByteArrayInputStream(Utils.toArray(chunkBytes)))) {
+                Utils.asInputStream(chunkBytes))) {
             Utils.copyStream(inputStream, outputStream);
             inputStream.close();
             return ByteBuffer.wrap(outputStream.toByteArray());
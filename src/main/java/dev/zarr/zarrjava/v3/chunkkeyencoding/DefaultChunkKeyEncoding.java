@@ -3,12 +3,11 @@ package dev.zarr.zarrjava.v3.chunkkeyencoding;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import dev.zarr.zarrjava.core.chunkkeyencoding.CachingChunkKeyEncoder;
+import dev.zarr.zarrjava.core.chunkkeyencoding.ChunkKeyEncoder;
 import dev.zarr.zarrjava.core.chunkkeyencoding.Separator;
 
 import javax.annotation.Nonnull;
-import java.util.Arrays;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public class DefaultChunkKeyEncoding extends ChunkKeyEncoding {
 
@@ -31,12 +30,13 @@ public class DefaultChunkKeyEncoding extends ChunkKeyEncoding {
 
     @Override
     public String[] encodeChunkKey(long[] chunkCoords) {
-        Stream<String> keys = Stream.concat(Stream.of("c"), Arrays.stream(chunkCoords)
-                .mapToObj(Long::toString));
-        if (configuration.separator == Separator.SLASH) {
-            return keys.toArray(String[]::new);
-        }
-        return new String[]{keys.collect(Collectors.joining(this.configuration.separator.getValue()))};
+        return keyEncoder(new String[0]).encode(chunkCoords);
+    }
+
+    @Nonnull
+    @Override
+    public ChunkKeyEncoder keyEncoder(@Nonnull String[] parentKeys) {
+        return new CachingChunkKeyEncoder(parentKeys, "c", configuration.separator);
     }
 
     public static final class Configuration {
@@ -10,7 +10,6 @@ import dev.zarr.zarrjava.v3.ArrayMetadata;
 import dev.zarr.zarrjava.v3.codec.Codec;
 
 import javax.annotation.Nonnull;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -35,7 +34,7 @@ public class GzipCodec extends BytesBytesCodec implements Codec {
     public ByteBuffer decode(ByteBuffer chunkBytes)
             throws ZarrException {
         try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream(); GZIPInputStream inputStream = new GZIPInputStream(
-                new ByteArrayInputStream(Utils.toArray(chunkBytes)))) {
+                Utils.asInputStream(chunkBytes))) {
             Utils.copyStream(inputStream, outputStream);
             inputStream.close();
             return ByteBuffer.wrap(outputStream.toByteArray());
@@ -0,0 +1,70 @@
+package dev.zarr.zarrjava.v3.codec.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Plans the reads of inner chunks from a shard. The byte ranges of the inner chunks are sorted by their
+ * offset and neighbouring ranges are merged into one read if the gap between them is small enough, so
+ * that a region spanning many inner chunks takes a few requests instead of one per inner chunk.
+ */
+final class ShardReadPlanner {
+
+    private ShardReadPlanner() {
+    }
+
+    /**
+     * @param offsets     the offsets of the byte ranges within the shard
+     * @param lengths     the lengths of the byte ranges
+     * @param maxGapBytes the largest gap between two ranges that are merged
+     * @return the merged reads in the order of their offset
+     */
+    static List<Read> plan(long[] offsets, long[] lengths, long maxGapBytes) {
+        if (offsets.length != lengths.length) {
+            throw new IllegalArgumentException("'offsets' and 'lengths' need to have the same length.");
+        }
+        if (maxGapBytes < 0) {
+            throw new IllegalArgumentException("'maxGapBytes' needs to be non-negative.");
+        }
+        final Integer[] order = new Integer[offsets.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> offsets[i]));
+
+        final List<Read> reads = new ArrayList<>();
+        Read read = null;
+        for (int i : order) {
+            final long end = offsets[i] + lengths[i];
+            if (read == null || offsets[i] - read.end > maxGapBytes) {
+                read = new Read(offsets[i]);
+                reads.add(read);
+            }
+            read.end = Math.max(read.end, end);
+            read.rangeIndices.add(i);
+        }
+        return reads;
+    }
+
+    /**
+     * A contiguous byte range of the shard that covers one or more of the requested ranges.
+     */
+    static final class Read {
+
+        final long start;
+        long end;
+        // The indices of the requested ranges within this read
+        final List<Integer> rangeIndices = new ArrayList<>();
+
+        Read(long start) {
+            this.start = start;
+            this.end = start;
+        }
+
+        long length() {
+            return end - start;
+        }
+    }
+}
@@ -5,11 +5,16 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import dev.zarr.zarrjava.ZarrException;
 import dev.zarr.zarrjava.core.ArrayMetadata.CoreArrayMetadata;
+import dev.zarr.zarrjava.core.ShardIndexCache;
 import dev.zarr.zarrjava.core.codec.ArrayBytesCodec;
 import dev.zarr.zarrjava.core.codec.CodecPipeline;
+import dev.zarr.zarrjava.store.ReadCostModel;
+import dev.zarr.zarrjava.store.Store;
 import dev.zarr.zarrjava.store.StoreHandle;
+import dev.zarr.zarrjava.utils.ExecutionContext;
 import dev.zarr.zarrjava.utils.IndexingUtils;
 import dev.zarr.zarrjava.utils.MultiArrayUtils;
+import dev.zarr.zarrjava.utils.SingleFlight;
 import dev.zarr.zarrjava.utils.Utils;
 import dev.zarr.zarrjava.v3.ArrayMetadata;
 import dev.zarr.zarrjava.v3.DataType;
@@ -18,10 +23,14 @@ import ucar.ma2.Array;
 import ucar.ma2.InvalidRangeException;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 
 public class ShardingIndexedCodec extends ArrayBytesCodec.WithPartialDecode implements Codec {
@@ -32,6 +41,14 @@ public class ShardingIndexedCodec extends ArrayBytesCodec.WithPartialDecode impl
     public final Configuration configuration;
     CodecPipeline codecPipeline;
     CodecPipeline indexCodecPipeline;
+    @Nullable
+    ExecutionContext executionContext;
+    @Nullable
+    ShardIndexCache shardIndexCache;
+    // The average number of bytes of the shards whose index has been read from the store, or -1
+    private volatile long averageShardByteLength = -1;
+    // Concurrent reads of the index of the same shard share one read, which caches the index
+    private final SingleFlight<RangeKey, long[]> shardIndexReads = new SingleFlight<>();
 
     @JsonCreator(mode = JsonCreator.Mode.PROPERTIES)
     public ShardingIndexedCodec(
@@ -51,6 +68,38 @@ public class ShardingIndexedCodec extends ArrayBytesCodec.WithPartialDecode impl
                 );
         this.codecPipeline = new CodecPipeline(configuration.codecs, shardMetadata);
         this.indexCodecPipeline = new CodecPipeline(configuration.indexCodecs, getShardIndexArrayMetadata(getChunksPerShard(arrayMetadata)));
+        this.codecPipeline.setExecutionContext(executionContext);
+    }
+
+    @Override
+    public void setExecutionContext(@Nullable ExecutionContext executionContext) {
+        this.executionContext = executionContext;
+        if (codecPipeline != null) {
+            codecPipeline.setExecutionContext(executionContext);
+        }
+    }
+
+    /**
+     * Only the indexes of shards that are read from the store are cached. The inner codecs never read
+     * from the store, so the cache is not passed on to them.
+     */
+    @Override
+    public void setShardIndexCache(@Nullable ShardIndexCache shardIndexCache) {
+        this.shardIndexCache = shardIndexCache;
+    }
+
+    /**
+     * Detaches the reads of the shard that are in flight, so that reads after a write do not receive
+     * the shard or its index from before the write, and the index from before is not cached.
+     */
+    @Override
+    public void invalidate(StoreHandle chunkHandle) {
+        shardIndexReads.forgetIf(rangeKey -> rangeKey.isOf(chunkHandle));
+        StoreHandleDataProvider.RANGE_READS.forgetIf(rangeKey -> rangeKey.isOf(chunkHandle));
+    }
+
+    ExecutionContext executionContext() {
+        return executionContext != null ? executionContext : ExecutionContext.getDefault();
     }
 
     ArrayMetadata.CoreArrayMetadata getShardIndexArrayMetadata(int[] chunksPerShard) {
@@ -83,88 +132,88 @@ public class ShardingIndexedCodec extends ArrayBytesCodec.WithPartialDecode impl
         return out;
     }
 
-    long getValueFromShardIndexArray(Array shardIndexArray, long[] chunkCoords, int idx) {
-        return shardIndexArray.getLong(
-                shardIndexArray.getIndex()
-                        .set(Utils.toIntArray(extendArrayBy1(chunkCoords, idx))));
-    }
-
-    void setValueFromShardIndexArray(Array shardIndexArray, long[] chunkCoords, int idx, long value) {
-        shardIndexArray.setLong(
-                shardIndexArray.getIndex()
-                        .set(Utils.toIntArray(extendArrayBy1(chunkCoords, idx))), value);
-    }
-
     @Override
     public Array decode(ByteBuffer shardBytes)
             throws ZarrException {
-        return decodeInternal(new ByteBufferDataProvider(shardBytes), new long[arrayMetadata.ndim()],
-                arrayMetadata.chunkShape, arrayMetadata);
+        final DataProvider dataProvider = new ByteBufferDataProvider(shardBytes);
+        return decodeInternal(dataProvider, readShardIndex(dataProvider, arrayMetadata),
+                new long[arrayMetadata.ndim()], arrayMetadata.chunkShape, arrayMetadata);
     }
 
+    /**
+     * Encodes the inner chunks in parallel and appends each one to the shard as soon as it is encoded,
+     * so that besides the shard itself only the inner chunks in flight are held in memory.
+     */
     @Override
     public ByteBuffer encode(final Array shardArray) throws ZarrException {
         final ArrayMetadata.CoreArrayMetadata shardMetadata = codecPipeline.arrayMetadata;
         final int[] chunksPerShard = getChunksPerShard(arrayMetadata);
-        final int chunkCount = Arrays.stream(chunksPerShard)
-                .reduce(1, (r, a) -> r * a);
-
-        final Array shardIndexArray = Array.factory(ucar.ma2.DataType.ULONG,
-                extendArrayBy1(chunksPerShard, 2));
-        final List<ByteBuffer> chunkBytesList = new ArrayList<>(chunkCount);
-
-        Arrays.stream(IndexingUtils.computeChunkCoords(shardMetadata.shape, shardMetadata.chunkShape))
-                .parallel()
-                .forEach(
-                        chunkCoords -> {
-                            try {
-                                final IndexingUtils.ChunkProjection chunkProjection =
-                                        IndexingUtils.computeProjection(chunkCoords, shardMetadata.shape,
-                                                shardMetadata.chunkShape
-                                        );
-                                final Array chunkArray =
-                                        shardArray.sectionNoReduce(chunkProjection.outOffset, chunkProjection.shape,
-                                                null
-                                        );
-                                if (MultiArrayUtils.allValuesEqual(chunkArray, shardMetadata.parsedFillValue)) {
-                                    synchronized (chunkBytesList) {
-                                        setValueFromShardIndexArray(shardIndexArray, chunkCoords, 0, -1);
-                                        setValueFromShardIndexArray(shardIndexArray, chunkCoords, 1, -1);
-                                    }
-                                } else {
-                                    final ByteBuffer chunkBytes = codecPipeline.encode(chunkArray);
-                                    synchronized (chunkBytesList) {
-                                        int chunkByteOffset = chunkBytesList.stream()
-                                                .mapToInt(ByteBuffer::capacity)
-                                                .sum();
-                                        if (configuration.indexLocation.equals("start")) {
-                                            chunkByteOffset += (int) getShardIndexSize(arrayMetadata);
-                                        }
-                                        setValueFromShardIndexArray(shardIndexArray, chunkCoords, 0, chunkByteOffset);
-                                        setValueFromShardIndexArray(shardIndexArray, chunkCoords, 1,
-                                                chunkBytes.capacity());
-                                        chunkBytesList.add(chunkBytes);
-                                    }
-                                }
-                            } catch (ZarrException | InvalidRangeException e) {
-                                throw new RuntimeException(e);
-                            }
-                        });
-        final int shardBytesLength = chunkBytesList.stream()
-                .mapToInt(ByteBuffer::capacity)
-                .sum() + (int) getShardIndexSize(arrayMetadata);
-        final ByteBuffer shardBytes = ByteBuffer.allocate(shardBytesLength);
-        if (configuration.indexLocation.equals("start")) {
-            shardBytes.put(indexCodecPipeline.encode(shardIndexArray));
-        }
-        for (final ByteBuffer chunkBytes : chunkBytesList) {
-            shardBytes.put(chunkBytes);
-        }
-        if (configuration.indexLocation.equals("end")) {
-            shardBytes.put(indexCodecPipeline.encode(shardIndexArray));
-        }
-        shardBytes.rewind();
-        return shardBytes;
+        final int chunkCount = Arrays.stream(chunksPerShard).reduce(1, (r, a) -> r * a);
+        final long[] chunkOffsets = new long[chunkCount];
+        final long[] chunkLengths = new long[chunkCount];
+        final ShardBuffer shardBuffer = newShardBuffer(estimateEncodedChunksByteLength(chunkCount));
+
+        executionContext().forEachCpu(
+                IndexingUtils.chunkCoordsIterator(shardMetadata.shape, shardMetadata.chunkShape),
+                chunkCoords -> {
+                    try {
+                        final IndexingUtils.ChunkProjection chunkProjection =
+                                IndexingUtils.computeProjection(chunkCoords, shardMetadata.shape,
+                                        shardMetadata.chunkShape
+                                );
+                        final Array chunkArray =
+                                shardArray.sectionNoReduce(chunkProjection.outOffset, chunkProjection.shape,
+                                        null
+                                );
+                        final int chunkIdx = linearChunkIndex(chunkCoords, chunksPerShard);
+                        if (MultiArrayUtils.allValuesEqual(chunkArray, shardMetadata.parsedFillValue)) {
+                            chunkOffsets[chunkIdx] = -1;
+                            chunkLengths[chunkIdx] = -1;
+                        } else {
+                            final ByteBuffer chunkBytes = codecPipeline.encode(chunkArray);
+                            chunkLengths[chunkIdx] = chunkBytes.remaining();
+                            chunkOffsets[chunkIdx] = shardBuffer.append(chunkBytes);
+                        }
+                    } catch (ZarrException | InvalidRangeException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+        return shardBuffer.finish(indexCodecPipeline.encode(
+                toShardIndexArray(chunksPerShard, chunkOffsets, chunkLengths)));
+    }
+
+    /**
+     * @return the byte length of the encoded inner chunks of a shard if it is known upfront, e.g. without
+     * compression, or else the byte length of one unencoded inner chunk, from which the shard buffer grows
+     * as needed
+     */
+    private long estimateEncodedChunksByteLength(int chunkCount) {
+        final ArrayMetadata.CoreArrayMetadata shardMetadata = codecPipeline.arrayMetadata;
+        final long chunkByteLength = (long) shardMetadata.dataType.getByteCount() *
+                Arrays.stream(shardMetadata.chunkShape).asLongStream().reduce(1, (r, a) -> r * a);
+        try {
+            return codecPipeline.computeEncodedSize(chunkByteLength, shardMetadata) * chunkCount;
+        } catch (ZarrException e) {
+            return chunkByteLength;
+        }
+    }
+
+    /**
+     * Creates a buffer for a shard with room for the given byte length of inner chunks and the index.
+     */
+    private ShardBuffer newShardBuffer(long chunksByteLength) throws ZarrException {
+        final long shardIndexSize = getShardIndexSize(arrayMetadata);
+        return new ShardBuffer((int) Math.min(chunksByteLength + shardIndexSize, Integer.MAX_VALUE - 8),
+                configuration.indexLocation.equals("start") ? (int) shardIndexSize : 0);
+    }
+
+    private Array toShardIndexArray(int[] chunksPerShard, long[] chunkOffsets, long[] chunkLengths) {
+        final Array shardIndexArray = Array.factory(ucar.ma2.DataType.ULONG, extendArrayBy1(chunksPerShard, 2));
+        for (int chunkIdx = 0; chunkIdx < chunkOffsets.length; chunkIdx++) {
+            shardIndexArray.setLong(2 * chunkIdx, chunkOffsets[chunkIdx]);
+            shardIndexArray.setLong(2 * chunkIdx + 1, chunkLengths[chunkIdx]);
+        }
+        return shardIndexArray;
     }
 
     @Override
@@ -180,13 +229,13 @@ public class ShardingIndexedCodec extends ArrayBytesCodec.WithPartialDecode impl
         );
     }
 
-    private Array decodeInternal(
-            DataProvider dataProvider, long[] offset, int[] shape,
-            ArrayMetadata.CoreArrayMetadata arrayMetadata
-    ) throws ZarrException {
-        final ArrayMetadata.CoreArrayMetadata shardMetadata = codecPipeline.arrayMetadata;
-
-        final Array outputArray = Array.factory(arrayMetadata.dataType.getMA2DataType(), shape);
+    /**
+     * @return the decoded shard index as offset and length pairs of the inner chunks in row-major order
+     * or null if the shard does not exist
+     */
+    @Nullable
+    private long[] readShardIndex(DataProvider dataProvider, ArrayMetadata.CoreArrayMetadata arrayMetadata)
+            throws ZarrException {
         final int shardIndexByteLength = (int) getShardIndexSize(arrayMetadata);
         ByteBuffer shardIndexBytes;
         if (this.configuration.indexLocation.equals("start")) {
@@ -197,64 +246,495 @@ public class ShardingIndexedCodec extends ArrayBytesCodec.WithPartialDecode impl
             throw new ZarrException("Only index_location \"start\" or \"end\" are supported.");
         }
         if (shardIndexBytes == null) {
-            if (arrayMetadata.parsedFillValue != null) {
-                MultiArrayUtils.fill(outputArray, arrayMetadata.parsedFillValue);
-            }
-            return outputArray;
+            return null;
         }
         final Array shardIndexArray = indexCodecPipeline.decode(shardIndexBytes);
-        long[][] allChunkCoords = IndexingUtils.computeChunkCoords(shardMetadata.shape,
-                shardMetadata.chunkShape, offset,
-                Utils.toLongArray(shape));
-
-        Arrays.stream(allChunkCoords)
-                .parallel()
-                .forEach(
-                        chunkCoords -> {
-                            try {
-                                final long chunkByteOffset = getValueFromShardIndexArray(shardIndexArray,
-                                        chunkCoords, 0);
-                                final long chunkByteLength = getValueFromShardIndexArray(shardIndexArray,
-                                        chunkCoords, 1);
-                                if (chunkByteOffset == -1 || chunkByteLength == -1) {
-                                    return;
-                                }
-                                final IndexingUtils.ChunkProjection chunkProjection =
-                                        IndexingUtils.computeProjection(chunkCoords, shardMetadata.shape,
-                                                shardMetadata.chunkShape, offset, Utils.toLongArray(shape)
-                                        );
-                                final ByteBuffer chunkBytes = dataProvider.read(chunkByteOffset, chunkByteLength);
-                                if (chunkBytes == null) {
-                                    throw new ZarrException(String.format("Could not load byte data for chunk %s",
-                                            Arrays.toString(chunkCoords)));
-                                }
-                                Array chunkArray = codecPipeline.decode(chunkBytes);
-                                synchronized (outputArray) {
-                                    MultiArrayUtils.copyRegion(chunkArray, chunkProjection.chunkOffset, outputArray,
-                                            chunkProjection.outOffset, chunkProjection.shape
-                                    );
-                                }
-                            } catch (ZarrException e) {
-                                throw new RuntimeException(e);
-                            }
-                        });
+        final long[] shardIndex = new long[(int) shardIndexArray.getSize()];
+        for (int i = 0; i < shardIndex.length; i++) {
+            shardIndex[i] = shardIndexArray.getLong(i);
+        }
+        return shardIndex;
+    }
+
+    @Nullable
+    private long[] getCachedShardIndex(StoreHandle shardHandle) {
+        final ShardIndexCache shardIndexCache = this.shardIndexCache;
+        return shardIndexCache != null ? shardIndexCache.get(shardHandle) : null;
+    }
 
+    /**
+     * Reads the index of a shard from the store and puts it into the shard index cache, unless the shard
+     * has been written in the meantime.
+     */
+    @Nullable
+    private long[] readShardIndex(StoreHandle shardHandle, DataProvider dataProvider) throws ZarrException {
+        final long shardIndexSize = getShardIndexSize(arrayMetadata);
+        final RangeKey indexRange = configuration.indexLocation.equals("start") ?
+                new RangeKey(shardHandle, 0, shardIndexSize) :
+                new RangeKey(shardHandle, -shardIndexSize, Long.MAX_VALUE);
+        return shardIndexReads.load(indexRange, () -> readShardIndex(dataProvider, arrayMetadata),
+                shardIndex -> {
+                    try {
+                        cacheShardIndex(shardHandle, shardIndex, getShardByteLength(shardIndex));
+                    } catch (ZarrException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+    }
+
+    private void cacheShardIndex(StoreHandle shardHandle, long[] shardIndex, long shardByteLength) {
+        // Updated without synchronization, as lost updates only make the estimate lag slightly
+        final long average = averageShardByteLength;
+        averageShardByteLength = average < 0 ? shardByteLength : average + (shardByteLength - average) / 8;
+        final ShardIndexCache shardIndexCache = this.shardIndexCache;
+        if (shardIndexCache != null) {
+            shardIndexCache.put(shardHandle, shardIndex);
+        }
+    }
+
+    private Array decodeInternal(
+            DataProvider dataProvider, @Nullable long[] shardIndex, long[] offset, int[] shape,
+            ArrayMetadata.CoreArrayMetadata arrayMetadata
+    ) throws ZarrException {
+        final Array outputArray = Array.factory(arrayMetadata.dataType.getMA2DataType(), shape);
+        decodeInternal(dataProvider, shardIndex, offset, shape, arrayMetadata, outputArray, new int[shape.length]);
         return outputArray;
     }
 
+    /**
+     * Decodes a region of a shard into a region of a target array. The inner chunks are decoded in
+     * parallel, each directly into its own part of the target. These parts are disjoint, so the inner
+     * chunks are assembled without locking. Inner chunks in the store are fetched upfront with
+     * coalesced reads, see {@link #readInnerChunks(StoreHandleDataProvider, long[], int[])}.
+     */
+    private void decodeInternal(
+            DataProvider dataProvider, @Nullable long[] shardIndex, long[] offset, int[] shape,
+            ArrayMetadata.CoreArrayMetadata arrayMetadata, Array target, int[] targetOffset
+    ) throws ZarrException {
+        final ArrayMetadata.CoreArrayMetadata shardMetadata = codecPipeline.arrayMetadata;
+        final int[] chunksPerShard = getChunksPerShard(arrayMetadata);
+
+        if (shardIndex == null) {
+            if (arrayMetadata.parsedFillValue != null) {
+                MultiArrayUtils.fillRegion(target, targetOffset, shape, arrayMetadata.parsedFillValue);
+            }
+            return;
+        }
+
+        final List<long[]> chunkCoordsList = new ArrayList<>();
+        IndexingUtils.chunkCoordsIterator(shardMetadata.shape, shardMetadata.chunkShape, offset,
+                Utils.toLongArray(shape)).forEachRemaining(chunkCoordsList::add);
+        final ByteBuffer[] storedChunkBytes = dataProvider instanceof StoreHandleDataProvider
+                ? readInnerChunks((StoreHandleDataProvider) dataProvider, shardIndex, chunkCoordsList.stream()
+                .mapToInt(chunkCoords -> linearChunkIndex(chunkCoords, chunksPerShard)).toArray())
+                : null;
+
+        executionContext().forEachCpu(IntStream.range(0, chunkCoordsList.size()).iterator(), i -> {
+            try {
+                final long[] chunkCoords = chunkCoordsList.get(i);
+                final IndexingUtils.ChunkProjection chunkProjection =
+                        IndexingUtils.computeProjection(chunkCoords, shardMetadata.shape,
+                                shardMetadata.chunkShape, offset, Utils.toLongArray(shape)
+                        );
+                final int[] chunkTargetOffset = new int[shape.length];
+                for (int dimIdx = 0; dimIdx < shape.length; dimIdx++) {
+                    chunkTargetOffset[dimIdx] = targetOffset[dimIdx] + chunkProjection.outOffset[dimIdx];
+                }
+                final ByteBuffer chunkBytes = storedChunkBytes != null ? storedChunkBytes[i]
+                        : readInnerChunk(dataProvider, shardIndex, chunkCoords, chunksPerShard);
+                if (chunkBytes == null) {
+                    if (arrayMetadata.parsedFillValue != null) {
+                        MultiArrayUtils.fillRegion(target, chunkTargetOffset, chunkProjection.shape,
+                                arrayMetadata.parsedFillValue);
+                    }
+                    return;
+                }
+                codecPipeline.decodeInto(chunkBytes, target, chunkTargetOffset, chunkProjection.chunkOffset,
+                        chunkProjection.shape);
+            } catch (ZarrException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    /**
+     * Reads inner chunks of a shard from the store. The byte ranges of the inner chunks are merged if
+     * they are at most {@link Store#coalesceGapBytes()} apart, or if reading the gap is estimated to be
+     * faster than another request by the {@link Store#readCostModel()}. The merged ranges are read
+     * concurrently and sliced back into the inner chunks. Once the index is known, the merged ranges are
+     * never slower to read than the whole shard, as every skipped gap takes longer to read than a request.
+     *
+     * @return the encoded bytes of the inner chunks or null for empty inner chunks
+     */
+    private ByteBuffer[] readInnerChunks(StoreHandleDataProvider dataProvider, long[] shardIndex, int[] chunkIdxs) {
+        final ByteBuffer[] chunkBytes = new ByteBuffer[chunkIdxs.length];
+        final long[] chunkByteOffsets = new long[chunkIdxs.length];
+        final long[] chunkByteLengths = new long[chunkIdxs.length];
+        final int[] chunkPositions = new int[chunkIdxs.length];
+        int rangeCount = 0;
+        for (int i = 0; i < chunkIdxs.length; i++) {
+            final long chunkByteOffset = shardIndex[2 * chunkIdxs[i]];
+            final long chunkByteLength = shardIndex[2 * chunkIdxs[i] + 1];
+            if (chunkByteOffset != -1 && chunkByteLength != -1) {
+                chunkByteOffsets[rangeCount] = chunkByteOffset;
+                chunkByteLengths[rangeCount] = chunkByteLength;
+                chunkPositions[rangeCount] = i;
+                rangeCount++;
+            }
+        }
+        final long[] rangeOffsets = Arrays.copyOf(chunkByteOffsets, rangeCount);
+        final long[] rangeLengths = Arrays.copyOf(chunkByteLengths, rangeCount);
+        final Store store = dataProvider.storeHandle.store;
+        final ReadCostModel readCostModel = store.readCostModel();
+        final List<ShardReadPlanner.Read> reads = ShardReadPlanner.plan(rangeOffsets, rangeLengths,
+                readCostModel != null ? Math.max(store.coalesceGapBytes(), readCostModel.breakEvenGapBytes())
+                        : store.coalesceGapBytes());
+
+        executionContext().forEachIo(reads.iterator(), read -> {
+            final ByteBuffer readBytes = dataProvider.read(read.start, read.length());
+            if (readBytes == null || readBytes.remaining() < read.length()) {
+                throw new RuntimeException(new ZarrException(String.format(
+                        "Could not load byte data for inner chunks in byte range [%d, %d)", read.start, read.end)));
+            }
+            for (int rangeIdx : read.rangeIndices) {
+                chunkBytes[chunkPositions[rangeIdx]] = sliceBytes(readBytes, rangeOffsets[rangeIdx] - read.start,
+                        rangeLengths[rangeIdx]);
+            }
+        });
+        return chunkBytes;
+    }
+
+    private static ByteBuffer sliceBytes(ByteBuffer bytes, long offset, long length) {
+        final ByteBuffer slice = bytes.duplicate();
+        slice.position(bytes.position() + (int) offset);
+        slice.limit(slice.position() + (int) length);
+        return slice.slice();
+    }
+
+    /**
+     * @return the number of bytes of a shard, i.e. of its inner chunks and, at the end, its index
+     */
+    private long getShardByteLength(long[] shardIndex) throws ZarrException {
+        final boolean indexAtStart = configuration.indexLocation.equals("start");
+        final long shardIndexSize = getShardIndexSize(arrayMetadata);
+        long chunksEnd = indexAtStart ? shardIndexSize : 0;
+        for (int i = 0; i < shardIndex.length; i += 2) {
+            if (shardIndex[i] != -1 && shardIndex[i + 1] != -1) {
+                chunksEnd = Math.max(chunksEnd, shardIndex[i] + shardIndex[i + 1]);
+            }
+        }
+        return indexAtStart ? chunksEnd : chunksEnd + shardIndexSize;
+    }
+
+    /**
+     * Decides whether a region of a shard is read by reading the whole shard, before its index is known.
+     * With the index, the region takes at least two requests, one for the index and then one for the
+     * inner chunks, so the whole shard is read if the rest of the shard takes less time to read than a
+     * request. The size of the shard is estimated by the average size of the shards whose index has been
+     * read, including the shards that have been read whole.
+     */
+    private boolean readsWholeShard(StoreHandle chunkHandle, long[] offset, int[] shape) {
+        final ReadCostModel readCostModel = chunkHandle.store.readCostModel();
+        final long shardByteLength = averageShardByteLength;
+        if (readCostModel == null || shardByteLength <= 0 || Arrays.stream(shape).anyMatch(size -> size == 0)) {
+            return false;
+        }
+        double coveredFraction = 1;
+        for (int dimIdx = 0; dimIdx < shape.length; dimIdx++) {
+            final int innerChunkSize = configuration.chunkShape[dimIdx];
+            final long firstChunk = offset[dimIdx] / innerChunkSize;
+            final long lastChunk = (offset[dimIdx] + shape[dimIdx] - 1) / innerChunkSize;
+            coveredFraction *= (double) (lastChunk - firstChunk + 1) * innerChunkSize /
+                    arrayMetadata.chunkShape[dimIdx];
+        }
+        final long coveredByteLength = (long) (Math.min(coveredFraction, 1) * shardByteLength);
+        // The inner chunks can only be requested once the index has been read
+        return readCostModel.costNanos(1, shardByteLength, 1) <
+                readCostModel.costNanos(2, coveredByteLength, 1);
+    }
+
     @Override
     public Array decodePartial(StoreHandle chunkHandle, long[] offset, int[] shape) throws ZarrException {
-        if (Arrays.equals(shape, arrayMetadata.chunkShape)) {
-            ByteBuffer chunkBytes = chunkHandle.read();
+        final Array outputArray = Array.factory(arrayMetadata.dataType.getMA2DataType(), shape);
+        decodePartialInto(chunkHandle, offset, shape, outputArray, new int[shape.length]);
+        return outputArray;
+    }
+
+    @Override
+    public Array decodePartial(ByteBuffer chunkBytes, long[] offset, int[] shape) throws ZarrException {
+        final DataProvider dataProvider = new ByteBufferDataProvider(chunkBytes);
+        return decodeInternal(dataProvider, readShardIndex(dataProvider, arrayMetadata), offset, shape,
+                arrayMetadata);
+    }
+
+    /**
+     * Reads the whole shard with one request if the whole shard is requested, or if that is estimated
+     * to be faster than reading its index and then the needed inner chunks. The index of a shard that is
+     * read whole is cached as well. Otherwise, the index is taken from the shard index cache or read
+     * from the store, and only the needed inner chunks are read.
+     */
+    @Override
+    public void decodePartialInto(StoreHandle chunkHandle, long[] offset, int[] shape, Array target,
+                                  int[] targetOffset) throws ZarrException {
+        final StoreHandleDataProvider storeDataProvider = new StoreHandleDataProvider(chunkHandle);
+        long[] shardIndex = getCachedShardIndex(chunkHandle);
+        if (Arrays.equals(shape, arrayMetadata.chunkShape) ||
+                (shardIndex == null && readsWholeShard(chunkHandle, offset, shape))) {
+            final ByteBuffer chunkBytes = storeDataProvider.readAll(shardBytes -> {
+                try {
+                    final long[] wholeShardIndex = readShardIndex(new ByteBufferDataProvider(shardBytes),
+                            arrayMetadata);
+                    if (wholeShardIndex != null) {
+                        cacheShardIndex(chunkHandle, wholeShardIndex, shardBytes.remaining());
+                    }
+                } catch (ZarrException e) {
+                    throw new RuntimeException(e);
+                }
+            });
             if (chunkBytes == null) {
-                return arrayMetadata.allocateFillValueChunk();
+                if (arrayMetadata.parsedFillValue != null) {
+                    MultiArrayUtils.fillRegion(target, targetOffset, shape, arrayMetadata.parsedFillValue);
+                }
+                return;
             }
-            return decodeInternal(new ByteBufferDataProvider(chunkBytes), offset, shape, arrayMetadata);
+            final DataProvider dataProvider = new ByteBufferDataProvider(chunkBytes);
+            decodeInternal(dataProvider, readShardIndex(dataProvider, arrayMetadata), offset, shape,
+                    arrayMetadata, target, targetOffset);
+            return;
+        }
+        if (shardIndex == null) {
+            shardIndex = readShardIndex(chunkHandle, storeDataProvider);
+        }
+        decodeInternal(storeDataProvider, shardIndex, offset, shape, arrayMetadata, target, targetOffset);
+    }
+
+    /**
+     * Reads the shard index and only the inner chunks that contain requested elements, with coalesced
+     * reads.
+     */
+    @Override
+    protected void decodePoints(StoreHandle chunkHandle, int[][] points, Array target, int[] targetIndices)
+            throws ZarrException {
+        final ArrayMetadata.CoreArrayMetadata shardMetadata = codecPipeline.arrayMetadata;
+        final int[] chunksPerShard = getChunksPerShard(arrayMetadata);
+        final StoreHandleDataProvider dataProvider = new StoreHandleDataProvider(chunkHandle);
+        final long[] cachedShardIndex = getCachedShardIndex(chunkHandle);
+        final long[] shardIndex = cachedShardIndex != null ? cachedShardIndex
+                : readShardIndex(chunkHandle, dataProvider);
+        if (shardIndex == null) {
+            if (arrayMetadata.parsedFillValue != null) {
+                MultiArrayUtils.fillPoints(target, targetIndices, arrayMetadata.parsedFillValue);
+            }
+            return;
+        }
+        final long[][] shardPoints = new long[points.length][];
+        for (int dimIdx = 0; dimIdx < points.length; dimIdx++) {
+            shardPoints[dimIdx] = Utils.toLongArray(points[dimIdx]);
+        }
+        final List<IndexingUtils.PointGroup> pointGroups =
+                IndexingUtils.groupPointsByChunk(shardPoints, shardMetadata.chunkShape);
+        final ByteBuffer[] storedChunkBytes = readInnerChunks(dataProvider, shardIndex, pointGroups.stream()
+                .mapToInt(pointGroup -> linearChunkIndex(pointGroup.chunkCoords, chunksPerShard)).toArray());
+        executionContext().forEachCpu(IntStream.range(0, pointGroups.size()).iterator(), groupIdx -> {
+            try {
+                final IndexingUtils.PointGroup pointGroup = pointGroups.get(groupIdx);
+                final int[] chunkTargetIndices = new int[pointGroup.pointIndices.length];
+                for (int i = 0; i < chunkTargetIndices.length; i++) {
+                    chunkTargetIndices[i] = targetIndices[pointGroup.pointIndices[i]];
+                }
+                final ByteBuffer chunkBytes = storedChunkBytes[groupIdx];
+                if (chunkBytes == null) {
+                    if (arrayMetadata.parsedFillValue != null) {
+                        MultiArrayUtils.fillPoints(target, chunkTargetIndices, arrayMetadata.parsedFillValue);
+                    }
+                    return;
+                }
+                MultiArrayUtils.copyPoints(codecPipeline.decode(chunkBytes), pointGroup.chunkPoints, target,
+                        chunkTargetIndices);
+            } catch (ZarrException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    /**
+     * Re-encodes only the inner chunks that intersect the written region. The encoded bytes of all other
+     * inner chunks are copied from the existing shard as they are, so their cost does not depend on the
+     * codecs of the inner chunks.
+     */
+    @Nullable
+    @Override
+    protected ByteBuffer encodePartial(@Nullable ByteBuffer shardBytes, Array source, int[] sourceOffset,
+                                       int[] chunkOffset, int[] shape) throws ZarrException {
+        final ArrayMetadata.CoreArrayMetadata shardMetadata = codecPipeline.arrayMetadata;
+        final int[] chunksPerShard = getChunksPerShard(arrayMetadata);
+        final int chunkCount = Arrays.stream(chunksPerShard).reduce(1, (r, a) -> r * a);
+        final ByteBufferDataProvider dataProvider =
+                shardBytes != null ? new ByteBufferDataProvider(shardBytes) : null;
+        final long[] oldShardIndex = dataProvider != null ? readShardIndex(dataProvider, arrayMetadata) : null;
+
+        // Encodes the touched inner chunks; null marks inner chunks that only contain the fill value
+        final ByteBuffer[] newChunkBytes = new ByteBuffer[chunkCount];
+        final boolean[] touched = new boolean[chunkCount];
+        final long[] regionOffset = Utils.toLongArray(chunkOffset);
+        final long[] regionShape = Utils.toLongArray(shape);
+        executionContext().forEachCpu(
+                IndexingUtils.chunkCoordsIterator(shardMetadata.shape, shardMetadata.chunkShape, regionOffset,
+                        regionShape),
+                chunkCoords -> {
+                    try {
+                        final IndexingUtils.ChunkProjection chunkProjection = IndexingUtils.computeProjection(
+                                chunkCoords, shardMetadata.shape, shardMetadata.chunkShape, regionOffset, regionShape);
+                        final int[] innerSourceOffset = new int[shape.length];
+                        for (int dimIdx = 0; dimIdx < shape.length; dimIdx++) {
+                            innerSourceOffset[dimIdx] = sourceOffset[dimIdx] + chunkProjection.outOffset[dimIdx];
+                        }
+                        final Array chunkArray;
+                        if (IndexingUtils.isFullChunk(chunkProjection.chunkOffset, chunkProjection.shape,
+                                shardMetadata.chunkShape)) {
+                            chunkArray = source.sectionNoReduce(innerSourceOffset, chunkProjection.shape, null);
+                        } else {
+                            final ByteBuffer oldChunkBytes = oldShardIndex != null
+                                    ? readInnerChunk(dataProvider, oldShardIndex, chunkCoords, chunksPerShard) : null;
+                            chunkArray = oldChunkBytes != null
+                                    ? codecPipeline.decode(oldChunkBytes) : shardMetadata.allocateFillValueChunk();
+                            MultiArrayUtils.copyRegion(source, innerSourceOffset, chunkArray,
+                                    chunkProjection.chunkOffset, chunkProjection.shape);
+                        }
+                        final int chunkIdx = linearChunkIndex(chunkCoords, chunksPerShard);
+                        touched[chunkIdx] = true;
+                        if (!MultiArrayUtils.allValuesEqual(chunkArray, shardMetadata.parsedFillValue)) {
+                            newChunkBytes[chunkIdx] = codecPipeline.encode(chunkArray);
+                        }
+                    } catch (ZarrException | InvalidRangeException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+
+        // The sizes of all inner chunks are known by now, so the shard buffer does not need to grow
+        long chunksByteLength = 0;
+        for (int chunkIdx = 0; chunkIdx < chunkCount; chunkIdx++) {
+            if (touched[chunkIdx]) {
+                chunksByteLength += newChunkBytes[chunkIdx] != null ? newChunkBytes[chunkIdx].remaining() : 0;
+            } else if (oldShardIndex != null && oldShardIndex[2 * chunkIdx] != -1 &&
+                    oldShardIndex[2 * chunkIdx + 1] != -1) {
+                chunksByteLength += oldShardIndex[2 * chunkIdx + 1];
+            }
+        }
+
+        // Appends the inner chunks in row-major order
+        final long[] chunkOffsets = new long[chunkCount];
+        final long[] chunkLengths = new long[chunkCount];
+        final ShardBuffer shardBuffer = newShardBuffer(chunksByteLength);
+        boolean empty = true;
+        final Iterator<long[]> chunkCoordsIterator =
+                IndexingUtils.chunkCoordsIterator(shardMetadata.shape, shardMetadata.chunkShape);
+        for (int chunkIdx = 0; chunkCoordsIterator.hasNext(); chunkIdx++) {
+            final long[] chunkCoords = chunkCoordsIterator.next();
+            final ByteBuffer chunkBytes = touched[chunkIdx] ? newChunkBytes[chunkIdx] :
+                    oldShardIndex != null ? readInnerChunk(dataProvider, oldShardIndex, chunkCoords, chunksPerShard) : null;
+            if (chunkBytes == null) {
+                chunkOffsets[chunkIdx] = -1;
+                chunkLengths[chunkIdx] = -1;
+                continue;
+            }
+            empty = false;
+            chunkLengths[chunkIdx] = chunkBytes.remaining();
+            chunkOffsets[chunkIdx] = shardBuffer.append(chunkBytes);
+        }
+        if (empty) {
+            return null;
+        }
+        return shardBuffer.finish(indexCodecPipeline.encode(
+                toShardIndexArray(chunksPerShard, chunkOffsets, chunkLengths)));
+    }
+
+    /**
+     * @return the encoded bytes of an inner chunk or null if the inner chunk is empty
+     */
+    @Nullable
+    private ByteBuffer readInnerChunk(DataProvider dataProvider, long[] shardIndex, long[] chunkCoords,
+                                      int[] chunksPerShard) throws ZarrException {
+        final int chunkIdx = linearChunkIndex(chunkCoords, chunksPerShard);
+        final long chunkByteOffset = shardIndex[2 * chunkIdx];
+        final long chunkByteLength = shardIndex[2 * chunkIdx + 1];
+        if (chunkByteOffset == -1 || chunkByteLength == -1) {
+            return null;
+        }
+        final ByteBuffer chunkBytes = dataProvider.read(chunkByteOffset, chunkByteLength);
+        if (chunkBytes == null) {
+            throw new ZarrException(String.format("Could not load byte data for chunk %s",
+                    Arrays.toString(chunkCoords)));
+        }
+        return chunkBytes;
+    }
+
+    private static int linearChunkIndex(long[] chunkCoords, int[] chunksPerShard) {
+        int chunkIdx = 0;
+        for (int dimIdx = 0; dimIdx < chunkCoords.length; dimIdx++) {
+            chunkIdx = chunkIdx * chunksPerShard[dimIdx] + (int) chunkCoords[dimIdx];
         }
-        return decodeInternal(new StoreHandleDataProvider(chunkHandle), offset, shape, arrayMetadata);
+        return chunkIdx;
     }
 
 
+    /**
+     * Collects the encoded inner chunks of a shard in one buffer that grows as needed, with room for the
+     * index at the start or the end.
+     */
+    static final class ShardBuffer {
+
+        private ByteBuffer buffer;
+        private final int indexPrefixLength;
+
+        ShardBuffer(int initialCapacity, int indexPrefixLength) {
+            this.buffer = ByteBuffer.allocate(Math.max(initialCapacity, indexPrefixLength));
+            this.indexPrefixLength = indexPrefixLength;
+            buffer.position(indexPrefixLength);
+        }
+
+        /**
+         * @return the offset of the appended bytes within the shard
+         */
+        synchronized long append(ByteBuffer bytes) {
+            ensureRemaining(bytes.remaining());
+            final long offset = buffer.position();
+            buffer.put(bytes.duplicate());
+            return offset;
+        }
+
+        /**
+         * Writes the encoded index and returns the shard, whose capacity matches its length.
+         */
+        synchronized ByteBuffer finish(ByteBuffer indexBytes) {
+            if (indexPrefixLength > 0) {
+                final ByteBuffer prefix = buffer.duplicate();
+                prefix.position(0);
+                prefix.put(indexBytes);
+            } else {
+                ensureRemaining(indexBytes.remaining());
+                buffer.put(indexBytes);
+            }
+            buffer.flip();
+            return buffer.slice();
+        }
+
+        private void ensureRemaining(int length) {
+            if (buffer.remaining() >= length) {
+                return;
+            }
+            final long required = (long) buffer.position() + length;
+            final long capacity = Math.min(Math.max(required, 2L * buffer.capacity()), Integer.MAX_VALUE - 8);
+            if (capacity < required) {
+                throw new IllegalStateException("Shards larger than 2 GiB are not supported.");
+            }
+            final ByteBuffer grown = ByteBuffer.allocate((int) capacity);
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+    }
+
     interface DataProvider {
 
         ByteBuffer read(long start, long length);
@@ -330,8 +810,15 @@ public class ShardingIndexedCodec extends ArrayBytesCodec.WithPartialDecode impl
         }
     }
 
+    /**
+     * Reads byte ranges of a shard from the store. Concurrent reads of the same range of the same shard,
+     * e.g. of its index, share one request. The durations of the reads are reported to the
+     * {@link Store#readCostModel()}.
+     */
     static class StoreHandleDataProvider implements DataProvider {
 
+        private static final SingleFlight<RangeKey, ByteBuffer> RANGE_READS = new SingleFlight<>();
+
         @Nonnull
         final StoreHandle storeHandle;
 
@@ -339,20 +826,90 @@ public class ShardingIndexedCodec extends ArrayBytesCodec.WithPartialDecode impl
             this.storeHandle = storeHandle;
         }
 
+        private ByteBuffer readShared(long start, long end) {
+            return readShared(start, end, null);
+        }
+
+        /**
+         * @param publish receives the bytes once they have been read, unless the shard has been written
+         *                in the meantime
+         */
+        private ByteBuffer readShared(long start, long end, @Nullable Consumer<ByteBuffer> publish) {
+            ByteBuffer bytes = RANGE_READS.load(new RangeKey(storeHandle, start, end), () -> {
+                final ReadCostModel readCostModel = storeHandle.store.readCostModel();
+                final long startNanos = System.nanoTime();
+                final ByteBuffer readBytes = end == Long.MAX_VALUE ? storeHandle.read(start)
+                        : storeHandle.read(start, end);
+                if (readCostModel != null && readBytes != null) {
+                    readCostModel.observe(readBytes.remaining(), System.nanoTime() - startNanos);
+                }
+                return readBytes;
+            }, publish != null ? sharedBytes -> publish.accept(sharedBytes.duplicate()) : null);
+            return bytes != null ? bytes.duplicate() : null;
+        }
+
+        /**
+         * @param publish receives the whole shard once it has been read, unless the shard has been
+         *                written in the meantime
+         * @return the whole shard or null if the shard does not exist
+         */
+        ByteBuffer readAll(@Nonnull Consumer<ByteBuffer> publish) {
+            return readShared(0, Long.MAX_VALUE, publish);
+        }
 
         @Override
         public ByteBuffer readSuffix(long suffixLength) {
-            return storeHandle.read(-suffixLength);
+            return readShared(-suffixLength, Long.MAX_VALUE);
         }
 
         @Override
         public ByteBuffer readPrefix(long prefixLength) {
-            return storeHandle.read(0, prefixLength);
+            return readShared(0, prefixLength);
         }
 
         @Override
         public ByteBuffer read(long start, long length) {
-            return storeHandle.read(start, start + length);
+            return readShared(start, start + length);
+        }
+    }
+
+    static final class RangeKey {
+
+        @Nonnull
+        final Store store;
+        @Nonnull
+        final String[] keys;
+        final long start;
+        final long end;
+
+        RangeKey(@Nonnull StoreHandle storeHandle, long start, long end) {
+            this.store = storeHandle.store;
+            this.keys = storeHandle.keys;
+            this.start = start;
+            this.end = end;
+        }
+
+        boolean isOf(StoreHandle storeHandle) {
+            return store == storeHandle.store && Arrays.equals(keys, storeHandle.keys);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RangeKey)) {
+                return false;
+            }
+            RangeKey other = (RangeKey) o;
+            return store == other.store && start == other.start && end == other.end &&
+                    Arrays.equals(keys, other.keys);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * (31 * System.identityHashCode(store) + Arrays.hashCode(keys)) +
+                    Long.hashCode(start)) + Long.hashCode(end);
         }
     }
 
@@ -0,0 +1,113 @@
+package dev.zarr.zarrjava;
+
+import dev.zarr.zarrjava.core.ArrayView;
+import dev.zarr.zarrjava.core.ChunkRegion;
+import dev.zarr.zarrjava.store.MemoryStore;
+import dev.zarr.zarrjava.utils.MultiArrayUtils;
+import dev.zarr.zarrjava.v3.Array;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+public class ArrayViewTest extends ZarrTest {
+
+    static Array createArray(MemoryStore store, boolean useSharding) throws IOException, ZarrException {
+        return writeRamp(createInt32Array(store.resolve("array"), new long[]{4, 30, 25}, new int[]{2, 10, 10},
+                useSharding ? new int[]{1, 5, 5} : null, -1), 4, 30, 25);
+    }
+
+    static int expected(long i, long j, long k) {
+        return (int) (i * 750 + j * 25 + k);
+    }
+
+    static ArrayView composedView(Array array) {
+        // The squeezed first dimension is fixed at 2, then the remaining dimensions are swapped
+        return array.view()
+                .slice(new long[]{2, 3, 1}, new long[]{1, 25, 22})
+                .stride(1, 3, 2)
+                .squeeze()
+                .transpose(1, 0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testComposedView(boolean useSharding) throws IOException, ZarrException {
+        Array array = createArray(new MemoryStore(), useSharding);
+
+        ArrayView view = composedView(array);
+        Assertions.assertEquals(2, view.ndim());
+        Assertions.assertArrayEquals(new long[]{11, 9}, view.shape());
+        ucar.ma2.Array result = view.read();
+        Assertions.assertArrayEquals(new int[]{11, 9}, result.getShape());
+        for (int i = 0; i < 11; i++) {
+            for (int j = 0; j < 9; j++) {
+                Assertions.assertEquals(expected(2, 3 + 3 * j, 1 + 2 * i), result.getInt(result.getIndex().set(i, j)));
+            }
+        }
+
+        // Slicing the transposed view selects along the permuted dimensions
+        ucar.ma2.Array sliced = view.slice(new long[]{1, 2}, new long[]{5, 4}).read();
+        Assertions.assertArrayEquals(new int[]{5, 4}, sliced.getShape());
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 4; j++) {
+                Assertions.assertEquals(expected(2, 9 + 3 * j, 3 + 2 * i), sliced.getInt(sliced.getIndex().set(i, j)));
+            }
+        }
+    }
+
+    @Test
+    public void testViewsDeferReads() throws IOException, ZarrException {
+        AtomicInteger reads = new AtomicInteger();
+        MemoryStore store = new MemoryStore() {
+            @Override
+            public ByteBuffer get(String[] keys, long start, long end) {
+                reads.incrementAndGet();
+                return super.get(keys, start, end);
+            }
+        };
+        Array array = createArray(store, false);
+        reads.set(0);
+
+        ArrayView view = composedView(array).stride(2, 2);
+        Assertions.assertEquals(0, reads.get());
+        Assertions.assertArrayEquals(new long[]{6, 5}, view.shape());
+
+        view.read();
+        // Every 6th row within rows 3 to 27 and every 4th column from column 1 hit 3 x 3 chunks
+        Assertions.assertEquals(9, reads.get());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testChunksAssembleView(boolean useSharding) throws IOException, ZarrException {
+        Array array = createArray(new MemoryStore(), useSharding);
+        ArrayView view = composedView(array);
+
+        List<ChunkRegion> regions = view.chunks().collect(Collectors.toList());
+        Assertions.assertEquals(9, regions.size());
+        ucar.ma2.Array assembled = ucar.ma2.Array.factory(ucar.ma2.DataType.INT, new int[]{11, 9});
+        for (ChunkRegion region : regions) {
+            Assertions.assertArrayEquals(region.projection.shape, region.data.getShape());
+            MultiArrayUtils.copyRegion(region.data, new int[2], assembled, region.projection.outOffset,
+                    region.projection.shape);
+        }
+        Assertions.assertArrayEquals((int[]) view.read().copyTo1DJavaArray(), (int[]) assembled.copyTo1DJavaArray());
+    }
+
+    @Test
+    public void testInvalidViews() throws IOException, ZarrException {
+        Array array = createArray(new MemoryStore(), false);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> array.view().slice(new long[]{0, 0, 20}, new long[]{1, 1, 6}));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> array.view().stride(1, 0, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> array.view().transpose(0, 0, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> array.view().transpose(1, 0));
+    }
+}
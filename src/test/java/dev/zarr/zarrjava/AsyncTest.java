@@ -0,0 +1,190 @@
+package dev.zarr.zarrjava;
+
+import dev.zarr.zarrjava.core.ChunkCache;
+import dev.zarr.zarrjava.store.FilesystemStore;
+import dev.zarr.zarrjava.store.MemoryStore;
+import dev.zarr.zarrjava.store.StoreHandle;
+import dev.zarr.zarrjava.utils.ExecutionContext;
+import dev.zarr.zarrjava.v3.Array;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class AsyncTest extends ZarrTest {
+
+    static int[] testData(int size) {
+        int[] data = new int[size];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = i + 1;
+        }
+        return data;
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testWriteAndReadAsync(boolean sharding) throws IOException, ZarrException {
+        StoreHandle storeHandle = new FilesystemStore(TESTOUTPUT).resolve("async_" + sharding);
+        Array array = createInt32Array(storeHandle, new long[]{30, 40}, new int[]{10, 20},
+                sharding ? new int[]{5, 5} : null, 0);
+
+        int[] data = testData(30 * 40);
+        array.writeAsync(ucar.ma2.Array.factory(ucar.ma2.DataType.INT, new int[]{30, 40}, data)).join();
+        Assertions.assertArrayEquals(data, (int[]) array.read().get1DJavaArray(ucar.ma2.DataType.INT));
+        Assertions.assertArrayEquals(data,
+                (int[]) array.readAsync().join().get1DJavaArray(ucar.ma2.DataType.INT));
+
+        ucar.ma2.Array section = array.readAsync(new long[]{3, 7}, new long[]{20, 25}).join();
+        Assertions.assertEquals(3 * 40 + 7 + 1, section.getInt(0));
+        Assertions.assertEquals(22 * 40 + 31 + 1, section.getInt(section.getIndex().set(19, 24)));
+
+        // Partial chunk writes are merged with the existing data
+        array.writeAsync(new long[]{5, 5},
+                ucar.ma2.Array.factory(ucar.ma2.DataType.INT, new int[]{2, 2}, new int[]{-1, -2, -3, -4})).join();
+        ucar.ma2.Array updated = array.read(new long[]{4, 4}, new long[]{4, 4});
+        Assertions.assertEquals(4 * 40 + 4 + 1, updated.getInt(0));
+        Assertions.assertEquals(-1, updated.getInt(updated.getIndex().set(1, 1)));
+        Assertions.assertEquals(-4, updated.getInt(updated.getIndex().set(2, 2)));
+    }
+
+    @Test
+    public void testWriteAsyncOnlyReencodesTouchedInnerChunks() throws IOException, ZarrException {
+        MemoryStore store = new MemoryStore();
+        Array array = createInt32Array(store.resolve("array"), new long[]{20, 20}, new int[]{20, 20}, 0,
+                c -> c.withSharding(new int[]{5, 5}, c1 -> c1.withBytes("LITTLE").withCrc32c()));
+        array.writeAsync(ramp(1, 20, 20)).join();
+
+        // Corrupts the first inner chunk, which fails its checksum once it is decoded
+        String[] keys = {"array", "c", "0", "0"};
+        ByteBuffer shardBytes = store.get(keys).order(ByteOrder.LITTLE_ENDIAN);
+        int chunkOffset = (int) shardBytes.getLong(shardBytes.limit() - (16 * 16 + 4));
+        shardBytes.put(chunkOffset, (byte) (shardBytes.get(chunkOffset) + 1));
+        store.set(keys, shardBytes);
+
+        array.writeAsync(new long[]{17, 17}, ramp(5000, 2, 2)).join();
+        ucar.ma2.Array result = array.readAsync(new long[]{15, 15}, new long[]{5, 5}).join();
+        Assertions.assertEquals(5000, result.getInt(result.getIndex().set(2, 2)));
+        Assertions.assertEquals(1 + 15 * 20 + 15, result.getInt(result.getIndex().set(0, 0)));
+        Assertions.assertThrows(CompletionException.class,
+                () -> array.readAsync(new long[]{0, 0}, new long[]{5, 5}).join());
+    }
+
+    @Test
+    public void testWriteAsyncBuffersPartialChunks() throws IOException, ZarrException {
+        ExecutorService ioExecutor = Executors.newFixedThreadPool(2);
+        try {
+            Set<Thread> writers = ConcurrentHashMap.newKeySet();
+            CountingStore store = new CountingStore() {
+                @Override
+                public void set(String[] keys, ByteBuffer bytes) {
+                    writers.add(Thread.currentThread());
+                    super.set(keys, bytes);
+                }
+            };
+            Array array = createInt32Array(store.resolve("array"), new long[]{20, 20}, new int[]{10, 10}, null, 0)
+                    .withExecutionContext(new ExecutionContext(ioExecutor, 2, null, 1))
+                    .withWriteBuffer(1 << 20);
+            writers.clear();
+
+            array.writeAsync(new long[]{7, 7}, ramp(1, 4, 4)).join();
+            Assertions.assertEquals(0, store.chunkWrites.get());
+
+            // The buffered chunks are flushed on the I/O executor before they are read
+            ucar.ma2.Array result = array.readAsync(new long[]{0, 0}, new long[]{20, 20}).join();
+            Assertions.assertEquals(4, store.chunkWrites.get());
+            Assertions.assertFalse(writers.contains(Thread.currentThread()));
+            Assertions.assertEquals(1, result.getInt(result.getIndex().set(7, 7)));
+            Assertions.assertEquals(16, result.getInt(result.getIndex().set(10, 10)));
+            Assertions.assertEquals(0, result.getInt(result.getIndex().set(6, 6)));
+        } finally {
+            ioExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void testChunkAsync() throws IOException, ZarrException {
+        Array array = createInt32Array(new MemoryStore().resolve("array"), new long[]{20, 20}, new int[]{10, 10}, null, 0)
+                .withChunkCache(new ChunkCache(1 << 20));
+
+        ucar.ma2.Array chunk = ucar.ma2.Array.factory(ucar.ma2.DataType.INT, new int[]{10, 10}, testData(100));
+        CompletableFuture<?>[] writes = new CompletableFuture<?>[4];
+        for (int i = 0; i < 4; i++) {
+            writes[i] = array.writeChunkAsync(new long[]{i / 2, i % 2}, chunk);
+        }
+        CompletableFuture.allOf(writes).join();
+
+        Assertions.assertArrayEquals(testData(100),
+                (int[]) array.readChunkAsync(new long[]{1, 1}).join().get1DJavaArray(ucar.ma2.DataType.INT));
+        Assertions.assertArrayEquals(testData(100),
+                (int[]) array.readChunk(new long[]{0, 1}).get1DJavaArray(ucar.ma2.DataType.INT));
+
+        // Chunks that only contain the fill value are deleted
+        array.writeChunkAsync(new long[]{1, 1}, ucar.ma2.Array.factory(ucar.ma2.DataType.INT, new int[]{10, 10})).join();
+        Assertions.assertFalse(array.storeHandle.resolve("c", "1", "1").exists());
+        Assertions.assertEquals(0, array.readChunkAsync(new long[]{1, 1}).join().getInt(0));
+    }
+
+    @Test
+    public void testSlowAsyncReadDoesNotCacheOverwrittenChunk() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean blockNext = new AtomicBoolean(false);
+        MemoryStore store = new MemoryStore() {
+            @Override
+            public CompletableFuture<ByteBuffer> getAsync(String[] keys) {
+                // The bytes from before the write arrive after the write
+                ByteBuffer bytes = get(keys);
+                if (!blockNext.compareAndSet(true, false)) {
+                    return CompletableFuture.completedFuture(bytes);
+                }
+                started.countDown();
+                return CompletableFuture.supplyAsync(() -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    return bytes;
+                });
+            }
+        };
+        Array array = createInt32Array(store.resolve("array"), new long[]{20, 20}, new int[]{10, 10}, null, 0)
+                .withChunkCache(new ChunkCache(1 << 20));
+        array.writeChunk(new long[]{0, 0}, ramp(1, 10, 10));
+
+        blockNext.set(true);
+        CompletableFuture<ucar.ma2.Array> earlier = array.readChunkAsync(new long[]{0, 0});
+        Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+        array.writeChunk(new long[]{0, 0}, ramp(1000, 10, 10));
+        release.countDown();
+        Assertions.assertEquals(1, earlier.get(10, TimeUnit.SECONDS).getInt(0));
+
+        Assertions.assertEquals(1000, array.readChunkAsync(new long[]{0, 0}).join().getInt(0));
+        Assertions.assertEquals(1000, array.readAsync(new long[]{0, 0}, new long[]{5, 5}).join().getInt(0));
+    }
+
+    @Test
+    public void testReadAsyncOutsideDomain() throws IOException, ZarrException {
+        Array array = createInt32Array(new MemoryStore().resolve("array"), new long[]{20, 20}, new int[]{10, 10}, null, 0);
+
+        CompletionException e = Assertions.assertThrows(CompletionException.class,
+                () -> array.readAsync(new long[]{15, 15}, new long[]{10, 10}).join());
+        Assertions.assertInstanceOf(ZarrException.class, e.getCause());
+        e = Assertions.assertThrows(CompletionException.class,
+                () -> array.readChunkAsync(new long[]{2, 0}).join());
+        Assertions.assertInstanceOf(ZarrException.class, e.getCause());
+    }
+}
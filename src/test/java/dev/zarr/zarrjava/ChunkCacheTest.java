@@ -0,0 +1,107 @@
+package dev.zarr.zarrjava;
+
+import dev.zarr.zarrjava.core.ChunkCache;
+import dev.zarr.zarrjava.store.MemoryStore;
+import dev.zarr.zarrjava.store.StoreHandle;
+import dev.zarr.zarrjava.v3.Array;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+public class ChunkCacheTest extends ZarrTest {
+
+    static Array createArray(StoreHandle storeHandle) throws IOException, ZarrException {
+        Array array = createInt32Array(storeHandle, new long[]{20, 20}, new int[]{10, 10}, null, 0);
+        array.write(ramp(1, 20, 20));
+        return array;
+    }
+
+    @Test
+    public void testCacheHitsAndMisses() throws IOException, ZarrException {
+        ChunkCache chunkCache = new ChunkCache(1 << 20);
+        Array array = createArray(new MemoryStore().resolve("array")).withChunkCache(chunkCache);
+
+        ucar.ma2.Array first = array.read();
+        Assertions.assertEquals(4, chunkCache.missCount());
+        Assertions.assertEquals(0, chunkCache.hitCount());
+        Assertions.assertEquals(4 * 10 * 10 * 4, chunkCache.sizeBytes());
+
+        ucar.ma2.Array second = array.read();
+        Assertions.assertEquals(4, chunkCache.hitCount());
+        Assertions.assertArrayEquals((int[]) first.get1DJavaArray(ucar.ma2.DataType.INT),
+                (int[]) second.get1DJavaArray(ucar.ma2.DataType.INT));
+    }
+
+    @Test
+    public void testShardedRegionReadsBypassCache() throws IOException, ZarrException {
+        ChunkCache chunkCache = new ChunkCache(1 << 20);
+        Array array = createInt32Array(new MemoryStore().resolve("array"), new long[]{20, 20}, new int[]{10, 10},
+                new int[]{5, 5}, 0).withChunkCache(chunkCache);
+        array.write(ramp(1, 20, 20));
+
+        // Only the needed inner chunks are decoded, which are neither looked up nor cached
+        ucar.ma2.Array data = array.read(new long[]{3, 3}, new long[]{10, 10});
+        Assertions.assertEquals(1 + 3 * 20 + 3, data.getInt(0));
+        Assertions.assertEquals(0, chunkCache.missCount());
+        Assertions.assertEquals(0, chunkCache.sizeBytes());
+
+        // Whole chunks are cached
+        array.readChunk(new long[]{0, 0});
+        array.readChunk(new long[]{0, 0});
+        Assertions.assertEquals(1, chunkCache.missCount());
+        Assertions.assertEquals(1, chunkCache.hitCount());
+    }
+
+    @Test
+    public void testReadChunkReturnsCopy() throws IOException, ZarrException {
+        Array array = createArray(new MemoryStore().resolve("array")).withChunkCache(new ChunkCache(1 << 20));
+
+        ucar.ma2.Array chunk = array.readChunk(new long[]{0, 0});
+        chunk.setInt(0, -1);
+        Assertions.assertEquals(1, array.readChunk(new long[]{0, 0}).getInt(0));
+        Assertions.assertEquals(1, array.read(new long[]{0, 0}, new long[]{1, 1}).getInt(0));
+    }
+
+    @Test
+    public void testCacheInvalidatedOnWrite() throws IOException, ZarrException {
+        ChunkCache chunkCache = new ChunkCache(1 << 20);
+        StoreHandle storeHandle = new MemoryStore().resolve("array");
+        Array array = createArray(storeHandle).withChunkCache(chunkCache);
+        Array otherArray = Array.open(storeHandle).withChunkCache(chunkCache);
+
+        Assertions.assertEquals(1, otherArray.read(new long[]{0, 0}, new long[]{1, 1}).getInt(0));
+        array.write(new long[]{0, 0}, ucar.ma2.Array.factory(ucar.ma2.DataType.INT, new int[]{1, 1}, new int[]{42}));
+        Assertions.assertEquals(42, otherArray.read(new long[]{0, 0}, new long[]{1, 1}).getInt(0));
+
+        // Chunks that only contain the fill value are deleted and need to be evicted as well
+        array.write(new long[]{10, 10}, ucar.ma2.Array.factory(ucar.ma2.DataType.INT, new int[]{10, 10}));
+        Assertions.assertEquals(0, otherArray.read(new long[]{10, 10}, new long[]{1, 1}).getInt(0));
+    }
+
+    @Test
+    public void testCacheIsBounded() throws IOException, ZarrException {
+        ChunkCache chunkCache = new ChunkCache(2 * 10 * 10 * 4);
+        Array array = createArray(new MemoryStore().resolve("array")).withChunkCache(chunkCache);
+
+        array.read();
+        Assertions.assertEquals(2, chunkCache.evictionCount());
+        Assertions.assertTrue(chunkCache.sizeBytes() <= chunkCache.maxBytes());
+    }
+
+    @Test
+    public void testCacheKeptOnResize() throws IOException, ZarrException {
+        ChunkCache chunkCache = new ChunkCache(1 << 20);
+        Array array = createArray(new MemoryStore().resolve("array")).withChunkCache(chunkCache);
+
+        array.read();
+        Array resizedArray = array.resize(new long[]{15, 15}, false);
+        Assertions.assertSame(chunkCache, resizedArray.chunkCache());
+
+        // Trimmed and deleted chunks must not be served from the cache after growing the array again
+        ucar.ma2.Array data = resizedArray.resize(new long[]{20, 20}).read();
+        Assertions.assertEquals(295, data.getInt(data.getIndex().set(14, 14)));
+        Assertions.assertEquals(0, data.getInt(data.getIndex().set(15, 15)));
+        Assertions.assertEquals(0, data.getInt(data.getIndex().set(19, 19)));
+    }
+}
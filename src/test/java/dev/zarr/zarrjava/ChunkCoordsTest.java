@@ -0,0 +1,161 @@
+package dev.zarr.zarrjava;
+
+import dev.zarr.zarrjava.core.chunkkeyencoding.ChunkKeyEncoder;
+import dev.zarr.zarrjava.core.chunkkeyencoding.Separator;
+import dev.zarr.zarrjava.store.MemoryStore;
+import dev.zarr.zarrjava.utils.ChunkCoordsSpliterator;
+import dev.zarr.zarrjava.utils.IndexingUtils;
+import dev.zarr.zarrjava.utils.Utils;
+import dev.zarr.zarrjava.v3.Array;
+import dev.zarr.zarrjava.v3.chunkkeyencoding.ChunkKeyEncoding;
+import dev.zarr.zarrjava.v3.chunkkeyencoding.DefaultChunkKeyEncoding;
+import dev.zarr.zarrjava.v3.chunkkeyencoding.V2ChunkKeyEncoding;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+public class ChunkCoordsTest extends ZarrTest {
+
+    static List<String> toStrings(Spliterator<long[]> spliterator) {
+        return StreamSupport.stream(spliterator, false).map(Arrays::toString).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testRowMajorOrder() {
+        List<String> actual = toStrings(IndexingUtils.chunkCoordsSpliterator(
+                new long[]{30, 30, 30}, new int[]{10, 10, 7}, new long[]{5, 10, 6}, new long[]{20, 11, 10}));
+        List<String> expected = new ArrayList<>();
+        for (long i = 0; i <= 2; i++) {
+            for (long j = 1; j <= 2; j++) {
+                for (long k = 0; k <= 2; k++) {
+                    expected.add(Arrays.toString(new long[]{i, j, k}));
+                }
+            }
+        }
+        Assertions.assertEquals(expected, actual);
+        Assertions.assertEquals(expected.size(), IndexingUtils.chunkCoordsSpliterator(
+                new long[]{30, 30, 30}, new int[]{10, 10, 7}, new long[]{5, 10, 6}, new long[]{20, 11, 10})
+                .estimateSize());
+        Assertions.assertFalse(IndexingUtils.chunkCoordsIterator(
+                new long[]{30, 30}, new int[]{10, 10}, new long[]{5, 5}, new long[]{0, 10}).hasNext());
+    }
+
+    @Test
+    public void testSplit() {
+        List<String> expected = toStrings(new ChunkCoordsSpliterator(new long[]{1, 2}, new long[]{7, 5}));
+        Spliterator<long[]> suffix = new ChunkCoordsSpliterator(new long[]{1, 2}, new long[]{7, 5});
+        Spliterator<long[]> prefix = suffix.trySplit();
+        Assertions.assertEquals(17, prefix.estimateSize());
+        Assertions.assertEquals(18, suffix.estimateSize());
+        List<String> actual = toStrings(prefix);
+        actual.addAll(toStrings(suffix));
+        Assertions.assertEquals(expected, actual);
+        Assertions.assertEquals(35, StreamSupport.stream(
+                new ChunkCoordsSpliterator(new long[]{1, 2}, new long[]{7, 5}), true).count());
+    }
+
+    @Test
+    public void testHugeGridIsLazy() {
+        // 10^12 chunks can only be enumerated if the coordinates are generated on demand
+        Iterator<long[]> iterator = IndexingUtils.chunkCoordsIterator(
+                new long[]{1_000_000_000L, 1_000_000_000L}, new int[]{1000, 1000});
+        Assertions.assertArrayEquals(new long[]{0, 0}, iterator.next());
+        Assertions.assertArrayEquals(new long[]{0, 1}, iterator.next());
+        Spliterator<long[]> spliterator = IndexingUtils.chunkCoordsSpliterator(
+                new long[]{1_000_000_000L, 1_000_000_000L}, new int[]{1000, 1000});
+        Assertions.assertEquals(1_000_000_000_000L, spliterator.estimateSize());
+        spliterator.trySplit();
+        spliterator.tryAdvance(chunkCoords -> Assertions.assertArrayEquals(new long[]{500_000, 0}, chunkCoords));
+    }
+
+    @Test
+    public void testResizeOnlyVisitsBoundaryChunks() throws IOException, ZarrException {
+        Set<String> touchedChunks = ConcurrentHashMap.newKeySet();
+        MemoryStore store = new MemoryStore() {
+            @Override
+            public ByteBuffer get(String[] keys) {
+                touchedChunks.add(String.join("/", keys));
+                return super.get(keys);
+            }
+
+            @Override
+            public void delete(String[] keys) {
+                touchedChunks.add(String.join("/", keys));
+                super.delete(keys);
+            }
+        };
+        Array array = createInt32Array(store.resolve("array"), new long[]{1000, 1000}, new int[]{10, 10}, null, 0);
+        int[] data = new int[20 * 1000];
+        Arrays.fill(data, 1);
+        array.write(new long[]{980, 0}, ucar.ma2.Array.factory(ucar.ma2.DataType.INT, new int[]{20, 1000}, data));
+        touchedChunks.clear();
+        Array resized = array.resize(new long[]{985, 995}, false);
+
+        // Only the chunks of the last two rows and the last column of chunks are visited
+        touchedChunks.removeIf(key -> !key.startsWith("array/c/"));
+        Assertions.assertEquals(100 + 100 + 98, touchedChunks.size());
+        Assertions.assertTrue(touchedChunks.contains("array/c/97/99"));
+        Assertions.assertFalse(touchedChunks.contains("array/c/97/98"));
+        Assertions.assertNotNull(store.get(new String[]{"array", "c", "98", "5"}));
+        Assertions.assertNull(store.get(new String[]{"array", "c", "99", "5"}));
+        Assertions.assertArrayEquals(new long[]{985, 995}, resized.metadata().shape);
+    }
+
+    @Test
+    public void testUpdateProjection() {
+        long[] arrayShape = {30, 25, 17};
+        int[] chunkShape = {10, 10, 7};
+        long[] selOffset = {5, 3, 2};
+        long[] selShape = {22, 20, 15};
+        IndexingUtils.ChunkProjection projection = new IndexingUtils.ChunkProjection(3);
+        Iterator<long[]> iterator = IndexingUtils.chunkCoordsIterator(arrayShape, chunkShape, selOffset, selShape);
+        while (iterator.hasNext()) {
+            long[] chunkCoords = iterator.next();
+            Assertions.assertSame(projection, IndexingUtils.updateProjection(projection, chunkCoords, arrayShape,
+                    chunkShape, selOffset, selShape));
+            Assertions.assertEquals(IndexingUtils.computeProjection(chunkCoords, arrayShape, chunkShape,
+                    selOffset, selShape).toString(), projection.toString());
+        }
+    }
+
+    @Test
+    public void testKeyEncoders() {
+        String[] parentKeys = {"group", "array"};
+        List<ChunkKeyEncoding> encodings = Arrays.asList(
+                new DefaultChunkKeyEncoding(new DefaultChunkKeyEncoding.Configuration(Separator.SLASH)),
+                new DefaultChunkKeyEncoding(new DefaultChunkKeyEncoding.Configuration(Separator.DOT)),
+                new V2ChunkKeyEncoding(new V2ChunkKeyEncoding.Configuration(Separator.SLASH)),
+                new V2ChunkKeyEncoding(new V2ChunkKeyEncoding.Configuration(Separator.DOT))
+        );
+        for (ChunkKeyEncoding encoding : encodings) {
+            // A reused encoder must produce the same keys as encoding every chunk from scratch
+            ChunkKeyEncoder keyEncoder = encoding.keyEncoder(parentKeys);
+            Iterator<long[]> iterator = Spliterators.iterator(
+                    new ChunkCoordsSpliterator(new long[]{9, 0, 98}, new long[]{3, 2, 4}));
+            while (iterator.hasNext()) {
+                long[] chunkCoords = iterator.next();
+                Assertions.assertArrayEquals(
+                        Utils.concatArrays(parentKeys, encoding.encodeChunkKey(chunkCoords)),
+                        keyEncoder.encode(chunkCoords));
+            }
+        }
+        Assertions.assertArrayEquals(new String[]{"c", "9", "1", "100"},
+                encodings.get(0).encodeChunkKey(new long[]{9, 1, 100}));
+        Assertions.assertArrayEquals(new String[]{"c.9.1.100"}, encodings.get(1).encodeChunkKey(new long[]{9, 1, 100}));
+        Assertions.assertArrayEquals(new String[]{"9", "1", "100"}, encodings.get(2).encodeChunkKey(new long[]{9, 1, 100}));
+        Assertions.assertArrayEquals(new String[]{"9.1.100"}, encodings.get(3).encodeChunkKey(new long[]{9, 1, 100}));
+        Assertions.assertArrayEquals(new String[]{"c"}, encodings.get(1).encodeChunkKey(new long[0]));
+    }
+}
@@ -0,0 +1,106 @@
+package dev.zarr.zarrjava;
+
+import dev.zarr.zarrjava.core.ChunkOrder;
+import dev.zarr.zarrjava.core.ChunkRegion;
+import dev.zarr.zarrjava.store.MemoryStore;
+import dev.zarr.zarrjava.utils.ExecutionContext;
+import dev.zarr.zarrjava.utils.MultiArrayUtils;
+import dev.zarr.zarrjava.v3.Array;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class ChunkStreamTest extends ZarrTest {
+
+    static Array createArray(MemoryStore store) throws IOException, ZarrException {
+        // The last rows of chunks stay empty
+        return writeRamp(createInt32Array(store.resolve("array"), new long[]{50, 37}, new int[]{10, 10}, null, -1),
+                30, 37);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ChunkOrder.class)
+    public void testChunksAssembleSelection(ChunkOrder order) throws IOException, ZarrException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Array array = createArray(new MemoryStore());
+            array.withExecutionContext(new ExecutionContext(executor, 3, executor, 3));
+            long[] offset = {5, 3};
+            long[] shape = {40, 31};
+            ucar.ma2.Array assembled = ucar.ma2.Array.factory(ucar.ma2.DataType.INT, new int[]{40, 31});
+            List<String> chunkCoords;
+            try (Stream<ChunkRegion> chunks = array.chunks(offset, shape, order)) {
+                chunkCoords = chunks.map(region -> {
+                    Assertions.assertArrayEquals(region.projection.shape, region.data.getShape());
+                    try {
+                        MultiArrayUtils.copyRegion(region.data, new int[2], assembled,
+                                region.projection.outOffset, region.projection.shape);
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                    return Arrays.toString(region.chunkCoords());
+                }).collect(Collectors.toList());
+            }
+            Assertions.assertEquals(20, chunkCoords.size());
+            if (order == ChunkOrder.ROW_MAJOR) {
+                Assertions.assertEquals("[0, 0]", chunkCoords.get(0));
+                Assertions.assertEquals("[0, 1]", chunkCoords.get(1));
+                Assertions.assertEquals("[4, 3]", chunkCoords.get(19));
+            }
+            Assertions.assertTrue(MultiArrayUtils.allValuesEqual(array.read(offset, shape), assembled));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testChunksAreReadLazily() throws IOException, ZarrException, InterruptedException {
+        AtomicInteger reads = new AtomicInteger();
+        MemoryStore store = new MemoryStore() {
+            @Override
+            public ByteBuffer get(String[] keys) {
+                if (keys[keys.length - 1].matches("\\d+")) {
+                    reads.incrementAndGet();
+                }
+                return super.get(keys);
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Array array = createArray(store);
+            array.withExecutionContext(new ExecutionContext(executor, 2, executor, 2));
+            reads.set(0);
+            Iterator<ChunkRegion> iterator = array.chunks(new long[]{0, 0}, new long[]{50, 37}).iterator();
+            Assertions.assertEquals(0, reads.get());
+            ChunkRegion first = iterator.next();
+            Assertions.assertEquals(0, first.data.getInt(0));
+
+            // No more than the in-flight limit of chunks is read ahead of the consumer
+            executor.shutdown();
+            Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            Assertions.assertTrue(reads.get() <= 3, "reads: " + reads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testChunksOutsideOfDomain() throws IOException, ZarrException {
+        Array array = createArray(new MemoryStore());
+        Assertions.assertThrows(ZarrException.class, () -> array.chunks(new long[]{45, 0}, new long[]{10, 10}));
+        Assertions.assertEquals(0, array.chunks(new long[]{5, 5}, new long[]{0, 10}).count());
+    }
+}
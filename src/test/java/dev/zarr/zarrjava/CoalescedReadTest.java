@@ -0,0 +1,96 @@
+package dev.zarr.zarrjava;
+
+import dev.zarr.zarrjava.utils.ExecutionContext;
+import dev.zarr.zarrjava.v3.Array;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+public class CoalescedReadTest extends ZarrTest {
+
+    static final class GapStore extends CountingStore {
+        final long coalesceGapBytes;
+
+        GapStore(long coalesceGapBytes) {
+            this.coalesceGapBytes = coalesceGapBytes;
+        }
+
+        @Override
+        public long coalesceGapBytes() {
+            return coalesceGapBytes;
+        }
+    }
+
+    static Array createArray(GapStore store) throws IOException, ZarrException {
+        // Sequential writes lay out the inner chunks in row-major order
+        return createInt32Array(store.resolve("array"), new long[]{40, 40}, new int[]{40, 40}, 0,
+                c -> c.withSharding(new int[]{5, 5}, c1 -> c1.withBytes("LITTLE").withCrc32c()))
+                .withExecutionContext(ExecutionContext.SEQUENTIAL);
+    }
+
+    static void assertRegion(ucar.ma2.Array result, int rowOffset, int colOffset) {
+        int[] shape = result.getShape();
+        for (int i = 0; i < shape[0]; i++) {
+            for (int j = 0; j < shape[1]; j++) {
+                Assertions.assertEquals(1 + (rowOffset + i) * 40 + colOffset + j,
+                        result.getInt(result.getIndex().set(i, j)));
+            }
+        }
+    }
+
+    @Test
+    public void testAdjacentInnerChunksAreReadTogether() throws IOException, ZarrException {
+        GapStore store = new GapStore(0);
+        Array array = createArray(store);
+        array.write(ramp(1, 40, 40));
+        store.reset();
+
+        // Two full rows of 8 inner chunks each are contiguous in the shard
+        assertRegion(array.read(new long[]{5, 0}, new long[]{10, 40}), 5, 0);
+        Assertions.assertEquals(2, store.chunkReads.get());
+
+        // A tile of 4x4 inner chunks is 4 contiguous runs
+        store.reset();
+        assertRegion(array.read(new long[]{10, 10}, new long[]{20, 20}), 10, 10);
+        Assertions.assertEquals(1 + 4, store.chunkReads.get());
+    }
+
+    @Test
+    public void testGapsAreReadUpToTheThreshold() throws IOException, ZarrException {
+        // Inner chunks hold 5 * 5 * 4 bytes plus a 4 byte checksum
+        GapStore store = new GapStore(4 * 104);
+        Array array = createArray(store);
+        array.write(ramp(1, 40, 40));
+        store.reset();
+
+        assertRegion(array.read(new long[]{10, 10}, new long[]{20, 20}), 10, 10);
+        Assertions.assertEquals(2, store.chunkReads.get());
+
+        // Runs that are 5 inner chunks apart stay separate reads
+        store.reset();
+        assertRegion(array.read(new long[]{0, 0}, new long[]{10, 15}), 0, 0);
+        Assertions.assertEquals(1 + 2, store.chunkReads.get());
+    }
+
+    @Test
+    public void testEmptyInnerChunksAreSkipped() throws IOException, ZarrException {
+        GapStore store = new GapStore(1 << 20);
+        Array array = createArray(store);
+        array.write(new long[]{0, 0}, ramp(1, 5, 5));
+        array.write(new long[]{35, 35}, ramp(1000, 5, 5));
+        store.reset();
+
+        // Only the two inner chunks that are not empty are read, with one request
+        ucar.ma2.Array result = array.read(new long[]{0, 0}, new long[]{39, 40});
+        Assertions.assertEquals(2, store.chunkReads.get());
+        Assertions.assertEquals(1, result.getInt(0));
+        Assertions.assertEquals(0, result.getInt(result.getIndex().set(20, 20)));
+        Assertions.assertEquals(1019, result.getInt(result.getIndex().set(38, 39)));
+
+        store.reset();
+        ucar.ma2.Array points = array.readPoints(new long[][]{{0, 20, 39}, {0, 20, 39}});
+        Assertions.assertArrayEquals(new int[]{1, 0, 1024}, (int[]) points.copyTo1DJavaArray());
+        Assertions.assertEquals(2, store.chunkReads.get());
+    }
+}
@@ -0,0 +1,161 @@
+package dev.zarr.zarrjava;
+
+import dev.zarr.zarrjava.store.FilesystemStore;
+import dev.zarr.zarrjava.store.MemoryStore;
+import dev.zarr.zarrjava.utils.ExecutionContext;
+import dev.zarr.zarrjava.v3.Array;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class ExecutionContextTest extends ZarrTest {
+
+    static List<Integer> range(int n) {
+        return IntStream.range(0, n).boxed().collect(Collectors.toList());
+    }
+
+    @Test
+    public void testForEachProcessesAllItems() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ExecutionContext context = new ExecutionContext(executor, 4, executor, 4);
+            Set<Integer> seen = ConcurrentHashMap.newKeySet();
+            context.forEachIo(range(1000).iterator(), seen::add);
+            Assertions.assertEquals(1000, seen.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testForEachBoundsInFlight() {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            ExecutionContext context = new ExecutionContext(executor, 3, executor, 3);
+            AtomicInteger inFlight = new AtomicInteger();
+            AtomicInteger maxInFlight = new AtomicInteger();
+            context.forEachIo(range(200).iterator(), i -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                inFlight.decrementAndGet();
+            });
+            Assertions.assertTrue(maxInFlight.get() <= 3);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testForEachCreatesActionPerThread() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ExecutionContext context = new ExecutionContext(executor, 4, executor, 4);
+            AtomicInteger actions = new AtomicInteger();
+            Set<Integer> seen = ConcurrentHashMap.newKeySet();
+            context.forEachIo(range(1000).iterator(), () -> {
+                actions.incrementAndGet();
+                // Scratch state that is only ever touched by one thread
+                List<Integer> scratch = new ArrayList<>();
+                return i -> {
+                    scratch.add(i);
+                    seen.add(i);
+                };
+            });
+            Assertions.assertEquals(1000, seen.size());
+            Assertions.assertTrue(actions.get() >= 1 && actions.get() <= 4);
+
+            actions.set(0);
+            ExecutionContext.SEQUENTIAL.forEachCpu(range(10).iterator(), () -> {
+                actions.incrementAndGet();
+                return seen::remove;
+            });
+            Assertions.assertEquals(1, actions.get());
+            Assertions.assertEquals(990, seen.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testNestedForEachOnSingleThread() {
+        // Nested operations must not wait for tasks that are queued behind themselves
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            ExecutionContext context = new ExecutionContext(executor, 4, executor, 4);
+            List<Integer> results = Collections.synchronizedList(new ArrayList<>());
+            context.forEachIo(range(10).iterator(), i ->
+                    context.forEachCpu(range(10).iterator(), j -> results.add(i * 10 + j)));
+            Assertions.assertEquals(100, results.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testForEachRethrows() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ExecutionContext context = new ExecutionContext(executor, 4, executor, 4);
+            IllegalStateException e = Assertions.assertThrows(IllegalStateException.class, () ->
+                    context.forEachIo(range(100).iterator(), i -> {
+                        if (i == 42) {
+                            throw new IllegalStateException("42");
+                        }
+                    }));
+            Assertions.assertEquals("42", e.getMessage());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testShardedArrayWithSmallPools() throws IOException, ZarrException {
+        ExecutorService ioExecutor = Executors.newFixedThreadPool(1);
+        ExecutorService cpuExecutor = Executors.newFixedThreadPool(1);
+        try {
+            Array array = createInt32Array(new FilesystemStore(TESTOUTPUT).resolve("execution_context_sharding"),
+                    new long[]{64, 64}, new int[]{32, 32}, new int[]{8, 8}, 0)
+                    .withExecutionContext(new ExecutionContext(ioExecutor, 4, cpuExecutor, 4));
+
+            ucar.ma2.Array data = ramp(0, 64, 64);
+            array.write(data);
+            Assertions.assertArrayEquals((int[]) data.get1DJavaArray(ucar.ma2.DataType.INT),
+                    (int[]) array.read().get1DJavaArray(ucar.ma2.DataType.INT));
+
+            ucar.ma2.Array section = array.read(new long[]{5, 7}, new long[]{40, 50});
+            Assertions.assertEquals(5 * 64 + 7, section.getInt(0));
+            Assertions.assertEquals(44 * 64 + 56, section.getInt(section.getIndex().set(39, 49)));
+
+            Array resizedArray = array.resize(new long[]{40, 40});
+            Assertions.assertSame(ioExecutor, resizedArray.executionContext().ioExecutor());
+        } finally {
+            ioExecutor.shutdown();
+            cpuExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSequentialContext() throws IOException, ZarrException {
+        Array array = createInt32Array(new MemoryStore().resolve("array"), new long[]{20, 20}, new int[]{7, 7}, null, 0)
+                .withExecutionContext(ExecutionContext.SEQUENTIAL);
+        ucar.ma2.Array data = ramp(0, 20, 20);
+        array.write(data);
+        Assertions.assertArrayEquals((int[]) data.get1DJavaArray(ucar.ma2.DataType.INT),
+                (int[]) array.read().get1DJavaArray(ucar.ma2.DataType.INT));
+    }
+}
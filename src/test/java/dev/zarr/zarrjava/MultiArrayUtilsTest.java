@@ -0,0 +1,158 @@
+package dev.zarr.zarrjava;
+
+import dev.zarr.zarrjava.utils.MultiArrayUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ucar.ma2.Array;
+import ucar.ma2.DataType;
+import ucar.ma2.InvalidRangeException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class MultiArrayUtilsTest {
+
+    static Array range(DataType dataType, int... shape) {
+        Array array = Array.factory(dataType, shape);
+        for (int i = 0; i < array.getSize(); i++) {
+            array.setInt(i, i);
+        }
+        return array;
+    }
+
+    static void assertArrayEquals(Array expected, Array actual) {
+        Assertions.assertArrayEquals(expected.getShape(), actual.getShape());
+        Assertions.assertArrayEquals((int[]) expected.copyTo1DJavaArray(), (int[]) actual.copyTo1DJavaArray());
+    }
+
+    static Array referenceCopy(Array source, int[] sourceOffset, Array target, int[] targetOffset, int[] shape) {
+        Array result = target.copy();
+        ucar.ma2.Index sourceIndex = source.getIndex();
+        ucar.ma2.Index targetIndex = result.getIndex();
+        int[] counter = new int[shape.length];
+        for (int i = 0; i < Array.factory(DataType.INT, shape).getSize(); i++) {
+            int[] sourcePos = new int[shape.length];
+            int[] targetPos = new int[shape.length];
+            for (int dimIdx = 0; dimIdx < shape.length; dimIdx++) {
+                sourcePos[dimIdx] = sourceOffset[dimIdx] + counter[dimIdx];
+                targetPos[dimIdx] = targetOffset[dimIdx] + counter[dimIdx];
+            }
+            result.setInt(targetIndex.set(targetPos), source.getInt(sourceIndex.set(sourcePos)));
+            for (int dimIdx = shape.length - 1; dimIdx >= 0; dimIdx--) {
+                if (++counter[dimIdx] < shape[dimIdx]) {
+                    break;
+                }
+                counter[dimIdx] = 0;
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testCopyRegion() throws InvalidRangeException {
+        Array source = range(DataType.INT, 6, 7, 8);
+        Array[] sources = {
+                source,
+                source.sectionNoReduce(new int[]{1, 2, 0}, new int[]{4, 5, 8}, null),
+                source.transpose(1, 2),
+                source.flip(2),
+                source.sectionNoReduce(new int[]{0, 0, 0}, new int[]{3, 4, 4}, new int[]{2, 1, 2}),
+        };
+        for (Array view : sources) {
+            int[] viewShape = view.getShape();
+            int[] shape = {viewShape[0] - 1, viewShape[1] - 1, viewShape[2] - 1};
+            Array target = range(DataType.INT, 7, 8, 9);
+            Array expected = referenceCopy(view, new int[]{1, 1, 0}, target, new int[]{0, 1, 1}, shape);
+            MultiArrayUtils.copyRegion(view, new int[]{1, 1, 0}, target, new int[]{0, 1, 1}, shape);
+            assertArrayEquals(expected, target);
+        }
+    }
+
+    @Test
+    public void testCopyRegionIntoView() throws InvalidRangeException {
+        Array source = range(DataType.INT, 4, 5);
+        Array target = Array.factory(DataType.INT, new int[]{6, 6});
+        Array targetView = target.transpose(0, 1);
+        MultiArrayUtils.copyRegion(source, new int[]{0, 0}, targetView, new int[]{1, 0}, new int[]{4, 5});
+        Assertions.assertEquals(source.getInt(source.getIndex().set(2, 3)),
+                target.getInt(target.getIndex().set(3, 3)));
+        Assertions.assertEquals(0, target.getInt(target.getIndex().set(0, 0)));
+    }
+
+    @Test
+    public void testCopyRegionIntoBuffer() throws InvalidRangeException {
+        Array source = range(DataType.INT, 5, 6);
+        for (Array view : new Array[]{source, source.transpose(0, 1)}) {
+            ByteBuffer buffer = ByteBuffer.allocate(4 + 7 * 8 * 4).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.position(4);
+            MultiArrayUtils.copyRegion(view, new int[]{1, 1}, buffer, new int[]{7, 8}, new int[]{2, 3},
+                    new int[]{3, 4});
+            Assertions.assertEquals(4, buffer.position());
+            Array actual = Array.factory(DataType.INT, new int[]{7, 8});
+            for (int i = 0; i < 7 * 8; i++) {
+                actual.setInt(i, buffer.getInt(4 + 4 * i));
+            }
+            Array expected = referenceCopy(view, new int[]{1, 1}, Array.factory(DataType.INT, new int[]{7, 8}),
+                    new int[]{2, 3}, new int[]{3, 4});
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testCopyRegionFromBuffer() throws InvalidRangeException {
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 7 * 8 * 2).order(ByteOrder.BIG_ENDIAN);
+        for (int i = 0; i < 7 * 8; i++) {
+            buffer.putShort(4 + 2 * i, (short) i);
+        }
+        buffer.position(4);
+        Array source = range(DataType.SHORT, 7, 8);
+        for (Array target : new Array[]{Array.factory(DataType.SHORT, new int[]{5, 6}),
+                Array.factory(DataType.SHORT, new int[]{6, 5}).transpose(0, 1)}) {
+            MultiArrayUtils.copyRegion(buffer, new int[]{7, 8}, new int[]{2, 3}, target, new int[]{1, 1},
+                    new int[]{3, 4});
+            Assertions.assertEquals(4, buffer.position());
+            for (int i = 0; i < 3; i++) {
+                for (int j = 0; j < 4; j++) {
+                    Assertions.assertEquals(source.getShort(source.getIndex().set(2 + i, 3 + j)),
+                            target.getShort(target.getIndex().set(1 + i, 1 + j)));
+                }
+            }
+            Assertions.assertEquals(0, target.getShort(target.getIndex().set(0, 0)));
+        }
+    }
+
+    @Test
+    public void testFillAndAllValuesEqual() throws InvalidRangeException {
+        Array array = Array.factory(DataType.INT, new int[]{5, 6, 7});
+        MultiArrayUtils.fill(array, 3);
+        Assertions.assertTrue(MultiArrayUtils.allValuesEqual(array, 3));
+
+        MultiArrayUtils.fillRegion(array, new int[]{1, 2, 3}, new int[]{3, 3, 3}, 4);
+        Assertions.assertFalse(MultiArrayUtils.allValuesEqual(array, 3));
+        Assertions.assertTrue(MultiArrayUtils.allValuesEqual(
+                array.sectionNoReduce(new int[]{1, 2, 3}, new int[]{3, 3, 3}, null), 4));
+        Assertions.assertTrue(MultiArrayUtils.allValuesEqual(
+                array.sectionNoReduce(new int[]{0, 0, 0}, new int[]{5, 2, 7}, null).transpose(0, 2), 3));
+        Assertions.assertEquals(4, array.getInt(array.getIndex().set(3, 4, 5)));
+        Assertions.assertEquals(3, array.getInt(array.getIndex().set(3, 4, 6)));
+
+        Array other = array.copy();
+        Assertions.assertTrue(MultiArrayUtils.allValuesEqual(array, other));
+        other.setInt(other.getIndex().set(4, 5, 6), 5);
+        Assertions.assertFalse(MultiArrayUtils.allValuesEqual(array, other));
+        Assertions.assertFalse(MultiArrayUtils.allValuesEqual(array.transpose(0, 1), other.transpose(0, 1)));
+    }
+
+    @Test
+    public void testFillOtherTypes() {
+        Assertions.assertTrue(MultiArrayUtils.allValuesEqual(
+                MultiArrayUtils.fill(Array.factory(DataType.DOUBLE, new int[]{3, 4}), 1.5), 1.5));
+        Assertions.assertTrue(MultiArrayUtils.allValuesEqual(
+                MultiArrayUtils.fill(Array.factory(DataType.BYTE, new int[]{3, 4}), (byte) 7), (byte) 7));
+        Assertions.assertTrue(MultiArrayUtils.allValuesEqual(
+                MultiArrayUtils.fill(Array.factory(DataType.BOOLEAN, new int[]{3, 4}), true), true));
+        // NaN never compares equal, like in the element-wise comparison
+        Assertions.assertFalse(MultiArrayUtils.allValuesEqual(
+                MultiArrayUtils.fill(Array.factory(DataType.FLOAT, new int[]{3, 4}), Float.NaN), Float.NaN));
+    }
+}
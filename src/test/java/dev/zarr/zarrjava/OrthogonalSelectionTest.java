@@ -0,0 +1,115 @@
+package dev.zarr.zarrjava;
+
+import dev.zarr.zarrjava.store.MemoryStore;
+import dev.zarr.zarrjava.utils.IndexingUtils;
+import dev.zarr.zarrjava.v3.Array;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class OrthogonalSelectionTest extends ZarrTest {
+
+    static Array createArray(MemoryStore store, boolean useSharding) throws IOException, ZarrException {
+        // The last channels stay empty
+        return writeRamp(createInt32Array(store.resolve("array"), new long[]{8, 30, 27}, new int[]{4, 10, 10},
+                useSharding ? new int[]{2, 5, 5} : null, -1), 6, 30, 27);
+    }
+
+    static int expected(long c, long y, long x) {
+        return c < 6 ? (int) ((c * 30 + y) * 27 + x) : -1;
+    }
+
+    static void assertSelection(ucar.ma2.Array result, long[] cs, long[] ys, long[] xs) {
+        Assertions.assertArrayEquals(new int[]{cs.length, ys.length, xs.length}, result.getShape());
+        for (int i = 0; i < cs.length; i++) {
+            for (int j = 0; j < ys.length; j++) {
+                for (int k = 0; k < xs.length; k++) {
+                    Assertions.assertEquals(expected(cs[i], ys[j], xs[k]),
+                            result.getInt(result.getIndex().set(i, j, k)));
+                }
+            }
+        }
+    }
+
+    static long[] range(int n) {
+        long[] indices = new long[n];
+        for (int i = 0; i < n; i++) {
+            indices[i] = i;
+        }
+        return indices;
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testReadOrthogonal(boolean useSharding) throws IOException, ZarrException {
+        Array array = createArray(new MemoryStore(), useSharding);
+        long[] cs = {0, 2, 5, 7};
+        long[] ys = {29, 3, 3, 15};
+        long[] xs = IndexingUtils.maskToIndices(new boolean[]{
+                true, false, false, true, true, true, true, true, true, true,
+                true, true, false, false, false, false, false, false, false, false,
+                false, false, false, false, false, false, true});
+        assertSelection(array.readOrthogonal(new long[][]{cs, ys, xs}), cs, ys, xs);
+        assertSelection(array.readOrthogonal(new long[][]{cs, null, null}), cs, range(30), range(27));
+        Assertions.assertEquals(0, array.readOrthogonal(new long[][]{new long[0], null, null}).getSize());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testWriteOrthogonal(boolean useSharding) throws IOException, ZarrException {
+        Array array = createArray(new MemoryStore(), useSharding);
+        long[] cs = {6, 1};
+        long[] ys = {0, 12};
+        int[] data = new int[2 * 2 * 27];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = 100_000 + i;
+        }
+        array.writeOrthogonal(new long[][]{cs, ys, null},
+                ucar.ma2.Array.factory(ucar.ma2.DataType.INT, new int[]{2, 2, 27}, data));
+
+        ucar.ma2.Array result = array.read();
+        for (int c = 0; c < 8; c++) {
+            for (int y = 0; y < 30; y++) {
+                for (int x = 0; x < 27; x++) {
+                    int i = c == 6 ? 0 : c == 1 ? 1 : -1;
+                    int j = y == 0 ? 0 : y == 12 ? 1 : -1;
+                    int value = i >= 0 && j >= 0 ? 100_000 + (i * 2 + j) * 27 + x : expected(c, y, x);
+                    Assertions.assertEquals(value, result.getInt(result.getIndex().set(c, y, x)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testEveryChunkIsReadOnce() throws IOException, ZarrException {
+        AtomicInteger reads = new AtomicInteger();
+        // All reads of the memory store end up in the ranged get
+        MemoryStore store = new MemoryStore() {
+            @Override
+            public ByteBuffer get(String[] keys, long start, long end) {
+                reads.incrementAndGet();
+                return super.get(keys, start, end);
+            }
+        };
+        Array array = createArray(store, false);
+        reads.set(0);
+
+        // Three channels in one chunk and planes in two chunks along y, all of x
+        array.readOrthogonal(new long[][]{{0, 1, 3}, {1, 4, 5, 8, 25}, null}, false);
+        Assertions.assertEquals(2 * 3, reads.get());
+    }
+
+    @Test
+    public void testInvalidSelections() throws IOException, ZarrException {
+        Array array = createArray(new MemoryStore(), false);
+        Assertions.assertThrows(ZarrException.class, () -> array.readOrthogonal(new long[][]{{8}, null, null}));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> array.readOrthogonal(new long[][]{null, null}));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> array.writeOrthogonal(new long[][]{{0}, {0}, null},
+                ucar.ma2.Array.factory(ucar.ma2.DataType.INT, new int[]{1, 1, 26})));
+    }
+}
@@ -0,0 +1,101 @@
+package dev.zarr.zarrjava;
+
+import dev.zarr.zarrjava.store.MemoryStore;
+import dev.zarr.zarrjava.utils.IndexingUtils;
+import dev.zarr.zarrjava.v3.Array;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PointSelectionTest extends ZarrTest {
+
+    static Array createArray(MemoryStore store, boolean useSharding) throws IOException, ZarrException {
+        // The last row of chunks stays empty
+        return writeRamp(createInt32Array(store.resolve("array"), new long[]{60, 47}, new int[]{20, 20},
+                useSharding ? new int[]{5, 5} : null, -1), 40, 47);
+    }
+
+    static int expected(long row, long col) {
+        return row < 40 ? (int) (row * 47 + col) : -1;
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testReadPoints(boolean useSharding) throws IOException, ZarrException {
+        Array array = createArray(new MemoryStore(), useSharding);
+        Random random = new Random(42);
+        long[][] coords = new long[2][1000];
+        for (int i = 0; i < 1000; i++) {
+            coords[0][i] = random.nextInt(60);
+            coords[1][i] = random.nextInt(47);
+        }
+        ucar.ma2.Array result = array.readPoints(coords);
+        Assertions.assertArrayEquals(new int[]{1000}, result.getShape());
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertEquals(expected(coords[0][i], coords[1][i]), result.getInt(i));
+        }
+        Assertions.assertEquals(0, array.readPoints(new long[2][0]).getSize());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testEveryTouchedChunkIsReadOnce(boolean useSharding) throws IOException, ZarrException {
+        AtomicInteger reads = new AtomicInteger();
+        // All reads of the memory store end up in the ranged get
+        MemoryStore store = new MemoryStore() {
+            @Override
+            public ByteBuffer get(String[] keys, long start, long end) {
+                reads.incrementAndGet();
+                return super.get(keys, start, end);
+            }
+        };
+        Array array = createArray(store, useSharding);
+        reads.set(0);
+
+        // Six points in two inner chunks of one shard, and one point in a second chunk
+        long[][] coords = {{0, 1, 2, 17, 18, 0, 25}, {0, 1, 2, 17, 18, 1, 25}};
+        ucar.ma2.Array result = array.readPoints(coords, false);
+        for (int i = 0; i < coords[0].length; i++) {
+            Assertions.assertEquals(expected(coords[0][i], coords[1][i]), result.getInt(i));
+        }
+        // Sharded arrays read the index and the needed inner chunks of each shard
+        Assertions.assertEquals(useSharding ? 2 + 1 + 2 : 2, reads.get());
+    }
+
+    @Test
+    public void testInvalidPoints() throws IOException, ZarrException {
+        Array array = createArray(new MemoryStore(), false);
+        Assertions.assertThrows(ZarrException.class, () -> array.readPoints(new long[][]{{0, 60}, {0, 0}}));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> array.readPoints(new long[][]{{0, 1}, {0}}));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> array.readPoints(new long[][]{{0}}));
+    }
+
+    @Test
+    public void testGroupPointsByChunk() {
+        long[][] coords = {{35, 3, 12, 4, 31}, {5, 9, 1, 2, 6}};
+        List<IndexingUtils.PointGroup> groups = IndexingUtils.groupPointsByChunk(coords, new int[]{10, 10});
+        Assertions.assertEquals(3, groups.size());
+        Assertions.assertArrayEquals(new long[]{0, 0}, groups.get(0).chunkCoords);
+        Assertions.assertArrayEquals(new int[]{1, 3}, groups.get(0).pointIndices);
+        Assertions.assertArrayEquals(new int[]{3, 4}, groups.get(0).chunkPoints[0]);
+        Assertions.assertArrayEquals(new int[]{9, 2}, groups.get(0).chunkPoints[1]);
+        Assertions.assertArrayEquals(new long[]{3, 0}, groups.get(2).chunkCoords);
+        Assertions.assertArrayEquals(new int[]{0, 4}, groups.get(2).pointIndices);
+
+        // Chunk grids too large for packed sort keys are ordered as well
+        long[][] farApart = {{Long.MAX_VALUE - 1, 0, Long.MAX_VALUE - 1}, {0, Long.MAX_VALUE - 1, 0}};
+        groups = IndexingUtils.groupPointsByChunk(farApart, new int[]{1, 1});
+        Assertions.assertEquals(2, groups.size());
+        Assertions.assertArrayEquals(new int[]{1}, groups.get(0).pointIndices);
+        Assertions.assertArrayEquals(new int[]{0, 2}, groups.get(1).pointIndices);
+        Assertions.assertEquals("[0, 0]", Arrays.toString(groups.get(1).chunkPoints[0]));
+    }
+}
@@ -0,0 +1,137 @@
+package dev.zarr.zarrjava;
+
+import dev.zarr.zarrjava.core.Prefetcher;
+import dev.zarr.zarrjava.store.MemoryStore;
+import dev.zarr.zarrjava.utils.ExecutionContext;
+import dev.zarr.zarrjava.v3.Array;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class PrefetcherTest extends ZarrTest {
+
+    static Array createArray(boolean useSharding, ExecutionContext executionContext)
+            throws IOException, ZarrException {
+        // Fetches take a while, like from a remote store
+        MemoryStore store = new MemoryStore() {
+            @Override
+            public ByteBuffer get(String[] keys) {
+                sleep();
+                return super.get(keys);
+            }
+
+            @Override
+            public ByteBuffer get(String[] keys, long start, long end) {
+                sleep();
+                return super.get(keys, start, end);
+            }
+        };
+        Array array = createInt32Array(store.resolve("array"), new long[]{100, 20}, new int[]{10, 20},
+                useSharding ? new int[]{5, 10} : null, -1).withExecutionContext(executionContext);
+        // The last rows of chunks stay empty
+        return writeRamp(array, 80, 20);
+    }
+
+    static void sleep() {
+        try {
+            Thread.sleep(2);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    static void assertSlab(ucar.ma2.Array slab, long row, long rows) {
+        for (int i = 0; i < rows; i++) {
+            long expected = row + i < 80 ? (row + i) * 20 + 3 : -1;
+            Assertions.assertEquals(expected, slab.getInt(slab.getIndex().set(i, 3)));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testSequentialScan(boolean useSharding) throws IOException, ZarrException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Array array = createArray(useSharding, new ExecutionContext(executor, 4, executor, 4));
+            Prefetcher prefetcher = new Prefetcher(3, 1 << 20);
+            array.withPrefetcher(prefetcher);
+
+            // Slabs that are smaller than a chunk read the same chunks repeatedly before advancing
+            for (long row = 0; row < 100; row += 5) {
+                assertSlab(array.read(new long[]{row, 0}, new long[]{5, 20}), row, 5);
+            }
+            Assertions.assertTrue(prefetcher.hitCount() > 0);
+            Assertions.assertTrue(prefetcher.sizeBytes() <= 1 << 20);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testNoPrefetchForRandomAccess() throws IOException, ZarrException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Array array = createArray(false, new ExecutionContext(executor, 4, executor, 4));
+            Prefetcher prefetcher = new Prefetcher(3, 1 << 20);
+            array.withPrefetcher(prefetcher);
+            for (long row : new long[]{50, 20, 70, 10, 90, 0}) {
+                assertSlab(array.read(new long[]{row, 0}, new long[]{10, 20}), row, 10);
+            }
+            Assertions.assertEquals(0, prefetcher.prefetchCount());
+            Assertions.assertEquals(0, prefetcher.hitCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testMemoryBudget() throws IOException, ZarrException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Array array = createArray(false, new ExecutionContext(executor, 4, executor, 4));
+            // A chunk has 800 bytes, so no more than one chunk is fetched ahead
+            Prefetcher prefetcher = new Prefetcher(8, 1000);
+            array.withPrefetcher(prefetcher);
+            for (long row = 0; row < 100; row += 10) {
+                assertSlab(array.read(new long[]{row, 0}, new long[]{10, 20}), row, 10);
+                Assertions.assertTrue(prefetcher.sizeBytes() <= 1000);
+            }
+            Assertions.assertTrue(prefetcher.prefetchCount() <= 10);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testWritesInvalidatePrefetchedChunks(boolean writeAsync) throws IOException, ZarrException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Array array = createArray(false, new ExecutionContext(executor, 4, executor, 4));
+            array.withPrefetcher(new Prefetcher(4, 1 << 20));
+            array.read(new long[]{0, 0}, new long[]{10, 20});
+            array.read(new long[]{10, 0}, new long[]{10, 20});
+
+            // The following chunks are being fetched ahead when they are overwritten
+            int[] data = new int[10 * 20];
+            Arrays.fill(data, 7);
+            ucar.ma2.Array block = ucar.ma2.Array.factory(ucar.ma2.DataType.INT, new int[]{10, 20}, data);
+            if (writeAsync) {
+                array.writeAsync(new long[]{20, 0}, block).join();
+            } else {
+                array.write(new long[]{20, 0}, block);
+            }
+            ucar.ma2.Array slab = array.read(new long[]{20, 0}, new long[]{10, 20});
+            Assertions.assertEquals(7, slab.getInt(slab.getIndex().set(9, 19)));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package dev.zarr.zarrjava;
+
+import dev.zarr.zarrjava.core.ShardIndexCache;
+import dev.zarr.zarrjava.store.ReadCostModel;
+import dev.zarr.zarrjava.utils.ExecutionContext;
+import dev.zarr.zarrjava.v3.Array;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+public class ReadCostModelTest extends ZarrTest {
+
+    static final class ModelStore extends CountingStore {
+        final ReadCostModel readCostModel;
+
+        ModelStore(ReadCostModel readCostModel) {
+            this.readCostModel = readCostModel;
+        }
+
+        @Override
+        public ReadCostModel readCostModel() {
+            return readCostModel;
+        }
+    }
+
+    static Array createArray(ModelStore store) throws IOException, ZarrException {
+        Array array = createInt32Array(store.resolve("array"), new long[]{80, 80}, new int[]{40, 40}, new int[]{5, 5}, 0)
+                .withExecutionContext(ExecutionContext.SEQUENTIAL);
+        array.write(ramp(1, 80, 80));
+        return array;
+    }
+
+    @Test
+    public void testLearnsLatencyAndBandwidth() {
+        ReadCostModel model = new ReadCostModel(50, 10);
+        // Reads take 2 ms plus 1 ns per byte, i.e. 1000 MB/s
+        for (int i = 0; i < 200; i++) {
+            long bytes = (i % 10 + 1) * 100_000L;
+            model.observe(bytes, 2_000_000 + bytes);
+        }
+        Assertions.assertEquals(2, model.latencyMillis(), 0.01);
+        Assertions.assertEquals(1000, model.bandwidthMBps(), 1);
+        Assertions.assertEquals(2_000_000, model.breakEvenGapBytes(), 10_000);
+        Assertions.assertEquals(3 * 2e6 + 1e6, model.costNanos(10, 1_000_000, 4), 1e4);
+    }
+
+    @Test
+    public void testFixedModelIgnoresReads() {
+        ReadCostModel model = ReadCostModel.fixed(10, 100);
+        for (int i = 0; i < 100; i++) {
+            model.observe(1000, 1000);
+        }
+        Assertions.assertEquals(10, model.latencyMillis(), 1e-9);
+        Assertions.assertEquals(100, model.bandwidthMBps(), 1e-9);
+        Assertions.assertEquals(1_000_000, model.breakEvenGapBytes());
+    }
+
+    @Test
+    public void testHighLatencyReadsWholeShards() throws IOException, ZarrException {
+        ModelStore store = new ModelStore(ReadCostModel.fixed(100, 100));
+        Array array = createArray(store);
+        store.reset();
+
+        // The size of the shards is unknown at first, so the index and the inner chunks are read
+        ucar.ma2.Array result = array.read(new long[]{3, 3}, new long[]{30, 30});
+        Assertions.assertEquals(2, store.chunkReads.get());
+        Assertions.assertEquals(1 + 3 * 80 + 3, result.getInt(0));
+
+        // Afterwards, a second request costs more than reading the rest of the shard
+        store.reset();
+        result = array.read(new long[]{43, 43}, new long[]{30, 30});
+        Assertions.assertEquals(1, store.chunkReads.get());
+        Assertions.assertEquals(1 + 43 * 80 + 43, result.getInt(0));
+        Assertions.assertEquals(1 + 72 * 80 + 72, result.getInt(result.getIndex().set(29, 29)));
+    }
+
+    @Test
+    public void testWholeShardReadsCacheIndex() throws IOException, ZarrException {
+        ModelStore store = new ModelStore(ReadCostModel.fixed(100, 100));
+        Array array = createArray(store).withShardIndexCache(new ShardIndexCache(1 << 20));
+        ShardIndexCache shardIndexCache = array.shardIndexCache();
+        array.read(new long[]{3, 3}, new long[]{30, 30});
+        // One index of 8 x 8 inner chunks
+        Assertions.assertEquals(8 * 8 * 2 * 8, shardIndexCache.sizeBytes());
+
+        // The index of a shard that is read whole is cached as well
+        array.read(new long[]{43, 43}, new long[]{30, 30});
+        Assertions.assertEquals(2 * 8 * 8 * 2 * 8, shardIndexCache.sizeBytes());
+
+        // So later reads of the shard fetch only the inner chunks they need instead of the whole shard
+        store.reset();
+        long hitCount = shardIndexCache.hitCount();
+        ucar.ma2.Array result = array.read(new long[]{40, 40}, new long[]{5, 5});
+        Assertions.assertEquals(hitCount + 1, shardIndexCache.hitCount());
+        Assertions.assertEquals(1, store.chunkReads.get());
+        Assertions.assertEquals(1 + 44 * 80 + 44, result.getInt(result.getIndex().set(4, 4)));
+    }
+
+    @Test
+    public void testLowLatencyReadsRanges() throws IOException, ZarrException {
+        ModelStore store = new ModelStore(ReadCostModel.fixed(0, 100));
+        Array array = createArray(store);
+        array.read(new long[]{0, 0}, new long[]{5, 5});
+        store.reset();
+
+        // Without latency, neither the whole shard nor the gaps between the rows of inner chunks are read
+        ucar.ma2.Array result = array.read(new long[]{0, 0}, new long[]{10, 10});
+        Assertions.assertEquals(1 + 2, store.chunkReads.get());
+        Assertions.assertEquals(1 + 9 * 80 + 9, result.getInt(result.getIndex().set(9, 9)));
+    }
+}
@@ -0,0 +1,172 @@
+package dev.zarr.zarrjava;
+
+import dev.zarr.zarrjava.store.MemoryStore;
+import dev.zarr.zarrjava.utils.ExecutionContext;
+import dev.zarr.zarrjava.v3.Array;
+import dev.zarr.zarrjava.v3.DataType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ucar.ma2.InvalidRangeException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ReadIntoTest extends ZarrTest {
+
+    static Array createArray(boolean useSharding) throws IOException, ZarrException {
+        // Leaves the last row of chunks and, with sharding, some inner chunks unwritten
+        return writeRamp(createInt32Array(new MemoryStore().resolve("array"), new long[]{30, 30}, new int[]{10, 10},
+                useSharding ? new int[]{5, 5} : null, -1), 20, 25);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testReadIntoReusedArray(boolean useSharding) throws IOException, ZarrException, InvalidRangeException {
+        Array array = createArray(useSharding);
+        ucar.ma2.Array expected = array.read(new long[]{12, 18}, new long[]{15, 12});
+
+        ucar.ma2.Array target = ucar.ma2.Array.factory(ucar.ma2.DataType.INT, new int[]{20, 20});
+        for (int i = 0; i < 2; i++) {
+            // Stale values from the previous iteration must be overwritten, including the fill value
+            array.read(new long[]{12, 18}, new long[]{15, 12}, target, new int[]{2, 3});
+            ucar.ma2.Array section = target.sectionNoReduce(new int[]{2, 3}, new int[]{15, 12}, null);
+            Assertions.assertArrayEquals((int[]) expected.get1DJavaArray(ucar.ma2.DataType.INT),
+                    (int[]) section.get1DJavaArray(ucar.ma2.DataType.INT));
+            Assertions.assertEquals(-1, target.getInt(target.getIndex().set(16, 14)));
+            Assertions.assertEquals(i == 0 ? 0 : 42, target.getInt(target.getIndex().set(0, 0)));
+            for (int j = 0; j < target.getSize(); j++) {
+                target.setInt(j, 42);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testReadIntoJavaArray(boolean useSharding) throws IOException, ZarrException {
+        Array array = createArray(useSharding);
+        ucar.ma2.Array expected = array.read();
+
+        int[] target = new int[30 * 30];
+        Arrays.fill(target, 42);
+        array.read(new long[]{0, 0}, new long[]{30, 30}, target);
+        Assertions.assertArrayEquals((int[]) expected.get1DJavaArray(ucar.ma2.DataType.INT), target);
+        Assertions.assertEquals(-1, target[29 * 30 + 29]);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"LITTLE", "BIG", "gzip", "transpose"})
+    public void testDecodeRegions(String codec) throws IOException, ZarrException {
+        Array array = Array.create(new MemoryStore().resolve("array"), Array.metadataBuilder()
+                .withShape(25, 25)
+                .withDataType(DataType.UINT16)
+                .withChunkShape(10, 10)
+                .withFillValue(0)
+                .withCodecs(c -> {
+                    switch (codec) {
+                        case "gzip":
+                            return c.withBytes("LITTLE").withGzip(5);
+                        case "transpose":
+                            return c.withTranspose(new int[]{1, 0}).withBytes("LITTLE");
+                        default:
+                            return c.withBytes(codec);
+                    }
+                })
+                .build());
+        short[] data = new short[25 * 25];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (short) (i * 7);
+        }
+        array.write(ucar.ma2.Array.factory(ucar.ma2.DataType.USHORT, new int[]{25, 25}, data));
+
+        // Regions that cut through chunks are decoded straight into the output
+        ucar.ma2.Array section = array.read(new long[]{3, 4}, new long[]{20, 19});
+        for (int i = 0; i < 20; i++) {
+            for (int j = 0; j < 19; j++) {
+                Assertions.assertEquals(data[(3 + i) * 25 + 4 + j], section.getShort(section.getIndex().set(i, j)));
+            }
+        }
+    }
+
+    @Test
+    public void testShardedReadIntoWithManyInnerChunks() throws IOException, ZarrException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Array array = writeRamp(createInt32Array(new MemoryStore().resolve("array"), new long[]{64, 64},
+                    new int[]{64, 64}, new int[]{2, 2}, -1)
+                    .withExecutionContext(new ExecutionContext(executor, 8, executor, 8)), 64, 64);
+
+            // The 1024 inner chunks are decoded concurrently into disjoint parts of the target
+            ucar.ma2.Array target = ucar.ma2.Array.factory(ucar.ma2.DataType.INT, new int[]{70, 70});
+            array.read(new long[]{1, 3}, new long[]{61, 59}, target, new int[]{5, 7});
+            for (int i = 0; i < 61; i++) {
+                for (int j = 0; j < 59; j++) {
+                    Assertions.assertEquals((1 + i) * 64 + 3 + j, target.getInt(target.getIndex().set(5 + i, 7 + j)));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testReadIntoWithoutFillValue(boolean useCompressor) throws IOException, ZarrException {
+        dev.zarr.zarrjava.v2.ArrayMetadataBuilder builder = dev.zarr.zarrjava.v2.Array.metadataBuilder()
+                .withShape(20, 20)
+                .withDataType(dev.zarr.zarrjava.v2.DataType.INT32)
+                .withChunks(10, 10);
+        if (useCompressor) {
+            builder = builder.withZlibCompressor();
+        }
+        dev.zarr.zarrjava.v2.Array array = dev.zarr.zarrjava.v2.Array.create(
+                new MemoryStore().resolve("array"), builder.build());
+        Assertions.assertNull(array.metadata().parsedFillValue());
+        int[] data = new int[10 * 10];
+        Arrays.fill(data, 7);
+        array.write(ucar.ma2.Array.factory(ucar.ma2.DataType.INT, new int[]{10, 10}, data));
+
+        // Without a fill value, the elements of missing chunks are zero, also in a reused target
+        int[] target = new int[20 * 20];
+        Arrays.fill(target, 42);
+        array.read(new long[]{0, 0}, new long[]{20, 20}, target);
+        Assertions.assertEquals(7, target[9 * 20 + 9]);
+        Assertions.assertEquals(0, target[9 * 20 + 10]);
+        Assertions.assertEquals(0, target[19 * 20 + 19]);
+    }
+
+    @Test
+    public void testReadIntoByteBuffer() throws IOException, ZarrException {
+        Array array = createArray(false);
+        ucar.ma2.Array expected = array.read(new long[]{5, 5}, new long[]{20, 20});
+
+        ByteBuffer target = ByteBuffer.allocateDirect(8 + 20 * 20 * 4).order(ByteOrder.BIG_ENDIAN);
+        target.position(8);
+        array.read(new long[]{5, 5}, new long[]{20, 20}, target);
+        Assertions.assertEquals(8, target.position());
+        for (int i = 0; i < 20 * 20; i++) {
+            Assertions.assertEquals(expected.getInt(i), target.getInt(8 + i * 4));
+        }
+    }
+
+    @Test
+    public void testReadIntoInvalidTarget() throws IOException, ZarrException {
+        Array array = createArray(false);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> array.read(new long[]{0, 0}, new long[]{10, 10}, new float[100]));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> array.read(new long[]{0, 0}, new long[]{10, 10}, new int[99]));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> array.read(new long[]{0, 0}, new long[]{10, 10},
+                        ucar.ma2.Array.factory(ucar.ma2.DataType.INT, new int[]{10, 10}), new int[]{1, 0}));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> array.read(new long[]{0, 0}, new long[]{10, 10}, ByteBuffer.allocate(399)));
+        Assertions.assertThrows(ZarrException.class,
+                () -> array.read(new long[]{25, 0}, new long[]{10, 10}, new int[100]));
+    }
+}
@@ -0,0 +1,68 @@
+package dev.zarr.zarrjava;
+
+import dev.zarr.zarrjava.core.ShardIndexCache;
+import dev.zarr.zarrjava.v3.Array;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+public class ShardIndexCacheTest extends ZarrTest {
+
+    static Array createArray(CountingStore store) throws IOException, ZarrException {
+        Array array = createInt32Array(store.resolve("array"), new long[]{40, 40}, new int[]{20, 20}, new int[]{5, 5}, 0);
+        array.write(ramp(1, 40, 40));
+        return array;
+    }
+
+    @Test
+    public void testTilesOfTheSameShardFetchTheIndexOnce() throws IOException, ZarrException {
+        CountingStore store = new CountingStore();
+        ShardIndexCache shardIndexCache = new ShardIndexCache(1 << 20);
+        Array array = createArray(store).withShardIndexCache(shardIndexCache);
+        store.reset();
+
+        // The first tile fetches the index and the inner chunk, the others only their inner chunks
+        for (int i = 0; i < 4; i++) {
+            ucar.ma2.Array tile = array.read(new long[]{5 * i, 5 * i}, new long[]{5, 5});
+            Assertions.assertEquals(1 + 5 * i * 40 + 5 * i, tile.getInt(0));
+        }
+        Assertions.assertEquals(5, store.chunkReads.get());
+        Assertions.assertEquals(1, shardIndexCache.missCount());
+        Assertions.assertEquals(3, shardIndexCache.hitCount());
+        Assertions.assertEquals(16 * 16, shardIndexCache.sizeBytes());
+    }
+
+    @Test
+    public void testWritesInvalidateTheIndex() throws IOException, ZarrException {
+        CountingStore store = new CountingStore();
+        ShardIndexCache shardIndexCache = new ShardIndexCache(1 << 20);
+        Array array = createArray(store).withShardIndexCache(shardIndexCache);
+        array.read(new long[]{0, 0}, new long[]{5, 5});
+        array.read(new long[]{20, 20}, new long[]{5, 5});
+        Assertions.assertEquals(2 * 16 * 16, shardIndexCache.sizeBytes());
+
+        // Rewriting an inner chunk moves the inner chunks within the shard
+        array.write(new long[]{0, 0}, ramp(5000, 5, 5));
+        Assertions.assertEquals(16 * 16, shardIndexCache.sizeBytes());
+        store.reset();
+        ucar.ma2.Array result = array.read(new long[]{0, 0}, new long[]{10, 10});
+        Assertions.assertEquals(5000, result.getInt(0));
+        Assertions.assertEquals(1 + 5 * 40 + 5, result.getInt(result.getIndex().set(5, 5)));
+        // The index and two rows of two adjacent inner chunks each
+        Assertions.assertEquals(3, store.chunkReads.get());
+    }
+
+    @Test
+    public void testIndexesAreBoundedByBytes() throws IOException, ZarrException {
+        CountingStore store = new CountingStore();
+        ShardIndexCache shardIndexCache = new ShardIndexCache(16 * 16);
+        Array array = createArray(store).withShardIndexCache(shardIndexCache);
+        array.read(new long[]{0, 0}, new long[]{5, 5});
+        array.read(new long[]{20, 20}, new long[]{5, 5});
+        Assertions.assertEquals(16 * 16, shardIndexCache.sizeBytes());
+        store.reset();
+        array.read(new long[]{0, 0}, new long[]{5, 5});
+        Assertions.assertEquals(2, store.chunkReads.get());
+    }
+}
@@ -0,0 +1,127 @@
+package dev.zarr.zarrjava;
+
+import dev.zarr.zarrjava.store.MemoryStore;
+import dev.zarr.zarrjava.v3.Array;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ShardedWriteTest extends ZarrTest {
+
+    static Array createArray(MemoryStore store, String indexLocation) throws IOException, ZarrException {
+        return createInt32Array(store.resolve("array"), new long[]{40, 30}, new int[]{20, 20}, 0,
+                c -> c.withSharding(new int[]{5, 5}, c1 -> c1.withBytes("LITTLE").withCrc32c(), indexLocation));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"start", "end"})
+    public void testPartialWritesMatchFullWrites(String indexLocation) throws IOException, ZarrException {
+        Array array = createArray(new MemoryStore(), indexLocation);
+        Array reference = createArray(new MemoryStore(), indexLocation);
+        int[] expected = new int[40 * 30];
+
+        // Regions that straddle inner chunks and shards, partly on the boundary of the array
+        int[][] regions = {{0, 0, 40, 30}, {3, 4, 7, 9}, {18, 17, 5, 6}, {36, 25, 4, 5}, {10, 10, 5, 5}};
+        for (int r = 0; r < regions.length; r++) {
+            int[] region = regions[r];
+            ucar.ma2.Array data = ramp(1000 * (r + 1), region[2], region[3]);
+            array.write(new long[]{region[0], region[1]}, data);
+            for (int i = 0; i < region[2]; i++) {
+                for (int j = 0; j < region[3]; j++) {
+                    expected[(region[0] + i) * 30 + region[1] + j] = data.getInt(i * region[3] + j);
+                }
+            }
+        }
+        Assertions.assertArrayEquals(expected, (int[]) array.read().copyTo1DJavaArray());
+
+        // The updated shards hold the same inner chunks as shards that are encoded at once
+        reference.write(ucar.ma2.Array.factory(ucar.ma2.DataType.INT, new int[]{40, 30}, expected));
+        for (String[] keys : new String[][]{{"array", "c", "0", "0"}, {"array", "c", "1", "1"}}) {
+            Assertions.assertEquals(reference.storeHandle.store.get(keys).remaining(),
+                    array.storeHandle.store.get(keys).remaining());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"start", "end"})
+    public void testEncodeCompressedShards(String indexLocation) throws IOException, ZarrException {
+        MemoryStore store = new MemoryStore();
+        Array array = createInt32Array(store.resolve("array"), new long[]{64, 64}, new int[]{64, 64}, 0,
+                c -> c.withSharding(new int[]{4, 4}, c1 -> c1.withBytes("LITTLE").withGzip(5), indexLocation));
+        // Noisy data that does not compress well grows the shard buffer; the zero rows stay empty
+        int[] data = new int[64 * 64];
+        Random random = new Random(42);
+        for (int i = 16 * 64; i < data.length; i++) {
+            data[i] = random.nextInt();
+        }
+        array.write(ucar.ma2.Array.factory(ucar.ma2.DataType.INT, new int[]{64, 64}, data));
+        Assertions.assertArrayEquals(data, (int[]) array.read().copyTo1DJavaArray());
+        ByteBuffer shardBytes = store.get(new String[]{"array", "c", "0", "0"});
+        Assertions.assertEquals(shardBytes.remaining(), shardBytes.capacity());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"start", "end"})
+    public void testPartialWritesAllocateExactShards(String indexLocation) throws IOException, ZarrException {
+        AtomicInteger allocatedBytes = new AtomicInteger();
+        MemoryStore store = new MemoryStore() {
+            @Override
+            public void set(String[] keys, ByteBuffer bytes) {
+                allocatedBytes.set(bytes.hasArray() ? bytes.array().length : -1);
+                super.set(keys, bytes);
+            }
+        };
+        Array array = createInt32Array(store.resolve("array"), new long[]{64, 64}, new int[]{64, 64}, 0,
+                c -> c.withSharding(new int[]{4, 4}, c1 -> c1.withBytes("LITTLE").withGzip(5), indexLocation));
+        int[] data = new int[64 * 64];
+        Random random = new Random(42);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = random.nextInt();
+        }
+        array.write(ucar.ma2.Array.factory(ucar.ma2.DataType.INT, new int[]{64, 64}, data));
+
+        // The encoded sizes of all inner chunks are known before the updated shard is assembled
+        array.write(new long[]{30, 30}, ramp(1, 5, 5));
+        ByteBuffer shardBytes = store.get(new String[]{"array", "c", "0", "0"});
+        Assertions.assertEquals(shardBytes.remaining(), allocatedBytes.get());
+    }
+
+    @Test
+    public void testUntouchedInnerChunksAreNotDecoded() throws IOException, ZarrException {
+        MemoryStore store = new MemoryStore();
+        Array array = createArray(store, "end");
+        array.write(ramp(1, 20, 20));
+
+        // Corrupts the first inner chunk, which fails its checksum once it is decoded; its offset is the
+        // first entry of the index of 16 inner chunks and a checksum at the end of the shard
+        String[] keys = {"array", "c", "0", "0"};
+        ByteBuffer shardBytes = store.get(keys).order(ByteOrder.LITTLE_ENDIAN);
+        int chunkOffset = (int) shardBytes.getLong(shardBytes.limit() - (16 * 16 + 4));
+        shardBytes.put(chunkOffset, (byte) (shardBytes.get(chunkOffset) + 1));
+        store.set(keys, shardBytes);
+
+        array.write(new long[]{17, 17}, ramp(5000, 2, 2));
+        ucar.ma2.Array result = array.read(new long[]{15, 15}, new long[]{5, 5});
+        Assertions.assertEquals(5000, result.getInt(result.getIndex().set(2, 2)));
+        Assertions.assertEquals(1 + 15 * 20 + 15, result.getInt(result.getIndex().set(0, 0)));
+        Assertions.assertThrows(Exception.class, () -> array.read(new long[]{0, 0}, new long[]{5, 5}));
+    }
+
+    @Test
+    public void testShardsWithOnlyFillValuesAreDeleted() throws IOException, ZarrException {
+        MemoryStore store = new MemoryStore();
+        Array array = createArray(store, "end");
+        array.write(new long[]{2, 2}, ramp(1, 3, 3));
+        Assertions.assertTrue(store.exists(new String[]{"array", "c", "0", "0"}));
+
+        array.write(new long[]{2, 2}, ucar.ma2.Array.factory(ucar.ma2.DataType.INT, new int[]{3, 3}));
+        Assertions.assertFalse(store.exists(new String[]{"array", "c", "0", "0"}));
+    }
+}
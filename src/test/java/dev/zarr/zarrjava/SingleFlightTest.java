@@ -0,0 +1,250 @@
+package dev.zarr.zarrjava;
+
+import dev.zarr.zarrjava.core.ChunkCache;
+import dev.zarr.zarrjava.core.ShardIndexCache;
+import dev.zarr.zarrjava.store.MemoryStore;
+import dev.zarr.zarrjava.utils.SingleFlight;
+import dev.zarr.zarrjava.v3.Array;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SingleFlightTest extends ZarrTest {
+
+    /**
+     * Runs a task on several threads and releases the first of them only once all others wait for it.
+     */
+    static void runConcurrently(int threadCount, CountDownLatch started, CountDownLatch release,
+                                ThrowingRunnable task) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    synchronized (failures) {
+                        failures.add(t);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (threads.stream().filter(t -> t.getState() == Thread.State.WAITING).count() < threadCount
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertEquals(new ArrayList<>(), failures);
+    }
+
+    @Test
+    public void testConcurrentLoadsShareResult() throws InterruptedException {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> results = new ArrayList<>();
+        runConcurrently(8, started, release, () -> {
+            Integer result = singleFlight.load("key", () -> {
+                loads.incrementAndGet();
+                started.countDown();
+                release.await();
+                return 42;
+            });
+            synchronized (results) {
+                results.add(result);
+            }
+        });
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(7, singleFlight.sharedCount());
+        Assertions.assertEquals(8, results.size());
+        Assertions.assertTrue(results.stream().allMatch(r -> r == 42));
+
+        // Finished loads are not retained
+        Assertions.assertEquals(43, (int) singleFlight.load("key", () -> 43));
+    }
+
+    @Test
+    public void testExceptionsAreSharedWithWaiters() throws InterruptedException {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger failures = new AtomicInteger();
+        runConcurrently(4, started, release, () -> {
+            try {
+                singleFlight.load("key", () -> {
+                    started.countDown();
+                    release.await();
+                    throw new ZarrException("failed");
+                });
+            } catch (ZarrException e) {
+                Assertions.assertEquals("failed", e.getMessage());
+                failures.incrementAndGet();
+            }
+        });
+        Assertions.assertEquals(4, failures.get());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testConcurrentChunkReadsShareFetch(boolean useSharding) throws IOException, ZarrException,
+            InterruptedException {
+        AtomicInteger fetches = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger blocking = new AtomicInteger();
+        MemoryStore store = new MemoryStore() {
+            private ByteBuffer blockOnce(ByteBuffer bytes) {
+                fetches.incrementAndGet();
+                if (blocking.get() == 1) {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+                return bytes;
+            }
+
+            @Override
+            public ByteBuffer get(String[] keys) {
+                return blockOnce(super.get(keys));
+            }
+
+            @Override
+            public ByteBuffer get(String[] keys, long start) {
+                return blockOnce(super.get(keys, start));
+            }
+        };
+        Array array = writeRamp(createInt32Array(store.resolve("array"), new long[]{16, 16}, new int[]{16, 16},
+                useSharding ? new int[]{8, 8} : null, 0), 16, 16);
+
+        fetches.set(0);
+        blocking.set(1);
+        runConcurrently(8, started, release, () -> {
+            // Only the first fetch, of the whole chunk or of the shard index, blocks
+            ucar.ma2.Array result = array.read(new long[]{0, 0}, new long[]{16, 8}, false);
+            blocking.set(0);
+            Assertions.assertEquals(15 * 16 + 7, result.getInt(result.getIndex().set(15, 7)));
+        });
+        Assertions.assertTrue(fetches.get() < 8, "fetches: " + fetches.get());
+    }
+
+    @Test
+    public void testForgottenLoadsAreNotSharedOrPublished() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> published = new ArrayList<>();
+        CompletableFuture<Integer> earlier = CompletableFuture.supplyAsync(() -> singleFlight.load("key", () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return 1;
+        }, published::add));
+        Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        // After a write, requests start a new load instead of waiting for the earlier one
+        try {
+            singleFlight.forget("key");
+            CompletableFuture<Integer> later =
+                    CompletableFuture.supplyAsync(() -> singleFlight.load("key", () -> 2, published::add));
+            Assertions.assertEquals(2, (int) later.get(10, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+        Assertions.assertEquals(1, (int) earlier.get(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, singleFlight.sharedCount());
+        Assertions.assertEquals(Collections.singletonList(2), published);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testReadsAfterWriteDoNotReceiveEarlierReads(boolean useSharding) throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean blockNext = new AtomicBoolean();
+        MemoryStore store = new MemoryStore() {
+            @Override
+            public ByteBuffer get(String[] keys, long start, long end) {
+                ByteBuffer bytes = super.get(keys, start, end);
+                if (keys[keys.length - 1].matches("\\d+") && blockNext.compareAndSet(true, false)) {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+                return bytes;
+            }
+        };
+        Array array = createInt32Array(store.resolve("array"), new long[]{16, 16}, new int[]{16, 16}, 0,
+                c -> useSharding ? c.withSharding(new int[]{8, 8}, c1 -> c1.withBytes("LITTLE"))
+                        : c.withBytes("LITTLE").withGzip());
+        // Without sharding, the whole chunk is read and cached; with sharding, its index is read and cached
+        array = useSharding ? array.withShardIndexCache(new ShardIndexCache(1 << 20))
+                : array.withChunkCache(new ChunkCache(1 << 20));
+        array.write(ramp(1, 16, 16));
+
+        // A slow read of the chunk from before the write
+        blockNext.set(true);
+        Array reader = array;
+        CompletableFuture<ucar.ma2.Array> earlier = CompletableFuture.supplyAsync(() -> {
+            try {
+                return reader.read(new long[]{0, 0}, new long[]{16, 8});
+            } catch (ZarrException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+        try {
+            array.write(ramp(1000, 16, 16));
+            CompletableFuture<ucar.ma2.Array> later = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return reader.read(new long[]{0, 0}, new long[]{16, 8});
+                } catch (ZarrException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            Assertions.assertEquals(1000, later.get(10, TimeUnit.SECONDS).getInt(0));
+        } finally {
+            release.countDown();
+        }
+        // The slow read overlaps with the write, so it may return either
+        earlier.get(10, TimeUnit.SECONDS);
+
+        // The slow read did not cache the chunk or the index from before the write
+        Assertions.assertEquals(1000 + 15 * 16 + 7,
+                array.read(new long[]{0, 0}, new long[]{16, 8}).getInt(15 * 8 + 7));
+    }
+
+    @FunctionalInterface
+    interface ThrowingRunnable {
+
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,82 @@
+package dev.zarr.zarrjava;
+
+import dev.zarr.zarrjava.store.MemoryStore;
+import dev.zarr.zarrjava.v3.Array;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class StridedReadTest extends ZarrTest {
+
+    static Array createArray(MemoryStore store, boolean useSharding) throws IOException, ZarrException {
+        // The last rows of chunks stay empty
+        return writeRamp(createInt32Array(store.resolve("array"), new long[]{60, 47}, new int[]{10, 10},
+                useSharding ? new int[]{5, 5} : null, -1), 40, 47);
+    }
+
+    static int expected(long row, long col) {
+        return row < 40 ? (int) (row * 47 + col) : -1;
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testStridedRead(boolean useSharding) throws IOException, ZarrException {
+        Array array = createArray(new MemoryStore(), useSharding);
+        long[][] strides = {{1, 1}, {2, 3}, {4, 4}, {7, 1}, {1, 12}, {25, 30}};
+        long[] offset = {3, 5};
+        long[] shape = {55, 41};
+        for (long[] stride : strides) {
+            ucar.ma2.Array result = array.readStrided(offset, shape, stride);
+            int rows = (int) ((shape[0] + stride[0] - 1) / stride[0]);
+            int cols = (int) ((shape[1] + stride[1] - 1) / stride[1]);
+            Assertions.assertArrayEquals(new int[]{rows, cols}, result.getShape());
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    Assertions.assertEquals(expected(offset[0] + i * stride[0], offset[1] + j * stride[1]),
+                            result.getInt(result.getIndex().set(i, j)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testOnlyChunksWithSelectedElementsAreRead() throws IOException, ZarrException {
+        Set<String> readChunks = ConcurrentHashMap.newKeySet();
+        MemoryStore store = new MemoryStore() {
+            @Override
+            public ByteBuffer get(String[] keys) {
+                readChunks.add(String.join("/", keys));
+                return super.get(keys);
+            }
+        };
+        Array array = createArray(store, false);
+        readChunks.clear();
+
+        // Every 25th row and every 30th column hit rows of chunks 0, 2, 4 and columns of chunks 0, 3
+        ucar.ma2.Array result = array.readStrided(new long[]{0, 0}, new long[]{60, 47}, new long[]{25, 30});
+        readChunks.removeIf(key -> !key.startsWith("array/c/"));
+        Assertions.assertEquals(6, readChunks.size());
+        Assertions.assertTrue(readChunks.contains("array/c/2/3"));
+        Assertions.assertFalse(readChunks.contains("array/c/1/0"));
+        Assertions.assertEquals(expected(50, 30), result.getInt(result.getIndex().set(2, 1)));
+    }
+
+    @Test
+    public void testAccessorWithStride() throws IOException, ZarrException {
+        Array array = createArray(new MemoryStore(), false);
+        ucar.ma2.Array result = array.access().withOffset(2, 1).withShape(20, 40).withStride(4, 4).read();
+        Assertions.assertArrayEquals(new int[]{5, 10}, result.getShape());
+        Assertions.assertEquals(expected(18, 37), result.getInt(result.getIndex().set(4, 9)));
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> array.readStrided(new long[]{0, 0}, new long[]{10, 10}, new long[]{0, 1}));
+        Assertions.assertThrows(ZarrException.class,
+                () -> array.readStrided(new long[]{0, 0}, new long[]{70, 10}, new long[]{2, 2}));
+    }
+}
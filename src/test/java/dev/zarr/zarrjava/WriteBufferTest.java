@@ -0,0 +1,128 @@
+package dev.zarr.zarrjava;
+
+import dev.zarr.zarrjava.store.MemoryStore;
+import dev.zarr.zarrjava.v3.Array;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class WriteBufferTest extends ZarrTest {
+
+    static Array createArray(MemoryStore store, boolean useSharding) throws IOException, ZarrException {
+        return createInt32Array(store.resolve("array"), new long[]{20, 15}, new int[]{10, 10},
+                useSharding ? new int[]{5, 5} : null, 0);
+    }
+
+    static ucar.ma2.Array row(int length, int value) {
+        int[] data = new int[length];
+        Arrays.fill(data, value);
+        return ucar.ma2.Array.factory(ucar.ma2.DataType.INT, new int[]{1, length}, data);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testPiecewiseWritesAreStoredOnce(boolean useSharding) throws IOException, ZarrException {
+        CountingStore store = new CountingStore();
+        Array array = createArray(store, useSharding).withWriteBuffer(1 << 20);
+        store.reset();
+
+        // Row by row, the first chunk completes with the 10th row; the boundary chunk holds 5 columns
+        for (int i = 0; i < 10; i++) {
+            array.write(new long[]{i, 0}, row(15, i + 1));
+        }
+        Assertions.assertEquals(0, store.chunkReads.get());
+        Assertions.assertEquals(2, store.chunkWrites.get());
+
+        ucar.ma2.Array result = array.read(new long[]{0, 0}, new long[]{10, 15});
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 15; j++) {
+                Assertions.assertEquals(i + 1, result.getInt(result.getIndex().set(i, j)));
+            }
+        }
+    }
+
+    @Test
+    public void testFlushMergesWithStoredChunk() throws IOException, ZarrException {
+        CountingStore store = new CountingStore();
+        Array array = createArray(store, false);
+        array.write(new long[]{0, 0}, ucar.ma2.Array.factory(ucar.ma2.DataType.INT, new int[]{10, 10}, new int[100]));
+        array.write(new long[]{0, 0}, row(10, 7));
+        array.withWriteBuffer(1 << 20);
+        store.reset();
+
+        array.write(new long[]{3, 2}, row(4, 9));
+        array.write(new long[]{4, 2}, row(4, 9));
+        Assertions.assertEquals(0, store.chunkWrites.get());
+        array.flush();
+        Assertions.assertEquals(1, store.chunkReads.get());
+        Assertions.assertEquals(1, store.chunkWrites.get());
+
+        ucar.ma2.Array result = array.read(new long[]{0, 0}, new long[]{10, 10});
+        Assertions.assertEquals(7, result.getInt(result.getIndex().set(0, 5)));
+        Assertions.assertEquals(9, result.getInt(result.getIndex().set(3, 2)));
+        Assertions.assertEquals(9, result.getInt(result.getIndex().set(4, 5)));
+        Assertions.assertEquals(0, result.getInt(result.getIndex().set(4, 6)));
+    }
+
+    @Test
+    public void testEvictionAndReadsFlush() throws IOException, ZarrException {
+        CountingStore store = new CountingStore();
+        // One decoded chunk fits into the buffer
+        Array array = createArray(store, false).withWriteBuffer(10 * 10 * 4);
+        store.reset();
+
+        array.write(new long[]{0, 0}, row(3, 1));
+        Assertions.assertEquals(0, store.chunkWrites.get());
+        array.write(new long[]{10, 0}, row(3, 2));
+        Assertions.assertEquals(1, store.chunkWrites.get());
+
+        // Reads see buffered writes
+        ucar.ma2.Array result = array.read(new long[]{10, 0}, new long[]{1, 3});
+        Assertions.assertEquals(2, store.chunkWrites.get());
+        Assertions.assertEquals(2, result.getInt(2));
+    }
+
+    @Test
+    public void testCloseFlushes() throws IOException, ZarrException {
+        CountingStore store = new CountingStore();
+        try (Array array = createArray(store, false).withWriteBuffer(1 << 20)) {
+            store.reset();
+            array.write(new long[]{5, 5}, row(2, 3));
+            Assertions.assertEquals(0, store.chunkWrites.get());
+        }
+        Assertions.assertEquals(1, store.chunkWrites.get());
+        ucar.ma2.Array result = Array.open(store.resolve("array")).read(new long[]{5, 5}, new long[]{1, 2});
+        Assertions.assertEquals(3, result.getInt(1));
+    }
+
+    @Test
+    public void testFailedStoresStayBuffered() throws IOException, ZarrException {
+        CountingStore store = new CountingStore();
+        // One decoded chunk fits into the buffer
+        Array array = createArray(store, false).withWriteBuffer(10 * 10 * 4);
+        store.reset();
+
+        // Overlapping writes do not complete the chunk
+        for (int i = 0; i < 10; i++) {
+            array.write(new long[]{0, 0}, row(10, i + 1));
+        }
+        Assertions.assertEquals(0, store.chunkWrites.get());
+
+        store.failChunkWrites = true;
+        Assertions.assertThrows(RuntimeException.class, array::flush);
+        Assertions.assertThrows(RuntimeException.class, () -> array.write(new long[]{10, 0}, row(3, 2)));
+
+        store.failChunkWrites = false;
+        array.flush();
+        Assertions.assertEquals(2, store.chunkWrites.get());
+        ucar.ma2.Array result = array.read(new long[]{0, 0}, new long[]{11, 10});
+        Assertions.assertEquals(10, result.getInt(result.getIndex().set(0, 9)));
+        Assertions.assertEquals(0, result.getInt(result.getIndex().set(1, 0)));
+        Assertions.assertEquals(2, result.getInt(result.getIndex().set(10, 2)));
+        Assertions.assertEquals(0, result.getInt(result.getIndex().set(10, 3)));
+    }
+}
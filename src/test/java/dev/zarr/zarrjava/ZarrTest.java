@@ -1,17 +1,26 @@
 package dev.zarr.zarrjava;
 
 import dev.zarr.zarrjava.core.Attributes;
+import dev.zarr.zarrjava.store.MemoryStore;
+import dev.zarr.zarrjava.store.StoreHandle;
+import dev.zarr.zarrjava.v3.Array;
 import dev.zarr.zarrjava.v3.DataType;
+import dev.zarr.zarrjava.v3.codec.CodecBuilder;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 public class ZarrTest {
@@ -75,6 +84,82 @@ public class ZarrTest {
         );
     }
 
+    /**
+     * Counts the reads and writes of chunks of the array at "array", and can fail the writes.
+     */
+    static class CountingStore extends MemoryStore {
+        final AtomicInteger chunkReads = new AtomicInteger();
+        final AtomicInteger chunkWrites = new AtomicInteger();
+        volatile boolean failChunkWrites = false;
+
+        @Override
+        public ByteBuffer get(String[] keys, long start, long end) {
+            if (String.join("/", keys).startsWith("array/c/")) {
+                chunkReads.incrementAndGet();
+            }
+            return super.get(keys, start, end);
+        }
+
+        @Override
+        public void set(String[] keys, ByteBuffer bytes) {
+            if (String.join("/", keys).startsWith("array/c/")) {
+                if (failChunkWrites) {
+                    throw new RuntimeException("Failed to write " + String.join("/", keys));
+                }
+                chunkWrites.incrementAndGet();
+            }
+            super.set(keys, bytes);
+        }
+
+        void reset() {
+            chunkReads.set(0);
+            chunkWrites.set(0);
+        }
+    }
+
+    /**
+     * Creates an INT32 array with the bytes codec, or sharded into inner chunks of {@code innerChunkShape}
+     * if that is not null.
+     */
+    protected static Array createInt32Array(StoreHandle storeHandle, long[] shape, int[] chunkShape,
+                                            @Nullable int[] innerChunkShape, int fillValue)
+            throws IOException, ZarrException {
+        return createInt32Array(storeHandle, shape, chunkShape, fillValue, c -> innerChunkShape != null ?
+                c.withSharding(innerChunkShape, c1 -> c1.withBytes("LITTLE")) : c.withBytes("LITTLE"));
+    }
+
+    protected static Array createInt32Array(StoreHandle storeHandle, long[] shape, int[] chunkShape,
+                                            int fillValue, Function<CodecBuilder, CodecBuilder> codecs)
+            throws IOException, ZarrException {
+        return Array.create(storeHandle, Array.metadataBuilder()
+                .withShape(shape)
+                .withDataType(DataType.INT32)
+                .withChunkShape(chunkShape)
+                .withFillValue(fillValue)
+                .withCodecs(codecs)
+                .build());
+    }
+
+    /**
+     * Writes a region at the origin of an INT32 array, in which each element holds its row-major index
+     * within the region. The rest of the array stays empty.
+     */
+    protected static Array writeRamp(Array array, int... shape) {
+        array.write(ramp(0, shape));
+        return array;
+    }
+
+    /**
+     * @return an INT32 array whose elements count up from {@code value} in row-major order
+     */
+    protected static ucar.ma2.Array ramp(int value, int... shape) {
+        int[] data = new int[Arrays.stream(shape).reduce(1, (acc, a) -> acc * a)];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = value + i;
+        }
+        return ucar.ma2.Array.factory(ucar.ma2.DataType.INT, shape, data);
+    }
+
     protected void assertListEquals(List<Object> a, List<Object> b) {
         Assertions.assertEquals(a.size(), b.size());
         for (int i = 0; i < a.size(); i++) {
@@ -3,6 +3,7 @@ package dev.zarr.zarrjava.store;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.zarr.zarrjava.ZarrException;
 import dev.zarr.zarrjava.core.*;
+import dev.zarr.zarrjava.utils.Utils;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -10,6 +11,8 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static dev.zarr.zarrjava.v3.Node.makeObjectMapper;
 
@@ -112,4 +115,134 @@ public class FileSystemStoreTest extends WritableStoreTest {
         Path targetFile = storeRoot.resolve("inside.txt");
         Assertions.assertTrue(Files.exists(targetFile), "Valid traversal should be allowed");
     }
+
+    @Test
+    public void testMemoryMappedReads() throws IOException {
+        Path storeRoot = TESTOUTPUT.resolve("testMemoryMappedReads");
+        FilesystemStore store = new FilesystemStore(storeRoot).withMemoryMapping(1 << 20);
+        store.set(new String[]{"a"}, ByteBuffer.wrap("0123456789".getBytes()));
+
+        ByteBuffer range = store.get(new String[]{"a"}, 2, 5);
+        Assertions.assertTrue(range.isDirect());
+        Assertions.assertTrue(range.isReadOnly());
+        Assertions.assertEquals("234", new String(Utils.toArray(range)));
+        Assertions.assertEquals("789", new String(Utils.toArray(store.get(new String[]{"a"}, -3))));
+        Assertions.assertEquals("0123456789", new String(Utils.toArray(store.get(new String[]{"a"}))));
+        Assertions.assertNull(store.get(new String[]{"b"}, 0, 1));
+
+        // Slices of a replaced or deleted file keep their bytes, while new reads see the new file
+        ByteBuffer before = store.get(new String[]{"a"});
+        store.set(new String[]{"a"}, ByteBuffer.wrap("abc".getBytes()));
+        Assertions.assertEquals("abc", new String(Utils.toArray(store.get(new String[]{"a"}))));
+        store.delete(new String[]{"a"});
+        Assertions.assertNull(store.get(new String[]{"a"}));
+        Assertions.assertEquals("0123456789", new String(Utils.toArray(before)));
+        try (Stream<Path> files = Files.list(storeRoot)) {
+            Assertions.assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void testOpenFileLimit() throws IOException {
+        FilesystemStore store = new FilesystemStore(TESTOUTPUT.resolve("testOpenFileLimit")).withOpenFileLimit(2);
+        Assertions.assertEquals(2, store.openFileLimit());
+        for (int i = 0; i < 4; i++) {
+            store.set(new String[]{"f" + i}, ByteBuffer.wrap(("file" + i + "-0123456789").getBytes()));
+        }
+
+        // More files are read concurrently than are kept open
+        IntStream.range(0, 400).parallel().forEach(i -> {
+            String key = "f" + i % 4;
+            Assertions.assertEquals(i % 10 + "", new String(Utils.toArray(
+                    store.get(new String[]{key}, 6 + i % 10, 7 + i % 10))));
+            Assertions.assertEquals("789", new String(Utils.toArray(store.get(new String[]{key}, -3)), 0, 3));
+        });
+
+        // Reads after a write or a delete do not see the previous file
+        store.get(new String[]{"f0"}, 0, 5);
+        store.set(new String[]{"f0"}, ByteBuffer.wrap("other".getBytes()));
+        Assertions.assertEquals("other", new String(Utils.toArray(store.get(new String[]{"f0"}, 0, 5))));
+        store.delete(new String[]{"f0"});
+        Assertions.assertNull(store.get(new String[]{"f0"}, 0, 5));
+
+        Assertions.assertEquals(0, store.withOpenFileLimit(0).openFileLimit());
+        Assertions.assertEquals("file1", new String(Utils.toArray(store.get(new String[]{"f1"}, 0, 5))));
+    }
+
+    @Test
+    public void testAtomicWrites() throws IOException {
+        Path storeRoot = TESTOUTPUT.resolve("testAtomicWrites");
+        FilesystemStore store = new FilesystemStore(storeRoot)
+                .withAtomicWrites(true)
+                .withDurability(FilesystemStore.Durability.SYNC_ON_FLUSH);
+        for (int i = 0; i < 10; i++) {
+            store.set(new String[]{"c", "" + i % 2, "" + i}, ByteBuffer.wrap(("chunk" + i).getBytes()));
+        }
+        store.set(new String[]{"c", "0", "0"}, ByteBuffer.wrap("other".getBytes()));
+        store.delete(new String[]{"c", "1", "1"});
+        store.flush();
+
+        Assertions.assertEquals("other", new String(Utils.toArray(store.get(new String[]{"c", "0", "0"}))));
+        Assertions.assertEquals("chunk9", new String(Utils.toArray(store.get(new String[]{"c", "1", "9"}))));
+        Assertions.assertNull(store.get(new String[]{"c", "1", "1"}));
+        // No temporary files are left behind
+        Assertions.assertEquals(9, store.list().count());
+    }
+
+    @Test
+    public void testListSkipsTemporaryFiles() throws IOException {
+        Path storeRoot = TESTOUTPUT.resolve("testListSkipsTemporaryFiles");
+        FilesystemStore store = new FilesystemStore(storeRoot).withAtomicWrites(true);
+        store.set(new String[]{"c", "0", "0"}, ByteBuffer.wrap("chunk".getBytes()));
+        // The temporary file of a write that is in progress, or was interrupted by a crash
+        Files.write(storeRoot.resolve("c").resolve("0").resolve(".1.7f3a9c01e2b4d5a6.tmp"), "partial".getBytes());
+
+        String[][] keys = store.list().toArray(String[][]::new);
+        Assertions.assertEquals(1, keys.length);
+        Assertions.assertArrayEquals(new String[]{"c", "0", "0"}, keys[0]);
+        Assertions.assertArrayEquals(new String[]{"0"},
+                store.listChildren(new String[]{"c", "0"}).toArray(String[]::new));
+    }
+
+    @Test
+    public void testDurableWrites() throws IOException {
+        Path storeRoot = TESTOUTPUT.resolve("testDurableWrites");
+        FilesystemStore store = new FilesystemStore(storeRoot).withDurability(FilesystemStore.Durability.SYNC_FILES);
+
+        // Large buffers are written in slices, without consuming the buffer
+        byte[] data = new byte[9 << 20];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 31);
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(data);
+        bytes.position(3);
+        store.set(new String[]{"a", "large"}, bytes);
+        Assertions.assertEquals(3, bytes.position());
+        ByteBuffer result = store.get(new String[]{"a", "large"});
+        Assertions.assertEquals(data.length - 3, result.remaining());
+        Assertions.assertEquals(data[3], result.get(0));
+        Assertions.assertEquals(data[data.length - 1], result.get(result.limit() - 1));
+
+        // Directories that are removed by others are created again
+        store.delete(new String[]{"a", "large"});
+        Files.delete(storeRoot.resolve("a"));
+        store.set(new String[]{"a", "small"}, ByteBuffer.wrap("small".getBytes()));
+        Assertions.assertEquals("small", new String(Utils.toArray(store.get(new String[]{"a", "small"}))));
+    }
+
+    @Test
+    public void testMemoryMappedShards() throws IOException, ZarrException {
+        FilesystemStore store = new FilesystemStore(TESTOUTPUT.resolve("testMemoryMappedShards"))
+                .withMemoryMapping(1 << 20);
+        dev.zarr.zarrjava.v3.Array array = createInt32Array(store.resolve("array"), new long[]{40, 40},
+                new int[]{20, 20}, 0, c -> c.withSharding(new int[]{5, 5}, c1 -> c1.withBytes("LITTLE").withGzip(5)));
+        int[] data = (int[]) ramp(0, 40, 40).copyTo1DJavaArray();
+        array.write(ucar.ma2.Array.factory(ucar.ma2.DataType.INT, new int[]{40, 40}, data));
+        Assertions.assertArrayEquals(data, (int[]) array.read().copyTo1DJavaArray());
+
+        array.write(new long[]{0, 0}, ucar.ma2.Array.factory(ucar.ma2.DataType.INT, new int[]{5, 5}, new int[25]));
+        ucar.ma2.Array result = array.read(new long[]{3, 3}, new long[]{4, 4});
+        Assertions.assertEquals(0, result.getInt(0));
+        Assertions.assertEquals(6 * 40 + 6, result.getInt(result.getIndex().set(3, 3)));
+    }
 }
@@ -8,6 +8,8 @@ import dev.zarr.zarrjava.core.Array;
 import org.junit.jupiter.api.*;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -87,6 +89,22 @@ class HttpStoreTest extends StoreTest {
         }
     }
 
+    @Test
+    public void testGetAsync() throws IOException {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setBody("data").setResponseCode(200));
+            server.enqueue(new MockResponse().setResponseCode(404));
+            server.enqueue(new MockResponse().setResponseCode(403));
+            server.start();
+            HttpStore httpStore = new HttpStore(server.url("/").toString(), 1, 3, 10);
+            Assertions.assertEquals(ByteBuffer.wrap("data".getBytes()), httpStore.getAsync(new String[]{"path"}).join());
+            Assertions.assertNull(httpStore.getAsync(new String[]{"path"}).join());
+            CompletionException e = Assertions.assertThrows(CompletionException.class,
+                    () -> httpStore.getAsync(new String[]{"path"}).join());
+            Assertions.assertInstanceOf(StoreException.class, e.getCause());
+        }
+    }
+
     @Override
     @Test
     @Disabled("List is not supported in HttpStore")
@@ -46,6 +46,14 @@ public abstract class StoreTest extends ZarrTest {
         Assertions.assertArrayEquals(expectedBuffer, buffer);
     }
 
+    @Test
+    public void testReadAsync() {
+        StoreHandle storeHandle = storeHandleWithData();
+        Assertions.assertEquals(storeHandle.read(), storeHandle.readAsync().join());
+        Assertions.assertEquals(storeHandle.read(10, 20), storeHandle.readAsync(10, 20).join());
+        Assertions.assertNull(storeHandleWithoutData().readAsync().join());
+    }
+
     @Test
     public void testExists() throws ZarrException, IOException {
         Assertions.assertTrue(storeHandleWithData().exists());